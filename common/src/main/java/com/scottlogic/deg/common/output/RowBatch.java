@@ -0,0 +1,129 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.common.output;
+
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.ProfileFields;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A reusable block of generated rows, held as one column of formatted values per field so that the fields are
+ * only iterated once per row, when the row is added
+ */
+public class RowBatch {
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private final Field[] fields;
+    private final Map<Field, Integer> fieldIndexes;
+    private final Object[][] columns;
+    private final int capacity;
+    private int size;
+
+    public RowBatch(ProfileFields fields, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Row batch must hold at least one row");
+        }
+
+        this.fields = fields.stream().toArray(Field[]::new);
+        this.fieldIndexes = new HashMap<>();
+        for (int index = 0; index < this.fields.length; index++) {
+            fieldIndexes.put(this.fields[index], index);
+        }
+        this.columns = new Object[this.fields.length][capacity];
+        this.capacity = capacity;
+    }
+
+    /**
+     * Add the formatted values of the row to the end of the batch
+     * @throws IllegalStateException if the batch is full
+     */
+    public void add(GeneratedObject row) {
+        if (isFull()) {
+            throw new IllegalStateException("Row batch is full");
+        }
+
+        for (int index = 0; index < fields.length; index++) {
+            columns[index][size] = row.getFormattedValue(fields[index]);
+        }
+        size++;
+    }
+
+    public void clear() {
+        for (Object[] column : columns) {
+            Arrays.fill(column, 0, size, null);
+        }
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean isFull() {
+        return size == capacity;
+    }
+
+    /** the fields of the batch, in the order of its columns */
+    public Field[] getFields() {
+        return fields.clone();
+    }
+
+    /**
+     * Get the formatted values of a field, of which only the first size() are rows of this batch. The array is the
+     * batch's own storage so must not be modified.
+     */
+    public Object[] getColumn(int fieldIndex) {
+        return columns[fieldIndex];
+    }
+
+    /**
+     * Get the formatted values of a field, as getColumn(int) does for the field's index
+     * @throws IllegalStateException if the batch has no column for the field
+     */
+    public Object[] getColumn(Field field) {
+        return columns[getFieldIndex(field)];
+    }
+
+    public Object getValue(int fieldIndex, int rowIndex) {
+        return columns[fieldIndex][rowIndex];
+    }
+
+    /** a view of one row of the batch, valid until the batch is cleared */
+    public GeneratedObject getRow(int rowIndex) {
+        if (rowIndex >= size) {
+            throw new IndexOutOfBoundsException("Row " + rowIndex + " is not in a batch of " + size + " rows");
+        }
+
+        return field -> columns[getFieldIndex(field)][rowIndex];
+    }
+
+    private int getFieldIndex(Field field) {
+        Integer fieldIndex = fieldIndexes.get(field);
+        if (fieldIndex == null) {
+            throw new IllegalStateException("Row batch has no value stored for " + field);
+        }
+
+        return fieldIndex;
+    }
+}
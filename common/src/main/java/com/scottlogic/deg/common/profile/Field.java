@@ -16,9 +16,12 @@
 
 package com.scottlogic.deg.common.profile;
 
+import java.io.Serializable;
 import java.util.Objects;
 
-public class Field {
+public class Field implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     public final String name;
 
     public Field(String name) {
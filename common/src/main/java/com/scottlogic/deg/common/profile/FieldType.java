@@ -0,0 +1,218 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.common.profile;
+
+import com.scottlogic.deg.common.profile.constraints.Constraint;
+import com.scottlogic.deg.common.profile.constraints.atomic.*;
+import com.scottlogic.deg.common.profile.constraints.grammatical.AndConstraint;
+import com.scottlogic.deg.common.profile.constraints.grammatical.ConditionalConstraint;
+import com.scottlogic.deg.common.profile.constraints.grammatical.NegatedGrammaticalConstraint;
+import com.scottlogic.deg.common.profile.constraints.grammatical.OrConstraint;
+import com.scottlogic.deg.common.util.Defaults;
+import com.scottlogic.deg.common.util.NumberUtils;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * The type of a field's values as declared by the constraints that apply to every row, i.e. those at the top level
+ * of a rule (or of an allOf there) rather than under anyOf, if or not.
+ *
+ * Outputs with a fixed schema choose their column types from this rather than from the values generated, so that
+ * every value the profile allows fits its column, and every file of a split output has the same schema. A field is
+ * untyped unless exactly one type is declared for it, e.g. when it is typed by an inSet or only under anyOf, and is
+ * a string if it is formatted anywhere in the profile, as its formatted values are strings.
+ */
+public class FieldType implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public static final FieldType UNTYPED =
+        new FieldType(null, Defaults.NUMERIC_SCALE, Defaults.NUMERIC_MIN, Defaults.NUMERIC_MAX);
+
+    private final IsOfTypeConstraint.Types type;
+    private final int numericScale;
+    private final BigDecimal numericMin;
+    private final BigDecimal numericMax;
+
+    private FieldType(IsOfTypeConstraint.Types type, int numericScale, BigDecimal numericMin, BigDecimal numericMax) {
+        this.type = type;
+        this.numericScale = numericScale;
+        this.numericMin = numericMin;
+        this.numericMax = numericMax;
+    }
+
+    public static FieldType of(IsOfTypeConstraint.Types type) {
+        return new FieldType(type, Defaults.NUMERIC_SCALE, Defaults.NUMERIC_MIN, Defaults.NUMERIC_MAX);
+    }
+
+    public static FieldType numeric(int scale, BigDecimal min, BigDecimal max) {
+        return new FieldType(IsOfTypeConstraint.Types.NUMERIC, scale, min, max);
+    }
+
+    /** the declared type of each field that has one */
+    public static Map<Field, FieldType> declaredBy(Collection<Rule> rules) {
+        Map<Field, Declarations> declarations = new HashMap<>();
+        for (Rule rule : rules) {
+            for (Constraint constraint : rule.getConstraints()) {
+                declare(constraint, true, declarations);
+            }
+        }
+
+        Map<Field, FieldType> types = new HashMap<>();
+        declarations.forEach((field, declaration) -> {
+            if (declaration.formatted || declaration.types.size() == 1) {
+                types.put(field, declaration.toFieldType());
+            }
+        });
+        return types;
+    }
+
+    /** the declared type, or empty if the field is untyped */
+    public Optional<IsOfTypeConstraint.Types> getType() {
+        return Optional.ofNullable(type);
+    }
+
+    /** the most decimal places that a numeric value of the field can have */
+    public int getNumericScale() {
+        return numericScale;
+    }
+
+    /** the most digits that a numeric value of the field can have, including getNumericScale() decimal places */
+    public int getNumericPrecision() {
+        return Math.max(integerDigits(numericMin), integerDigits(numericMax)) + numericScale;
+    }
+
+    /** whether every numeric value of the field is a whole number that fits in a long */
+    public boolean isNumericLong() {
+        return numericScale == 0
+            && numericMin.compareTo(BigDecimal.valueOf(Long.MIN_VALUE)) >= 0
+            && numericMax.compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) <= 0;
+    }
+
+    private static int integerDigits(BigDecimal value) {
+        BigDecimal stripped = value.abs().stripTrailingZeros();
+        return Math.max(1, stripped.precision() - stripped.scale());
+    }
+
+    /** record what the constraint declares, where only formatting counts unless the constraint applies to every row */
+    private static void declare(Constraint constraint, boolean everyRow, Map<Field, Declarations> declarations) {
+        if (constraint instanceof AndConstraint) {
+            for (Constraint subConstraint : ((AndConstraint) constraint).getSubConstraints()) {
+                declare(subConstraint, everyRow, declarations);
+            }
+            return;
+        }
+        if (constraint instanceof OrConstraint) {
+            for (Constraint subConstraint : ((OrConstraint) constraint).subConstraints) {
+                declare(subConstraint, false, declarations);
+            }
+            return;
+        }
+        if (constraint instanceof ConditionalConstraint) {
+            ConditionalConstraint conditional = (ConditionalConstraint) constraint;
+            declare(conditional.condition, false, declarations);
+            declare(conditional.whenConditionIsTrue, false, declarations);
+            if (conditional.whenConditionIsFalse != null) {
+                declare(conditional.whenConditionIsFalse, false, declarations);
+            }
+            return;
+        }
+        if (constraint instanceof NegatedGrammaticalConstraint) {
+            declare(constraint.negate(), false, declarations);
+            return;
+        }
+        if (!(constraint instanceof AtomicConstraint)) {
+            return;
+        }
+
+        Declarations declaration = declarations.computeIfAbsent(
+            ((AtomicConstraint) constraint).getField(),
+            field -> new Declarations());
+        if (constraint instanceof FormatConstraint) {
+            declaration.formatted = true;
+        } else if (!everyRow) {
+            return;
+        } else if (constraint instanceof IsOfTypeConstraint) {
+            declaration.types.add(((IsOfTypeConstraint) constraint).requiredType);
+        } else if (constraint instanceof IsGranularToNumericConstraint) {
+            BigDecimal granularity = ((IsGranularToNumericConstraint) constraint).granularity.getNumericGranularity();
+            declaration.limitScale(granularity.scale());
+        } else if (constraint instanceof IsGreaterThanConstantConstraint) {
+            declaration.limitMin(((IsGreaterThanConstantConstraint) constraint).referenceValue);
+        } else if (constraint instanceof IsGreaterThanOrEqualToConstantConstraint) {
+            declaration.limitMin(((IsGreaterThanOrEqualToConstantConstraint) constraint).referenceValue);
+        } else if (constraint instanceof IsLessThanConstantConstraint) {
+            declaration.limitMax(((IsLessThanConstantConstraint) constraint).referenceValue);
+        } else if (constraint instanceof IsLessThanOrEqualToConstantConstraint) {
+            declaration.limitMax(((IsLessThanOrEqualToConstantConstraint) constraint).referenceValue);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        FieldType fieldType = (FieldType) o;
+        return numericScale == fieldType.numericScale &&
+            type == fieldType.type &&
+            numericMin.compareTo(fieldType.numericMin) == 0 &&
+            numericMax.compareTo(fieldType.numericMax) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, numericScale, numericMin.stripTrailingZeros(), numericMax.stripTrailingZeros());
+    }
+
+    @Override
+    public String toString() {
+        return type == null ? "untyped" : type.name();
+    }
+
+    /** what the constraints found so far declare about a field */
+    private static class Declarations {
+        final Set<IsOfTypeConstraint.Types> types = EnumSet.noneOf(IsOfTypeConstraint.Types.class);
+        boolean formatted;
+        int scale = Defaults.NUMERIC_SCALE;
+        BigDecimal min = Defaults.NUMERIC_MIN;
+        BigDecimal max = Defaults.NUMERIC_MAX;
+
+        void limitScale(int granularityScale) {
+            scale = Math.min(scale, Math.max(0, granularityScale));
+        }
+
+        void limitMin(Number bound) {
+            min = min.max(NumberUtils.coerceToBigDecimal(bound));
+        }
+
+        void limitMax(Number bound) {
+            max = max.min(NumberUtils.coerceToBigDecimal(bound));
+        }
+
+        FieldType toFieldType() {
+            if (formatted) {
+                return of(IsOfTypeConstraint.Types.STRING);
+            }
+
+            IsOfTypeConstraint.Types type = types.iterator().next();
+            return type == IsOfTypeConstraint.Types.NUMERIC
+                ? numeric(scale, min, max)
+                : of(type);
+        }
+    }
+}
@@ -16,10 +16,13 @@
 
 package com.scottlogic.deg.common.profile;
 
+import java.io.Serializable;
 import java.util.Collection;
 import java.util.List;
 
-public class Profile {
+public class Profile implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private final ProfileFields fields;
     private final Collection<Rule> rules;
     private final String description;
@@ -37,7 +40,7 @@ public class Profile {
     }
 
     public Profile(ProfileFields fields, Collection<Rule> rules, String description) {
-        this.fields = fields;
+        this.fields = fields.withTypesDeclaredBy(rules);
         this.rules = rules;
         this.description = description;
     }
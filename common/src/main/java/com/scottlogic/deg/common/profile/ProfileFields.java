@@ -18,15 +18,37 @@ package com.scottlogic.deg.common.profile;
 
 
 
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Stream;
 
-public class ProfileFields implements Iterable<Field> {
+public class ProfileFields implements Serializable, Iterable<Field> {
+    private static final long serialVersionUID = 1L;
+
     private final List<Field> fields;
+    private final Map<Field, FieldType> types;
 
     public ProfileFields(List<Field> fields) {
+        this(fields, Collections.emptyMap());
+    }
+
+    public ProfileFields(List<Field> fields, Map<Field, FieldType> types) {
         this.fields = fields;
+        this.types = types;
+    }
+
+    /** the fields, with the types that the rules declare for them */
+    ProfileFields withTypesDeclaredBy(Collection<Rule> rules) {
+        return new ProfileFields(fields, FieldType.declaredBy(rules));
+    }
+
+    /** the type declared for the field by the profile's rules, or FieldType.UNTYPED */
+    public FieldType getType(Field field) {
+        return types.getOrDefault(field, FieldType.UNTYPED);
     }
 
     public Field getByName(String fieldName) {
@@ -18,10 +18,13 @@ package com.scottlogic.deg.common.profile;
 
 import com.scottlogic.deg.common.profile.constraints.Constraint;
 
+import java.io.Serializable;
 import java.util.Collection;
 
-public class Rule
+public class Rule implements Serializable
 {
+    private static final long serialVersionUID = 1L;
+
     private final RuleInformation ruleInformation;
     private final Collection<Constraint> constraints;
 
@@ -16,9 +16,12 @@
 
 package com.scottlogic.deg.common.profile;
 
+import java.io.Serializable;
 import java.util.Objects;
 
-public class RuleInformation {
+public class RuleInformation implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private final String description;
 
     public RuleInformation(){
@@ -23,6 +23,8 @@ import com.scottlogic.deg.common.profile.Rule;
 import java.util.Collection;
 
 public class ViolatedProfile extends Profile {
+    private static final long serialVersionUID = 1L;
+
     /**
      * Original (un-violated) form of the rule that has been violated in this profile.
      */
@@ -16,10 +16,13 @@
 
 package com.scottlogic.deg.common.profile.constraintdetail;
 
+import java.io.Serializable;
 import java.util.Objects;
 import java.util.Optional;
 
-public class ParsedDateGranularity {
+public class ParsedDateGranularity implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private final Timescale granularity;
 
     public ParsedDateGranularity(Timescale granularity) {
@@ -21,6 +21,7 @@ import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.scottlogic.deg.common.profile.constraints.atomic.*;
 import com.scottlogic.deg.common.profile.RuleInformation;
 
+import java.io.Serializable;
 import java.util.Set;
 /*
  * The following JsonTypeInfo is needed for the utility program GenTreeJson.java
@@ -39,7 +40,7 @@ import java.util.Set;
     @JsonSubTypes.Type(value = IsNullConstraint.class, name = "IsNullConstraint"),
     @JsonSubTypes.Type(value = IsLessThanConstantConstraint.class, name = "IsLessThanConstantConstraint")
 })
-public interface Constraint
+public interface Constraint extends Serializable
 {
     Constraint negate();
 }
@@ -22,6 +22,8 @@ import java.util.Objects;
 import java.util.regex.Pattern;
 
 public class ContainsRegexConstraint implements AtomicConstraint {
+    private static final long serialVersionUID = 1L;
+
     public final Field field;
     public final Pattern regex;
 
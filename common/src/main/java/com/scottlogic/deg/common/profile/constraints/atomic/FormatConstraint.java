@@ -22,6 +22,7 @@ import com.scottlogic.deg.common.profile.RuleInformation;
 import java.util.Set;
 
 public class FormatConstraint implements AtomicConstraint {
+    private static final long serialVersionUID = 1L;
 
     public final Field field;
     public final String format;
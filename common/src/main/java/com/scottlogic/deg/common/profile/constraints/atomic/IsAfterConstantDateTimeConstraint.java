@@ -22,6 +22,8 @@ import java.time.OffsetDateTime;
 import java.util.Objects;
 
 public class IsAfterConstantDateTimeConstraint implements AtomicConstraint {
+    private static final long serialVersionUID = 1L;
+
     public final Field field;
     public final OffsetDateTime referenceValue;
 
@@ -25,6 +25,8 @@ import java.util.Objects;
 import java.util.Set;
 
 public class IsGranularToNumericConstraint implements AtomicConstraint {
+    private static final long serialVersionUID = 1L;
+
     public final Field field;
     public final ParsedGranularity granularity;
 
@@ -24,6 +24,8 @@ import java.util.Objects;
 import java.util.Set;
 
 public class IsGreaterThanOrEqualToConstantConstraint implements AtomicConstraint {
+    private static final long serialVersionUID = 1L;
+
     public final Field field;
     public final Number referenceValue;
 
@@ -21,6 +21,7 @@ import com.scottlogic.deg.common.profile.Field;
 import java.util.Set;
 
 public class IsInNameSetConstraint extends IsInSetConstraint {
+    private static final long serialVersionUID = 1L;
 
     public IsInNameSetConstraint(Field field, Set<Object> legalValues) {
         super(field, legalValues);
@@ -25,8 +25,11 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 public class IsInSetConstraint implements AtomicConstraint {
+    private static final long serialVersionUID = 1L;
+
     public final Field field;
     public final Set<Object> legalValues;
+    private final int hashCode;
 
     public IsInSetConstraint(Field field, Set<Object> legalValues) {
         this.field = field;
@@ -41,6 +44,9 @@ public class IsInSetConstraint implements AtomicConstraint {
             throw new IllegalArgumentException("Cannot create an IsInSetConstraint for field '" +
                 field.name + "' with a set containing null.");
         }
+
+        // legalValues can be very large, so hash it once rather than every time this constraint is put in a map
+        this.hashCode = Objects.hash(field, legalValues);
     }
 
     @Override
@@ -79,11 +85,13 @@ public class IsInSetConstraint implements AtomicConstraint {
         }
         if (o == null || getClass() != o.getClass()) return false;
         IsInSetConstraint constraint = (IsInSetConstraint) o;
-        return Objects.equals(field, constraint.field) && Objects.equals(legalValues, constraint.legalValues);
+        return hashCode == constraint.hashCode
+            && Objects.equals(field, constraint.field)
+            && Objects.equals(legalValues, constraint.legalValues);
     }
 
     @Override
     public int hashCode(){
-        return Objects.hash(field, legalValues);
+        return hashCode;
     }
 }
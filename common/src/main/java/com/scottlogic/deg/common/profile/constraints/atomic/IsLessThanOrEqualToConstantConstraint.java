@@ -21,6 +21,8 @@ import com.scottlogic.deg.common.profile.Field;
 import java.util.Objects;
 
 public class IsLessThanOrEqualToConstantConstraint implements AtomicConstraint {
+    private static final long serialVersionUID = 1L;
+
     public final Field field;
     public final Number referenceValue;
 
@@ -25,6 +25,8 @@ import java.util.Set;
 
 public class IsNullConstraint implements AtomicConstraint
 {
+    private static final long serialVersionUID = 1L;
+
     public final Field field;
 
     public IsNullConstraint(Field field) {
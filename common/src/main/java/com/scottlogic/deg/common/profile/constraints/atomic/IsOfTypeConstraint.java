@@ -25,6 +25,8 @@ import java.util.Set;
 import java.util.function.Function;
 
 public class IsOfTypeConstraint implements AtomicConstraint {
+    private static final long serialVersionUID = 1L;
+
     public final Field field;
     public final Types requiredType;
 
@@ -24,6 +24,8 @@ import java.util.Set;
 import java.util.regex.Pattern;
 
 public class MatchesRegexConstraint implements AtomicConstraint {
+    private static final long serialVersionUID = 1L;
+
     public final Field field;
     public final Pattern regex;
 
@@ -23,6 +23,8 @@ import java.util.Objects;
 import java.util.Set;
 
 public class MatchesStandardConstraint implements AtomicConstraint {
+    private static final long serialVersionUID = 1L;
+
     public final Field field;
     public final StandardConstraintTypes standard;
 
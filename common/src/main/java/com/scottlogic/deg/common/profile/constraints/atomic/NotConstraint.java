@@ -24,6 +24,8 @@ import java.util.Objects;
 import java.util.Set;
 
 public class NotConstraint implements AtomicConstraint {
+    private static final long serialVersionUID = 1L;
+
     public final AtomicConstraint negatedConstraint;
 
     protected NotConstraint(AtomicConstraint negatedConstraint) {
@@ -22,6 +22,8 @@ import com.scottlogic.deg.common.profile.RuleInformation;
 import java.util.Set;
 
 public class ViolatedAtomicConstraint implements AtomicConstraint {
+    private static final long serialVersionUID = 1L;
+
     public final AtomicConstraint violatedConstraint;
 
     public ViolatedAtomicConstraint(AtomicConstraint violatedConstraint) {
@@ -28,6 +28,8 @@ import java.util.stream.Collectors;
 
 public class AndConstraint implements GrammaticalConstraint
 {
+    private static final long serialVersionUID = 1L;
+
     private final Collection<Constraint> subConstraints;
 
     public AndConstraint(Collection<Constraint> subConstraints) {
@@ -26,6 +26,8 @@ import java.util.stream.Stream;
 
 public class ConditionalConstraint implements GrammaticalConstraint
 {
+    private static final long serialVersionUID = 1L;
+
     public final Constraint condition;
     public final Constraint whenConditionIsTrue;
     public final Constraint whenConditionIsFalse;
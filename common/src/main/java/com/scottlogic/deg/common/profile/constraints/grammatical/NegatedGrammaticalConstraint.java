@@ -22,6 +22,8 @@ import java.util.Objects;
 import java.util.Set;
 
 public class NegatedGrammaticalConstraint implements GrammaticalConstraint {
+    private static final long serialVersionUID = 1L;
+
     private final GrammaticalConstraint negatedConstraint;
 
     NegatedGrammaticalConstraint(GrammaticalConstraint negatedConstraint) {
@@ -26,6 +26,8 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 public class OrConstraint implements GrammaticalConstraint {
+    private static final long serialVersionUID = 1L;
+
     public final Collection<Constraint> subConstraints;
 
     public OrConstraint(Collection<Constraint> subConstraints) {
@@ -21,8 +21,14 @@ import java.math.BigDecimal;
 public class Defaults {
 
     public static final long DEFAULT_MAX_ROWS = 1000;
+    public static final int DEFAULT_OUTPUT_BUFFER_SIZE = 1024;
+    public static final long DEFAULT_STDOUT_FLUSH_BYTES = 256 * 1024;
+    public static final long DEFAULT_STDOUT_FLUSH_MILLIS = 1000;
+    public static final String DEFAULT_OUTPUT_TABLE_NAME = "generated_data";
+    public static final int DEFAULT_OUTPUT_COMMIT_SIZE = 10000;
 
     public static final BigDecimal NUMERIC_MAX = new BigDecimal("1e20");
     public static final BigDecimal NUMERIC_MIN = new BigDecimal("-1e20");
+    public static final int NUMERIC_SCALE = 20;
     public static final int MAX_STRING_LENGTH = 1000;
 }
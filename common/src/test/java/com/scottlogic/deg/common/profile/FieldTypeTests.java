@@ -0,0 +1,109 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.common.profile;
+
+import com.scottlogic.deg.common.profile.constraintdetail.ParsedGranularity;
+import com.scottlogic.deg.common.profile.constraints.Constraint;
+import com.scottlogic.deg.common.profile.constraints.atomic.*;
+import com.scottlogic.deg.common.profile.constraints.grammatical.AndConstraint;
+import com.scottlogic.deg.common.profile.constraints.grammatical.ConditionalConstraint;
+import com.scottlogic.deg.common.profile.constraints.grammatical.OrConstraint;
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.Matchers.equalTo;
+
+class FieldTypeTests {
+    private final Field field = new Field("my_field");
+
+    @Test
+    void declaredBy_withIntegerBetweenBounds_shouldBeAWholeNumberWithinTheBounds() {
+        FieldType type = typeDeclaredBy(
+            new IsOfTypeConstraint(field, IsOfTypeConstraint.Types.NUMERIC),
+            new AndConstraint(
+                new IsGranularToNumericConstraint(field, new ParsedGranularity(BigDecimal.ONE)),
+                new IsGreaterThanOrEqualToConstantConstraint(field, -5),
+                new IsLessThanConstantConstraint(field, new BigDecimal("1000"))));
+
+        Assert.assertThat(type, equalTo(FieldType.numeric(0, new BigDecimal(-5), new BigDecimal(1000))));
+        Assert.assertThat(type.isNumericLong(), equalTo(true));
+        Assert.assertThat(type.getNumericPrecision(), equalTo(4));
+    }
+
+    @Test
+    void declaredBy_withUnboundedDecimal_shouldAllowTheDefaultRangeAndScale() {
+        FieldType type = typeDeclaredBy(new IsOfTypeConstraint(field, IsOfTypeConstraint.Types.NUMERIC));
+
+        Assert.assertThat(type.isNumericLong(), equalTo(false));
+        Assert.assertThat(type.getNumericScale(), equalTo(20));
+        Assert.assertThat(type.getNumericPrecision(), equalTo(41));
+    }
+
+    @Test
+    void declaredBy_withTypeOnlyUnderAnyOf_shouldBeUntyped() {
+        FieldType type = typeDeclaredBy(new OrConstraint(
+            new IsOfTypeConstraint(field, IsOfTypeConstraint.Types.STRING),
+            new IsNullConstraint(field)));
+
+        Assert.assertThat(type, equalTo(FieldType.UNTYPED));
+    }
+
+    @Test
+    void declaredBy_withMoreThanOneType_shouldBeUntyped() {
+        FieldType type = typeDeclaredBy(
+            new IsOfTypeConstraint(field, IsOfTypeConstraint.Types.STRING),
+            new IsOfTypeConstraint(field, IsOfTypeConstraint.Types.DATETIME));
+
+        Assert.assertThat(type, equalTo(FieldType.UNTYPED));
+    }
+
+    @Test
+    void declaredBy_withFormattingUnderIf_shouldBeAString() {
+        FieldType type = typeDeclaredBy(
+            new IsOfTypeConstraint(field, IsOfTypeConstraint.Types.DATETIME),
+            new ConditionalConstraint(
+                new IsNullConstraint(new Field("other_field")),
+                new FormatConstraint(field, "%tF")));
+
+        Assert.assertThat(type, equalTo(FieldType.of(IsOfTypeConstraint.Types.STRING)));
+    }
+
+    @Test
+    void profile_shouldGiveItsFieldsTheTypesItsRulesDeclare() {
+        Profile profile = new Profile(
+            Collections.singletonList(field),
+            Collections.singletonList(rule(new IsOfTypeConstraint(field, IsOfTypeConstraint.Types.DATETIME))));
+
+        Assert.assertThat(
+            profile.getFields().getType(field),
+            equalTo(FieldType.of(IsOfTypeConstraint.Types.DATETIME)));
+    }
+
+    private FieldType typeDeclaredBy(Constraint... constraints) {
+        return new ProfileFields(Collections.singletonList(field))
+            .withTypesDeclaredBy(Collections.singletonList(rule(constraints)))
+            .getType(field);
+    }
+
+    private static Rule rule(Constraint... constraints) {
+        return new Rule(new RuleInformation(), Arrays.asList(constraints));
+    }
+}
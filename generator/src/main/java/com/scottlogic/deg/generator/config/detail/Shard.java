@@ -0,0 +1,99 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.config.detail;
+
+import java.util.Objects;
+
+/**
+ * One of a number of equal, contiguous slices of the rows that would be generated by a single run, so that a large
+ * run can be split between processes. Shard 1/N takes the first slice, and concatenating the output of shards 1/N
+ * to N/N gives the output of the single run.
+ */
+public class Shard {
+    public static final Shard WHOLE_OUTPUT = new Shard(1, 1);
+
+    private final int number;
+    private final int count;
+
+    public Shard(int number, int count) {
+        if (count < 1 || number < 1 || number > count) {
+            throw new IllegalArgumentException("Shard must be between 1/N and N/N, but was " + number + "/" + count);
+        }
+
+        this.number = number;
+        this.count = count;
+    }
+
+    /**
+     * Parse a shard in the form i/N, e.g. 2/4 for the second of four shards
+     */
+    public static Shard parse(String value) {
+        String[] parts = value.trim().split("/");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Shard must be in the form i/N, but was " + value);
+        }
+
+        try {
+            return new Shard(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Shard must be in the form i/N, but was " + value);
+        }
+    }
+
+    public boolean isWholeOutput() {
+        return count == 1;
+    }
+
+    /**
+     * Get the index of the first row in this shard
+     * @param rowCount the number of rows in the whole output
+     */
+    public long getFirstRow(long rowCount) {
+        return getRowBoundary(rowCount, number - 1);
+    }
+
+    /**
+     * Get the index after the last row in this shard
+     * @param rowCount the number of rows in the whole output
+     */
+    public long getEndRow(long rowCount) {
+        return getRowBoundary(rowCount, number);
+    }
+
+    /** rowCount * shardIndex / count, split up so that it can't overflow */
+    private long getRowBoundary(long rowCount, int shardIndex) {
+        return (rowCount / count) * shardIndex + ((rowCount % count) * shardIndex) / count;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Shard shard = (Shard) o;
+        return number == shard.number && count == shard.count;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(number, count);
+    }
+
+    @Override
+    public String toString() {
+        return number + "/" + count;
+    }
+}
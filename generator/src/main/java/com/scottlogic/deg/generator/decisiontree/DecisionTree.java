@@ -16,9 +16,13 @@
 
 package com.scottlogic.deg.generator.decisiontree;
 
+import java.io.Serializable;
+
 import com.scottlogic.deg.common.profile.ProfileFields;
 
-public class DecisionTree {
+public class DecisionTree implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     public final ConstraintNode rootNode;
     public final ProfileFields fields;
 
@@ -115,36 +115,31 @@ public class MostProlificConstraintOptimiser implements DecisionTreeOptimiser {
         return newNode.addDecisions(Collections.singletonList(decisionUnderFactorisedNode));
     }
 
-    private int disfavourNotConstraints(Map.Entry<AtomicConstraint, List<AtomicConstraint>> entry){
+    private int disfavourNotConstraints(Map.Entry<AtomicConstraint, Long> entry){
         return entry.getKey() instanceof NotConstraint ? 1 : 0;
     }
 
     private AtomicConstraint getMostProlificAtomicConstraint(Collection<DecisionNode> decisions) {
-        Map<AtomicConstraint, List<AtomicConstraint>> decisionConstraints =
+        Map<AtomicConstraint, Long> decisionConstraints =
                 decisions.stream()
                     .flatMap(dn -> dn.getOptions().stream())
                     .flatMap(option -> option.getAtomicConstraints().stream())
-                    .collect(Collectors.groupingBy(Function.identity()));
+                    .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
 
-        Comparator<Map.Entry<AtomicConstraint, List<AtomicConstraint>>> comparator = Comparator
-            .comparing(entry -> entry.getValue().size());
+        Comparator<Map.Entry<AtomicConstraint, Long>> comparator = Comparator
+            .comparing(Map.Entry::getValue);
         comparator = comparator.reversed()
             .thenComparing(this::disfavourNotConstraints)
             .thenComparing(entry -> entry.getKey().toString());
 
         return decisionConstraints.entrySet()
             .stream()
-            .filter(constraint -> constraint.getValue().size() > 1) // where the number of occurrences > 1
-            .sorted(comparator)
-            .map(entry -> getConstraint(entry.getValue()))
-            .findFirst()
+            .filter(constraint -> constraint.getValue() > 1) // where the number of occurrences > 1
+            .min(comparator)
+            .map(Map.Entry::getKey)
             .orElse(null); //otherwise return null
     }
 
-    private AtomicConstraint getConstraint(List<AtomicConstraint> identicalAtomicConstraints) {
-        return identicalAtomicConstraints.iterator().next();
-    }
-
     private boolean decisionIsFactorisable(DecisionNode decision, AtomicConstraint factorisingConstraint, AtomicConstraint negatedFactorisingConstraint){
         // The decision should contain ONE option with the MPC
         boolean optionWithMPCExists = decision.getOptions().stream()
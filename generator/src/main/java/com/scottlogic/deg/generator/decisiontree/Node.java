@@ -16,6 +16,8 @@
 
 package com.scottlogic.deg.generator.decisiontree;
 
-public interface Node {
+import java.io.Serializable;
+
+public interface Node extends Serializable {
     boolean hasMarking(NodeMarking detail);
 }
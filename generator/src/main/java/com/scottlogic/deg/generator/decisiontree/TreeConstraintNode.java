@@ -18,15 +18,15 @@ package com.scottlogic.deg.generator.decisiontree;
 
 import com.scottlogic.deg.common.util.FlatMappingSpliterator;
 import com.scottlogic.deg.common.profile.constraints.atomic.AtomicConstraint;
-import com.scottlogic.deg.generator.fieldspecs.RowSpec;
 
 import java.util.*;
 import java.util.function.Function;
-import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public final class TreeConstraintNode implements ConstraintNode {
+    private static final long serialVersionUID = 1L;
+
     private final Collection<AtomicConstraint> atomicConstraints;
     private final Collection<DecisionNode> decisions;
     private final Set<NodeMarking> nodeMarkings;
@@ -63,15 +63,6 @@ public final class TreeConstraintNode implements ConstraintNode {
         return decisions;
     }
 
-    public Optional<RowSpec> getOrCreateRowSpec(Supplier<Optional<RowSpec>> createRowSpecFunc) {
-        if (adaptedRowSpec != null)
-            return adaptedRowSpec;
-
-        adaptedRowSpec = createRowSpecFunc.get();
-        return adaptedRowSpec;
-    }
-    private Optional<RowSpec> adaptedRowSpec = null;
-
     public String toString(){
         if (decisions.isEmpty())
             return atomicConstraints.size() > 5
@@ -24,6 +24,8 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public final class TreeDecisionNode implements DecisionNode {
+    private static final long serialVersionUID = 1L;
+
     private final Collection<ConstraintNode> options;
     private final Set<NodeMarking> nodeMarkings;
 
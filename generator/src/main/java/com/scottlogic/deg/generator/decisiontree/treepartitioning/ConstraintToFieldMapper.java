@@ -17,61 +17,48 @@
 package com.scottlogic.deg.generator.decisiontree.treepartitioning;
 
 import com.scottlogic.deg.common.profile.Field;
-import com.scottlogic.deg.common.util.FlatMappingSpliterator;
+import com.scottlogic.deg.common.profile.constraints.atomic.AtomicConstraint;
 import com.scottlogic.deg.generator.decisiontree.ConstraintNode;
+import com.scottlogic.deg.generator.decisiontree.DecisionNode;
 import com.scottlogic.deg.generator.decisiontree.DecisionTree;
 
-import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * Given a decision tree, find which constraints and decisions act on which fields and return a map from them to fields
  */
 class ConstraintToFieldMapper {
+    Map<RootLevelConstraint, Set<Field>> mapConstraintsToFields(DecisionTree decisionTree){
+        ConstraintNode rootNode = decisionTree.getRootNode();
+        Map<RootLevelConstraint, Set<Field>> mapping = new LinkedHashMap<>();
 
-    private class ConstraintToFields {
-        public RootLevelConstraint constraint;
-        public Set<Field> fields;
-
-        ConstraintToFields(RootLevelConstraint constraint, Set<Field> fields) {
-            this.constraint = constraint;
-            this.fields = fields;
+        for (AtomicConstraint constraint : rootNode.getAtomicConstraints()) {
+            mapping
+                .computeIfAbsent(new RootLevelConstraint(constraint), c -> new HashSet<>())
+                .add(constraint.getField());
         }
 
-        ConstraintToFields(RootLevelConstraint constraint, Field field) {
-            this.constraint = constraint;
-            this.fields = Collections.singleton(field);
+        for (DecisionNode decision : rootNode.getDecisions()) {
+            addFieldsOfDecision(
+                decision,
+                mapping.computeIfAbsent(new RootLevelConstraint(decision), d -> new HashSet<>()));
         }
-    }
 
-    private Stream<ConstraintToFields> mapConstraintToFields(ConstraintNode node) {
-        return Stream.concat(
-            node.getAtomicConstraints()
-                .stream()
-                .map(constraint -> new ConstraintToFields(new RootLevelConstraint(constraint), constraint.getField())),
-            node.getDecisions()
-                .stream()
-                .map(decision -> new ConstraintToFields(
-                    new RootLevelConstraint(decision),
-                    FlatMappingSpliterator.flatMap(
-                        FlatMappingSpliterator.flatMap(decision
-                            .getOptions()
-                            .stream(),
-                            this::mapConstraintToFields),
-                        objectField -> objectField.fields.stream())
-                        .collect(Collectors.toSet()))
-                ));
+        return mapping;
     }
 
-    Map<RootLevelConstraint, Set<Field>> mapConstraintsToFields(DecisionTree decisionTree){
-        return mapConstraintToFields(decisionTree.getRootNode())
-            .collect(
-                Collectors.toMap(
-                    map -> map.constraint,
-                    map -> map.fields
-                ));
+    private void addFieldsOfDecision(DecisionNode decision, Set<Field> fields) {
+        for (ConstraintNode option : decision.getOptions()) {
+            for (AtomicConstraint constraint : option.getAtomicConstraints()) {
+                fields.add(constraint.getField());
+            }
+
+            for (DecisionNode nestedDecision : option.getDecisions()) {
+                addFieldsOfDecision(nestedDecision, fields);
+            }
+        }
     }
 }
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.decisiontree.treepartitioning;
+
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.constraints.atomic.AtomicConstraint;
+import com.scottlogic.deg.generator.decisiontree.*;
+
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Splits root-level decisions whose options are every combination of independent choices for different fields,
+ * e.g. (A1 & B1) | (A1 & B2) | (A2 & B1) | (A2 & B2) becomes (A1 | A2) & (B1 | B2), so that partitioning can put the
+ * fields of each choice into separate partitions.
+ *
+ * Only decisions where every option is a distinct, unmarked set of atomic constraints are considered.
+ */
+class IndependentDecisionSplitter {
+    DecisionTree splitDecisions(DecisionTree decisionTree) {
+        ConstraintNode rootNode = decisionTree.getRootNode();
+        List<AtomicConstraint> atomicConstraints = new ArrayList<>(rootNode.getAtomicConstraints());
+        List<DecisionNode> decisions = new ArrayList<>();
+        boolean anyDecisionSplit = false;
+
+        for (DecisionNode decision : rootNode.getDecisions()) {
+            List<Set<Set<AtomicConstraint>>> choices = getIndependentChoices(decision);
+            if (choices.size() < 2) {
+                decisions.add(decision);
+                continue;
+            }
+
+            anyDecisionSplit = true;
+            for (Set<Set<AtomicConstraint>> choice : choices) {
+                if (choice.size() == 1) {
+                    atomicConstraints.addAll(choice.iterator().next());
+                } else {
+                    decisions.add(new TreeDecisionNode(
+                        choice.stream()
+                            .map(option -> new TreeConstraintNode(option, Collections.emptySet()))
+                            .collect(Collectors.toList())));
+                }
+            }
+        }
+
+        if (!anyDecisionSplit) {
+            return decisionTree;
+        }
+
+        return new DecisionTree(
+            new TreeConstraintNode(atomicConstraints, decisions, rootNode.getNodeMarkings()),
+            decisionTree.getFields());
+    }
+
+    /**
+     * Split the options of a decision into choices over disjoint fields, where picking one option from each choice
+     * gives exactly the original options. A field is split off whenever the number of options equals the number of
+     * distinct constraint sets for that field multiplied by the number for the remaining fields.
+     *
+     * @return the independent choices, a single choice if the decision cannot be split
+     */
+    private List<Set<Set<AtomicConstraint>>> getIndependentChoices(DecisionNode decision) {
+        if (isMarked(decision) || decision.getOptions().stream().anyMatch(this::cannotBeSplit)) {
+            return Collections.emptyList();
+        }
+
+        Set<Set<AtomicConstraint>> remainingOptions = decision.getOptions().stream()
+            .map(option -> new HashSet<>(option.getAtomicConstraints()))
+            .collect(Collectors.toSet());
+        if (remainingOptions.size() != decision.getOptions().size()) {
+            return Collections.emptyList();
+        }
+
+        Set<Field> remainingFields = remainingOptions.stream()
+            .flatMap(Set::stream)
+            .map(AtomicConstraint::getField)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        List<Set<Set<AtomicConstraint>>> choices = new ArrayList<>();
+        boolean fieldSplitOff = true;
+        while (fieldSplitOff && remainingFields.size() > 1) {
+            fieldSplitOff = false;
+
+            for (Field field : remainingFields) {
+                Set<Set<AtomicConstraint>> fieldChoice = project(remainingOptions, c -> c.getField().equals(field));
+                Set<Set<AtomicConstraint>> otherOptions = project(remainingOptions, c -> !c.getField().equals(field));
+
+                if ((long) fieldChoice.size() * otherOptions.size() == remainingOptions.size()) {
+                    choices.add(fieldChoice);
+                    remainingOptions = otherOptions;
+                    remainingFields.remove(field);
+                    fieldSplitOff = true;
+                    break;
+                }
+            }
+        }
+
+        choices.add(remainingOptions);
+        return choices;
+    }
+
+    private boolean cannotBeSplit(ConstraintNode option) {
+        return !option.getDecisions().isEmpty() || isMarked(option);
+    }
+
+    private static boolean isMarked(Node node) {
+        return Arrays.stream(NodeMarking.values()).anyMatch(node::hasMarking);
+    }
+
+    private static Set<Set<AtomicConstraint>> project(
+        Set<Set<AtomicConstraint>> options,
+        Predicate<AtomicConstraint> constraintFilter) {
+
+        return options.stream()
+            .map(option -> option.stream()
+                .filter(constraintFilter)
+                .collect(Collectors.toSet()))
+            .collect(Collectors.toSet());
+    }
+}
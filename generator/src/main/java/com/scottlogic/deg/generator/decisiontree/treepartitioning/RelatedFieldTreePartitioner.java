@@ -17,7 +17,6 @@
 package com.scottlogic.deg.generator.decisiontree.treepartitioning;
 
 import com.scottlogic.deg.common.profile.Field;
-import com.scottlogic.deg.common.util.FlatMappingSpliterator;
 import com.scottlogic.deg.common.profile.ProfileFields;
 import com.scottlogic.deg.common.profile.constraints.atomic.AtomicConstraint;
 import com.scottlogic.deg.generator.decisiontree.DecisionNode;
@@ -25,156 +24,169 @@ import com.scottlogic.deg.generator.decisiontree.DecisionTree;
 import com.scottlogic.deg.generator.decisiontree.TreeConstraintNode;
 
 import java.util.*;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
- * Given a decision tress, split it into multiple trees based on which constraints and decisions affect which fields
+ * Splits a tree into trees over disjoint sets of fields, where no root-level constraint or decision acts on fields
+ * from more than one of them. Fields are joined with a union-find over their indices, so the cost is close to linear
+ * in the number of root-level constraints.
  */
 public class RelatedFieldTreePartitioner implements TreePartitioner {
     private final ConstraintToFieldMapper fieldMapper;
-    private static Integer partitionIndex = 0;
+    private final IndependentDecisionSplitter decisionSplitter;
+    private final boolean splitIndependentDecisions;
 
     public RelatedFieldTreePartitioner() {
-        fieldMapper = new ConstraintToFieldMapper();
+        this(false);
+    }
+
+    /**
+     * @param splitIndependentDecisions whether root-level decisions whose options are the product of independent
+     *                                  choices over different fields should be split up before partitioning, so
+     *                                  they don't join those fields into the same partition
+     */
+    public RelatedFieldTreePartitioner(boolean splitIndependentDecisions) {
+        this.fieldMapper = new ConstraintToFieldMapper();
+        this.decisionSplitter = new IndependentDecisionSplitter();
+        this.splitIndependentDecisions = splitIndependentDecisions;
     }
 
     public Stream<DecisionTree> splitTreeIntoPartitions(DecisionTree decisionTree) {
-        final PartitionIndex partitions = new PartitionIndex();
+        if (splitIndependentDecisions) {
+            decisionTree = decisionSplitter.splitDecisions(decisionTree);
+        }
 
         final Map<RootLevelConstraint, Set<Field>> mapping = fieldMapper.mapConstraintsToFields(decisionTree);
 
+        final List<Field> fields = new ArrayList<>();
+        final Map<Field, Integer> fieldIndexes = new HashMap<>();
+        decisionTree.getFields().forEach(field -> indexOf(field, fields, fieldIndexes));
+        mapping.values().forEach(constrainedFields -> constrainedFields.forEach(field -> indexOf(field, fields, fieldIndexes)));
+
+        final UnionFind relatedFields = new UnionFind(fields.size());
+        final boolean[] constrained = new boolean[fields.size()];
+        final List<RootLevelConstraint> fieldlessConstraints = new ArrayList<>();
+        final Map<RootLevelConstraint, Integer> constraintToFieldIndex = new LinkedHashMap<>();
+
         // each set of fields iterated here are constrained by a single root-level constraint/decision
-        for (RootLevelConstraint constraint : mapping.keySet()) {
-            Set<Field> fields = mapping.get(constraint);
-
-            // find which existing partitions this constraint/decision affects (if any)
-            final Set<Integer> existingIntersectingPartitions = fields
-                .stream()
-                .map(partitions::getPartitionId)
-                .distinct()
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
-
-            // then, add new partition for this new constraint
-            final Integer partitionId = partitions.addPartition(fields, new HashSet<>(Collections.singletonList(constraint)));
-
-            // if there are any intersecting partitions, merge them with the new one
-            if (existingIntersectingPartitions.size() > 0) {
-                final Set<Integer> partitionsToMerge = new HashSet<>();
-                partitionsToMerge.add(partitionId);
-                partitionsToMerge.addAll(existingIntersectingPartitions);
-
-                partitions.mergePartitions(partitionsToMerge);
+        for (Map.Entry<RootLevelConstraint, Set<Field>> entry : mapping.entrySet()) {
+            Iterator<Field> constrainedFields = entry.getValue().iterator();
+            if (!constrainedFields.hasNext()) {
+                fieldlessConstraints.add(entry.getKey());
+                continue;
+            }
+
+            int firstFieldIndex = fieldIndexes.get(constrainedFields.next());
+            constrained[firstFieldIndex] = true;
+            constraintToFieldIndex.put(entry.getKey(), firstFieldIndex);
+
+            while (constrainedFields.hasNext()) {
+                int fieldIndex = fieldIndexes.get(constrainedFields.next());
+                constrained[fieldIndex] = true;
+                relatedFields.union(firstFieldIndex, fieldIndex);
             }
         }
 
-        // any leftover fields must be grouped into their own partition
-        final Stream<Field> unpartitionedFields = decisionTree
-            .getFields()
-            .stream()
-            .filter(field -> Objects.isNull(partitions.getPartitionId(field)));
-
-        return Stream.concat(
-            partitions
-                .getPartitions()
-                .stream()
-                .sorted(Comparator.comparingInt(p -> p.id))
-                .map(partition -> new DecisionTree(
-                    new TreeConstraintNode(partition.getAtomicConstraints(), partition.getDecisionNodes()),
-                    new ProfileFields(new ArrayList<>(partition.fields))
-                )),
-            unpartitionedFields
+        // create the partitions in the order of their first field, so the output is deterministic
+        final Map<Integer, Partition> partitions = new LinkedHashMap<>();
+        final List<Field> unpartitionedFields = new ArrayList<>();
+        for (int fieldIndex = 0; fieldIndex < fields.size(); fieldIndex++) {
+            if (constrained[fieldIndex]) {
+                partitions
+                    .computeIfAbsent(relatedFields.find(fieldIndex), root -> new Partition())
+                    .fields.add(fields.get(fieldIndex));
+            } else {
+                unpartitionedFields.add(fields.get(fieldIndex));
+            }
+        }
+
+        constraintToFieldIndex.forEach((constraint, fieldIndex) ->
+            partitions.get(relatedFields.find(fieldIndex)).add(constraint));
+
+        return Stream.of(
+            partitions.values().stream()
+                .map(Partition::toDecisionTree),
+            fieldlessConstraints.stream()
+                .map(constraint -> {
+                    Partition partition = new Partition();
+                    partition.add(constraint);
+                    return partition.toDecisionTree();
+                }),
+            // any leftover fields must be grouped into their own partition
+            unpartitionedFields.stream()
                 .map(field -> new DecisionTree(
                     new TreeConstraintNode(),
                     new ProfileFields(Collections.singletonList(field))
-                ))
-            );
+                )))
+            .flatMap(partitionedTrees -> partitionedTrees);
     }
 
-    class Partition {
-        final Integer id;
-        final Set<Field> fields;
-        final Set<RootLevelConstraint> constraints;
+    private static int indexOf(Field field, List<Field> fields, Map<Field, Integer> fieldIndexes) {
+        return fieldIndexes.computeIfAbsent(field, newField -> {
+            fields.add(newField);
+            return fields.size() - 1;
+        });
+    }
 
-        Partition(Integer id, Set<Field> fields, Set<RootLevelConstraint> constraints) {
-            this.id = id;
-            this.fields = fields;
-            this.constraints = constraints;
-        }
+    private static class Partition {
+        final List<Field> fields = new ArrayList<>();
+        final Set<AtomicConstraint> atomicConstraints = new LinkedHashSet<>();
+        final Set<DecisionNode> decisionNodes = new LinkedHashSet<>();
 
-        Set<AtomicConstraint> getAtomicConstraints() {
-            return constraints
-                .stream()
-                .map(RootLevelConstraint::getAtomicConstraint)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
+        void add(RootLevelConstraint constraint) {
+            if (constraint.getAtomicConstraint() != null) {
+                atomicConstraints.add(constraint.getAtomicConstraint());
+            }
+            if (constraint.getDecisionNode() != null) {
+                decisionNodes.add(constraint.getDecisionNode());
+            }
         }
 
-        Set<DecisionNode> getDecisionNodes() {
-            return constraints
-                .stream()
-                .map(RootLevelConstraint::getDecisionNode)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
+        DecisionTree toDecisionTree() {
+            return new DecisionTree(
+                new TreeConstraintNode(atomicConstraints, decisionNodes),
+                new ProfileFields(fields));
         }
     }
 
-    class PartitionIndex {
-        private final Map<Integer, Partition> idToPartition = new HashMap<>();
-        private final Map<Field, Partition> fieldsToPartition = new HashMap<>();
-
-        Integer addPartition(Set<Field> fields, Set<RootLevelConstraint> constraints) {
-            final Partition newPartition = new Partition(
-                partitionIndex++,
-                fields,
-                constraints);
-
-            idToPartition.put(newPartition.id, newPartition);
-
-            for (Field field : fields)
-                fieldsToPartition.put(field, newPartition);
-
-            return newPartition.id;
-        }
-
-        Integer mergePartitions(Set<Integer> ids) {
-            final Set<Partition> partitions = ids
-                .stream()
-                .map(idToPartition::get)
-                .collect(Collectors.toSet());
-
-            final Set<Field> fields = getFromAllPartitions(partitions, partition -> partition.fields);
-            final Set<RootLevelConstraint> constraints = getFromAllPartitions(partitions, partition -> partition.constraints);
-
-            final Partition newPartition = new Partition(
-                partitionIndex++,
-                fields,
-                constraints);
-            idToPartition.put(newPartition.id, newPartition);
-            fields.forEach(field -> fieldsToPartition.put(field, newPartition));
-
-            ids.forEach(idToPartition::remove);
-
-            return newPartition.id;
+    /**
+     * Disjoint sets of field indices, with union by rank and path halving
+     */
+    private static class UnionFind {
+        private final int[] parents;
+        private final int[] ranks;
+
+        UnionFind(int size) {
+            parents = new int[size];
+            ranks = new int[size];
+            for (int index = 0; index < size; index++) {
+                parents[index] = index;
+            }
         }
 
-        private <T> Set<T> getFromAllPartitions(Set<Partition> partitions, Function<Partition, Set<T>> getter) {
-            return FlatMappingSpliterator.flatMap(partitions
-                .stream(),
-                partition -> getter.apply(partition).stream())
-                .collect(Collectors.toSet());
+        int find(int index) {
+            while (parents[index] != index) {
+                parents[index] = parents[parents[index]];
+                index = parents[index];
+            }
+            return index;
         }
 
-        Integer getPartitionId(Field field) {
-            return fieldsToPartition.containsKey(field)
-                ? fieldsToPartition.get(field).id
-                : null;
-        }
+        void union(int left, int right) {
+            int leftRoot = find(left);
+            int rightRoot = find(right);
+            if (leftRoot == rightRoot) {
+                return;
+            }
 
-        Collection<Partition> getPartitions() {
-            return idToPartition.values();
+            if (ranks[leftRoot] < ranks[rightRoot]) {
+                parents[leftRoot] = rightRoot;
+            } else if (ranks[leftRoot] > ranks[rightRoot]) {
+                parents[rightRoot] = leftRoot;
+            } else {
+                parents[rightRoot] = leftRoot;
+                ranks[leftRoot]++;
+            }
         }
     }
 }
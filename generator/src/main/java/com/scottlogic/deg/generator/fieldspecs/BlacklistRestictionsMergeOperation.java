@@ -23,7 +23,7 @@ import java.util.Optional;
 
 public class BlacklistRestictionsMergeOperation implements RestrictionMergeOperation {
     @Override
-    public FieldSpec applyMergeOperation(FieldSpec left, FieldSpec right, FieldSpec merging) {
+    public FieldSpec.Builder applyMergeOperation(FieldSpec left, FieldSpec right, FieldSpec.Builder merging) {
         BlacklistRestrictions newBlacklist;
         if (left.getBlacklistRestrictions() == null) {
             newBlacklist = right.getBlacklistRestrictions();
@@ -20,10 +20,11 @@ import com.scottlogic.deg.common.profile.constraints.atomic.IsOfTypeConstraint;
 import com.scottlogic.deg.common.profile.constraints.atomic.IsOfTypeConstraint.Types;
 
 import com.scottlogic.deg.generator.restrictions.*;
-import com.scottlogic.deg.common.util.HeterogeneousTypeContainer;
 
 import java.util.*;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Details a column's atomic constraints
@@ -32,22 +33,37 @@ import java.util.stream.Collectors;
  * This is enforced during merging.
  */
 public class FieldSpec {
+    private static final Predicate<Object> PERMITS_ALL_VALUES = value -> true;
+
     public static final FieldSpec Empty =
-        new FieldSpec(null, new HeterogeneousTypeContainer<>(), true, null);
+        new FieldSpec(null, null, null, null, null, null, true, null);
 
     private final boolean nullable;
     private final String formatting;
     private final Set<Object> whitelist;
-    private final HeterogeneousTypeContainer<Restrictions> restrictions;
+    private final TypeRestrictions typeRestrictions;
+    private final StringRestrictions stringRestrictions;
+    private final NumericRestrictions numericRestrictions;
+    private final DateTimeRestrictions dateTimeRestrictions;
+    private final BlacklistRestrictions blacklistRestrictions;
+    private Predicate<Object> permittedValuePredicate;
 
     private FieldSpec(
         Set<Object> whitelist,
-        HeterogeneousTypeContainer<Restrictions> restrictions,
+        TypeRestrictions typeRestrictions,
+        StringRestrictions stringRestrictions,
+        NumericRestrictions numericRestrictions,
+        DateTimeRestrictions dateTimeRestrictions,
+        BlacklistRestrictions blacklistRestrictions,
         boolean nullable,
         String formatting
     ) {
         this.whitelist = whitelist;
-        this.restrictions = restrictions;
+        this.typeRestrictions = typeRestrictions;
+        this.stringRestrictions = stringRestrictions;
+        this.numericRestrictions = numericRestrictions;
+        this.dateTimeRestrictions = dateTimeRestrictions;
+        this.blacklistRestrictions = blacklistRestrictions;
         this.nullable = nullable;
         this.formatting = formatting;
     }
@@ -61,23 +77,23 @@ public class FieldSpec {
     }
 
     public BlacklistRestrictions getBlacklistRestrictions() {
-        return restrictions.get(BlacklistRestrictions.class).orElse(null);
+        return blacklistRestrictions;
     }
 
     public NumericRestrictions getNumericRestrictions() {
-        return restrictions.get(NumericRestrictions.class).orElse(null);
+        return numericRestrictions;
     }
 
     public StringRestrictions getStringRestrictions() {
-        return restrictions.get(StringRestrictions.class).orElse(null);
+        return stringRestrictions;
     }
 
     public TypeRestrictions getTypeRestrictions() {
-        return restrictions.get(TypeRestrictions.class).orElse(null);
+        return typeRestrictions;
     }
 
     public DateTimeRestrictions getDateTimeRestrictions() {
-        return restrictions.get(DateTimeRestrictions.class).orElse(null);
+        return dateTimeRestrictions;
     }
 
     public String getFormatting() {
@@ -85,27 +101,35 @@ public class FieldSpec {
     }
 
     public FieldSpec withWhitelist(Set<Object> whitelist) {
-        return new FieldSpec(whitelist, new HeterogeneousTypeContainer<>(), nullable, formatting);
+        return new FieldSpec(whitelist, null, null, null, null, null, nullable, formatting);
     }
 
     public FieldSpec withNumericRestrictions(NumericRestrictions numericRestrictions) {
-        return withConstraint(NumericRestrictions.class, numericRestrictions);
+        return numericRestrictions == null
+            ? this
+            : toBuilder().withNumericRestrictions(numericRestrictions).build();
     }
 
     public FieldSpec withBlacklistRestrictions(BlacklistRestrictions blacklistRestrictions) {
-        return withConstraint(BlacklistRestrictions.class, blacklistRestrictions);
+        return blacklistRestrictions == null
+            ? this
+            : toBuilder().withBlacklistRestrictions(blacklistRestrictions).build();
     }
 
     public FieldSpec withTypeRestrictions(TypeRestrictions typeRestrictions) {
-        return withConstraint(TypeRestrictions.class, typeRestrictions);
+        return typeRestrictions == null
+            ? this
+            : toBuilder().withTypeRestrictions(typeRestrictions).build();
     }
 
     public FieldSpec withStringRestrictions(StringRestrictions stringRestrictions) {
-        return withConstraint(StringRestrictions.class, stringRestrictions);
+        return stringRestrictions == null
+            ? this
+            : toBuilder().withStringRestrictions(stringRestrictions).build();
     }
 
     public FieldSpec withNotNull() {
-        return new FieldSpec(whitelist, restrictions, false, formatting);
+        return toBuilder().withNotNull().build();
     }
 
     public static FieldSpec mustBeNull() {
@@ -113,32 +137,25 @@ public class FieldSpec {
     }
 
     public FieldSpec withDateTimeRestrictions(DateTimeRestrictions dateTimeRestrictions) {
-        return withConstraint(DateTimeRestrictions.class, dateTimeRestrictions);
+        return dateTimeRestrictions == null
+            ? this
+            : toBuilder().withDateTimeRestrictions(dateTimeRestrictions).build();
     }
 
     public FieldSpec withFormatting(String formatting) {
-        return new FieldSpec(whitelist, restrictions, nullable, formatting);
+        return toBuilder().withFormatting(formatting).build();
     }
 
     public FieldSpec withoutType(IsOfTypeConstraint.Types type){
-        TypeRestrictions typeRestrictions = getTypeRestrictions();
-        if (typeRestrictions == null){
-            typeRestrictions = DataTypeRestrictions.ALL_TYPES_PERMITTED;
-        }
-        typeRestrictions = typeRestrictions.except(type);
-
-        if (typeRestrictions.getAllowedTypes().isEmpty()){
-            return mustBeNull();
-        }
-
-        return withTypeRestrictions(typeRestrictions);
+        return toBuilder().withoutType(type).build();
     }
 
-    private <T extends Restrictions> FieldSpec withConstraint(Class<T> type, T restriction) {
-        if (restriction == null){
-            return this;
-        }
-        return new FieldSpec(null, restrictions.put(type, restriction), nullable, formatting);
+    /**
+     * Get a builder initialised with the state of this FieldSpec, used to apply several changes while only
+     * creating one new FieldSpec
+     */
+    public Builder toBuilder() {
+        return new Builder(this);
     }
 
     public boolean isTypeAllowed(IsOfTypeConstraint.Types type){
@@ -154,8 +171,12 @@ public class FieldSpec {
             return (nullable ? "" : "Not Null") + String.format("IN %s", whitelist);
         }
 
-        List<String> propertyStrings = restrictions.values()
-                .stream()
+        List<String> propertyStrings = Stream.of(
+                typeRestrictions,
+                stringRestrictions,
+                numericRestrictions,
+                dateTimeRestrictions,
+                blacklistRestrictions)
                 .filter(Objects::nonNull)
                 .map(Object::toString)
                 .collect(Collectors.toList());
@@ -175,36 +196,84 @@ public class FieldSpec {
      * Create a predicate that returns TRUE for all (and only) values permitted by this FieldSpec
      */
     public boolean permits(Object value) {
+        return getPermittedValuePredicate().test(value);
+    }
+
+    /**
+     * Get the subset of the given values that are permitted by this FieldSpec
+     *
+     * The input set is returned as-is if this FieldSpec has no restrictions that could reject any value
+     */
+    public Set<Object> getPermittedValues(Set<Object> values) {
+        Predicate<Object> predicate = getPermittedValuePredicate();
+        if (predicate == PERMITS_ALL_VALUES) {
+            return values;
+        }
+
+        Set<Object> permittedValues = new HashSet<>();
+        for (Object value : values) {
+            if (predicate.test(value)) {
+                permittedValues.add(value);
+            }
+        }
+        return permittedValues;
+    }
+
+    private Predicate<Object> getPermittedValuePredicate() {
+        // races are benign, every thread would compile an equivalent predicate from the same immutable restrictions
+        if (permittedValuePredicate == null) {
+            permittedValuePredicate = createPermittedValuePredicate();
+        }
+        return permittedValuePredicate;
+    }
+
+    private Predicate<Object> createPermittedValuePredicate() {
         TypeRestrictions typeRestrictions = getTypeRestrictions();
-        if (typeRestrictions != null) {
-            for (Types type : Types.values()) {
-                if (!typeRestrictions.isTypeAllowed(type) && type.isInstanceOf(value)) {
+        Types[] disallowedTypes = typeRestrictions == null
+            ? new Types[0]
+            : Arrays.stream(Types.values())
+                .filter(type -> !typeRestrictions.isTypeAllowed(type))
+                .toArray(Types[]::new);
+
+        TypedRestrictions[] typedRestrictions = Stream.of(
+                getNumericRestrictions(),
+                getDateTimeRestrictions(),
+                getStringRestrictions(),
+                getBlacklistRestrictions())
+            .filter(Objects::nonNull)
+            .toArray(TypedRestrictions[]::new);
+
+        if (disallowedTypes.length == 0 && typedRestrictions.length == 0) {
+            return PERMITS_ALL_VALUES;
+        }
+
+        return value -> {
+            for (Types type : disallowedTypes) {
+                if (type.isInstanceOf(value)) {
                     return false;
                 }
             }
-        }
-
-        Set<Class<? extends Restrictions>> keys = new HashSet<>();
-        keys.add(NumericRestrictions.class);
-        keys.add(DateTimeRestrictions.class);
-        keys.add(StringRestrictions.class);
-        keys.add(BlacklistRestrictions.class);
 
-        Set<TypedRestrictions> toCheckForMatch = restrictions.getMultiple(keys)
-            .stream()
-            .map(r -> (TypedRestrictions) r)
-            .collect(Collectors.toSet());
-        for (TypedRestrictions restriction : toCheckForMatch) {
-            if (restriction != null && restriction.isInstanceOf(value) && !restriction.match(value)) {
-                return false;
+            for (TypedRestrictions restriction : typedRestrictions) {
+                if (restriction.isInstanceOf(value) && !restriction.match(value)) {
+                    return false;
+                }
             }
-        }
 
-        return true;
+            return true;
+        };
     }
 
     public int hashCode() {
-        return Objects.hash(nullable, whitelist, restrictions, formatting);
+        return Objects.hash(
+            nullable,
+            whitelist,
+            typeRestrictions,
+            stringRestrictions,
+            numericRestrictions,
+            dateTimeRestrictions,
+            blacklistRestrictions,
+            formatting);
     }
 
     @Override
@@ -217,7 +286,137 @@ public class FieldSpec {
         FieldSpec other = (FieldSpec) obj;
         return Objects.equals(nullable, other.nullable)
             && Objects.equals(whitelist, other.whitelist)
-            && Objects.equals(restrictions, other.restrictions)
+            && Objects.equals(typeRestrictions, other.typeRestrictions)
+            && Objects.equals(stringRestrictions, other.stringRestrictions)
+            && Objects.equals(numericRestrictions, other.numericRestrictions)
+            && Objects.equals(dateTimeRestrictions, other.dateTimeRestrictions)
+            && Objects.equals(blacklistRestrictions, other.blacklistRestrictions)
             && Objects.equals(formatting, other.formatting);
     }
+
+    /**
+     * Mutable counterpart of a FieldSpec, with the same semantics for each of the with... methods
+     */
+    public static final class Builder {
+        private boolean nullable;
+        private String formatting;
+        private Set<Object> whitelist;
+        private TypeRestrictions typeRestrictions;
+        private StringRestrictions stringRestrictions;
+        private NumericRestrictions numericRestrictions;
+        private DateTimeRestrictions dateTimeRestrictions;
+        private BlacklistRestrictions blacklistRestrictions;
+
+        private Builder(FieldSpec fieldSpec) {
+            this.nullable = fieldSpec.nullable;
+            this.formatting = fieldSpec.formatting;
+            this.whitelist = fieldSpec.whitelist;
+            this.typeRestrictions = fieldSpec.typeRestrictions;
+            this.stringRestrictions = fieldSpec.stringRestrictions;
+            this.numericRestrictions = fieldSpec.numericRestrictions;
+            this.dateTimeRestrictions = fieldSpec.dateTimeRestrictions;
+            this.blacklistRestrictions = fieldSpec.blacklistRestrictions;
+        }
+
+        public Set<Object> getWhitelist() {
+            return whitelist;
+        }
+
+        public boolean isTypeAllowed(IsOfTypeConstraint.Types type) {
+            return typeRestrictions == null || typeRestrictions.isTypeAllowed(type);
+        }
+
+        public Builder withWhitelist(Set<Object> whitelist) {
+            this.whitelist = whitelist;
+            this.typeRestrictions = null;
+            this.stringRestrictions = null;
+            this.numericRestrictions = null;
+            this.dateTimeRestrictions = null;
+            this.blacklistRestrictions = null;
+            return this;
+        }
+
+        public Builder withTypeRestrictions(TypeRestrictions typeRestrictions) {
+            if (typeRestrictions != null) {
+                this.whitelist = null;
+                this.typeRestrictions = typeRestrictions;
+            }
+            return this;
+        }
+
+        public Builder withStringRestrictions(StringRestrictions stringRestrictions) {
+            if (stringRestrictions != null) {
+                this.whitelist = null;
+                this.stringRestrictions = stringRestrictions;
+            }
+            return this;
+        }
+
+        public Builder withNumericRestrictions(NumericRestrictions numericRestrictions) {
+            if (numericRestrictions != null) {
+                this.whitelist = null;
+                this.numericRestrictions = numericRestrictions;
+            }
+            return this;
+        }
+
+        public Builder withDateTimeRestrictions(DateTimeRestrictions dateTimeRestrictions) {
+            if (dateTimeRestrictions != null) {
+                this.whitelist = null;
+                this.dateTimeRestrictions = dateTimeRestrictions;
+            }
+            return this;
+        }
+
+        public Builder withBlacklistRestrictions(BlacklistRestrictions blacklistRestrictions) {
+            if (blacklistRestrictions != null) {
+                this.whitelist = null;
+                this.blacklistRestrictions = blacklistRestrictions;
+            }
+            return this;
+        }
+
+        public Builder withNotNull() {
+            this.nullable = false;
+            return this;
+        }
+
+        public Builder withFormatting(String formatting) {
+            this.formatting = formatting;
+            return this;
+        }
+
+        /**
+         * Reset to the state of FieldSpec.mustBeNull()
+         */
+        public Builder mustBeNull() {
+            this.nullable = true;
+            this.formatting = null;
+            return withWhitelist(Collections.emptySet());
+        }
+
+        public Builder withoutType(IsOfTypeConstraint.Types type) {
+            TypeRestrictions remainingTypes = (typeRestrictions == null
+                ? DataTypeRestrictions.ALL_TYPES_PERMITTED
+                : typeRestrictions).except(type);
+
+            if (remainingTypes.getAllowedTypes().isEmpty()) {
+                return mustBeNull();
+            }
+
+            return withTypeRestrictions(remainingTypes);
+        }
+
+        public FieldSpec build() {
+            return new FieldSpec(
+                whitelist,
+                typeRestrictions,
+                stringRestrictions,
+                numericRestrictions,
+                dateTimeRestrictions,
+                blacklistRestrictions,
+                nullable,
+                formatting);
+        }
+    }
 }
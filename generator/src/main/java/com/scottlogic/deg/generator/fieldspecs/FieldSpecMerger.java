@@ -21,7 +21,6 @@ import com.scottlogic.deg.generator.utils.SetUtils;
 
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Returns a FieldSpec that permits only data permitted by all of its inputs
@@ -63,33 +62,31 @@ public class FieldSpecMerger {
     }
 
     private Optional<FieldSpec> combineSetWithRestrictions(FieldSpec set, FieldSpec restrictions) {
-        Set<Object> newSet = set.getWhitelist().stream()
-            .filter(restrictions::permits)
-            .collect(Collectors.toSet());
+        Set<Object> newSet = restrictions.getPermittedValues(set.getWhitelist());
 
         return addNullable(set, restrictions, setRestriction(newSet));
     }
 
-    private Optional<FieldSpec> addNullable(FieldSpec left, FieldSpec right, FieldSpec newFieldSpec) {
-        newFieldSpec = addFormatting(left, right, newFieldSpec);
+    private Optional<FieldSpec> addNullable(FieldSpec left, FieldSpec right, FieldSpec.Builder newFieldSpec) {
+        addFormatting(left, right, newFieldSpec);
 
         if (isNullable(left, right)) {
-            return Optional.of(newFieldSpec);
+            return Optional.of(newFieldSpec.build());
         }
 
         if (noAllowedValues(newFieldSpec)) {
             return Optional.empty();
         }
 
-        return Optional.of(newFieldSpec.withNotNull());
+        return Optional.of(newFieldSpec.withNotNull().build());
     }
 
-    private boolean noAllowedValues(FieldSpec fieldSpec) {
+    private boolean noAllowedValues(FieldSpec.Builder fieldSpec) {
         return (fieldSpec.getWhitelist() != null && fieldSpec.getWhitelist().isEmpty());
     }
 
-    private FieldSpec setRestriction(Set<Object> set) {
-        return FieldSpec.Empty.withWhitelist(set);
+    private FieldSpec.Builder setRestriction(Set<Object> set) {
+        return FieldSpec.Empty.toBuilder().withWhitelist(set);
     }
 
     private boolean hasSet(FieldSpec fieldSpec) {
@@ -100,18 +97,16 @@ public class FieldSpecMerger {
         return left.isNullable() && right.isNullable();
     }
 
-    private FieldSpec addFormatting(FieldSpec left, FieldSpec right, FieldSpec newFieldSpec) {
+    private void addFormatting(FieldSpec left, FieldSpec right, FieldSpec.Builder newFieldSpec) {
         if (left.getFormatting() != null) {
-            return newFieldSpec.withFormatting(left.getFormatting());
+            newFieldSpec.withFormatting(left.getFormatting());
+        } else if (right.getFormatting() != null) {
+            newFieldSpec.withFormatting(right.getFormatting());
         }
-        if (right.getFormatting() != null) {
-            return newFieldSpec.withFormatting(right.getFormatting());
-        }
-        return newFieldSpec;
     }
 
     private Optional<FieldSpec> combineRestrictions(FieldSpec left, FieldSpec right) {
-        FieldSpec merging = FieldSpec.Empty;
+        FieldSpec.Builder merging = FieldSpec.Empty.toBuilder();
 
         for (RestrictionMergeOperation operation : mergeOperations) {
             merging = operation.applyMergeOperation(left, right, merging);
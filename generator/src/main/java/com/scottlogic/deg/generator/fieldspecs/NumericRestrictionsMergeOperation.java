@@ -32,7 +32,7 @@ public class NumericRestrictionsMergeOperation implements RestrictionMergeOperat
     }
 
     @Override
-    public FieldSpec applyMergeOperation(FieldSpec left, FieldSpec right, FieldSpec merging) {
+    public FieldSpec.Builder applyMergeOperation(FieldSpec left, FieldSpec right, FieldSpec.Builder merging) {
         if (!merging.isTypeAllowed(NUMERIC)){
             return merging;
         }
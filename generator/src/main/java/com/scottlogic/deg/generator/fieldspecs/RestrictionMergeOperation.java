@@ -17,6 +17,6 @@
 package com.scottlogic.deg.generator.fieldspecs;
 
 public interface RestrictionMergeOperation {
-    FieldSpec applyMergeOperation(FieldSpec left, FieldSpec right, FieldSpec merging);
+    FieldSpec.Builder applyMergeOperation(FieldSpec left, FieldSpec right, FieldSpec.Builder merging);
 }
 
@@ -26,7 +26,7 @@ public class StringRestrictionsMergeOperation implements RestrictionMergeOperati
     private static final StringRestrictionsMerger stringRestrictionsMerger = new StringRestrictionsMerger();
 
     @Override
-    public FieldSpec applyMergeOperation(FieldSpec left, FieldSpec right, FieldSpec merging) {
+    public FieldSpec.Builder applyMergeOperation(FieldSpec left, FieldSpec right, FieldSpec.Builder merging) {
         if (!merging.isTypeAllowed(STRING)){
             return merging;
         }
@@ -18,19 +18,17 @@ package com.scottlogic.deg.generator.fieldspecs;
 
 import com.scottlogic.deg.generator.restrictions.*;
 
-import java.util.Collections;
-
 public class TypesRestrictionMergeOperation implements RestrictionMergeOperation {
     private static final TypeRestrictionsMerger typeRestrictionsMerger = new TypeRestrictionsMerger();
 
     @Override
-    public FieldSpec applyMergeOperation(FieldSpec left, FieldSpec right, FieldSpec merging) {
+    public FieldSpec.Builder applyMergeOperation(FieldSpec left, FieldSpec right, FieldSpec.Builder merging) {
         MergeResult<TypeRestrictions> mergeResult = typeRestrictionsMerger.merge(
             left.getTypeRestrictions(),
             right.getTypeRestrictions());
 
         if (!mergeResult.successful) {
-            return FieldSpec.Empty.withWhitelist(Collections.emptySet());
+            return merging.mustBeNull();
         }
 
         TypeRestrictions restrictions = mergeResult.restrictions != null
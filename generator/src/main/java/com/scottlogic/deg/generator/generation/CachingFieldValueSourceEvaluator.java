@@ -0,0 +1,71 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.generation;
+
+import com.google.inject.Inject;
+import com.scottlogic.deg.generator.fieldspecs.FieldSpec;
+import com.scottlogic.deg.generator.generation.fieldvaluesources.FieldValueSource;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decorator over a FieldValueSourceEvaluator that keeps the sources for the most recently used field specs, so the
+ * sources (and any string generators and automatons within them) are built once for each distinct field spec rather
+ * than every time a field is fixed.
+ *
+ * Safe to share between walkers on different threads. Sources are created outside of the lock, so two threads may
+ * both create the sources for a new field spec; either result is equally valid. The cached sources are handed to
+ * every caller, so they must be safe to use from several threads at once: any state they build on first use (such as
+ * the node tree of a RegexStringGenerator) is published through volatile fields once complete.
+ */
+public class CachingFieldValueSourceEvaluator implements FieldValueSourceEvaluator {
+    private static final int DEFAULT_MAX_CACHED_FIELD_SPECS = 1000;
+
+    private final FieldValueSourceEvaluator underlyingEvaluator;
+    private final Map<FieldSpec, List<FieldValueSource>> cache;
+
+    @Inject
+    public CachingFieldValueSourceEvaluator(StandardFieldValueSourceEvaluator underlyingEvaluator) {
+        this(underlyingEvaluator, DEFAULT_MAX_CACHED_FIELD_SPECS);
+    }
+
+    public CachingFieldValueSourceEvaluator(FieldValueSourceEvaluator underlyingEvaluator, int maxCachedFieldSpecs) {
+        this.underlyingEvaluator = underlyingEvaluator;
+        this.cache = Collections.synchronizedMap(
+            new LinkedHashMap<FieldSpec, List<FieldValueSource>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<FieldSpec, List<FieldValueSource>> eldest) {
+                    return size() > maxCachedFieldSpecs;
+                }
+            });
+    }
+
+    @Override
+    public List<FieldValueSource> getFieldValueSources(FieldSpec fieldSpec) {
+        List<FieldValueSource> sources = cache.get(fieldSpec);
+        if (sources != null) {
+            return sources;
+        }
+
+        sources = Collections.unmodifiableList(underlyingEvaluator.getFieldValueSources(fieldSpec));
+        List<FieldValueSource> existingSources = cache.putIfAbsent(fieldSpec, sources);
+        return existingSources != null ? existingSources : sources;
+    }
+}
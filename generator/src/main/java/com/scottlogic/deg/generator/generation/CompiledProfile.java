@@ -0,0 +1,47 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.generation;
+
+import com.scottlogic.deg.generator.decisiontree.DecisionTree;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * The decision trees data is generated from for a profile, once it has been pruned, partitioned and optimised,
+ * along with any messages reported while doing so
+ */
+public class CompiledProfile implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final List<DecisionTree> partitions;
+    private final List<String> messages;
+
+    public CompiledProfile(List<DecisionTree> partitions, List<String> messages) {
+        this.partitions = partitions;
+        this.messages = messages;
+    }
+
+    /** the optimised tree of each partition, or no trees if the profile is wholly contradictory */
+    public List<DecisionTree> getPartitions() {
+        return partitions;
+    }
+
+    public List<String> getMessages() {
+        return messages;
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.generation;
+
+import com.scottlogic.deg.common.profile.Profile;
+
+import java.util.function.Supplier;
+
+public interface CompiledProfileCache {
+    /**
+     * @param treeOptions the options that affect how the trees are built, which profiles compiled with different
+     *                    options are held separately for
+     * @param compile builds the compiled profile if it is not held
+     */
+    CompiledProfile get(Profile profile, Object treeOptions, Supplier<CompiledProfile> compile);
+}
@@ -21,6 +21,7 @@ import com.scottlogic.deg.common.output.GeneratedObject;
 public interface DataGeneratorMonitor {
     default void generationStarting() {}
     default void rowEmitted(GeneratedObject row) {}
+    default void outputStalled(long generationStallNanos, long outputStallNanos) {}
     default void endGeneration() {}
     void addLineToPrintAtEndOfGeneration(String line);
 }
@@ -19,15 +19,22 @@ package com.scottlogic.deg.generator.generation;
 import com.google.inject.Inject;
 import com.google.inject.name.Named;
 import com.scottlogic.deg.common.profile.Profile;
+import com.scottlogic.deg.generator.config.detail.Shard;
 import com.scottlogic.deg.generator.decisiontree.DecisionTree;
 import com.scottlogic.deg.generator.decisiontree.DecisionTreeFactory;
 import com.scottlogic.deg.generator.decisiontree.DecisionTreeOptimiser;
 import com.scottlogic.deg.generator.decisiontree.treepartitioning.TreePartitioner;
 import com.scottlogic.deg.generator.generation.combinationstrategies.CombinationStrategy;
+import com.scottlogic.deg.generator.generation.combinationstrategies.ShardedCombinationStrategy;
 import com.scottlogic.deg.generator.generation.databags.*;
 import com.scottlogic.deg.common.output.GeneratedObject;
 import com.scottlogic.deg.generator.walker.DecisionTreeWalker;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class DecisionTreeDataGenerator implements DataGenerator {
@@ -38,6 +45,8 @@ public class DecisionTreeDataGenerator implements DataGenerator {
     private final DecisionTreeOptimiser treeOptimiser;
     private final CombinationStrategy partitionCombiner;
     private final UpfrontTreePruner upfrontTreePruner;
+    private final CompiledProfileCache compiledProfileCache;
+    private final List<Boolean> treeOptions;
     private final long maxRows;
 
     @Inject
@@ -49,30 +58,39 @@ public class DecisionTreeDataGenerator implements DataGenerator {
         DataGeneratorMonitor monitor,
         CombinationStrategy combinationStrategy,
         UpfrontTreePruner upfrontTreePruner,
-        @Named("config:maxRows") long maxRows) {
+        CompiledProfileCache compiledProfileCache,
+        GenerationConfigSource configSource,
+        @Named("config:maxRows") long maxRows,
+        Shard shard) {
         this.decisionTreeGenerator = decisionTreeGenerator;
         this.treePartitioner = treePartitioner;
         this.treeOptimiser = optimiser;
         this.treeWalker = treeWalker;
         this.monitor = monitor;
-        this.partitionCombiner = combinationStrategy;
+        //a shard skips straight to its rows of the combined partitions, rather than every process producing them all
+        this.partitionCombiner = shard.isWholeOutput()
+            ? combinationStrategy
+            : new ShardedCombinationStrategy(shard, maxRows);
         this.upfrontTreePruner = upfrontTreePruner;
+        this.compiledProfileCache = compiledProfileCache;
+        this.treeOptions = Arrays.asList(
+            configSource.shouldDoPartitioning(),
+            configSource.shouldSplitIndependentDecisions(),
+            configSource.dontOptimise());
         this.maxRows = maxRows;
     }
 
     @Override
     public Stream<GeneratedObject> generateData(Profile profile) {
         monitor.generationStarting();
-        DecisionTree decisionTree = decisionTreeGenerator.analyse(profile);
+        CompiledProfile compiledProfile = compiledProfileCache.get(profile, treeOptions, () -> compile(profile));
 
-        decisionTree = upfrontTreePruner.runUpfrontPrune(decisionTree, monitor);
-        if (decisionTree.getRootNode() == null) {
+        compiledProfile.getMessages().forEach(monitor::addLineToPrintAtEndOfGeneration);
+        if (compiledProfile.getPartitions().isEmpty()) {
             return Stream.empty();
         }
 
-        Stream<Stream<DataBag>> partitionedDataBags = treePartitioner
-            .splitTreeIntoPartitions(decisionTree)
-            .map(treeOptimiser::optimiseTree)
+        Stream<Stream<DataBag>> partitionedDataBags = compiledProfile.getPartitions().stream()
             .map(treeWalker::walk);
 
         return partitionCombiner.permute(partitionedDataBags)
@@ -80,4 +98,18 @@ public class DecisionTreeDataGenerator implements DataGenerator {
             .limit(maxRows)
             .peek(monitor::rowEmitted);
     }
+
+    private CompiledProfile compile(Profile profile) {
+        List<String> messages = new ArrayList<>();
+        DecisionTree decisionTree = upfrontTreePruner.runUpfrontPrune(decisionTreeGenerator.analyse(profile), messages::add);
+        if (decisionTree.getRootNode() == null) {
+            return new CompiledProfile(Collections.emptyList(), messages);
+        }
+
+        List<DecisionTree> partitions = treePartitioner
+            .splitTreeIntoPartitions(decisionTree)
+            .map(treeOptimiser::optimiseTree)
+            .collect(Collectors.toList());
+        return new CompiledProfile(partitions, messages);
+    }
 }
@@ -23,11 +23,11 @@ import com.scottlogic.deg.generator.generation.databags.DataBagValue;
 import com.scottlogic.deg.generator.generation.fieldvaluesources.CombiningFieldValueSource;
 import com.scottlogic.deg.generator.generation.fieldvaluesources.FieldValueSource;
 import com.scottlogic.deg.generator.utils.JavaUtilRandomNumberGenerator;
+import com.scottlogic.deg.generator.utils.ValueCursor;
 
 import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
 
 public class FieldSpecValueGenerator {
     private final DataGenerationType dataType;
@@ -42,6 +42,10 @@ public class FieldSpecValueGenerator {
     }
 
     public Stream<DataBagValue> generate(Set<FieldSpec> specs) {
+        return generateCursor(specs).stream();
+    }
+
+    public ValueCursor<DataBagValue> generateCursor(Set<FieldSpec> specs) {
         List<FieldValueSource> fieldValueSources = specs.stream()
             .map(sourceFactory::getFieldValueSources)
             .flatMap(Collection::stream)
@@ -54,29 +58,27 @@ public class FieldSpecValueGenerator {
     public Stream<DataBagValue> generate(FieldSpec spec) {
         List<FieldValueSource> fieldValueSources = sourceFactory.getFieldValueSources(spec);
 
-        return createValuesFromSources(spec, fieldValueSources);
+        return createValuesFromSources(spec, fieldValueSources).stream();
     }
 
-    private Stream<DataBagValue> createValuesFromSources(FieldSpec spec, List<FieldValueSource> fieldValueSources) {
+    private ValueCursor<DataBagValue> createValuesFromSources(FieldSpec spec, List<FieldValueSource> fieldValueSources) {
         FieldValueSource combinedFieldValueSource = new CombiningFieldValueSource(fieldValueSources);
+        String formatting = spec.getFormatting();
 
-        Iterable<Object> iterable =  getDataValues(combinedFieldValueSource);
-
-        return StreamSupport.stream(iterable.spliterator(), false)
-            .map(value -> new DataBagValue(value, spec.getFormatting()));
+        return getDataValues(combinedFieldValueSource)
+            .map(value -> new DataBagValue(value, formatting));
     }
 
-    private Iterable<Object> getDataValues(FieldValueSource source) {
+    private ValueCursor<Object> getDataValues(FieldValueSource source) {
         switch (dataType) {
             case FULL_SEQUENTIAL:
-                return source.generateAllValues();
+                return source.allValuesCursor();
             case INTERESTING:
-                return source.generateInterestingValues();
+                return source.interestingValuesCursor();
             case RANDOM:
-                return source.generateRandomValues(randomNumberGenerator);
+                return source.randomValuesCursor(randomNumberGenerator);
             default:
                 throw new UnsupportedOperationException("No data generation type set.");
         }
     }
 }
-
@@ -18,15 +18,22 @@ package com.scottlogic.deg.generator.generation;
 
 import com.scottlogic.deg.generator.config.detail.*;
 
+import java.nio.file.Path;
+
 public interface GenerationConfigSource  {
     DataGenerationType getGenerationType();
     CombinationStrategyType getCombinationStrategyType();
     TreeWalkerType getWalkerType();
     long getMaxRows();
+    Shard getShard();
 
     MonitorType getMonitorType();
     boolean shouldDoPartitioning();
+    boolean shouldSplitIndependentDecisions();
+    boolean shouldForwardCheck();
+    boolean shouldBackjump();
     boolean visualiseReductions();
     boolean requireFieldTyping();
     boolean dontOptimise();
+    Path getProfileSnapshotDirectory();
 }
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.generation;
+
+import com.scottlogic.deg.common.profile.Profile;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Holds the compiled form of each profile object for as long as the profile object is referenced elsewhere, so that
+ * a process which generates data from the same profile object repeatedly only compiles it the first time
+ */
+public class InMemoryCompiledProfileCache implements CompiledProfileCache {
+    private final Map<Profile, Map<Object, CompiledProfile>> compiledProfiles = new WeakHashMap<>();
+
+    @Override
+    public CompiledProfile get(Profile profile, Object treeOptions, Supplier<CompiledProfile> compile) {
+        Map<Object, CompiledProfile> compiledByOptions;
+        synchronized (compiledProfiles) {
+            compiledByOptions = compiledProfiles.computeIfAbsent(profile, p -> new ConcurrentHashMap<>());
+        }
+
+        return compiledByOptions.computeIfAbsent(treeOptions, options -> compile.get());
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.generation;
+
+import com.scottlogic.deg.common.profile.Profile;
+import com.scottlogic.deg.common.profile.constraints.atomic.AtomicConstraint;
+import com.scottlogic.deg.common.profile.constraints.atomic.ContainsRegexConstraint;
+import com.scottlogic.deg.common.profile.constraints.atomic.MatchesRegexConstraint;
+import com.scottlogic.deg.common.profile.constraints.atomic.NotConstraint;
+import com.scottlogic.deg.common.profile.constraints.atomic.ViolatedAtomicConstraint;
+import com.scottlogic.deg.generator.decisiontree.ConstraintNode;
+import com.scottlogic.deg.generator.decisiontree.DecisionNode;
+import com.scottlogic.deg.generator.decisiontree.DecisionTree;
+import com.scottlogic.deg.generator.generation.string.RegexStringGenerator;
+import com.scottlogic.deg.generator.restrictions.StringRestrictionsFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Saves the compiled form of each profile, along with the regex automata it needs, as a snapshot file in a directory,
+ * so that later runs for a profile with the same content load it rather than compiling the profile again.
+ *
+ * Snapshots are named after a hash of the serialised profile and tree options, and are loaded with a single
+ * memory-mapped read. A snapshot which can't be loaded, such as one saved by a different version of the generator,
+ * is replaced with a new one.
+ *
+ * The snapshot directory may be shared, so a snapshot is only deserialised into the generator's own classes and the
+ * JDK value and collection classes they hold; a snapshot naming any other class is treated as unreadable.
+ */
+public class SnapshotCompiledProfileCache implements CompiledProfileCache {
+    private static final int SNAPSHOT_MARKER = 0x44484350;
+    private static final int SNAPSHOT_VERSION = 2;
+    private static final String GENERATOR_PACKAGE_PREFIX = "com.scottlogic.deg.";
+    private static final Set<String> ALLOWED_JDK_CLASSES = new HashSet<>(Arrays.asList(
+        "java.lang.Boolean", "java.lang.Byte", "java.lang.Character", "java.lang.Short", "java.lang.Integer",
+        "java.lang.Long", "java.lang.Float", "java.lang.Double", "java.lang.Number", "java.lang.Enum",
+        "java.lang.String", "java.lang.Object",
+        "java.math.BigDecimal", "java.math.BigInteger",
+        "java.time.Ser",
+        "java.util.regex.Pattern",
+        "java.util.ArrayList", "java.util.LinkedList", "java.util.Arrays$ArrayList",
+        "java.util.HashMap", "java.util.LinkedHashMap", "java.util.TreeMap",
+        "java.util.HashSet", "java.util.LinkedHashSet", "java.util.TreeSet"));
+    private static final String ALLOWED_JDK_COLLECTIONS_PREFIX = "java.util.Collections$";
+
+    private final Path directory;
+    private final DataGeneratorMonitor monitor;
+
+    public SnapshotCompiledProfileCache(Path directory, DataGeneratorMonitor monitor) {
+        this.directory = directory;
+        this.monitor = monitor;
+    }
+
+    @Override
+    public CompiledProfile get(Profile profile, Object treeOptions, Supplier<CompiledProfile> compile) {
+        Path snapshotPath;
+        try {
+            snapshotPath = directory.resolve(getKey(profile, treeOptions) + ".snapshot");
+        } catch (IOException e) {
+            monitor.addLineToPrintAtEndOfGeneration("Unable to identify a snapshot of the profile: " + e);
+            return compile.get();
+        }
+
+        if (Files.exists(snapshotPath)) {
+            try {
+                return load(snapshotPath);
+            } catch (IOException | ClassNotFoundException | RuntimeException e) {
+                // saved by a different version of the generator, incomplete or corrupt; compile the profile and
+                // replace it
+            }
+        }
+
+        CompiledProfile compiledProfile = compile.get();
+        try {
+            save(compiledProfile, snapshotPath);
+        } catch (IOException e) {
+            monitor.addLineToPrintAtEndOfGeneration("Unable to save a snapshot of the compiled profile: " + e);
+        }
+        return compiledProfile;
+    }
+
+    private static String getKey(Profile profile, Object treeOptions) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        OutputStream discard = new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        };
+        try (ObjectOutputStream objects = new ObjectOutputStream(new DigestOutputStream(discard, digest))) {
+            objects.writeInt(SNAPSHOT_VERSION);
+            objects.writeObject(treeOptions);
+            objects.writeObject(profile);
+        }
+
+        StringBuilder key = new StringBuilder();
+        for (byte b : digest.digest()) {
+            key.append(String.format("%02x", b));
+        }
+        return key.toString();
+    }
+
+    private static CompiledProfile load(Path snapshotPath) throws IOException, ClassNotFoundException {
+        ByteBuffer snapshot;
+        try (FileChannel channel = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+            snapshot = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (snapshot.remaining() < 8 || snapshot.getInt() != SNAPSHOT_MARKER || snapshot.getInt() != SNAPSHOT_VERSION) {
+            throw new IOException("Not a snapshot of this version: " + snapshotPath);
+        }
+
+        try (ObjectInputStream objects = new AllowListObjectInputStream(new ByteBufferInputStream(snapshot))) {
+            CompiledProfile compiledProfile = (CompiledProfile) objects.readObject();
+            RegexStringGenerator.readAutomata(objects, true);
+            RegexStringGenerator.readAutomata(objects, false);
+            return compiledProfile;
+        }
+    }
+
+    /** save the snapshot to a temporary file first, so that no other run can load an incomplete snapshot */
+    private void save(CompiledProfile compiledProfile, Path snapshotPath) throws IOException {
+        Set<String> matchingRegexes = new HashSet<>();
+        Set<String> containingRegexes = new HashSet<>();
+        for (DecisionTree partition : compiledProfile.getPartitions()) {
+            addRegexes(partition.getRootNode(), matchingRegexes, containingRegexes);
+        }
+
+        Files.createDirectories(directory);
+        Path temporaryPath = Files.createTempFile(directory, "snapshot", ".tmp");
+        try {
+            try (DataOutputStream stream = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temporaryPath), 1 << 16))) {
+                stream.writeInt(SNAPSHOT_MARKER);
+                stream.writeInt(SNAPSHOT_VERSION);
+
+                ObjectOutputStream objects = new ObjectOutputStream(stream);
+                objects.writeObject(compiledProfile);
+                RegexStringGenerator.writeAutomata(objects, matchingRegexes, true);
+                RegexStringGenerator.writeAutomata(objects, containingRegexes, false);
+                objects.flush();
+            }
+
+            Files.move(temporaryPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryPath);
+        }
+    }
+
+    /** add the regexes of the node and its descendants, whose automata would otherwise be compiled during generation */
+    private static void addRegexes(ConstraintNode node, Set<String> matchingRegexes, Set<String> containingRegexes) {
+        for (AtomicConstraint constraint : node.getAtomicConstraints()) {
+            AtomicConstraint baseConstraint = constraint;
+            while (baseConstraint instanceof NotConstraint || baseConstraint instanceof ViolatedAtomicConstraint) {
+                baseConstraint = baseConstraint instanceof NotConstraint
+                    ? ((NotConstraint) baseConstraint).negatedConstraint
+                    : ((ViolatedAtomicConstraint) baseConstraint).violatedConstraint;
+            }
+
+            if (baseConstraint instanceof MatchesRegexConstraint) {
+                matchingRegexes.add(StringRestrictionsFactory.canonicaliseMatchingRegex(
+                    ((MatchesRegexConstraint) baseConstraint).regex));
+            } else if (baseConstraint instanceof ContainsRegexConstraint) {
+                containingRegexes.add(((ContainsRegexConstraint) baseConstraint).regex.pattern());
+            }
+        }
+
+        for (DecisionNode decision : node.getDecisions()) {
+            for (ConstraintNode option : decision.getOptions()) {
+                addRegexes(option, matchingRegexes, containingRegexes);
+            }
+        }
+    }
+
+    /** only resolves the classes that a compiled profile is made of, so a snapshot can't name any other class */
+    private static class AllowListObjectInputStream extends ObjectInputStream {
+        AllowListObjectInputStream(InputStream stream) throws IOException {
+            super(stream);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass description) throws IOException, ClassNotFoundException {
+            if (!isAllowed(description.getName())) {
+                throw new InvalidClassException(description.getName(), "Class is not allowed in a snapshot");
+            }
+            return super.resolveClass(description);
+        }
+
+        @Override
+        protected Class<?> resolveProxyClass(String[] interfaces) throws InvalidClassException {
+            throw new InvalidClassException(String.join(", ", interfaces), "Proxy classes are not allowed in a snapshot");
+        }
+
+        /** whether the class, or for an array its element class, can be read from a snapshot */
+        private static boolean isAllowed(String className) {
+            String elementClassName = className.replaceFirst("^\\[+", "");
+            if (elementClassName.length() == 1) {
+                return !elementClassName.equals(className); // an array of primitives
+            }
+            if (elementClassName.startsWith("L") && elementClassName.endsWith(";")) {
+                elementClassName = elementClassName.substring(1, elementClassName.length() - 1);
+            }
+
+            return elementClassName.startsWith(GENERATOR_PACKAGE_PREFIX)
+                || elementClassName.startsWith(ALLOWED_JDK_COLLECTIONS_PREFIX)
+                || ALLOWED_JDK_CLASSES.contains(elementClassName);
+        }
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+
+            int count = Math.min(len, buffer.remaining());
+            buffer.get(b, off, count);
+            return count;
+        }
+    }
+}
@@ -27,6 +27,7 @@ import java.time.*;
 import java.time.format.DateTimeFormatter;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.TimeUnit;
 
 public class VelocityMonitor extends ReductiveDataGeneratorMonitor {
     private static final BigDecimal millisecondsInSecond = BigDecimal.valueOf(1_000);
@@ -70,6 +71,14 @@ public class VelocityMonitor extends ReductiveDataGeneratorMonitor {
         rowsEmitted = rowsEmitted.add(BigInteger.ONE);
     }
 
+    @Override
+    public void outputStalled(long generationStallNanos, long outputStallNanos) {
+        addLineToPrintAtEndOfGeneration(String.format(
+            "Generation waited %dms for output, output waited %dms for generation",
+            TimeUnit.NANOSECONDS.toMillis(generationStallNanos),
+            TimeUnit.NANOSECONDS.toMillis(outputStallNanos)));
+    }
+
     @Override
     public void endGeneration() {
         timer.cancel();
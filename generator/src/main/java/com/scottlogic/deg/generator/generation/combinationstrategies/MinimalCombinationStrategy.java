@@ -40,28 +40,48 @@ public class MinimalCombinationStrategy implements CombinationStrategy {
 
     class InternalIterator implements Iterator<DataBag> {
         private final List<Iterator<DataBag>> iterators;
-        private final Map<Iterator<DataBag>, DataBag> lastValues;
+        private final DataBag[] lastValues;
+
+        /** the indexes of the iterators that still have values, in the first activeCount positions */
+        private final int[] activeIndexes;
+        private int activeCount;
 
         InternalIterator(List<Iterator<DataBag>> iterators) {
-            this.iterators = iterators;
-            this.lastValues = new HashMap<>();
+            this.iterators = new ArrayList<>(iterators);
+            this.lastValues = new DataBag[this.iterators.size()];
+            this.activeIndexes = new int[this.iterators.size()];
+
+            for (int index = 0; index < this.iterators.size(); index++) {
+                if (this.iterators.get(index).hasNext()) {
+                    activeIndexes[activeCount++] = index;
+                }
+            }
         }
 
         @Override
         public boolean hasNext() {
-            return iterators
-                .stream()
-                .anyMatch(Iterator::hasNext);
+            return activeCount > 0;
         }
 
         @Override
         public DataBag next() {
-            iterators
-                .stream()
-                .filter(Iterator::hasNext)
-                .forEach(iterator -> lastValues.put(iterator, iterator.next()));
+            if (activeCount == 0) {
+                throw new NoSuchElementException();
+            }
+
+            int stillActive = 0;
+            for (int position = 0; position < activeCount; position++) {
+                int index = activeIndexes[position];
+                Iterator<DataBag> iterator = iterators.get(index);
+
+                lastValues[index] = iterator.next();
+                if (iterator.hasNext()) {
+                    activeIndexes[stillActive++] = index;
+                }
+            }
+            activeCount = stillActive;
 
-            return DataBag.merge(lastValues.values().toArray(new DataBag[0]));
+            return DataBag.merge(lastValues);
         }
     }
 }
@@ -18,11 +18,12 @@ package com.scottlogic.deg.generator.generation.combinationstrategies;
 
 import com.scottlogic.deg.generator.generation.databags.DataBag;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -45,78 +46,65 @@ public class PinningCombinationStrategy implements CombinationStrategy {
 
         @Override
         public Iterator<DataBag> iterator() {
-            List<SequenceAndBaselineTuple> tuples = this.dataBagSequences
-                    .map(sequence -> new SequenceAndBaselineTuple(sequence.iterator()))
+            List<Iterator<DataBag>> iterators = this.dataBagSequences
+                    .map(Stream::iterator)
                     .collect(Collectors.toList());
 
-            if (tuples.stream().anyMatch(t -> t.baseline == null))
+            if (iterators.stream().anyMatch(iterator -> !iterator.hasNext()))
                 return Collections.emptyIterator();
 
-            return new InternalIterator(tuples);
-        }
-    }
-
-    class SequenceAndBaselineTuple {
-        private Iterator<DataBag> iterator;
-        private DataBag baseline;
-
-        public SequenceAndBaselineTuple(Iterator<DataBag> iterator) {
-            this.iterator = iterator;
-            this.baseline = iterator.hasNext() ? iterator.next() : null;
-        }
-
-        public DataBag next(){
-            return iterator.next();
-        }
-
-        public boolean hasNext(){
-            return iterator.hasNext();
+            return new InternalIterator(iterators);
         }
     }
 
+    /**
+     * Emits a row of the first value of each sequence (the baselines), then one row per remaining value of each
+     * sequence in turn, with every other sequence pinned to its baseline
+     */
     class InternalIterator implements Iterator<DataBag> {
-        private final List<SequenceAndBaselineTuple> tuples;
-
-        private Integer indexOfSequenceToVary;
-
-        InternalIterator(List<SequenceAndBaselineTuple> tuples) {
-            this.tuples = tuples;
-            this.indexOfSequenceToVary = null;
+        private final List<Iterator<DataBag>> iterators;
+        private final DataBag[] baselines;
+        private final DataBag[] row;
+
+        /** -1 until the baselines row has been emitted */
+        private int indexOfSequenceToVary = -1;
+
+        InternalIterator(List<Iterator<DataBag>> iterators) {
+            this.iterators = new ArrayList<>(iterators);
+            this.baselines = new DataBag[this.iterators.size()];
+            for (int index = 0; index < this.iterators.size(); index++) {
+                baselines[index] = this.iterators.get(index).next();
+            }
+            this.row = baselines.clone();
         }
 
         @Override
         public boolean hasNext() {
-            if (this.indexOfSequenceToVary == null)
-                return true; // because this means we haven't output a baselines row yet. I know this code is awful, I'll definitely fix it -MH
+            if (indexOfSequenceToVary == -1)
+                return true;
 
-            // kind of inefficient
-            return this.tuples.stream().anyMatch(tuple -> tuple.hasNext());
+            while (indexOfSequenceToVary < iterators.size() && !iterators.get(indexOfSequenceToVary).hasNext()) {
+                indexOfSequenceToVary++;
+            }
+
+            return indexOfSequenceToVary < iterators.size();
         }
 
         @Override
         public DataBag next() {
-            if (this.indexOfSequenceToVary == null) {
-                this.indexOfSequenceToVary = 0;
-
-                return this.tuples.stream()
-                        .map(tuple -> tuple.baseline)
-                    .reduce(DataBag.empty, (db1, db2) -> DataBag.merge(db1, db2));
+            if (indexOfSequenceToVary == -1) {
+                indexOfSequenceToVary = 0;
+                return DataBag.merge(baselines);
             }
 
-            return IntStream.range(0, this.tuples.size())
-                .mapToObj(seqIndex -> {
-                    SequenceAndBaselineTuple tuple = this.tuples.get(seqIndex);
+            if (!hasNext())
+                throw new NoSuchElementException();
 
-                    if (seqIndex != this.indexOfSequenceToVary)
-                        return tuple.baseline;
+            row[indexOfSequenceToVary] = iterators.get(indexOfSequenceToVary).next();
+            DataBag merged = DataBag.merge(row);
+            row[indexOfSequenceToVary] = baselines[indexOfSequenceToVary];
 
-                    if (!tuple.hasNext()) {
-                        this.indexOfSequenceToVary++;
-                        return tuple.baseline;
-                    }
-                    return tuple.next();
-                })
-                .reduce(DataBag.empty, (db1, db2) -> DataBag.merge(db1, db2));
+            return merged;
         }
     }
 }
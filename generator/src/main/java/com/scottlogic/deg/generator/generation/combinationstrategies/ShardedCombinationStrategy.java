@@ -0,0 +1,130 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.generation.combinationstrategies;
+
+import com.scottlogic.deg.generator.config.detail.Shard;
+import com.scottlogic.deg.generator.generation.databags.DataBag;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Produces one shard of the rows that the ExhaustiveCombinationStrategy would produce, limited to a maximum number
+ * of rows. Each row of the exhaustive combination is a mixed-radix number with one digit per sequence (the first
+ * sequence being the most significant), so the first row of the shard is found from its index without producing the
+ * rows before it.
+ */
+public class ShardedCombinationStrategy implements CombinationStrategy {
+    private final Shard shard;
+    private final long maxRows;
+
+    public ShardedCombinationStrategy(Shard shard, long maxRows) {
+        this.shard = shard;
+        this.maxRows = maxRows;
+    }
+
+    @Override
+    public Stream<DataBag> permute(Stream<Stream<DataBag>> dataBagSequences) {
+        List<List<DataBag>> bagsAsLists = dataBagSequences
+            .map(sequence -> sequence.collect(Collectors.toList()))
+            .collect(Collectors.toList());
+
+        long rowCount = Math.min(getCombinationCount(bagsAsLists), maxRows);
+        long firstRow = shard.getFirstRow(rowCount);
+        long endRow = shard.getEndRow(rowCount);
+
+        if (firstRow >= endRow) {
+            return Stream.empty();
+        }
+
+        Iterator<DataBag> rows = new RowIterator(bagsAsLists, firstRow, endRow - firstRow);
+        return StreamSupport.stream(Spliterators.spliterator(rows, endRow - firstRow, Spliterator.ORDERED), false);
+    }
+
+    /** the number of combinations, or Long.MAX_VALUE if there are more than that */
+    private static long getCombinationCount(List<List<DataBag>> bagSequences) {
+        long count = 1;
+        for (List<DataBag> bags : bagSequences) {
+            if (bags.isEmpty()) {
+                return 0;
+            }
+
+            count = count > Long.MAX_VALUE / bags.size()
+                ? Long.MAX_VALUE
+                : count * bags.size();
+        }
+
+        return count;
+    }
+
+    private static class RowIterator implements Iterator<DataBag> {
+        private final List<List<DataBag>> bagSequences;
+        private final int[] digits;
+        private final DataBag[] row;
+        private long remainingRows;
+
+        RowIterator(List<List<DataBag>> bagSequences, long firstRow, long rowCount) {
+            this.bagSequences = new ArrayList<>(bagSequences);
+            this.digits = new int[this.bagSequences.size()];
+            this.row = new DataBag[this.bagSequences.size()];
+            this.remainingRows = rowCount;
+
+            long rowIndex = firstRow;
+            for (int index = digits.length - 1; index >= 0; index--) {
+                int radix = this.bagSequences.get(index).size();
+                digits[index] = (int) (rowIndex % radix);
+                rowIndex /= radix;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remainingRows > 0;
+        }
+
+        @Override
+        public DataBag next() {
+            if (remainingRows == 0) {
+                throw new NoSuchElementException();
+            }
+
+            for (int index = 0; index < digits.length; index++) {
+                row[index] = bagSequences.get(index).get(digits[index]);
+            }
+
+            remainingRows--;
+            increment();
+            return DataBag.merge(row);
+        }
+
+        private void increment() {
+            for (int index = digits.length - 1; index >= 0; index--) {
+                if (++digits[index] < bagSequences.get(index).size()) {
+                    return;
+                }
+                digits[index] = 0;
+            }
+        }
+    }
+}
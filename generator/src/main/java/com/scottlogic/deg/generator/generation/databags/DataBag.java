@@ -17,7 +17,6 @@
 package com.scottlogic.deg.generator.generation.databags;
 
 import com.scottlogic.deg.common.profile.Field;
-import com.scottlogic.deg.common.util.FlatMappingSpliterator;
 import com.scottlogic.deg.common.output.GeneratedObject;
 
 import java.util.*;
@@ -54,17 +53,19 @@ public class DataBag implements GeneratedObject {
     }
 
     public static DataBag merge(DataBag... bags) {
-        Map<Field, DataBagValue> newFieldToValue = new HashMap<>();
+        int size = 0;
+        for (DataBag bag : bags) {
+            size += bag.fieldToValue.size();
+        }
 
-        FlatMappingSpliterator.flatMap(Arrays.stream(bags)
-            .map(r -> r.fieldToValue.entrySet().stream()),
-            entrySetStream -> entrySetStream)
-            .forEach(entry -> {
-                if (newFieldToValue.containsKey(entry.getKey()))
+        //sized up front so the combined row is built in one pass without rehashing
+        Map<Field, DataBagValue> newFieldToValue = new HashMap<>(size * 4 / 3 + 1);
+        for (DataBag bag : bags) {
+            for (Map.Entry<Field, DataBagValue> entry : bag.fieldToValue.entrySet()) {
+                if (newFieldToValue.putIfAbsent(entry.getKey(), entry.getValue()) != null)
                     throw new IllegalArgumentException("Databags can't be merged because they overlap on field " + entry.getKey().name);
-
-                newFieldToValue.put(entry.getKey(), entry.getValue());
-            });
+            }
+        }
 
         return new DataBag(newFieldToValue);
     }
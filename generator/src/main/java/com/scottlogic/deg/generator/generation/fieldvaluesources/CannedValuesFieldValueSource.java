@@ -18,6 +18,7 @@ package com.scottlogic.deg.generator.generation.fieldvaluesources;
 
 import com.scottlogic.deg.generator.utils.RandomNumberGenerator;
 import com.scottlogic.deg.generator.utils.SupplierBasedIterator;
+import com.scottlogic.deg.generator.utils.ValueCursor;
 
 import java.util.Arrays;
 import java.util.List;
@@ -64,6 +65,38 @@ public class CannedValuesFieldValueSource implements FieldValueSource {
                     this.allValues.size())));
     }
 
+    @Override
+    public ValueCursor<Object> interestingValuesCursor() {
+        return new ListCursor(interestingValues);
+    }
+
+    @Override
+    public ValueCursor<Object> allValuesCursor() {
+        return new ListCursor(allValues);
+    }
+
+    @Override
+    public ValueCursor<Object> randomValuesCursor(RandomNumberGenerator randomNumberGenerator) {
+        if (allValues.isEmpty()) {
+            return ValueCursor.empty();
+        }
+
+        return new ValueCursor<Object>() {
+            private Object current;
+
+            @Override
+            public boolean advance() {
+                current = allValues.get(randomNumberGenerator.nextInt(allValues.size()));
+                return true;
+            }
+
+            @Override
+            public Object current() {
+                return current;
+            }
+        };
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj) return true;
@@ -77,4 +110,23 @@ public class CannedValuesFieldValueSource implements FieldValueSource {
     public int hashCode() {
         return Objects.hash(allValues, interestingValues);
     }
+
+    private static class ListCursor implements ValueCursor<Object> {
+        private final List<Object> values;
+        private int index = -1;
+
+        ListCursor(List<Object> values) {
+            this.values = values;
+        }
+
+        @Override
+        public boolean advance() {
+            return ++index < values.size();
+        }
+
+        @Override
+        public Object current() {
+            return values.get(index);
+        }
+    }
 }
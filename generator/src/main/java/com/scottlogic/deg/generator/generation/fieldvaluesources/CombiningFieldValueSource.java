@@ -17,11 +17,16 @@
 package com.scottlogic.deg.generator.generation.fieldvaluesources;
 
 import com.scottlogic.deg.generator.utils.ConcatenatingIterable;
+import com.scottlogic.deg.generator.utils.ConcatenatingValueCursor;
 import com.scottlogic.deg.generator.utils.RandomNumberGenerator;
+import com.scottlogic.deg.generator.utils.ValueCursor;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 public class CombiningFieldValueSource implements FieldValueSource {
@@ -44,6 +49,14 @@ public class CombiningFieldValueSource implements FieldValueSource {
             .get();
     }
 
+    @Override
+    public long estimateValueCount() {
+        return underlyingSources.stream()
+            .map(FieldValueSource::estimateValueCount)
+            .reduce(Long::sum)
+            .get();
+    }
+
     @Override
     public Iterable<Object> generateInterestingValues() {
         return new ConcatenatingIterable<>(
@@ -69,6 +82,65 @@ public class CombiningFieldValueSource implements FieldValueSource {
             randomNumberGenerator);
     }
 
+    @Override
+    public ValueCursor<Object> interestingValuesCursor() {
+        return concatenateCursors(FieldValueSource::interestingValuesCursor);
+    }
+
+    @Override
+    public ValueCursor<Object> allValuesCursor() {
+        return concatenateCursors(FieldValueSource::allValuesCursor);
+    }
+
+    private ValueCursor<Object> concatenateCursors(Function<FieldValueSource, ValueCursor<Object>> getCursor) {
+        if (underlyingSources.size() == 1) {
+            return getCursor.apply(underlyingSources.get(0));
+        }
+
+        return new ConcatenatingValueCursor<>(
+            underlyingSources.stream()
+                .<Supplier<ValueCursor<Object>>>map(source -> () -> getCursor.apply(source))
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    public ValueCursor<Object> randomValuesCursor(RandomNumberGenerator randomNumberGenerator) {
+        if (underlyingSources.size() == 1) {
+            return underlyingSources.get(0).randomValuesCursor(randomNumberGenerator);
+        }
+
+        List<ValueCursor<Object>> cursors = new ArrayList<>();
+        for (FieldValueSource source : underlyingSources) {
+            cursors.add(source.randomValuesCursor(randomNumberGenerator));
+        }
+
+        return new ValueCursor<Object>() {
+            private Object current;
+
+            @Override
+            public boolean advance() {
+                while (!cursors.isEmpty()) {
+                    int cursorIndex = randomNumberGenerator.nextInt(cursors.size());
+                    ValueCursor<Object> cursor = cursors.get(cursorIndex);
+
+                    if (cursor.advance()) {
+                        current = cursor.current();
+                        return true;
+                    }
+
+                    cursors.remove(cursorIndex);
+                }
+
+                return false;
+            }
+
+            @Override
+            public Object current() {
+                return current;
+            }
+        };
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj) return true;
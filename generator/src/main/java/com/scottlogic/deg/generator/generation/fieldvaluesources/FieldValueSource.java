@@ -17,15 +17,41 @@
 package com.scottlogic.deg.generator.generation.fieldvaluesources;
 
 import com.scottlogic.deg.generator.utils.RandomNumberGenerator;
+import com.scottlogic.deg.generator.utils.ValueCursor;
 
 public interface FieldValueSource {
     boolean isFinite();
     long getValueCount();
 
+    /**
+     * The number of values, or an upper bound on it that is cheaper to work out, for comparing the sizes of finite
+     * sources; zero only if the source has no values
+     */
+    default long estimateValueCount() {
+        return getValueCount();
+    }
+
     Iterable<Object> generateInterestingValues();
 
     Iterable<Object> generateAllValues();
 
     Iterable<Object> generateRandomValues(RandomNumberGenerator randomNumberGenerator);
+
+    /*
+     * Cursors over the same values as the methods above, which sources can override to produce values without
+     * layers of iterator wrappers
+     */
+
+    default ValueCursor<Object> interestingValuesCursor() {
+        return ValueCursor.of(generateInterestingValues());
+    }
+
+    default ValueCursor<Object> allValuesCursor() {
+        return ValueCursor.of(generateAllValues());
+    }
+
+    default ValueCursor<Object> randomValuesCursor(RandomNumberGenerator randomNumberGenerator) {
+        return ValueCursor.of(generateRandomValues(randomNumberGenerator));
+    }
 }
 
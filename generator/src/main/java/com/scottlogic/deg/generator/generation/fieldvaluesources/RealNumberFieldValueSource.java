@@ -134,6 +134,50 @@ public class RealNumberFieldValueSource implements FieldValueSource {
                 i -> !blacklist.contains(i)));
     }
 
+    @Override
+    public ValueCursor<Object> allValuesCursor() {
+        return new ValueCursor<Object>() {
+            private final RealNumberIterator iterator = new RealNumberIterator();
+            private BigDecimal current;
+
+            @Override
+            public boolean advance() {
+                if (!iterator.hasNext()) {
+                    return false;
+                }
+
+                current = iterator.next();
+                return true;
+            }
+
+            @Override
+            public Object current() {
+                return current;
+            }
+        };
+    }
+
+    @Override
+    public ValueCursor<Object> randomValuesCursor(RandomNumberGenerator randomNumberGenerator) {
+        return new ValueCursor<Object>() {
+            private BigDecimal current;
+
+            @Override
+            public boolean advance() {
+                do {
+                    current = randomNumberGenerator.nextBigDecimal(inclusiveLowerLimit, inclusiveUpperLimit, scale);
+                } while (blacklist.contains(current));
+
+                return true;
+            }
+
+            @Override
+            public Object current() {
+                return current;
+            }
+        };
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj) return true;
@@ -22,6 +22,7 @@ import com.scottlogic.deg.generator.restrictions.DateTimeRestrictions;
 import com.scottlogic.deg.generator.utils.FilteringIterator;
 import com.scottlogic.deg.generator.utils.RandomNumberGenerator;
 import com.scottlogic.deg.generator.utils.UpCastingIterator;
+import com.scottlogic.deg.generator.utils.ValueCursor;
 
 import java.time.*;
 import java.util.ArrayList;
@@ -139,6 +140,65 @@ public class DateTimeFieldValueSource implements FieldValueSource {
 
     }
 
+    @Override
+    public ValueCursor<Object> allValuesCursor() {
+        SequentialDateIterator dates = new SequentialDateIterator(
+            inclusiveLower != null ? inclusiveLower : ISO_MIN_DATE,
+            exclusiveUpper != null ? exclusiveUpper : ISO_MAX_DATE,
+            granularity);
+
+        return new ValueCursor<Object>() {
+            private OffsetDateTime current;
+
+            @Override
+            public boolean advance() {
+                while (dates.hasNext()) {
+                    current = dates.next();
+                    if (!blacklist.contains(current)) {
+                        return true;
+                    }
+                }
+
+                return false;
+            }
+
+            @Override
+            public Object current() {
+                return current;
+            }
+        };
+    }
+
+    @Override
+    public ValueCursor<Object> randomValuesCursor(RandomNumberGenerator randomNumberGenerator) {
+        RandomDateIterator dates = new RandomDateIterator(
+            inclusiveLower != null ? inclusiveLower : ISO_MIN_DATE,
+            exclusiveUpper != null ? exclusiveUpper : ISO_MAX_DATE.plusNanos(1_000_000),
+            randomNumberGenerator,
+            granularity);
+
+        return new ValueCursor<Object>() {
+            private OffsetDateTime current;
+
+            @Override
+            public boolean advance() {
+                while (dates.hasNext()) {
+                    current = dates.next();
+                    if (!blacklist.contains(current)) {
+                        return true;
+                    }
+                }
+
+                return false;
+            }
+
+            @Override
+            public Object current() {
+                return current;
+            }
+        };
+    }
+
     private OffsetDateTime getExclusiveUpperBound(DateTimeRestrictions upper) {
         if (upper.max == null || upper.max.getLimit() == null) return null;
         return upper.max.isInclusive() ? upper.max.getLimit().plusNanos(1_000_000) : upper.max.getLimit();
@@ -0,0 +1,307 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.generation.string;
+
+import dk.brics.automaton.Automaton;
+import dk.brics.automaton.State;
+import dk.brics.automaton.Transition;
+
+import java.util.*;
+
+/**
+ * Decides whether the intersection of several automata (and some string lengths) accepts any strings without
+ * building the intersection. States of the product automaton are only visited until an accepted string is found,
+ * so a check costs no more than finding the first string, whereas intersecting the automata (and counting their
+ * strings) builds every state of the product.
+ *
+ * Negated automata are walked as they are, a string is accepted by a negated automaton if the automaton can't
+ * read it or doesn't accept it.
+ */
+public class AutomatonProductSearch {
+    private final List<Operand> operands;
+    private final StringLengthBounds lengthBounds;
+
+    public AutomatonProductSearch() {
+        this(Collections.emptyList(), null);
+    }
+
+    private AutomatonProductSearch(List<Operand> operands, StringLengthBounds lengthBounds) {
+        this.operands = operands;
+        this.lengthBounds = lengthBounds;
+    }
+
+    public AutomatonProductSearch withRegex(String regex, boolean matchFullString, boolean negated) {
+        return withOperand(new RegexStringGenerator(regex, matchFullString).getAutomaton(), negated);
+    }
+
+    public AutomatonProductSearch withLengths(int minLength, Integer maxLength, Set<Integer> excludedLengths) {
+        return withLengthBounds(new StringLengthBounds(minLength, maxLength, excludedLengths));
+    }
+
+    /**
+     * @param generator a regex generator, or a generator for a standard code that describes its values with one
+     */
+    public AutomatonProductSearch withGenerator(StringGenerator generator) {
+        if (generator instanceof RegexStringGenerator) {
+            RegexStringGenerator regexGenerator = (RegexStringGenerator) generator;
+            AutomatonProductSearch search = withOperand(regexGenerator.getAutomaton(), false);
+
+            return regexGenerator.getLengthBounds() == null
+                ? search
+                : search.withLengthBounds(regexGenerator.getLengthBounds());
+        }
+
+        if (generator instanceof ChecksummedCodeStringGenerator) {
+            ChecksummedCodeStringGenerator codeGenerator = (ChecksummedCodeStringGenerator) generator;
+            return withGenerator(codeGenerator.negate
+                ? codeGenerator.regexGenerator.complement()
+                : codeGenerator.regexGenerator);
+        }
+
+        if (generator instanceof IsinStringGenerator) {
+            IsinStringGenerator isinGenerator = (IsinStringGenerator) generator;
+            return withGenerator(isinGenerator.isNegated()
+                ? isinGenerator.getRegexGenerator().complement()
+                : isinGenerator.getRegexGenerator());
+        }
+
+        if (generator instanceof NoStringsStringGenerator) {
+            return withOperand(Automaton.makeEmpty(), false);
+        }
+
+        throw new UnsupportedOperationException(
+            "Unable to search the strings of " + generator.getClass().getName());
+    }
+
+    /**
+     * @return a search for the strings accepted by this search and the other search
+     */
+    public AutomatonProductSearch withAll(AutomatonProductSearch other) {
+        List<Operand> operands = new ArrayList<>(this.operands);
+        operands.addAll(other.operands);
+
+        return new AutomatonProductSearch(
+            operands,
+            other.lengthBounds == null ? lengthBounds : intersectLengthBounds(other.lengthBounds));
+    }
+
+    /**
+     * @return whether no string is accepted by all the automata with a permitted length
+     */
+    public boolean isEmpty() {
+        return !findString(null);
+    }
+
+    /**
+     * @return whether every string accepted by this search is accepted by the other search
+     */
+    public boolean isSubsetOf(AutomatonProductSearch other) {
+        return !findString(other);
+    }
+
+    private AutomatonProductSearch withOperand(Automaton automaton, boolean negated) {
+        List<Operand> operands = new ArrayList<>(this.operands);
+        operands.add(new Operand(automaton, negated));
+
+        return new AutomatonProductSearch(operands, lengthBounds);
+    }
+
+    private AutomatonProductSearch withLengthBounds(StringLengthBounds lengthBounds) {
+        return new AutomatonProductSearch(operands, intersectLengthBounds(lengthBounds));
+    }
+
+    private StringLengthBounds intersectLengthBounds(StringLengthBounds other) {
+        return lengthBounds == null ? other : lengthBounds.intersect(other);
+    }
+
+    /**
+     * Walk the product of this search's automata (and the excluding search's, if there is one) depth-first, until a
+     * string is found that this search accepts and the excluding search doesn't.
+     * A product state is the state of each automaton (null once an automaton can't read the string) and the length
+     * of the string, capped at a length from which longer lengths are permitted alike.
+     */
+    private boolean findString(AutomatonProductSearch excluding) {
+        List<Operand> allOperands = new ArrayList<>(operands);
+        int includedOperandCount = operands.size();
+        int uniformLengthsFrom = getUniformLengthsFrom(lengthBounds);
+        if (excluding != null) {
+            allOperands.addAll(excluding.operands);
+            uniformLengthsFrom = Math.max(uniformLengthsFrom, getUniformLengthsFrom(excluding.lengthBounds));
+        }
+
+        State[] initialStates = new State[allOperands.size()];
+        for (int index = 0; index < initialStates.length; index++) {
+            initialStates[index] = allOperands.get(index).automaton.getInitialState();
+        }
+
+        Set<ProductState> visited = new HashSet<>();
+        Deque<ProductState> unvisited = new ArrayDeque<>();
+        unvisited.push(new ProductState(initialStates, 0));
+
+        while (!unvisited.isEmpty()) {
+            ProductState productState = unvisited.pop();
+            if (!visited.add(productState)) {
+                continue;
+            }
+
+            boolean accepted = accepts(allOperands, 0, includedOperandCount, lengthBounds, productState);
+            if (accepted && (excluding == null
+                || !accepts(allOperands, includedOperandCount, allOperands.size(), excluding.lengthBounds, productState))) {
+                return true;
+            }
+
+            if (lengthBounds != null && lengthBounds.hasMaxLength() && productState.length >= lengthBounds.getMaxLength()) {
+                continue;
+            }
+
+            int nextLength = Math.min(productState.length + 1, uniformLengthsFrom);
+            for (char character : getDistinguishingCharacters(productState.states)) {
+                State[] nextStates = step(productState.states, character);
+
+                if (canReachIncludedString(allOperands, includedOperandCount, nextStates)) {
+                    unvisited.push(new ProductState(nextStates, nextLength));
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private static int getUniformLengthsFrom(StringLengthBounds lengthBounds) {
+        return lengthBounds == null ? 0 : lengthBounds.getUniformLengthsFrom();
+    }
+
+    private static boolean accepts(
+        List<Operand> operands,
+        int fromIndex,
+        int toIndex,
+        StringLengthBounds lengthBounds,
+        ProductState productState) {
+        if (lengthBounds != null && !lengthBounds.permits(productState.length)) {
+            return false;
+        }
+
+        for (int index = fromIndex; index < toIndex; index++) {
+            State state = productState.states[index];
+            boolean stateAccepts = state != null && state.isAccept();
+
+            if (stateAccepts == operands.get(index).negated) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * A string can't be extended into one this search accepts once an automaton that isn't negated can't read it
+     */
+    private static boolean canReachIncludedString(List<Operand> operands, int includedOperandCount, State[] states) {
+        for (int index = 0; index < includedOperandCount; index++) {
+            if (states[index] == null && !operands.get(index).negated) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static State[] step(State[] states, char character) {
+        State[] nextStates = new State[states.length];
+        for (int index = 0; index < states.length; index++) {
+            nextStates[index] = states[index] == null ? null : states[index].step(character);
+        }
+
+        return nextStates;
+    }
+
+    /**
+     * @return one character from each range of characters that every automaton treats alike in the given states
+     */
+    private static char[] getDistinguishingCharacters(State[] states) {
+        SortedSet<Integer> rangeStarts = new TreeSet<>();
+        rangeStarts.add((int) Character.MIN_VALUE);
+
+        for (State state : states) {
+            if (state == null) {
+                continue;
+            }
+
+            for (Transition transition : state.getTransitions()) {
+                rangeStarts.add((int) transition.getMin());
+                if (transition.getMax() < Character.MAX_VALUE) {
+                    rangeStarts.add(transition.getMax() + 1);
+                }
+            }
+        }
+
+        char[] characters = new char[rangeStarts.size()];
+        int index = 0;
+        for (int rangeStart : rangeStarts) {
+            characters[index++] = (char) rangeStart;
+        }
+
+        return characters;
+    }
+
+    private static class Operand {
+        private final Automaton automaton;
+        private final boolean negated;
+
+        Operand(Automaton automaton, boolean negated) {
+            this.automaton = deterministic(automaton);
+            this.negated = negated;
+        }
+
+        /**
+         * Each product state holds one state per automaton, and a negated automaton can only be walked as it is if
+         * it has one path for each string
+         */
+        private static Automaton deterministic(Automaton automaton) {
+            if (automaton.isDeterministic()) {
+                return automaton;
+            }
+
+            Automaton deterministicAutomaton = automaton.clone();
+            deterministicAutomaton.determinize();
+            return deterministicAutomaton;
+        }
+    }
+
+    private static class ProductState {
+        private final State[] states;
+        private final int length;
+
+        ProductState(State[] states, int length) {
+            this.states = states;
+            this.length = length;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            ProductState that = (ProductState) o;
+            return length == that.length && Arrays.equals(states, that.states);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Arrays.hashCode(states) + length;
+        }
+    }
+}
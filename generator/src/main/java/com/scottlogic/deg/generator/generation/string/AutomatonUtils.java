@@ -21,6 +21,9 @@ import dk.brics.automaton.RegExp;
 import dk.brics.automaton.State;
 import dk.brics.automaton.Transition;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -212,17 +215,16 @@ class AutomatonUtils {
 
 
     /**
-     * Create an automaton and store its instance in the cache, keyed on the given regex
-     * The cache will vary based on &lt;matchFullString&gt;.
+     * Create an automaton for the given regex
      * <p>
-     * The creation of an automaton is a time-consuming process, especially for more complex expressions.
+     * The creation of an automaton is a time-consuming process, especially for more complex expressions, so callers
+     * should cache the result keyed on the regex and &lt;matchFullString&gt;.
      *
      * @param regexStr        The string to create the automaton from
      * @param matchFullString Whether the string represents a matchingRegex (true) or containingRegex (false) expression
-     * @param cache           The cache to store the automaton instance in
      * @return The created automaton
      */
-    public static Automaton createAutomaton(String regexStr, boolean matchFullString, Map<String, Automaton> cache) {
+    public static Automaton createAutomaton(String regexStr, boolean matchFullString) {
         final String anchoredStr = convertEndAnchors(regexStr, matchFullString);
         final String requotedStr = escapeCharacters(anchoredStr);
         final RegExp bricsRegExp = expandShorthandClasses(requotedStr);
@@ -230,10 +232,66 @@ class AutomatonUtils {
         Automaton generatedAutomaton = bricsRegExp.toAutomaton();
         generatedAutomaton.expandSingleton();
 
-        cache.put(regexStr, generatedAutomaton);
         return generatedAutomaton;
     }
 
+    /**
+     * Write the states and transitions of an automaton as a flat table, rather than with Java serialisation, which
+     * recurses through the states and so overflows the stack for automata of long strings
+     *
+     * @param output    The output to write the automaton to
+     * @param automaton The automaton to write
+     */
+    static void writeAutomaton(DataOutput output, Automaton automaton) throws IOException {
+        List<State> states = new ArrayList<>(automaton.getStates());
+        Map<State, Integer> stateIndexes = new HashMap<>();
+        for (State state : states) {
+            stateIndexes.put(state, stateIndexes.size());
+        }
+
+        output.writeBoolean(automaton.isDeterministic());
+        output.writeInt(states.size());
+        output.writeInt(stateIndexes.get(automaton.getInitialState()));
+        for (State state : states) {
+            output.writeBoolean(state.isAccept());
+            output.writeInt(state.getTransitions().size());
+            for (Transition transition : state.getTransitions()) {
+                output.writeChar(transition.getMin());
+                output.writeChar(transition.getMax());
+                output.writeInt(stateIndexes.get(transition.getDest()));
+            }
+        }
+    }
+
+    /**
+     * Read an automaton written by writeAutomaton
+     *
+     * @param input The input to read the automaton from
+     * @return The automaton
+     */
+    static Automaton readAutomaton(DataInput input) throws IOException {
+        boolean deterministic = input.readBoolean();
+        State[] states = new State[input.readInt()];
+        for (int index = 0; index < states.length; index++) {
+            states[index] = new State();
+        }
+
+        Automaton automaton = new Automaton();
+        automaton.setInitialState(states[input.readInt()]);
+        for (State state : states) {
+            state.setAccept(input.readBoolean());
+            int transitionCount = input.readInt();
+            for (int index = 0; index < transitionCount; index++) {
+                char min = input.readChar();
+                char max = input.readChar();
+                state.addTransition(new Transition(min, max, states[input.readInt()]));
+            }
+        }
+
+        automaton.setDeterministic(deterministic);
+        return automaton;
+    }
+
     private static String escapeCharacters(String regex) {
         StringBuilder sb = new StringBuilder(regex);
         Matcher matcher = PATTERN_REQUOTED.matcher(sb);
@@ -123,6 +123,11 @@ public abstract class ChecksummedCodeStringGenerator implements StringGenerator
         return regexGenerator.getValueCount();
     }
 
+    @Override
+    public long estimateValueCount() {
+        return regexGenerator.estimateValueCount();
+    }
+
     @Override
     public Iterable<String> generateInterestingValues() {
         if (negate) {
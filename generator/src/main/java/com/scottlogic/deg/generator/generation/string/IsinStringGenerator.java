@@ -33,7 +33,7 @@ public class IsinStringGenerator implements StringGenerator {
 
     // This generator is not used in generation itself, but is used to describe the possible
     // range of output values when combining with other string generators.
-    private RegexStringGenerator isinRegexGenerator;
+    private final RegexStringGenerator isinRegexGenerator;
 
     private final boolean isNegated;
 
@@ -46,6 +46,14 @@ public class IsinStringGenerator implements StringGenerator {
         isinRegexGenerator = regexGenerator;
     }
 
+    RegexStringGenerator getRegexGenerator() {
+        return isinRegexGenerator;
+    }
+
+    boolean isNegated() {
+        return isNegated;
+    }
+
     @Override
     public StringGenerator intersect(StringGenerator stringGenerator) {
         if (stringGenerator instanceof IsinStringGenerator) {
@@ -114,6 +122,11 @@ public class IsinStringGenerator implements StringGenerator {
         return isinRegexGenerator.getValueCount();
     }
 
+    @Override
+    public long estimateValueCount() {
+        return isinRegexGenerator.estimateValueCount();
+    }
+
     @Override
     public boolean match(String subject) {
         boolean matches = FinancialCodeUtils.isValidIsin(subject);
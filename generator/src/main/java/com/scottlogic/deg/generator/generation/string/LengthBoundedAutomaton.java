@@ -0,0 +1,387 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.generation.string;
+
+import com.scottlogic.deg.generator.utils.RandomNumberGenerator;
+import dk.brics.automaton.Automaton;
+import dk.brics.automaton.State;
+import dk.brics.automaton.Transition;
+
+import java.util.*;
+
+/**
+ * An automaton together with the lengths its strings are permitted to have. Strings are enumerated, sampled and
+ * counted by walking the automaton and tracking the length, so the size of the walk grows with
+ * (states x maximum length) instead of building an automaton for the lengths and intersecting it with this one.
+ * Surrogate characters are never produced, so they are left out of the transitions when walking and counting.
+ */
+class LengthBoundedAutomaton {
+    private static final char PRINTABLE_CHAR = ' ';
+    private static final double STOP_PROBABILITY = 0.7;
+
+    private final StringLengthBounds lengthBounds;
+    private final int maxLength;
+    private final State initialState;
+    private final Map<State, Integer> stateIndexes = new HashMap<>();
+    private final List<State> states = new ArrayList<>();
+
+    /**
+     * For each state, the lengths (as bit indices) of the strings that lead from it to an accepting state
+     */
+    private final BitSet[] acceptedLengths;
+
+    /**
+     * For each state, the lengths (as bit indices) that a string can have when reaching it and still be completed to
+     * a string that is accepted and has a permitted length
+     */
+    private final BitSet[] completableLengths;
+
+    LengthBoundedAutomaton(Automaton automaton, StringLengthBounds lengthBounds) {
+        if (!lengthBounds.hasMaxLength()) {
+            throw new IllegalArgumentException("Strings can only be walked up to a maximum length");
+        }
+
+        this.lengthBounds = lengthBounds;
+        this.maxLength = Math.max(lengthBounds.getMaxLength(), -1);
+        this.initialState = automaton.getInitialState();
+
+        for (State state : automaton.getStates()) {
+            stateIndexes.put(state, states.size());
+            states.add(state);
+        }
+
+        acceptedLengths = calculateAcceptedLengths();
+        completableLengths = calculateCompletableLengths();
+    }
+
+    private BitSet[] calculateAcceptedLengths() {
+        BitSet[] acceptedLengths = new BitSet[states.size()];
+        for (int stateIndex = 0; stateIndex < states.size(); stateIndex++) {
+            acceptedLengths[stateIndex] = new BitSet(maxLength + 1);
+            if (states.get(stateIndex).isAccept()) {
+                acceptedLengths[stateIndex].set(0);
+            }
+        }
+
+        for (int length = 1; length <= maxLength; length++) {
+            for (int stateIndex = 0; stateIndex < states.size(); stateIndex++) {
+                for (Transition transition : states.get(stateIndex).getTransitions()) {
+                    if (getValidCharCount(transition) > 0
+                        && acceptedLengths[indexOf(transition.getDest())].get(length - 1)) {
+                        acceptedLengths[stateIndex].set(length);
+                        break;
+                    }
+                }
+            }
+        }
+
+        return acceptedLengths;
+    }
+
+    private BitSet[] calculateCompletableLengths() {
+        BitSet[] completableLengths = new BitSet[states.size()];
+        for (int stateIndex = 0; stateIndex < states.size(); stateIndex++) {
+            completableLengths[stateIndex] = new BitSet(maxLength + 1);
+        }
+
+        for (int length = maxLength; length >= 0; length--) {
+            for (int stateIndex = 0; stateIndex < states.size(); stateIndex++) {
+                State state = states.get(stateIndex);
+                if (state.isAccept() && lengthBounds.permits(length)) {
+                    completableLengths[stateIndex].set(length);
+                    continue;
+                }
+
+                if (length == maxLength) {
+                    continue;
+                }
+
+                for (Transition transition : state.getTransitions()) {
+                    if (getValidCharCount(transition) > 0
+                        && completableLengths[indexOf(transition.getDest())].get(length + 1)) {
+                        completableLengths[stateIndex].set(length);
+                        break;
+                    }
+                }
+            }
+        }
+
+        return completableLengths;
+    }
+
+    private int indexOf(State state) {
+        return stateIndexes.get(state);
+    }
+
+    /**
+     * @return the number of characters the transition can produce, which excludes any surrogate characters
+     */
+    private static int getValidCharCount(Transition transition) {
+        int surrogatesFrom = Math.max(transition.getMin(), Character.MIN_SURROGATE);
+        int surrogatesTo = Math.min(transition.getMax(), Character.MAX_SURROGATE);
+
+        return transition.getMax() - transition.getMin() + 1 - Math.max(0, surrogatesTo - surrogatesFrom + 1);
+    }
+
+    /**
+     * @return the character at the given index of those the transition can produce, skipping any surrogate characters
+     */
+    private static char getValidChar(Transition transition, int index) {
+        int charsBeforeSurrogates = transition.getMin() < Character.MIN_SURROGATE
+            ? Math.min(transition.getMax(), Character.MIN_SURROGATE - 1) - transition.getMin() + 1
+            : 0;
+
+        if (index < charsBeforeSurrogates) {
+            return (char) (transition.getMin() + index);
+        }
+
+        return (char) (Math.max(transition.getMin(), Character.MAX_SURROGATE + 1) + index - charsBeforeSurrogates);
+    }
+
+    private boolean isCompletable(State state, int length) {
+        return length <= maxLength && completableLengths[indexOf(state)].get(length);
+    }
+
+    private boolean canEndAt(State state, int length) {
+        return state.isAccept() && lengthBounds.permits(length);
+    }
+
+    boolean isEmpty() {
+        return !isCompletable(initialState, 0);
+    }
+
+    /**
+     * Count the permitted strings, saturating at Long.MAX_VALUE
+     */
+    long getValueCount() {
+        long[] countsFromNextLength = new long[states.size()];
+        long[] counts = new long[states.size()];
+
+        for (int length = maxLength; length >= 0; length--) {
+            for (int stateIndex = 0; stateIndex < states.size(); stateIndex++) {
+                State state = states.get(stateIndex);
+                long count = canEndAt(state, length) ? 1 : 0;
+
+                if (length < maxLength) {
+                    for (Transition transition : state.getTransitions()) {
+                        long width = getValidCharCount(transition);
+                        long countFromDest = countsFromNextLength[indexOf(transition.getDest())];
+                        count = saturatingAdd(count, saturatingMultiply(width, countFromDest));
+                    }
+                }
+
+                counts[stateIndex] = count;
+            }
+
+            long[] swap = countsFromNextLength;
+            countsFromNextLength = counts;
+            counts = swap;
+        }
+
+        return countsFromNextLength[indexOf(initialState)];
+    }
+
+    static long saturatingAdd(long left, long right) {
+        long sum = left + right;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    static long saturatingMultiply(long left, long right) {
+        if (left != 0 && right > Long.MAX_VALUE / left) {
+            return Long.MAX_VALUE;
+        }
+        return left * right;
+    }
+
+    /**
+     * @return the shortest and longest permitted strings, or a single string if they are the same length
+     */
+    List<String> getShortestAndLongestExamples() {
+        BitSet lengths = acceptedLengths[indexOf(initialState)];
+        int shortestLength = -1;
+        int longestLength = -1;
+
+        for (int length = lengths.nextSetBit(0); length >= 0; length = lengths.nextSetBit(length + 1)) {
+            if (lengthBounds.permits(length)) {
+                if (shortestLength < 0) {
+                    shortestLength = length;
+                }
+                longestLength = length;
+            }
+        }
+
+        if (shortestLength < 0) {
+            return Collections.emptyList();
+        }
+
+        return shortestLength == longestLength
+            ? Collections.singletonList(getExampleOfLength(shortestLength))
+            : Arrays.asList(getExampleOfLength(shortestLength), getExampleOfLength(longestLength));
+    }
+
+    private String getExampleOfLength(int length) {
+        StringBuilder example = new StringBuilder(length);
+        State state = initialState;
+
+        for (int remaining = length; remaining > 0; remaining--) {
+            for (Transition transition : state.getSortedTransitions(false)) {
+                if (getValidCharCount(transition) > 0
+                    && acceptedLengths[indexOf(transition.getDest())].get(remaining - 1)) {
+                    char printableChar = (char) Math.max(PRINTABLE_CHAR, transition.getMin());
+                    example.append(printableChar <= transition.getMax() && StringUtils.isCharValidUtf8(printableChar)
+                        ? printableChar
+                        : getValidChar(transition, 0));
+                    state = transition.getDest();
+                    break;
+                }
+            }
+        }
+
+        return example.toString();
+    }
+
+    /**
+     * Produce a random permitted string, walking from the initial state through transitions chosen at random
+     * from those that can still lead to a permitted string. Stops at an accepting state with a permitted length 70%
+     * of the time, but only produces an empty string when no other string is permitted.
+     */
+    String generateRandomValue(RandomNumberGenerator random) {
+        StringBuilder value = new StringBuilder();
+        State state = initialState;
+
+        while (true) {
+            List<Transition> transitions = new ArrayList<>();
+            for (Transition transition : state.getSortedTransitions(false)) {
+                if (getValidCharCount(transition) > 0 && isCompletable(transition.getDest(), value.length() + 1)) {
+                    transitions.add(transition);
+                }
+            }
+
+            if (canEndAt(state, value.length())
+                && (transitions.isEmpty() || (value.length() > 0 && random.nextDouble(0, 1) < STOP_PROBABILITY))) {
+                return value.toString();
+            }
+
+            Transition transition = transitions.get(random.nextInt(transitions.size()));
+            value.append(getValidChar(transition, random.nextInt(getValidCharCount(transition))));
+            state = transition.getDest();
+        }
+    }
+
+    /**
+     * Enumerate the permitted strings depth-first, each string before any longer string that it prefixes, skipping
+     * any branch that cannot lead to a permitted string.
+     */
+    Iterator<String> generateAllValues() {
+        return new DepthFirstIterator();
+    }
+
+    private class DepthFirstIterator implements Iterator<String> {
+        private final Deque<Frame> stack = new ArrayDeque<>();
+        private final StringBuilder prefix = new StringBuilder();
+        private String nextValue;
+
+        DepthFirstIterator() {
+            if (!isEmpty()) {
+                stack.push(new Frame(initialState));
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (nextValue == null) {
+                nextValue = findNextValue();
+            }
+            return nextValue != null;
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            String value = nextValue;
+            nextValue = null;
+            return value;
+        }
+
+        private String findNextValue() {
+            while (!stack.isEmpty()) {
+                Frame frame = stack.peek();
+                int length = prefix.length();
+
+                if (!frame.visited) {
+                    frame.visited = true;
+                    if (canEndAt(frame.state, length)) {
+                        return prefix.toString();
+                    }
+                }
+
+                if (frame.moveToNextChar(length + 1)) {
+                    prefix.append(frame.currentChar);
+                    stack.push(new Frame(frame.currentTransition.getDest()));
+                } else {
+                    stack.pop();
+                    if (length > 0) {
+                        prefix.setLength(length - 1);
+                    }
+                }
+            }
+
+            return null;
+        }
+    }
+
+    private class Frame {
+        private final State state;
+        private final List<Transition> transitions;
+        private boolean visited;
+        private int transitionIndex;
+        private Transition currentTransition;
+        private char currentChar;
+
+        Frame(State state) {
+            this.state = state;
+            this.transitions = state.getSortedTransitions(true);
+        }
+
+        boolean moveToNextChar(int nextLength) {
+            while (true) {
+                if (currentTransition != null && currentChar < currentTransition.getMax()) {
+                    currentChar++;
+                } else {
+                    if (transitionIndex >= transitions.size()) {
+                        return false;
+                    }
+
+                    currentTransition = transitions.get(transitionIndex++);
+                    if (getValidCharCount(currentTransition) == 0
+                        || !isCompletable(currentTransition.getDest(), nextLength)) {
+                        currentTransition = null;
+                        continue;
+                    }
+                    currentChar = currentTransition.getMin();
+                }
+
+                if (StringUtils.isCharValidUtf8(currentChar)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
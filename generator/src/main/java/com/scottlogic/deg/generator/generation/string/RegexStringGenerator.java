@@ -24,43 +24,109 @@ import dk.brics.automaton.RegExp;
 import dk.brics.automaton.State;
 import dk.brics.automaton.Transition;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class RegexStringGenerator implements StringGenerator {
 
     /**
-     * Cache of all matching regex automatons, keyed on their regex
+     * Cache of all matching regex automatons, keyed on their regex. Shared by every thread generating data
      */
-    private static final Map<String, Automaton> matchingRegexAutomatonCache = new HashMap<>();
+    private static final Map<String, Automaton> matchingRegexAutomatonCache = new ConcurrentHashMap<>();
 
     /**
-     * Cache of all containing regex automatons, keyed on their regex
+     * Cache of all containing regex automatons, keyed on their regex. Shared by every thread generating data
      */
-    private static final Map<String, Automaton> containingRegexAutomatonCache = new HashMap<>();
+    private static final Map<String, Automaton> containingRegexAutomatonCache = new ConcurrentHashMap<>();
 
-    private Automaton automaton;
-    private Node rootNode;
-    private boolean isRootNodeBuilt;
+    /**
+     * The automaton of a generator that only restricts string lengths, never modified
+     */
+    private static final Automaton ANY_STRING = Automaton.makeAnyString();
+
+    private final Automaton automaton;
+
+    /** whether the automaton accepts any string, so intersecting with it can be skipped */
+    private final boolean matchesAnyString;
+    private final StringLengthBounds lengthBounds;
+
+    // Generators are shared between threads (see CachingFieldValueSourceEvaluator), so state built on first use is
+    // only published through these volatile fields once it is complete, and is never modified afterwards
+    private volatile LengthBoundedAutomaton lengthBoundedAutomaton;
+    private volatile Node rootNode;
+    private volatile long valueCountEstimate = -1;
     private int preparedTransactionNode;
     private final String regexRepresentation;
 
     private RegexStringGenerator(Automaton automaton, String regexRepresentation) {
+        this(automaton, regexRepresentation, null);
+    }
+
+    private RegexStringGenerator(Automaton automaton, String regexRepresentation, StringLengthBounds lengthBounds) {
+        this(automaton, false, regexRepresentation, lengthBounds);
+    }
+
+    private RegexStringGenerator(
+        Automaton automaton,
+        boolean matchesAnyString,
+        String regexRepresentation,
+        StringLengthBounds lengthBounds) {
         this.automaton = automaton;
+        this.matchesAnyString = matchesAnyString;
         this.regexRepresentation = regexRepresentation;
+        this.lengthBounds = lengthBounds;
     }
 
     public RegexStringGenerator(String regexStr, boolean matchFullString) {
-        Map<String, Automaton> cache = matchFullString ? matchingRegexAutomatonCache : containingRegexAutomatonCache;
-        Automaton generatedAutomaton = cache.containsKey(regexStr)
-            ? cache.get(regexStr)
-            : AutomatonUtils.createAutomaton(regexStr, matchFullString, cache);
+        Automaton generatedAutomaton = getCachedAutomaton(regexStr, matchFullString);
 
         String prefix = matchFullString ? "" : "*";
         String suffix = matchFullString ? "" : "*";
         this.regexRepresentation = String.format("%s/%s/%s", prefix, regexStr, suffix);
         this.automaton = generatedAutomaton;
+        this.matchesAnyString = false;
+        this.lengthBounds = null;
+    }
+
+    /**
+     * Write the automaton of each of the given regexes, compiling any which haven't been compiled yet, in the form read
+     * by {@link #readAutomata}
+     */
+    public static void writeAutomata(DataOutput output, Collection<String> regexes, boolean matchFullString)
+        throws IOException {
+        output.writeInt(regexes.size());
+        for (String regex : regexes) {
+            Automaton automaton = getCachedAutomaton(regex, matchFullString);
+
+            output.writeUTF(regex);
+            AutomatonUtils.writeAutomaton(output, automaton);
+        }
+    }
+
+    /**
+     * read automata written by {@link #writeAutomata}, so that their regexes don't need to be compiled again. None of
+     * them are cached unless all of them are read
+     */
+    public static void readAutomata(DataInput input, boolean matchFullString) throws IOException {
+        Map<String, Automaton> automata = new HashMap<>();
+        int count = input.readInt();
+        for (int index = 0; index < count; index++) {
+            String regex = input.readUTF();
+            automata.put(regex, AutomatonUtils.readAutomaton(input));
+        }
+
+        Map<String, Automaton> cache = matchFullString ? matchingRegexAutomatonCache : containingRegexAutomatonCache;
+        automata.forEach(cache::putIfAbsent);
+    }
+
+    private static Automaton getCachedAutomaton(String regex, boolean matchFullString) {
+        Map<String, Automaton> cache = matchFullString ? matchingRegexAutomatonCache : containingRegexAutomatonCache;
+        return cache.computeIfAbsent(regex, key -> AutomatonUtils.createAutomaton(key, matchFullString));
     }
 
     @Override
@@ -76,6 +142,14 @@ public class RegexStringGenerator implements StringGenerator {
         return "<UNKNOWN>";
     }
 
+    Automaton getAutomaton() {
+        return automaton;
+    }
+
+    StringLengthBounds getLengthBounds() {
+        return lengthBounds;
+    }
+
     public static RegexStringGenerator createFromBlacklist(Set<Object> blacklist) {
         String[] blacklistStrings = blacklist.stream().map(Object::toString).toArray(String[]::new);
         Automaton automaton = Automaton.makeStringUnion(blacklistStrings).complement();
@@ -83,6 +157,22 @@ public class RegexStringGenerator implements StringGenerator {
         return new RegexStringGenerator(automaton, String.format("NOT-IN %s", Objects.toString(blacklist)));
     }
 
+    /**
+     * Create a generator for any string with a length between minLength and maxLength (inclusive) that isn't one of
+     * the excluded lengths. With a maxLength the lengths are applied as strings are generated, so intersecting this
+     * generator with another doesn't multiply the size of the other generator's automaton by the maximum length.
+     *
+     * @param maxLength the longest permitted length, or null if strings can be any length
+     */
+    public static RegexStringGenerator createFromLengthBounds(int minLength, Integer maxLength, Set<Integer> excludedLengths) {
+        StringLengthBounds lengthBounds = new StringLengthBounds(minLength, maxLength, excludedLengths);
+        if (!lengthBounds.hasMaxLength()) {
+            return new RegexStringGenerator(lengthBounds.toRegex(), true);
+        }
+
+        return new RegexStringGenerator(ANY_STRING, true, String.format("/%s/", lengthBounds), lengthBounds);
+    }
+
     @Override
     public StringGenerator intersect(StringGenerator otherGenerator) {
         if (otherGenerator instanceof NoStringsStringGenerator) {
@@ -95,17 +185,59 @@ public class RegexStringGenerator implements StringGenerator {
 
         RegexStringGenerator otherRegexGenerator = (RegexStringGenerator) otherGenerator;
         Automaton b = otherRegexGenerator.automaton;
-        Automaton merged = automaton.intersection(b);
+        Automaton merged = matchesAnyString
+            ? b
+            : otherRegexGenerator.matchesAnyString ? automaton : automaton.intersection(b);
         String mergedRepresentation = intersectRepresentation(
             this.regexRepresentation,
             otherRegexGenerator.regexRepresentation);
 
-        return new RegexStringGenerator(merged, mergedRepresentation);
+        return new RegexStringGenerator(
+            merged,
+            matchesAnyString && otherRegexGenerator.matchesAnyString,
+            mergedRepresentation,
+            intersectLengthBounds(lengthBounds, otherRegexGenerator.lengthBounds));
+    }
+
+    private static StringLengthBounds intersectLengthBounds(StringLengthBounds left, StringLengthBounds right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+
+        return left.intersect(right);
+    }
+
+    /**
+     * Get an automaton that only accepts strings of the permitted lengths. Only needed for operations, such as a
+     * complement or union, that cannot be applied to the length bounds on their own.
+     */
+    private Automaton getLengthRestrictedAutomaton() {
+        if (lengthBounds == null) {
+            return automaton;
+        }
+
+        return matchesAnyString
+            ? lengthBounds.toAutomaton()
+            : automaton.intersection(lengthBounds.toAutomaton());
+    }
+
+    private LengthBoundedAutomaton getLengthBoundedAutomaton() {
+        LengthBoundedAutomaton built = lengthBoundedAutomaton;
+        if (built == null) {
+            // two threads may both build it; either result is equally valid
+            built = new LengthBoundedAutomaton(automaton, lengthBounds);
+            lengthBoundedAutomaton = built;
+        }
+
+        return built;
     }
 
     public RegexStringGenerator union(RegexStringGenerator otherGenerator) {
-        Automaton b = otherGenerator.automaton;
-        Automaton merged = automaton.union(b);
+        Automaton b = otherGenerator.getLengthRestrictedAutomaton();
+        Automaton merged = getLengthRestrictedAutomaton().union(b);
         String mergedRepresentation = unionRepresentation(
             this.regexRepresentation,
             otherGenerator.regexRepresentation
@@ -116,7 +248,7 @@ public class RegexStringGenerator implements StringGenerator {
     @Override
     public StringGenerator complement() {
         return new RegexStringGenerator(
-            this.automaton.clone().complement(),
+            (lengthBounds == null ? this.automaton.clone() : getLengthRestrictedAutomaton()).complement(),
             complementaryRepresentation(this.regexRepresentation));
     }
 
@@ -134,11 +266,15 @@ public class RegexStringGenerator implements StringGenerator {
 
     @Override
     public boolean isFinite() {
-        return automaton.isFinite();
+        return lengthBounds != null || automaton.isFinite();
     }
 
     @Override
     public Iterable<String> generateInterestingValues() {
+        if (lengthBounds != null) {
+            return getLengthBoundedAutomaton().getShortestAndLongestExamples();
+        }
+
         try {
             String shortestString = AutomatonUtils.getShortestExample(automaton);
             String longestString = AutomatonUtils.getLongestExample(automaton);
@@ -159,6 +295,10 @@ public class RegexStringGenerator implements StringGenerator {
 
     @Override
     public Iterable<String> generateAllValues() {
+        if (lengthBounds != null) {
+            return () -> getLengthBoundedAutomaton().generateAllValues();
+        }
+
         if (this.isFinite()) {
             return () -> new RegexStringGenerator.FiniteStringAutomatonIterator(this);
         }
@@ -170,6 +310,16 @@ public class RegexStringGenerator implements StringGenerator {
 
     @Override
     public Iterable<String> generateRandomValues(RandomNumberGenerator randomNumberGenerator) {
+        if (lengthBounds != null) {
+            LengthBoundedAutomaton lengthBoundedAutomaton = getLengthBoundedAutomaton();
+            if (lengthBoundedAutomaton.isEmpty()) {
+                return Collections.emptySet();
+            }
+
+            return () -> new SupplierBasedIterator<>(
+                () -> lengthBoundedAutomaton.generateRandomValue(randomNumberGenerator));
+        }
+
         return () -> new SupplierBasedIterator<>(
             () -> generateRandomStringInternal(
                 "",
@@ -185,20 +335,64 @@ public class RegexStringGenerator implements StringGenerator {
             throw new UnsupportedOperationException("Cannot count matches for a non-finite expression.");
         }
 
-        buildRootNode();
+        if (lengthBounds != null) {
+            return getLengthBoundedAutomaton().getValueCount();
+        }
 
-        if (rootNode.nextNodes.isEmpty()) {
+        Node root = getRootNode();
+
+        if (root.nextNodes.isEmpty()) {
             return 0L;
         }
 
-        return rootNode.matchedStringIdx;
+        return root.matchedStringIdx;
     }
 
+    /**
+     * Count the strings along every path through the automaton, once for each state rather than once for each path
+     * as the node tree does, so it stays cheap for regexes with many matches. Exact for deterministic automata, and an
+     * upper bound otherwise
+     */
     @Override
-    public boolean match(String subject) {
+    public long estimateValueCount() {
+        if (!this.isFinite()) {
+            throw new UnsupportedOperationException("Cannot count matches for a non-finite expression.");
+        }
+
+        if (lengthBounds != null) {
+            return getLengthBoundedAutomaton().getValueCount();
+        }
+
+        long estimate = valueCountEstimate;
+        if (estimate < 0) {
+            estimate = countStringsFrom(automaton.getInitialState(), new HashMap<>());
+            valueCountEstimate = estimate;
+        }
+        return estimate;
+    }
+
+    private static long countStringsFrom(State state, Map<State, Long> counts) {
+        Long known = counts.get(state);
+        if (known != null) {
+            return known;
+        }
+
+        long count = state.isAccept() ? 1 : 0;
+        for (Transition transition : state.getTransitions()) {
+            long width = transition.getMax() - transition.getMin() + 1;
+            long countFromDest = countStringsFrom(transition.getDest(), counts);
+            count = LengthBoundedAutomaton.saturatingAdd(
+                count,
+                LengthBoundedAutomaton.saturatingMultiply(width, countFromDest));
+        }
 
-        return automaton.run(subject);
+        counts.put(state, count);
+        return count;
+    }
 
+    @Override
+    public boolean match(String subject) {
+        return (lengthBounds == null || lengthBounds.permits(subject.length())) && automaton.run(subject);
     }
 
     private String generateRandomStringInternal(
@@ -313,17 +507,22 @@ public class RegexStringGenerator implements StringGenerator {
         return result;
     }
 
-    private void buildRootNode() {
+    private Node getRootNode() {
+        Node root = rootNode;
+        return root != null ? root : buildRootNode();
+    }
 
-        if (isRootNodeBuilt) {
-            return;
+    private synchronized Node buildRootNode() {
+        if (rootNode != null) {
+            return rootNode;
         }
-        isRootNodeBuilt = true;
 
-        rootNode = new Node();
+        Node root = new Node();
         List<Node> nextNodes = prepareTransactionNodes(automaton.getInitialState());
-        rootNode.setNextNodes(nextNodes);
-        rootNode.updateMatchedStringIdx();
+        root.setNextNodes(nextNodes);
+        root.updateMatchedStringIdx();
+        rootNode = root;
+        return root;
     }
 
     private List<Node> prepareTransactionNodes(State state) {
@@ -462,15 +661,15 @@ public class RegexStringGenerator implements StringGenerator {
         }
 
         private String getMatchedString(int indexOrder) {
-            buildRootNode();
+            Node root = getRootNode();
             if (indexOrder < 1) {
                 throw new IllegalArgumentException("indexOrder must be >= 1");
             }
 
-            if (indexOrder > rootNode.matchedStringIdx) {
+            if (indexOrder > root.matchedStringIdx) {
                 return null;
             }
-            String result = buildStringFromNode(rootNode, indexOrder);
+            String result = buildStringFromNode(root, indexOrder);
             result = result.substring(1, result.length() - 1);
             return result;
         }
@@ -488,11 +687,12 @@ public class RegexStringGenerator implements StringGenerator {
         if (o == null || getClass() != o.getClass())
             return false;
         RegexStringGenerator constraint = (RegexStringGenerator) o;
-        return this.automaton.equals(constraint.automaton);
+        return this.automaton.equals(constraint.automaton)
+            && Objects.equals(this.lengthBounds, constraint.lengthBounds);
     }
 
     public int hashCode() {
-        return Objects.hash(this.automaton, this.getClass());
+        return Objects.hash(this.automaton, this.lengthBounds, this.getClass());
     }
 
     public static class UnionCollector {
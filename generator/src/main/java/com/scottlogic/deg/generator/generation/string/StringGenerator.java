@@ -19,6 +19,7 @@ package com.scottlogic.deg.generator.generation.string;
 import com.scottlogic.deg.generator.generation.fieldvaluesources.FieldValueSource;
 import com.scottlogic.deg.generator.utils.RandomNumberGenerator;
 import com.scottlogic.deg.generator.utils.UpCastingIterator;
+import com.scottlogic.deg.generator.utils.ValueCursor;
 
 public interface StringGenerator {
     StringGenerator intersect(StringGenerator stringGenerator);
@@ -26,6 +27,12 @@ public interface StringGenerator {
 
     boolean isFinite();
     long getValueCount();
+
+    /** see {@link FieldValueSource#estimateValueCount} */
+    default long estimateValueCount() {
+        return getValueCount();
+    }
+
     boolean match(String subject);
 
     Iterable<String> generateInterestingValues();
@@ -56,6 +63,11 @@ public interface StringGenerator {
             return underlyingGenerator.getValueCount();
         }
 
+        @Override
+        public long estimateValueCount() {
+            return underlyingGenerator.estimateValueCount();
+        }
+
         @Override
         public Iterable<Object> generateInterestingValues() {
             return () -> new UpCastingIterator<>(
@@ -73,5 +85,20 @@ public interface StringGenerator {
             return () -> new UpCastingIterator<>(
                 underlyingGenerator.generateRandomValues(randomNumberGenerator).iterator());
         }
+
+        @Override
+        public ValueCursor<Object> interestingValuesCursor() {
+            return ValueCursor.of(underlyingGenerator.generateInterestingValues());
+        }
+
+        @Override
+        public ValueCursor<Object> allValuesCursor() {
+            return ValueCursor.of(underlyingGenerator.generateAllValues());
+        }
+
+        @Override
+        public ValueCursor<Object> randomValuesCursor(RandomNumberGenerator randomNumberGenerator) {
+            return ValueCursor.of(underlyingGenerator.generateRandomValues(randomNumberGenerator));
+        }
     }
 }
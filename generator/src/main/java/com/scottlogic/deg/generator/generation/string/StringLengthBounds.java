@@ -0,0 +1,201 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.generation.string;
+
+import dk.brics.automaton.Automaton;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * The lengths a generated string may have: between a minimum and an optional maximum length (inclusive), except for
+ * any excluded lengths. When there is a maximum, RegexStringGenerator applies these while it walks its automaton,
+ * rather than intersecting its automaton with one for the lengths.
+ */
+class StringLengthBounds {
+    private final int minLength;
+    private final Integer maxLength;
+    private final SortedSet<Integer> excludedLengths;
+
+    StringLengthBounds(int minLength, Integer maxLength, Set<Integer> excludedLengths) {
+        if (minLength < 0) {
+            throw new IllegalArgumentException("Minimum length must not be negative");
+        }
+
+        this.minLength = minLength;
+        this.maxLength = maxLength;
+        this.excludedLengths = excludedLengths.stream()
+            .filter(length -> length >= minLength && (maxLength == null || length <= maxLength))
+            .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    boolean hasMaxLength() {
+        return maxLength != null;
+    }
+
+    /**
+     * @return the longest permitted length
+     * @throws IllegalStateException if strings can be any length
+     */
+    int getMaxLength() {
+        if (maxLength == null) {
+            throw new IllegalStateException("Strings can be any length, check hasMaxLength first");
+        }
+
+        return maxLength;
+    }
+
+    /**
+     * @return a length from which every longer length is either permitted or not, as this length is
+     */
+    int getUniformLengthsFrom() {
+        int uniformFrom = excludedLengths.isEmpty()
+            ? minLength
+            : Math.max(minLength, excludedLengths.last() + 1);
+
+        return maxLength == null ? uniformFrom : Math.max(uniformFrom, maxLength + 1);
+    }
+
+    boolean permits(int length) {
+        return length >= minLength
+            && (maxLength == null || length <= maxLength)
+            && !excludedLengths.contains(length);
+    }
+
+    StringLengthBounds intersect(StringLengthBounds other) {
+        Set<Integer> excludedLengths = new HashSet<>(this.excludedLengths);
+        excludedLengths.addAll(other.excludedLengths);
+
+        return new StringLengthBounds(
+            Math.max(minLength, other.minLength),
+            maxLength == null || other.maxLength == null
+                ? (maxLength == null ? other.maxLength : maxLength)
+                : (Integer) Math.min(maxLength, other.maxLength),
+            excludedLengths);
+    }
+
+    /**
+     * Build an automaton that accepts any string with a permitted length, for operations that cannot be applied to
+     * the bounds directly, such as a complement or union.
+     */
+    Automaton toAutomaton() {
+        if (maxLength != null && minLength > maxLength) {
+            return Automaton.makeEmpty();
+        }
+
+        Automaton automaton = maxLength == null
+            ? Automaton.makeAnyChar().repeat(minLength)
+            : Automaton.makeAnyChar().repeat(minLength, maxLength);
+        for (int excludedLength : excludedLengths) {
+            automaton = automaton.minus(Automaton.makeAnyChar().repeat(excludedLength, excludedLength));
+        }
+
+        return automaton;
+    }
+
+    /**
+     * Produce a regular expression that permits any character, but restricts the length of the string
+     * Will either:
+     * 1. Return a regex like /.{nnn}/ where nnn is the defined length constraint, or the shorterThan and longerThan represent the same string length
+     * 2. Return a regex like /.{aaa,bbb}/ where aaa is the shortest length and bbb is the longest length
+     * 3. Return a regex like /.{0,aaa}|.{bbb,ccc}/ where
+     *      aaa is the last length before an excluded length
+     *      bbb is the first length after the previously excluded length
+     *      ccc is the appropriate maximum length for the string
+     */
+    String toRegex() {
+        Integer maxLength = this.maxLength;
+        if (maxLength != null && maxLength.equals(minLength)){
+            return restrictStringLength(minLength);
+        }
+
+        //if there are no excluded lengths, then return a regex that represents the shortest/longest string
+        if (excludedLengths.isEmpty()) {
+            return restrictStringLength(minLength, maxLength);
+        }
+
+        List<String> patterns = new ArrayList<>();
+        Integer lastExcludedLength = null;
+        for (int excludedLength : excludedLengths) {
+            if (maxLength != null && excludedLength == maxLength){
+                maxLength--; //the excluded length is the same as the longest, reduce the max-length
+            }
+            if (excludedLength == minLength){
+                lastExcludedLength = excludedLength;
+                continue;
+            }
+
+            if (lastExcludedLength == null) {
+                if (minLength < excludedLength - 1) {
+                    patterns.add(String.format(".{%d,%d}", minLength, excludedLength - 1));
+                }
+            } else {
+                patterns.add(String.format(".{%d,%d}", lastExcludedLength + 1, excludedLength - 1));
+            }
+
+            lastExcludedLength = excludedLength;
+        }
+
+        if (patterns.isEmpty()) {
+            //if no lengths have been excluded, i.e. each excluded length is either > maxLength or
+            // the same maxLength -1 (at which point appropriateMaxLength will have been modified)
+            return restrictStringLength(lastExcludedLength != null ? lastExcludedLength + 1 : minLength, maxLength);
+        }
+
+        if (maxLength != null && lastExcludedLength + 1 < maxLength - 1) {
+            patterns.add(String.format(".{%d,%d}", lastExcludedLength + 1, maxLength));
+        } else if (maxLength == null){
+            patterns.add(String.format(".{%d,}", lastExcludedLength + 1));
+        }
+
+        return String.format(
+            patterns.size() == 1 ? "^%s$" : "^(%s)$",
+            String.join("|", patterns));
+    }
+
+    private static String restrictStringLength(int length){
+        return String.format("^.{%d}$", length);
+    }
+
+    private static String restrictStringLength(int min, Integer max){
+        if (max == null) {
+            return String.format("^.{%d,}$", min);
+        }
+
+        return String.format("^.{%d,%d}$", min, max);
+    }
+
+    @Override
+    public String toString() {
+        return toRegex();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        StringLengthBounds that = (StringLengthBounds) o;
+        return minLength == that.minLength
+            && Objects.equals(maxLength, that.maxLength)
+            && excludedLengths.equals(that.excludedLengths);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(minLength, maxLength, excludedLengths);
+    }
+}
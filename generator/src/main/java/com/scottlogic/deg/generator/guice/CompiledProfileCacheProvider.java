@@ -0,0 +1,45 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.guice;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.scottlogic.deg.generator.generation.CompiledProfileCache;
+import com.scottlogic.deg.generator.generation.DataGeneratorMonitor;
+import com.scottlogic.deg.generator.generation.GenerationConfigSource;
+import com.scottlogic.deg.generator.generation.NoopCompiledProfileCache;
+import com.scottlogic.deg.generator.generation.SnapshotCompiledProfileCache;
+
+public class CompiledProfileCacheProvider implements Provider<CompiledProfileCache> {
+    private final GenerationConfigSource configSource;
+    private final DataGeneratorMonitor monitor;
+
+    @Inject
+    public CompiledProfileCacheProvider(GenerationConfigSource configSource, DataGeneratorMonitor monitor) {
+        this.configSource = configSource;
+        this.monitor = monitor;
+    }
+
+    @Override
+    public CompiledProfileCache get() {
+        if (configSource.getProfileSnapshotDirectory() == null) {
+            return new NoopCompiledProfileCache();
+        }
+
+        return new SnapshotCompiledProfileCache(configSource.getProfileSnapshotDirectory(), monitor);
+    }
+}
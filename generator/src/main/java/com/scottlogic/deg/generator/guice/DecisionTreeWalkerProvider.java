@@ -21,11 +21,15 @@ import com.google.inject.Provider;
 import com.scottlogic.deg.generator.config.detail.DataGenerationType;
 import com.scottlogic.deg.generator.generation.GenerationConfigSource;
 import com.scottlogic.deg.generator.walker.*;
+import com.scottlogic.deg.generator.walker.reductive.ConflictAnalyser;
+import com.scottlogic.deg.generator.walker.reductive.ForwardChecker;
 
 public class DecisionTreeWalkerProvider implements Provider<DecisionTreeWalker> {
-    private final DecisionTreeWalker reductiveDecisionTreeWalker;
+    private final ReductiveDecisionTreeWalker reductiveDecisionTreeWalker;
     private final DecisionTreeWalker cartesianProductDecisionTreeWalker;
     private final RandomReductiveDecisionTreeWalker randomReductiveDecisionTreeWalker;
+    private final ForwardChecker forwardChecker;
+    private final ConflictAnalyser conflictAnalyser;
     private final GenerationConfigSource configSource;
 
     @Inject
@@ -33,10 +37,14 @@ public class DecisionTreeWalkerProvider implements Provider<DecisionTreeWalker>
         ReductiveDecisionTreeWalker reductiveDecisionTreeWalker,
         CartesianProductDecisionTreeWalker cartesianProductDecisionTreeWalker,
         RandomReductiveDecisionTreeWalker randomReductiveDecisionTreeWalker,
+        ForwardChecker forwardChecker,
+        ConflictAnalyser conflictAnalyser,
         GenerationConfigSource configSource) {
         this.reductiveDecisionTreeWalker = reductiveDecisionTreeWalker;
         this.cartesianProductDecisionTreeWalker = cartesianProductDecisionTreeWalker;
         this.randomReductiveDecisionTreeWalker = randomReductiveDecisionTreeWalker;
+        this.forwardChecker = forwardChecker;
+        this.conflictAnalyser = conflictAnalyser;
         this.configSource = configSource;
     }
 
@@ -50,7 +58,13 @@ public class DecisionTreeWalkerProvider implements Provider<DecisionTreeWalker>
                   if (this.configSource.getGenerationType() == DataGenerationType.RANDOM)
                       return this.randomReductiveDecisionTreeWalker;
 
-                  return this.reductiveDecisionTreeWalker;
+                  ReductiveDecisionTreeWalker walker = this.reductiveDecisionTreeWalker;
+                  if (this.configSource.shouldForwardCheck())
+                      walker = walker.withForwardChecking(this.forwardChecker);
+                  if (this.configSource.shouldBackjump())
+                      walker = walker.withBackjumping(this.conflictAnalyser);
+
+                  return walker;
 
               default:
                   return this.reductiveDecisionTreeWalker;
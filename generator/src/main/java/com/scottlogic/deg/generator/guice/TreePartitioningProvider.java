@@ -34,7 +34,7 @@ public class TreePartitioningProvider implements Provider<TreePartitioner> {
     @Override
     public TreePartitioner get() {
         if (configSource.shouldDoPartitioning()){
-            return new RelatedFieldTreePartitioner();
+            return new RelatedFieldTreePartitioner(configSource.shouldSplitIndependentDecisions());
         }
         return new NoopTreePartitioner();
     }
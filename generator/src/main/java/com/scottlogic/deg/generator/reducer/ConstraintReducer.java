@@ -34,6 +34,18 @@ import java.util.stream.StreamSupport;
 public class ConstraintReducer {
     private final FieldSpecFactory fieldSpecFactory;
     private final FieldSpecMerger fieldSpecMerger;
+    /**
+     * RowSpecs of the constraint sets seen most recently, bounded so that walking a large profile, or a long-lived
+     * injector, doesn't keep every constraint set it has ever seen
+     */
+    private static final int MAX_CACHED_ROW_SPECS = 10000;
+    private final Map<RowSpecCacheKey, Optional<RowSpec>> rowSpecCache = Collections.synchronizedMap(
+        new LinkedHashMap<RowSpecCacheKey, Optional<RowSpec>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<RowSpecCacheKey, Optional<RowSpec>> eldest) {
+                return size() > MAX_CACHED_ROW_SPECS;
+            }
+        });
 
     @Inject
     public ConstraintReducer(
@@ -75,6 +87,23 @@ public class ConstraintReducer {
                 map));
     }
 
+    /**
+     * Get the RowSpec for the atomic constraints of a node in the tree, reducing them only if the set of
+     * constraints isn't among those seen most recently. The result is keyed on the constraints rather than the node, so copies of a node
+     * that only differ by their decisions or markings share the same RowSpec. Safe to call from concurrent walkers.
+     */
+    public Optional<RowSpec> getOrCreateRowSpec(ProfileFields fields, Collection<AtomicConstraint> constraints) {
+        RowSpecCacheKey key = new RowSpecCacheKey(fields, constraints);
+        Optional<RowSpec> rowSpec = rowSpecCache.get(key);
+        if (rowSpec != null) {
+            return rowSpec;
+        }
+
+        rowSpec = reduceConstraintsToRowSpec(key.fields, key.constraints);
+        Optional<RowSpec> existingRowSpec = rowSpecCache.putIfAbsent(key, rowSpec);
+        return existingRowSpec != null ? existingRowSpec : rowSpec;
+    }
+
     public Optional<FieldSpec> reduceConstraintsToFieldSpec(Iterable<AtomicConstraint> constraints) {
         return constraints == null
                 ? Optional.of(FieldSpec.Empty)
@@ -96,4 +125,31 @@ public class ConstraintReducer {
                     acc1 -> optAcc2.flatMap(
                         acc2 -> fieldSpecMerger.merge(acc1, acc2))));
     }
+
+    private static final class RowSpecCacheKey {
+        private final ProfileFields fields;
+        private final Set<AtomicConstraint> constraints;
+        private final int hashCode;
+
+        private RowSpecCacheKey(ProfileFields fields, Collection<AtomicConstraint> constraints) {
+            this.fields = fields;
+            this.constraints = new HashSet<>(constraints);
+            this.hashCode = Objects.hash(fields, this.constraints);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            RowSpecCacheKey that = (RowSpecCacheKey) o;
+            return hashCode == that.hashCode &&
+                Objects.equals(fields, that.fields) &&
+                Objects.equals(constraints, that.constraints);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
 }
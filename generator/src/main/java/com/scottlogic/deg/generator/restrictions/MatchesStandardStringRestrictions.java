@@ -17,6 +17,7 @@
 package com.scottlogic.deg.generator.restrictions;
 
 import com.scottlogic.deg.common.profile.constraints.atomic.StandardConstraintTypes;
+import com.scottlogic.deg.generator.generation.string.AutomatonProductSearch;
 import com.scottlogic.deg.generator.generation.string.CusipStringGenerator;
 import com.scottlogic.deg.generator.generation.string.IsinStringGenerator;
 import com.scottlogic.deg.generator.generation.string.SedolStringGenerator;
@@ -29,11 +30,23 @@ import com.scottlogic.deg.generator.generation.string.StringGenerator;
 public class MatchesStandardStringRestrictions implements StringRestrictions{
     private final StandardConstraintTypes type;
     private final boolean negated;
+    private final TextualRestrictions intersectingRestrictions;
+    private StringGenerator standardGenerator;
     private StringGenerator generator;
 
     public MatchesStandardStringRestrictions(StandardConstraintTypes type, boolean negated) {
+        this(type, negated, null, null);
+    }
+
+    private MatchesStandardStringRestrictions(
+        StandardConstraintTypes type,
+        boolean negated,
+        StringGenerator standardGenerator,
+        TextualRestrictions intersectingRestrictions) {
         this.type = type;
         this.negated = negated;
+        this.standardGenerator = standardGenerator;
+        this.intersectingRestrictions = intersectingRestrictions;
     }
 
     @Override
@@ -49,23 +62,44 @@ public class MatchesStandardStringRestrictions implements StringRestrictions{
             : generator;
     }
 
+    /**
+     * Get the generator for the standard, intersected with any textual restrictions that partially restrict it.
+     * The intersection is only built when it is needed to produce or match values.
+     */
     private StringGenerator getStringGenerator() {
         if (generator == null) {
+            generator = intersectingRestrictions == null
+                ? getStandardGenerator()
+                : getStandardGenerator().intersect(intersectingRestrictions.createGenerator());
+        }
+        return generator;
+    }
+
+    private StringGenerator getStandardGenerator() {
+        if (standardGenerator == null) {
             switch (type) {
                 case ISIN:
-                    generator = new IsinStringGenerator();
+                    standardGenerator = new IsinStringGenerator();
                     break;
                 case SEDOL:
-                    generator = new SedolStringGenerator();
+                    standardGenerator = new SedolStringGenerator();
                     break;
                 case CUSIP:
-                    generator = new CusipStringGenerator();
+                    standardGenerator = new CusipStringGenerator();
                     break;
                 default:
                     throw new UnsupportedOperationException(String.format("Unable to create string generator for: %s", type));
             }
         }
-        return generator;
+        return standardGenerator;
+    }
+
+    private AutomatonProductSearch getProductSearch() {
+        AutomatonProductSearch search = new AutomatonProductSearch().withGenerator(getStandardGenerator());
+
+        return intersectingRestrictions == null
+            ? search
+            : search.withAll(intersectingRestrictions.getProductSearch());
     }
 
     /**
@@ -90,7 +124,7 @@ public class MatchesStandardStringRestrictions implements StringRestrictions{
                 return new MergeResult<>(this); //no impact on values produced by this type
             }
             if (impact == Impact.PARTIAL) {
-                return new MergeResult<>(copyWithGenerator(getCombinedGenerator(textualRestrictions)));
+                return copyWithIntersection(textualRestrictions);
             }
 
             return MergeResult.unsuccessful();
@@ -120,19 +154,14 @@ public class MatchesStandardStringRestrictions implements StringRestrictions{
      * @param textualRestrictions The other restrictions type to check
      */
     private Impact getImpactOnValueProduction(TextualRestrictions textualRestrictions) {
-        boolean hasRegexRestrictions = !textualRestrictions.containingRegex.isEmpty()
-            || !textualRestrictions.matchingRegex.isEmpty()
-            || !textualRestrictions.notMatchingRegex.isEmpty()
-            || !textualRestrictions.notContainingRegex.isEmpty();
-
-        if (hasRegexRestrictions) {
-            StringGenerator ourGenerator = getStringGenerator();
-            StringGenerator combinedGenerator =
-                ourGenerator.intersect(textualRestrictions.createGenerator());
-            if (combinedGenerator.isFinite() && combinedGenerator.getValueCount() == 0) {
+        if (textualRestrictions.hasRegexRestrictions()) {
+            //search the product of the automatons for a string, rather than intersecting them and counting the strings
+            AutomatonProductSearch ourSearch = getProductSearch();
+            AutomatonProductSearch otherSearch = textualRestrictions.getProductSearch();
+            if (ourSearch.withAll(otherSearch).isEmpty()) {
                 return Impact.FULL;
             }
-            if (combinedGenerator.getValueCount() < ourGenerator.getValueCount()) {
+            if (!ourSearch.isSubsetOf(otherSearch)) {
                 return Impact.PARTIAL;
             }
             return Impact.NONE;
@@ -147,16 +176,22 @@ public class MatchesStandardStringRestrictions implements StringRestrictions{
             : Impact.NONE;
     }
 
-    private StringGenerator getCombinedGenerator(TextualRestrictions textualRestrictions) {
-        StringGenerator ourGenerator = getStringGenerator();
-        return ourGenerator.intersect(textualRestrictions.createGenerator());
-    }
+    private MergeResult<StringRestrictions> copyWithIntersection(TextualRestrictions textualRestrictions) {
+        if (intersectingRestrictions == null) {
+            return new MergeResult<>(
+                new MatchesStandardStringRestrictions(type, negated, standardGenerator, textualRestrictions));
+        }
+
+        MergeResult<StringRestrictions> mergedRestrictions = intersectingRestrictions.intersect(textualRestrictions);
+        if (!mergedRestrictions.successful) {
+            return MergeResult.unsuccessful();
+        }
 
-    private MatchesStandardStringRestrictions copyWithGenerator(StringGenerator generator) {
-        MatchesStandardStringRestrictions newRestrictions =
-            new MatchesStandardStringRestrictions(type, negated);
-        newRestrictions.generator = generator;
-        return newRestrictions;
+        return new MergeResult<>(new MatchesStandardStringRestrictions(
+            type,
+            negated,
+            standardGenerator,
+            (TextualRestrictions) mergedRestrictions.restrictions));
     }
 
     private enum Impact
@@ -17,12 +17,13 @@
 package com.scottlogic.deg.generator.restrictions;
 
 import com.scottlogic.deg.common.profile.constraints.atomic.IsOfTypeConstraint;
+import com.scottlogic.deg.common.util.Defaults;
 
 import java.math.BigDecimal;
 import java.util.Objects;
 
 public class NumericRestrictions extends AbstractTypedRestrictions {
-    public static final int DEFAULT_NUMERIC_SCALE = 20;
+    public static final int DEFAULT_NUMERIC_SCALE = Defaults.NUMERIC_SCALE;
     private final int numericScale;
     public NumericLimit<BigDecimal> min;
     public NumericLimit<BigDecimal> max;
@@ -21,33 +21,37 @@ import java.util.regex.Pattern;
 
 public class StringRestrictionsFactory {
     public StringRestrictions forStringMatching(Pattern pattern, boolean negate) {
+        String regex = canonicaliseMatchingRegex(pattern);
+
         return new TextualRestrictions(
             null,
             null,
             negate
                 ? Collections.emptySet()
-                : Collections.singleton(pattern),
+                : Collections.singleton(regex),
             Collections.emptySet(),
             Collections.emptySet(),
             negate
-                ? Collections.singleton(pattern)
+                ? Collections.singleton(regex)
                 : Collections.emptySet(),
             Collections.emptySet()
         );
     }
 
     public StringRestrictions forStringContaining(Pattern pattern, boolean negate) {
+        String regex = pattern.pattern();
+
         return new TextualRestrictions(
             null,
             null,
             Collections.emptySet(),
             negate
                 ? Collections.emptySet()
-                : Collections.singleton(pattern),
+                : Collections.singleton(regex),
             Collections.emptySet(),
             Collections.emptySet(),
             negate
-                ? Collections.singleton(pattern)
+                ? Collections.singleton(regex)
                 : Collections.emptySet()
         );
     }
@@ -89,4 +93,22 @@ public class StringRestrictionsFactory {
             Collections.emptySet()
         );
     }
+
+    /**
+     * Patterns compare by identity, so regexes are held as strings to let the same regex from different constraints
+     * be applied once. The anchors of a regex that must match the whole string are redundant, so they are removed
+     * to let /^abc$/ and /abc/ be applied once too.
+     */
+    public static String canonicaliseMatchingRegex(Pattern pattern) {
+        String regex = pattern.pattern();
+
+        if (regex.startsWith("^")) {
+            regex = regex.substring(1);
+        }
+        if (regex.endsWith("$") && !regex.endsWith("\\$")) {
+            regex = regex.substring(0, regex.length() - 1);
+        }
+
+        return regex;
+    }
 }
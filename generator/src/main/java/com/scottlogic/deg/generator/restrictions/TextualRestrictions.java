@@ -16,6 +16,7 @@
 
 package com.scottlogic.deg.generator.restrictions;
 
+import com.scottlogic.deg.generator.generation.string.AutomatonProductSearch;
 import com.scottlogic.deg.generator.generation.string.NoStringsStringGenerator;
 import com.scottlogic.deg.generator.generation.string.RegexStringGenerator;
 import com.scottlogic.deg.generator.generation.string.StringGenerator;
@@ -23,29 +24,42 @@ import com.scottlogic.deg.generator.utils.SetUtils;
 
 import java.util.*;
 import java.util.function.Function;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 public class TextualRestrictions implements StringRestrictions {
+    /**
+     * The regex-only generators built for each distinct combination of regexes, so restrictions with the same
+     * regexes, e.g. from merging the same constraints down different branches of the tree, share one intersection
+     */
+    private static final int MAX_CACHED_REGEX_GENERATORS = 1000;
+    private static final Map<List<Set<String>>, StringGenerator> regexGeneratorCache = Collections.synchronizedMap(
+        new LinkedHashMap<List<Set<String>>, StringGenerator>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Set<String>>, StringGenerator> eldest) {
+                return size() > MAX_CACHED_REGEX_GENERATORS;
+            }
+        });
+
     final Integer minLength;
     final Integer maxLength;
     final Set<Integer> excludedLengths;
-    final Set<Pattern> matchingRegex;
-    final Set<Pattern> containingRegex;
-    final Set<Pattern> notMatchingRegex;
-    final Set<Pattern> notContainingRegex;
+    final Set<String> matchingRegex;
+    final Set<String> containingRegex;
+    final Set<String> notMatchingRegex;
+    final Set<String> notContainingRegex;
     private StringGenerator generator;
+    private AutomatonProductSearch productSearch;
 
     TextualRestrictions(
         Integer minLength,
         Integer maxLength,
-        Set<Pattern> matchingRegex,
-        Set<Pattern> containingRegex,
+        Set<String> matchingRegex,
+        Set<String> containingRegex,
         Set<Integer> excludedLengths,
-        Set<Pattern> notMatchingRegex,
-        Set<Pattern> notContainingRegex) {
+        Set<String> notMatchingRegex,
+        Set<String> notContainingRegex) {
         this.minLength = minLength;
         this.maxLength = maxLength;
         this.matchingRegex = matchingRegex;
@@ -89,9 +103,20 @@ public class TextualRestrictions implements StringRestrictions {
             SetUtils.union(notContainingRegex, textualRestrictions.notContainingRegex)
         );
 
-        return merged.isContradictory()
-            ? MergeResult.unsuccessful()
-            : new MergeResult<>(merged);
+        if (merged.isContradictory()) {
+            return MergeResult.unsuccessful();
+        }
+
+        //merging restrictions that are already applied, such as the same constraint from another branch of the
+        //tree, keeps the existing instance along with any generator it has already built
+        if (merged.equals(this)) {
+            return new MergeResult<>(this);
+        }
+        if (merged.equals(textualRestrictions)) {
+            return new MergeResult<>(textualRestrictions);
+        }
+
+        return new MergeResult<>(merged);
     }
 
     /**
@@ -104,8 +129,51 @@ public class TextualRestrictions implements StringRestrictions {
             return false; //no regular expressions exist that can contradict
         }
 
-        StringGenerator generator = createGenerator();
-        return generator instanceof NoStringsStringGenerator;
+        //only contradictory lengths make these restrictions contradictory, an empty intersection of the regexes is
+        //left to createGenerator(), so there is no need to intersect the regex automatons here
+        return hasContradictoryLengths(minLength != null ? minLength : 0);
+    }
+
+    private boolean hasContradictoryLengths(int minLength) {
+        return maxLength != null && (minLength > maxLength
+            || allLengthsAreExcluded(minLength, maxLength, excludedLengths));
+    }
+
+    boolean hasRegexRestrictions() {
+        return !matchingRegex.isEmpty()
+            || !containingRegex.isEmpty()
+            || !notMatchingRegex.isEmpty()
+            || !notContainingRegex.isEmpty();
+    }
+
+    /**
+     * Singleton method: Will always return the same instance after the first execution on this instance
+     *
+     * Get a search for the strings that meet all of the given constraints, which can decide whether there are any
+     * without building a generator for them
+     */
+    AutomatonProductSearch getProductSearch() {
+        if (productSearch != null) {
+            return productSearch;
+        }
+
+        AutomatonProductSearch search = new AutomatonProductSearch()
+            .withLengths(minLength != null ? minLength : 0, maxLength, excludedLengths);
+
+        for (String regex : matchingRegex) {
+            search = search.withRegex(regex, true, false);
+        }
+        for (String regex : containingRegex) {
+            search = search.withRegex(regex, false, false);
+        }
+        for (String regex : notMatchingRegex) {
+            search = search.withRegex(regex, true, true);
+        }
+        for (String regex : notContainingRegex) {
+            search = search.withRegex(regex, false, true);
+        }
+
+        return productSearch = search;
     }
 
     /**
@@ -166,38 +234,61 @@ public class TextualRestrictions implements StringRestrictions {
         int minLength = this.minLength != null ? this.minLength : 0;
 
         //detect contradictions
-        if (maxLength != null && (minLength > maxLength
-            || allLengthsAreExcluded(minLength, maxLength, excludedLengths))) {
+        if (hasContradictoryLengths(minLength)) {
             return generator = new NoStringsStringGenerator("Lengths are contradictory");
         }
 
-        //produce a regex, and a generator for it, that can produce ANY string within the given bounds
-        //emits /.{&lt;shortest&gt;,&lt;longest&gt;}/
-        //can also emit /.{&lt;0&gt;,&lt;5&gt;}|.{&lt;7&gt;,&lt;255&gt;}/ if 6 is an excluded length
-        StringGenerator lengthConstrainingGenerator = minLength == 0 && maxLength == null && excludedLengths.isEmpty()
-            ? null
-            : new RegexStringGenerator(
-                createStringLengthRestrictionRegex(minLength, maxLength),
-                true);
+        //search for a string that meets every restriction before intersecting the regex automatons, so an empty
+        //intersection is never built
+        if (hasRegexRestrictions() && getProductSearch().isEmpty()) {
+            return generator = new NoStringsStringGenerator("Regular expressions are contradictory");
+        }
+
+        StringGenerator lengthConstrainingGenerator = createLengthConstrainingGenerator(minLength);
+        if (!hasRegexRestrictions()) {
+            return generator = lengthConstrainingGenerator;
+        }
 
         //combine (merge/intersect) each non-length related constraint to produce a single string generator
         //e.g. would combine /[a-z]{0,9}/ with /.{0,255}/ (lengthConstrainingGenerator) to produce a single generator
         //that looks like /[a-z]{0,9} ∩ .{0,255}/, which is equivalent to /[a-z]{0,9}/
-        return generator = getPatternConstraints()
-            .reduce(
-                lengthConstrainingGenerator,
-                (prev, current) -> {
-                    if (prev == null){
-                        return current;
-                    }
-
-                    if (prev instanceof NoStringsStringGenerator){
-                        return prev;
-                    }
-
-                    return prev.intersect(current);
-                },
-                (a, b) -> null);
+        //the lengths are applied as the strings are generated, so only the regex automatons are intersected
+        StringGenerator regexGenerator = getRegexGenerator();
+        return generator = lengthConstrainingGenerator == null
+            ? regexGenerator
+            : lengthConstrainingGenerator.intersect(regexGenerator);
+    }
+
+    /**
+     * Get the intersection of the generators for each regex restriction, shared with any other restrictions that
+     * have the same regexes
+     */
+    private StringGenerator getRegexGenerator() {
+        List<Set<String>> regexes = Arrays.asList(matchingRegex, containingRegex, notMatchingRegex, notContainingRegex);
+
+        StringGenerator regexGenerator = regexGeneratorCache.get(regexes);
+        if (regexGenerator != null) {
+            return regexGenerator;
+        }
+
+        regexGenerator = getPatternConstraints()
+            .reduce(StringGenerator::intersect)
+            .orElseThrow(() -> new IllegalStateException("No regex restrictions to intersect"));
+        StringGenerator existingGenerator = regexGeneratorCache.putIfAbsent(regexes, regexGenerator);
+        return existingGenerator != null ? existingGenerator : regexGenerator;
+    }
+
+    /**
+     * Produce a generator that can produce ANY string within the given length bounds, or null if there are none
+     * The lengths are applied by the generator as it produces strings, rather than by intersecting an automaton
+     * for a regex such as /.{0,255}/ with the automaton for each regex restriction
+     */
+    private StringGenerator createLengthConstrainingGenerator(int minLength) {
+        if (minLength == 0 && maxLength == null && excludedLengths.isEmpty()) {
+            return null;
+        }
+
+        return RegexStringGenerator.createFromLengthBounds(minLength, maxLength, excludedLengths);
     }
 
     /**
@@ -240,90 +331,12 @@ public class TextualRestrictions implements StringRestrictions {
             .orElse(Stream.empty());
     }
 
-    private static Stream<StringGenerator> getStringGenerators(Set<Pattern> patterns, Function<String, StringGenerator> getGenerator) {
+    private static Stream<StringGenerator> getStringGenerators(Set<String> patterns, Function<String, StringGenerator> getGenerator) {
         if (patterns.isEmpty()){
             return Stream.empty();
         }
 
-        return patterns.stream().map(p -> getGenerator.apply(p.toString()));
-    }
-
-    /**
-     * Produce a regular expression that permits any character, but restricts the length of the generated string
-     * Will either:
-     * 1. Return a regex like /.{nnn}/ where nnn is the defined length constraint, or the shorterThan and longerThan represent the same string length
-     * 2. Return a regex like /.{aaa,bbb}/ where aaa is the shortest length and bbb is the longest length
-     * 3. Return a regex like /.{0,aaa}|.{bbb,ccc}/ where
-     *      aaa is the last length before an excluded length
-     *      bbb is the first length after the previously excluded length
-     *      ccc is the appropriate maximum length for the string
-     *
-     * @param minLength the minimum length for the string
-     * @param maxLength the maximum length for the string
-     */
-    private String createStringLengthRestrictionRegex(int minLength, Integer maxLength) {
-        if (maxLength != null && maxLength.equals(minLength)){
-            return restrictStringLength(minLength);
-        }
-
-        //if there are no excluded lengths, then return a regex that represents the shortest/longest string
-        if (excludedLengths.isEmpty()) {
-            return restrictStringLength(minLength, maxLength);
-        }
-
-        List<Integer> orderedExcludedLengths = excludedLengths.stream().sorted().collect(Collectors.toList()); //ensure the excluded lengths are ordered
-        List<String> patterns = new ArrayList<>();
-        Integer lastExcludedLength = null;
-        for (int excludedLength : orderedExcludedLengths) {
-            if ((maxLength != null && excludedLength > maxLength) || excludedLength < minLength){
-                continue; //the excluded length is beyond the permitted length, ignore it
-            }
-            if (maxLength != null && excludedLength == maxLength){
-                maxLength--; //the excluded length is the same as the longest, reduce the max-length
-            }
-            if (excludedLength == minLength){
-                lastExcludedLength = excludedLength;
-                continue;
-            }
-
-            if (lastExcludedLength == null) {
-                if (minLength < excludedLength - 1) {
-                    patterns.add(String.format(".{%d,%d}", minLength, excludedLength - 1));
-                }
-            } else {
-                patterns.add(String.format(".{%d,%d}", lastExcludedLength + 1, excludedLength - 1));
-            }
-
-            lastExcludedLength = excludedLength;
-        }
-
-        if (patterns.isEmpty()) {
-            //if no lengths have been excluded, i.e. each excluded length is either > maxLength or
-            // the same maxLength -1 (at which point appropriateMaxLength will have been modified)
-            return restrictStringLength(lastExcludedLength != null ? lastExcludedLength + 1 : minLength, maxLength);
-        }
-
-        if (maxLength != null && lastExcludedLength + 1 < maxLength - 1) {
-            patterns.add(String.format(".{%d,%d}", lastExcludedLength + 1, maxLength));
-        } else if (maxLength == null){
-            patterns.add(String.format(".{%d,}", lastExcludedLength + 1));
-        }
-
-        return String.format(
-            patterns.size() == 1 ? "^%s$" : "^(%s)$",
-            String.join("|", patterns));
-    }
-
-    private String restrictStringLength(int length){
-        return String.format("^.{%d}$", length);
-    }
-
-    private String restrictStringLength(int min, Integer max){
-        if (max == null) {
-            return String.format("^.{%d,}$", min);
-        }
-
-        return String.format("^.{%d,%d}$", min, max);
+        return patterns.stream().map(getGenerator);
     }
 
     @Override
@@ -338,10 +351,9 @@ public class TextualRestrictions implements StringRestrictions {
             notContainingRegex.isEmpty() ? "" : " not containing: " + patternsAsString(notContainingRegex));
     }
 
-    private String patternsAsString(Set<Pattern> patterns) {
+    private String patternsAsString(Set<String> patterns) {
         return patterns
             .stream()
-            .map(Pattern::toString)
             .collect(Collectors.joining(", "));
     }
 
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.utils;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Produces all of the values of each cursor in turn. Each cursor is only created once the previous one is exhausted.
+ */
+public class ConcatenatingValueCursor<T> implements ValueCursor<T> {
+    private final List<Supplier<ValueCursor<T>>> cursorSuppliers;
+    private int nextCursorIndex;
+    private ValueCursor<T> currentCursor;
+
+    public ConcatenatingValueCursor(List<Supplier<ValueCursor<T>>> cursorSuppliers) {
+        this.cursorSuppliers = cursorSuppliers;
+    }
+
+    @Override
+    public boolean advance() {
+        while (currentCursor == null || !currentCursor.advance()) {
+            if (nextCursorIndex >= cursorSuppliers.size()) {
+                currentCursor = null;
+                return false;
+            }
+
+            currentCursor = cursorSuppliers.get(nextCursorIndex++).get();
+        }
+
+        return true;
+    }
+
+    @Override
+    public T current() {
+        return currentCursor.current();
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.utils;
+
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A single cursor stage that filters values from an underlying cursor and then maps them. Further map stages, and
+ * filter stages while nothing has been mapped, are composed into this stage rather than wrapping it in another cursor.
+ *
+ * @param <T> The type of value from the underlying cursor
+ * @param <R> The type of value produced by this cursor
+ */
+class FilteringMappingValueCursor<T, R> implements ValueCursor<R> {
+    private final ValueCursor<T> underlyingCursor;
+    private final Predicate<? super T> predicate;
+    private final Function<? super T, ? extends R> mapper;
+    private R current;
+
+    /**
+     * @param predicate the values to keep, or null to keep every value
+     * @param mapper the mapping to apply to kept values, or null if T and R are the same and values are unchanged
+     */
+    private FilteringMappingValueCursor(
+        ValueCursor<T> underlyingCursor,
+        Predicate<? super T> predicate,
+        Function<? super T, ? extends R> mapper) {
+        this.underlyingCursor = underlyingCursor;
+        this.predicate = predicate;
+        this.mapper = mapper;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> ValueCursor<T> filter(ValueCursor<T> cursor, Predicate<? super T> predicate) {
+        if (cursor instanceof FilteringMappingValueCursor && ((FilteringMappingValueCursor) cursor).mapper == null) {
+            FilteringMappingValueCursor<T, T> filteringCursor = (FilteringMappingValueCursor<T, T>) cursor;
+            Predicate<? super T> existingPredicate = filteringCursor.predicate;
+
+            return new FilteringMappingValueCursor<T, T>(
+                filteringCursor.underlyingCursor,
+                existingPredicate == null
+                    ? predicate
+                    : value -> existingPredicate.test(value) && predicate.test(value),
+                null);
+        }
+
+        return new FilteringMappingValueCursor<T, T>(cursor, predicate, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T, R> ValueCursor<R> map(ValueCursor<T> cursor, Function<? super T, ? extends R> mapper) {
+        if (cursor instanceof FilteringMappingValueCursor) {
+            FilteringMappingValueCursor<Object, T> mappingCursor = (FilteringMappingValueCursor<Object, T>) cursor;
+            Function<Object, ? extends T> existingMapper = (Function<Object, ? extends T>) mappingCursor.mapper;
+
+            return new FilteringMappingValueCursor<Object, R>(
+                mappingCursor.underlyingCursor,
+                mappingCursor.predicate,
+                existingMapper == null
+                    ? value -> mapper.apply((T) value)
+                    : value -> mapper.apply(existingMapper.apply(value)));
+        }
+
+        return new FilteringMappingValueCursor<>(cursor, null, mapper);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean advance() {
+        while (underlyingCursor.advance()) {
+            T value = underlyingCursor.current();
+            if (predicate == null || predicate.test(value)) {
+                current = mapper == null ? (R) value : mapper.apply(value);
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public R current() {
+        return current;
+    }
+}
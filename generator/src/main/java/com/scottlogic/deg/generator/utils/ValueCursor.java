@@ -0,0 +1,95 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.utils;
+
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A pull-based cursor over a sequence of values. Each value costs a single call to advance() (plus current() to read
+ * it) rather than the hasNext()/next() pair of an iterator, and filter and map stages are fused into a single cursor
+ * rather than wrapping each other.
+ *
+ * @param <T> The type of value
+ */
+public interface ValueCursor<T> {
+    /**
+     * Move to the next value
+     *
+     * @return false if there are no more values, in which case current() must not be called
+     */
+    boolean advance();
+
+    /**
+     * @return the value that the last successful call to advance() moved to
+     */
+    T current();
+
+    default ValueCursor<T> filter(Predicate<? super T> predicate) {
+        return FilteringMappingValueCursor.filter(this, predicate);
+    }
+
+    default <R> ValueCursor<R> map(Function<? super T, ? extends R> mapper) {
+        return FilteringMappingValueCursor.map(this, mapper);
+    }
+
+    default Stream<T> stream() {
+        return StreamSupport.stream(new ValueCursorSpliterator<>(this), false);
+    }
+
+    static <T> ValueCursor<T> empty() {
+        return new ValueCursor<T>() {
+            @Override
+            public boolean advance() {
+                return false;
+            }
+
+            @Override
+            public T current() {
+                throw new IllegalStateException("Empty cursor has no values");
+            }
+        };
+    }
+
+    static <T> ValueCursor<T> of(Iterable<? extends T> iterable) {
+        return of(iterable.iterator());
+    }
+
+    static <T> ValueCursor<T> of(Iterator<? extends T> iterator) {
+        return new ValueCursor<T>() {
+            private T current;
+
+            @Override
+            public boolean advance() {
+                if (!iterator.hasNext()) {
+                    return false;
+                }
+
+                current = iterator.next();
+                return true;
+            }
+
+            @Override
+            public T current() {
+                return current;
+            }
+        };
+    }
+}
@@ -48,10 +48,9 @@ public class ContradictionDecisionTreeValidator {
     }
 
     private ConstraintNode markContradictions(ConstraintNode node, RowSpec accumulatedSpec, ProfileFields profileFields){
-        final Optional<RowSpec> nominalRowSpec = node.getOrCreateRowSpec(() -> constraintReducer.reduceConstraintsToRowSpec(
+        final Optional<RowSpec> nominalRowSpec = constraintReducer.getOrCreateRowSpec(
             profileFields,
-            node.getAtomicConstraints()
-        ));
+            node.getAtomicConstraints());
 
         if (!nominalRowSpec.isPresent()) {
             return node.markNode(NodeMarking.CONTRADICTORY);
@@ -79,10 +79,9 @@ public class CartesianProductDecisionTreeWalker implements DecisionTreeWalker {
         }
 
         public Stream<RowSpec> walk(ConstraintNode option, RowSpec accumulatedSpec) {
-            final Optional<RowSpec> nominalRowSpec = option.getOrCreateRowSpec(() -> constraintReducer.reduceConstraintsToRowSpec(
-                    profileFields,
-                    option.getAtomicConstraints()
-            ));
+            final Optional<RowSpec> nominalRowSpec = constraintReducer.getOrCreateRowSpec(
+                profileFields,
+                option.getAtomicConstraints());
 
             if (!nominalRowSpec.isPresent()) {
                 return Stream.empty();
@@ -18,7 +18,6 @@ package com.scottlogic.deg.generator.walker;
 
 import com.google.inject.Inject;
 import com.scottlogic.deg.common.profile.Field;
-import com.scottlogic.deg.common.util.FlatMappingSpliterator;
 import com.scottlogic.deg.generator.decisiontree.ConstraintNode;
 import com.scottlogic.deg.generator.decisiontree.DecisionTree;
 import com.scottlogic.deg.generator.fieldspecs.FieldSpec;
@@ -26,12 +25,13 @@ import com.scottlogic.deg.generator.generation.FieldSpecValueGenerator;
 import com.scottlogic.deg.generator.generation.ReductiveDataGeneratorMonitor;
 import com.scottlogic.deg.generator.generation.databags.DataBag;
 import com.scottlogic.deg.generator.generation.databags.DataBagValue;
+import com.scottlogic.deg.generator.utils.ValueCursor;
 import com.scottlogic.deg.generator.walker.reductive.*;
 import com.scottlogic.deg.generator.walker.reductive.fieldselectionstrategy.FixFieldStrategy;
 import com.scottlogic.deg.generator.walker.reductive.fieldselectionstrategy.FixFieldStrategyFactory;
 
 import java.io.IOException;
-import java.util.Set;
+import java.util.*;
 import java.util.stream.Stream;
 
 public class ReductiveDecisionTreeWalker implements DecisionTreeWalker {
@@ -41,6 +41,8 @@ public class ReductiveDecisionTreeWalker implements DecisionTreeWalker {
     private final ReductiveDataGeneratorMonitor monitor;
     private final FieldSpecValueGenerator fieldSpecValueGenerator;
     private final FixFieldStrategyFactory fixFieldStrategyFactory;
+    private final ForwardChecker forwardChecker;
+    private final ConflictAnalyser conflictAnalyser;
 
     @Inject
     public ReductiveDecisionTreeWalker(
@@ -50,12 +52,67 @@ public class ReductiveDecisionTreeWalker implements DecisionTreeWalker {
         ReductiveTreePruner treePruner,
         FieldSpecValueGenerator fieldSpecValueGenerator,
         FixFieldStrategyFactory fixFieldStrategyFactory) {
+        this(
+            iterationVisualiser,
+            reductiveFieldSpecBuilder,
+            monitor,
+            treePruner,
+            fieldSpecValueGenerator,
+            fixFieldStrategyFactory,
+            null,
+            null);
+    }
+
+    private ReductiveDecisionTreeWalker(
+        IterationVisualiser iterationVisualiser,
+        ReductiveFieldSpecBuilder reductiveFieldSpecBuilder,
+        ReductiveDataGeneratorMonitor monitor,
+        ReductiveTreePruner treePruner,
+        FieldSpecValueGenerator fieldSpecValueGenerator,
+        FixFieldStrategyFactory fixFieldStrategyFactory,
+        ForwardChecker forwardChecker,
+        ConflictAnalyser conflictAnalyser) {
         this.iterationVisualiser = iterationVisualiser;
         this.reductiveFieldSpecBuilder = reductiveFieldSpecBuilder;
         this.monitor = monitor;
         this.treePruner = treePruner;
         this.fieldSpecValueGenerator = fieldSpecValueGenerator;
         this.fixFieldStrategyFactory = fixFieldStrategyFactory;
+        this.forwardChecker = forwardChecker;
+        this.conflictAnalyser = conflictAnalyser;
+    }
+
+    /**
+     * @return a walker that checks the values left for every unfixed field each time a field is fixed, back-tracking
+     * as soon as any field has none left, and fixes the field with the fewest values left next
+     */
+    public ReductiveDecisionTreeWalker withForwardChecking(ForwardChecker forwardChecker) {
+        return new ReductiveDecisionTreeWalker(
+            iterationVisualiser,
+            reductiveFieldSpecBuilder,
+            monitor,
+            treePruner,
+            fieldSpecValueGenerator,
+            fixFieldStrategyFactory,
+            forwardChecker,
+            conflictAnalyser);
+    }
+
+    /**
+     * @return a walker that, when a field has no values left that lead to a row, jumps straight back to the most
+     * recently fixed field that caused it rather than the field fixed just before it, and remembers the values that
+     * caused it so they aren't combined again
+     */
+    public ReductiveDecisionTreeWalker withBackjumping(ConflictAnalyser conflictAnalyser) {
+        return new ReductiveDecisionTreeWalker(
+            iterationVisualiser,
+            reductiveFieldSpecBuilder,
+            monitor,
+            treePruner,
+            fieldSpecValueGenerator,
+            fixFieldStrategyFactory,
+            forwardChecker,
+            conflictAnalyser);
     }
 
     /* initialise the walker with a set (ReductiveState) of unfixed fields */
@@ -64,51 +121,243 @@ public class ReductiveDecisionTreeWalker implements DecisionTreeWalker {
         ReductiveState initialState = new ReductiveState(tree.fields);
         visualise(tree.getRootNode(), initialState);
         FixFieldStrategy fixFieldStrategy = fixFieldStrategyFactory.create(tree.getRootNode());
-        return fixNextField(tree.getRootNode(), initialState, fixFieldStrategy);
+
+        FieldFrame initialFrame = fixNextField(tree.getRootNode(), initialState, fixFieldStrategy);
+        if (!initialFrame.hasValues) {
+            return Stream.empty();
+        }
+
+        return new RowCursor(tree.getRootNode(), initialFrame, fixFieldStrategy).stream();
     }
 
-    private Stream<DataBag> fixNextField(ConstraintNode tree, ReductiveState reductiveState, FixFieldStrategy fixFieldStrategy) {
+    /**
+     * Choose the next field to fix and prepare the values it could be fixed to
+     */
+    private FieldFrame fixNextField(ConstraintNode tree, ReductiveState reductiveState, FixFieldStrategy fixFieldStrategy) {
+        if (forwardChecker != null) {
+            return fixNarrowestField(tree, reductiveState);
+        }
+
         Field fieldToFix = fixFieldStrategy.getNextFieldToFix(reductiveState);
         Set<FieldSpec> nextFieldSpecs = reductiveFieldSpecBuilder.getDecisionFieldSpecs(tree, fieldToFix);
 
         if (nextFieldSpecs.isEmpty()){
             monitor.noValuesForField(reductiveState, fieldToFix);
-            return Stream.empty();
+            return new FieldFrame(tree, reductiveState, fieldToFix, null);
         }
 
-        Stream<DataBagValue> values = fieldSpecValueGenerator.generate(nextFieldSpecs);
+        return new FieldFrame(
+            tree,
+            reductiveState,
+            fieldToFix,
+            fieldSpecValueGenerator.generateCursor(nextFieldSpecs));
+    }
+
+    private FieldFrame fixNarrowestField(ConstraintNode tree, ReductiveState reductiveState) {
+        FieldDomain domain = forwardChecker.getNarrowestDomain(tree, reductiveState);
+
+        if (domain.isEmpty()){
+            monitor.noValuesForField(reductiveState, domain.getField());
+            return new FieldFrame(tree, reductiveState, domain.getField(), null);
+        }
 
-        return FlatMappingSpliterator.flatMap(
-            values,
-            dataBagValue -> pruneTreeForNextValue(tree, reductiveState, fixFieldStrategy, fieldToFix, dataBagValue));
+        return new FieldFrame(
+            tree,
+            reductiveState,
+            domain.getField(),
+            fieldSpecValueGenerator.generateCursor(domain.getFieldSpecs()));
     }
 
-    private Stream<DataBag> pruneTreeForNextValue(
-        ConstraintNode tree,
-        ReductiveState reductiveState,
-        FixFieldStrategy fixFieldStrategy,
-        Field field,
-        DataBagValue fieldValue){
+    /**
+     * The tree and state before a field is fixed, and the values that the field is yet to be fixed to
+     */
+    private static class FieldFrame {
+        private final ConstraintNode tree;
+        private final ReductiveState reductiveState;
+        private final Field field;
+        private final ValueCursor<DataBagValue> values;
+        private final boolean hasValues;
 
-        Merged<ConstraintNode> reducedTree = treePruner.pruneConstraintNode(tree, field, fieldValue);
+        /* when back-jumping, whether the field has been fixed to any value, whether any value of the field has led
+         * to a row, and the fixed fields to blame for the values that haven't */
+        private boolean yieldedValues;
+        private boolean producedRows;
+        private final Set<Field> conflictingFields = new HashSet<>();
 
-        if (reducedTree.isContradictory()){
-            //yielding an empty stream will cause back-tracking
-            this.monitor.unableToStepFurther(reductiveState);
-            return Stream.empty();
+        FieldFrame(ConstraintNode tree, ReductiveState reductiveState, Field field, ValueCursor<DataBagValue> values) {
+            this.tree = tree;
+            this.reductiveState = reductiveState;
+            this.field = field;
+            this.values = values == null ? ValueCursor.empty() : values;
+            this.hasValues = values != null;
         }
+    }
+
+    /**
+     * Walks the tree depth-first, fixing one field per frame, and produces a row each time every field is fixed.
+     * Backtracking state is kept in an explicit stack of frames, so the cost of producing each row doesn't grow with
+     * the number of fields and very wide profiles can't overflow the call stack.
+     */
+    private class RowCursor implements ValueCursor<DataBag> {
+        private final ConstraintNode rootNode;
+        private final FixFieldStrategy fixFieldStrategy;
+        private final NogoodStore nogoods;
+        private FieldFrame[] frames = new FieldFrame[16];
+        private int frameCount;
+        private DataBag current;
+
+        RowCursor(ConstraintNode rootNode, FieldFrame initialFrame, FixFieldStrategy fixFieldStrategy) {
+            this.rootNode = rootNode;
+            this.fixFieldStrategy = fixFieldStrategy;
+            this.nogoods = conflictAnalyser == null ? null : new NogoodStore();
+            push(initialFrame);
+        }
+
+        @Override
+        public boolean advance() {
+            while (frameCount > 0) {
+                FieldFrame frame = frames[frameCount - 1];
+
+                if (!frame.values.advance()) {
+                    // no more values for this field, back-track to the previous field
+                    frames[--frameCount] = null;
+                    if (conflictAnalyser != null) {
+                        backjumpFrom(frame);
+                    }
+                    continue;
+                }
 
-        monitor.fieldFixedToValue(field, fieldValue.getFormattedValue());
+                frame.yieldedValues = true;
+                DataBagValue fieldValue = frame.values.current();
+                if (conflictAnalyser != null && isKnownConflict(frame, fieldValue)) {
+                    monitor.unableToStepFurther(frame.reductiveState);
+                    continue;
+                }
 
-        ReductiveState newReductiveState =
-            reductiveState.withFixedFieldValue(field, fieldValue);
-        visualise(reducedTree.get(), newReductiveState);
+                Merged<ConstraintNode> reducedTree = treePruner.pruneConstraintNode(frame.tree, frame.field, fieldValue);
 
-        if (newReductiveState.allFieldsAreFixed()) {
-            return Stream.of(newReductiveState.asDataBag());
+                if (reducedTree.isContradictory()){
+                    monitor.unableToStepFurther(frame.reductiveState);
+                    if (conflictAnalyser != null) {
+                        learnConflict(frame, fieldValue);
+                    }
+                    continue;
+                }
+
+                monitor.fieldFixedToValue(frame.field, fieldValue.getFormattedValue());
+
+                ReductiveState newReductiveState = frame.reductiveState.withFixedFieldValue(frame.field, fieldValue);
+                visualise(reducedTree.get(), newReductiveState);
+
+                if (newReductiveState.allFieldsAreFixed()) {
+                    frame.producedRows = true;
+                    current = newReductiveState.asDataBag();
+                    return true;
+                }
+
+                push(fixNextField(reducedTree.get(), newReductiveState, fixFieldStrategy));
+            }
+
+            return false;
+        }
+
+        @Override
+        public DataBag current() {
+            return current;
+        }
+
+        private void push(FieldFrame frame) {
+            if (frameCount == frames.length) {
+                frames = Arrays.copyOf(frames, frameCount * 2);
+            }
+
+            frames[frameCount++] = frame;
+        }
+
+        private boolean isKnownConflict(FieldFrame frame, DataBagValue fieldValue) {
+            Set<Field> conflictingFields = nogoods.getViolatedNogood(
+                frame.reductiveState.getFieldValues(),
+                frame.field,
+                fieldValue);
+            if (conflictingFields == null) {
+                return false;
+            }
+
+            frame.conflictingFields.addAll(conflictingFields);
+            return true;
+        }
+
+        private void learnConflict(FieldFrame frame, DataBagValue fieldValue) {
+            Set<Field> conflictingFields = conflictAnalyser.getConflictingFields(
+                rootNode,
+                getFixedFields(frameCount - 1),
+                frame.reductiveState,
+                frame.field,
+                fieldValue);
+
+            frame.conflictingFields.addAll(conflictingFields);
+
+            Map<Field, DataBagValue> nogood = getFixedValues(conflictingFields, frame.reductiveState);
+            nogood.put(frame.field, fieldValue);
+            nogoods.add(nogood);
+        }
+
+        /**
+         * When no value of the exhausted field led to a row, none will until one of the fields to blame is fixed to
+         * another value, so skip the fields fixed since the most recent of them.
+         * Otherwise back-track to the previous field as normal.
+         *
+         * A field that had no values to try at all, even when it had field specs, has no conflicts of its own to
+         * blame, so the fixed fields that leave it with no values are blamed instead. Where that can't be narrowed
+         * down every fixed field is blamed, which back-tracks to the previous field.
+         */
+        private void backjumpFrom(FieldFrame exhaustedFrame) {
+            if (exhaustedFrame.producedRows) {
+                if (frameCount > 0) {
+                    frames[frameCount - 1].producedRows = true;
+                }
+                return;
+            }
+
+            Set<Field> conflictingFields = exhaustedFrame.yieldedValues
+                ? exhaustedFrame.conflictingFields
+                : conflictAnalyser.getFieldsLeavingNoValues(
+                    rootNode,
+                    getFixedFields(frameCount),
+                    exhaustedFrame.reductiveState,
+                    exhaustedFrame.field);
+
+            nogoods.add(getFixedValues(conflictingFields, exhaustedFrame.reductiveState));
+
+            while (frameCount > 0 && !conflictingFields.contains(frames[frameCount - 1].field)) {
+                frames[--frameCount] = null;
+            }
+
+            if (frameCount > 0) {
+                FieldFrame culpritFrame = frames[frameCount - 1];
+                conflictingFields.stream()
+                    .filter(field -> !field.equals(culpritFrame.field))
+                    .forEach(culpritFrame.conflictingFields::add);
+            }
         }
 
-        return fixNextField(reducedTree.get(), newReductiveState, fixFieldStrategy);
+        private List<Field> getFixedFields(int count) {
+            List<Field> fixedFields = new ArrayList<>(count);
+            for (int index = 0; index < count; index++) {
+                fixedFields.add(frames[index].field);
+            }
+
+            return fixedFields;
+        }
+
+        private Map<Field, DataBagValue> getFixedValues(Set<Field> fields, ReductiveState reductiveState) {
+            Map<Field, DataBagValue> fixedValues = new HashMap<>();
+            for (Field field : fields) {
+                fixedValues.put(field, reductiveState.getFieldValues().get(field));
+            }
+
+            return fixedValues;
+        }
     }
 
     private void visualise(ConstraintNode rootNode, ReductiveState reductiveState){
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.walker.reductive;
+
+import com.google.inject.Inject;
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.generator.decisiontree.ConstraintNode;
+import com.scottlogic.deg.generator.fieldspecs.FieldSpec;
+import com.scottlogic.deg.generator.fieldspecs.FieldSpecHelper;
+import com.scottlogic.deg.generator.generation.databags.DataBagValue;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Works out which of the fixed fields are to blame when the walker reaches a dead end, by re-pruning the original
+ * tree with fewer of the fixed values until the dead end can't be reached without them
+ */
+public class ConflictAnalyser {
+    /**
+     * The number of most recently fixed fields that are each re-pruned without, to see whether they can be cleared of
+     * blame. Each costs a prune of the whole tree, so fields fixed before them are always blamed, which bounds the cost
+     * of a dead end however many fields are fixed.
+     */
+    private static final int MAX_FIELDS_TO_CLEAR = 8;
+
+    private final ReductiveTreePruner treePruner;
+    private final ReductiveFieldSpecBuilder reductiveFieldSpecBuilder;
+    private final FieldSpecHelper fieldSpecHelper;
+
+    @Inject
+    public ConflictAnalyser(
+        ReductiveTreePruner treePruner,
+        ReductiveFieldSpecBuilder reductiveFieldSpecBuilder,
+        FieldSpecHelper fieldSpecHelper) {
+        this.treePruner = treePruner;
+        this.reductiveFieldSpecBuilder = reductiveFieldSpecBuilder;
+        this.fieldSpecHelper = fieldSpecHelper;
+    }
+
+    /**
+     * @param rootNode the tree before any field was fixed
+     * @param fixedFields the fixed fields, in the order they were fixed
+     * @param reductiveState the values of the fixed fields
+     * @return the fixed fields whose values contradict the tree when the given field is fixed to the given value
+     */
+    public Set<Field> getConflictingFields(
+        ConstraintNode rootNode,
+        List<Field> fixedFields,
+        ReductiveState reductiveState,
+        Field field,
+        DataBagValue value) {
+        FieldSpec fieldSpec = fieldSpecHelper.getFieldSpecForValue(value);
+
+        return minimiseConflict(fixedFields, conflictingFields -> {
+            Map<Field, FieldSpec> fieldSpecs = getFieldSpecs(conflictingFields, reductiveState);
+            fieldSpecs.put(field, fieldSpec);
+
+            return treePruner.pruneConstraintNode(rootNode, fieldSpecs).isContradictory();
+        });
+    }
+
+    /**
+     * @param rootNode the tree before any field was fixed
+     * @param fixedFields the fixed fields, in the order they were fixed
+     * @param reductiveState the values of the fixed fields
+     * @return the fixed fields whose values leave no values that the given field could be fixed to
+     */
+    public Set<Field> getFieldsLeavingNoValues(
+        ConstraintNode rootNode,
+        List<Field> fixedFields,
+        ReductiveState reductiveState,
+        Field field) {
+        return minimiseConflict(fixedFields, conflictingFields -> {
+            Merged<ConstraintNode> prunedTree = treePruner.pruneConstraintNode(
+                rootNode,
+                getFieldSpecs(conflictingFields, reductiveState));
+
+            return prunedTree.isContradictory()
+                || reductiveFieldSpecBuilder.getDecisionFieldSpecs(prunedTree.get(), field).isEmpty();
+        });
+    }
+
+    /**
+     * Remove the most recently fixed fields first, so that the fields left to blame are the earliest possible and
+     * the walker can jump back as far as possible.
+     * Only the last MAX_FIELDS_TO_CLEAR fixed fields can be cleared of blame.
+     * If the dead end can't be reached by pruning the original tree with all the fixed values at once, all the
+     * fixed fields are blamed, which leaves the walker to back-track one field at a time.
+     */
+    private static Set<Field> minimiseConflict(List<Field> fixedFields, Predicate<Set<Field>> isDeadEnd) {
+        Set<Field> conflictingFields = new HashSet<>(fixedFields);
+        if (!isDeadEnd.test(conflictingFields)) {
+            return conflictingFields;
+        }
+
+        int earliestFieldToClear = Math.max(0, fixedFields.size() - MAX_FIELDS_TO_CLEAR);
+        for (int index = fixedFields.size() - 1; index >= earliestFieldToClear; index--) {
+            Field field = fixedFields.get(index);
+            conflictingFields.remove(field);
+
+            if (!isDeadEnd.test(conflictingFields)) {
+                conflictingFields.add(field);
+            }
+        }
+
+        return conflictingFields;
+    }
+
+    private Map<Field, FieldSpec> getFieldSpecs(Set<Field> fields, ReductiveState reductiveState) {
+        Map<Field, FieldSpec> fieldSpecs = new HashMap<>();
+        for (Field field : fields) {
+            fieldSpecs.put(field, fieldSpecHelper.getFieldSpecForValue(reductiveState.getFieldValues().get(field)));
+        }
+
+        return fieldSpecs;
+    }
+}
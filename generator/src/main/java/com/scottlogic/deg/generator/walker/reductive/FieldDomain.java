@@ -0,0 +1,59 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.walker.reductive;
+
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.generator.fieldspecs.FieldSpec;
+
+import java.util.Set;
+
+/**
+ * The FieldSpecs that an unfixed field could still be fixed from, and how many values they permit (or an upper
+ * bound on it), which is zero only if they permit none
+ */
+public class FieldDomain {
+    private final Field field;
+    private final Set<FieldSpec> fieldSpecs;
+    private final long valueCount;
+
+    FieldDomain(Field field, Set<FieldSpec> fieldSpecs, long valueCount) {
+        this.field = field;
+        this.fieldSpecs = fieldSpecs;
+        this.valueCount = valueCount;
+    }
+
+    public Field getField() {
+        return field;
+    }
+
+    public Set<FieldSpec> getFieldSpecs() {
+        return fieldSpecs;
+    }
+
+    public long getValueCount() {
+        return valueCount;
+    }
+
+    public boolean isEmpty() {
+        return fieldSpecs.isEmpty() || valueCount == 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d value(s)", field, valueCount);
+    }
+}
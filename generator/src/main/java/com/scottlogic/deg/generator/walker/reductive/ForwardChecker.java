@@ -0,0 +1,97 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.walker.reductive;
+
+import com.google.inject.Inject;
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.generator.decisiontree.ConstraintNode;
+import com.scottlogic.deg.generator.fieldspecs.FieldSpec;
+import com.scottlogic.deg.generator.generation.FieldValueSourceEvaluator;
+import com.scottlogic.deg.generator.generation.fieldvaluesources.FieldValueSource;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Looks ahead at the values every unfixed field could still be fixed to, so that the walker can back-track as soon
+ * as any field is left without values rather than when it comes to fix that field, and can fix the most constrained
+ * field next
+ */
+public class ForwardChecker {
+    private final ReductiveFieldSpecBuilder reductiveFieldSpecBuilder;
+    private final FieldValueSourceEvaluator sourceEvaluator;
+
+    @Inject
+    public ForwardChecker(ReductiveFieldSpecBuilder reductiveFieldSpecBuilder, FieldValueSourceEvaluator sourceEvaluator) {
+        this.reductiveFieldSpecBuilder = reductiveFieldSpecBuilder;
+        this.sourceEvaluator = sourceEvaluator;
+    }
+
+    /**
+     * @param tree the tree as pruned for the fields fixed so far
+     * @param reductiveState the fields fixed so far, at least one field must be unfixed
+     * @return the first domain found to be empty if there is one, otherwise the domain of the unfixed field with
+     * the fewest values, preferring fields declared earlier in the profile. Values are counted with
+     * FieldValueSource.estimateValueCount, as this runs after every field is fixed and counting the values of a
+     * regex exactly is costly
+     */
+    public FieldDomain getNarrowestDomain(ConstraintNode tree, ReductiveState reductiveState) {
+        FieldDomain narrowestDomain = null;
+
+        for (Field field : reductiveState.getFields()) {
+            if (reductiveState.isFieldFixed(field)) {
+                continue;
+            }
+
+            Set<FieldSpec> fieldSpecs = reductiveFieldSpecBuilder.getDecisionFieldSpecs(tree, field);
+            FieldDomain domain = new FieldDomain(field, fieldSpecs, estimateValueCount(fieldSpecs));
+            if (domain.isEmpty()) {
+                return domain;
+            }
+
+            if (narrowestDomain == null || domain.getValueCount() < narrowestDomain.getValueCount()) {
+                narrowestDomain = domain;
+            }
+        }
+
+        return narrowestDomain;
+    }
+
+    private long estimateValueCount(Set<FieldSpec> fieldSpecs) {
+        List<FieldValueSource> sources = fieldSpecs.stream()
+            .map(sourceEvaluator::getFieldValueSources)
+            .flatMap(Collection::stream)
+            .distinct()
+            .collect(Collectors.toList());
+
+        long valueCount = 0;
+        for (FieldValueSource source : sources) {
+            if (!source.isFinite()) {
+                return Long.MAX_VALUE;
+            }
+
+            valueCount += source.estimateValueCount();
+            if (valueCount < 0) {
+                return Long.MAX_VALUE;
+            }
+        }
+
+        return valueCount;
+    }
+}
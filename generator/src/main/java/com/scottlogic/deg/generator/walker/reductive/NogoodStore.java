@@ -0,0 +1,82 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.walker.reductive;
+
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.generator.generation.databags.DataBagValue;
+
+import java.util.*;
+
+/**
+ * Combinations of field values that are known to leave no rows, learnt while walking a tree so that the walker
+ * doesn't explore them again
+ */
+public class NogoodStore {
+    private static final int MAXIMUM_NOGOODS = 10_000;
+
+    private final Map<Field, Map<DataBagValue, List<Map<Field, DataBagValue>>>> nogoodsByFieldValue = new HashMap<>();
+    private int nogoodCount;
+
+    /**
+     * @param nogood field values that can't all appear in the same row, ignored once the store is full
+     */
+    public void add(Map<Field, DataBagValue> nogood) {
+        if (nogood.isEmpty() || nogoodCount >= MAXIMUM_NOGOODS) {
+            return;
+        }
+
+        nogoodCount++;
+        nogood.forEach((field, value) -> nogoodsByFieldValue
+            .computeIfAbsent(field, f -> new HashMap<>())
+            .computeIfAbsent(value, v -> new ArrayList<>())
+            .add(nogood));
+    }
+
+    /**
+     * @return the other fields of a nogood that fixing the field to the value would complete, or null if fixing it
+     * completes none
+     */
+    public Set<Field> getViolatedNogood(Map<Field, DataBagValue> fixedValues, Field field, DataBagValue value) {
+        List<Map<Field, DataBagValue>> nogoods = nogoodsByFieldValue
+            .getOrDefault(field, Collections.emptyMap())
+            .get(value);
+        if (nogoods == null) {
+            return null;
+        }
+
+        for (Map<Field, DataBagValue> nogood : nogoods) {
+            if (isViolated(nogood, fixedValues, field)) {
+                Set<Field> otherFields = new HashSet<>(nogood.keySet());
+                otherFields.remove(field);
+                return otherFields;
+            }
+        }
+
+        return null;
+    }
+
+    private static boolean isViolated(Map<Field, DataBagValue> nogood, Map<Field, DataBagValue> fixedValues, Field field) {
+        for (Map.Entry<Field, DataBagValue> fieldValue : nogood.entrySet()) {
+            if (!fieldValue.getKey().equals(field)
+                && !fieldValue.getValue().equals(fixedValues.get(fieldValue.getKey()))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
@@ -249,6 +249,53 @@ class RelatedFieldTreePartitionerTests {
                         constraint("I")))));
     }
 
+    @Test
+    void shouldSplitIndependentDecisionsIntoPartitions() {
+        givenTree(
+            tree(fields("A", "B", "C"),
+                constraint(
+                    decision(
+                        constraint("A=1", "B=1", "C=1"),
+                        constraint("A=1", "B=2", "C=1"),
+                        constraint("A=2", "B=1", "C=1"),
+                        constraint("A=2", "B=2", "C=1")))));
+        givenIndependentDecisionsAreSplit();
+
+        expectTrees(
+            tree(fields("A"),
+                constraint(
+                    decision(
+                        constraint("A=1"),
+                        constraint("A=2")))),
+            tree(fields("B"),
+                constraint(
+                    decision(
+                        constraint("B=1"),
+                        constraint("B=2")))),
+            tree(fields("C"),
+                constraint("C=1")));
+    }
+
+    @Test
+    void shouldNotSplitDependentDecisions() {
+        givenTree(
+            tree(fields("A", "B"),
+                constraint(
+                    decision(
+                        constraint("A=1", "B=1"),
+                        constraint("A=1", "B=2"),
+                        constraint("A=2", "B=1")))));
+        givenIndependentDecisionsAreSplit();
+
+        expectTrees(
+            tree(fields("A", "B"),
+                constraint(
+                    decision(
+                        constraint("A=1", "B=1"),
+                        constraint("A=1", "B=2"),
+                        constraint("A=2", "B=1")))));
+    }
+
     private ConstraintNode constraint(String... fieldNames) {
         return constraint(fieldNames, new DecisionNode[0]);
     }
@@ -269,7 +316,10 @@ class RelatedFieldTreePartitionerTests {
         AtomicConstraint constraint = this.constraints.get(fieldName);
 
         if (constraint == null) {
-            constraint = new IsInSetConstraint(new Field(fieldName), Collections.singleton("sample-value"));
+            // "A=1" constrains field A to the value 1
+            String[] fieldAndValue = fieldName.split("=");
+            Object value = fieldAndValue.length > 1 ? fieldAndValue[1] : "sample-value";
+            constraint = new IsInSetConstraint(new Field(fieldAndValue[0]), Collections.singleton(value));
             this.constraints.put(fieldName, constraint);
         }
 
@@ -296,9 +346,11 @@ class RelatedFieldTreePartitionerTests {
         constraints = new HashMap<>();
         decisionTree = null;
         partitionedTrees = null;
+        splitIndependentDecisions = false;
     }
 
     private Map<String, AtomicConstraint> constraints;
+    private boolean splitIndependentDecisions;
     private List<DecisionTree> partitionedTrees;
     private DecisionTree decisionTree;
 
@@ -306,8 +358,12 @@ class RelatedFieldTreePartitionerTests {
         this.decisionTree = decisionTree;
     }
 
+    private void givenIndependentDecisionsAreSplit() {
+        this.splitIndependentDecisions = true;
+    }
+
     private void partitionTrees() {
-        partitionedTrees = new RelatedFieldTreePartitioner()
+        partitionedTrees = new RelatedFieldTreePartitioner(splitIndependentDecisions)
             .splitTreeIntoPartitions(decisionTree)
             .collect(Collectors.toList());
     }
@@ -28,6 +28,7 @@ import org.junit.jupiter.api.Test;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsCollectionContaining.hasItem;
+import static org.hamcrest.core.IsEqual.equalTo;
 import static org.hamcrest.core.IsNot.not;
 import static org.hamcrest.core.IsNull.nullValue;
 import static org.hamcrest.core.IsSame.sameInstance;
@@ -55,9 +56,9 @@ class DateTimeRestrictionsMergeOperationTests {
         when(merger.merge(left.getDateTimeRestrictions(), right.getDateTimeRestrictions()))
             .thenReturn(new MergeResult<>(null));
 
-        FieldSpec result = operation.applyMergeOperation(left, right, merging);
+        FieldSpec result = operation.applyMergeOperation(left, right, merging.toBuilder()).build();
 
-        Assert.assertThat(result, sameInstance(merging));
+        Assert.assertThat(result, equalTo(merging));
     }
 
     @Test
@@ -66,9 +67,9 @@ class DateTimeRestrictionsMergeOperationTests {
         when(merger.merge(left.getDateTimeRestrictions(), right.getDateTimeRestrictions()))
             .thenReturn(MergeResult.unsuccessful());
 
-        FieldSpec result = operation.applyMergeOperation(left, right, merging);
+        FieldSpec result = operation.applyMergeOperation(left, right, merging.toBuilder()).build();
 
-        Assert.assertThat(result, not(sameInstance(merging)));
+        Assert.assertThat(result, not(equalTo(merging)));
         Assert.assertThat(result.getDateTimeRestrictions(), is(nullValue()));
         Assert.assertThat(result.getTypeRestrictions(), not(nullValue()));
         Assert.assertThat(result.getTypeRestrictions().getAllowedTypes(), not(hasItem(IsOfTypeConstraint.Types.DATETIME)));
@@ -81,9 +82,9 @@ class DateTimeRestrictionsMergeOperationTests {
         when(merger.merge(left.getDateTimeRestrictions(), right.getDateTimeRestrictions()))
             .thenReturn(MergeResult.unsuccessful());
 
-        FieldSpec result = operation.applyMergeOperation(left, right, merging);
+        FieldSpec result = operation.applyMergeOperation(left, right, merging.toBuilder()).build();
 
-        Assert.assertThat(result, not(sameInstance(merging)));
+        Assert.assertThat(result, not(equalTo(merging)));
         Assert.assertThat(result.getDateTimeRestrictions(), is(nullValue()));
         Assert.assertThat(result.getTypeRestrictions(), not(nullValue()));
         Assert.assertThat(result.getTypeRestrictions().getAllowedTypes(), not(hasItem(IsOfTypeConstraint.Types.DATETIME)));
@@ -96,9 +97,9 @@ class DateTimeRestrictionsMergeOperationTests {
         when(merger.merge(left.getDateTimeRestrictions(), right.getDateTimeRestrictions()))
             .thenReturn(MergeResult.unsuccessful());
 
-        FieldSpec result = operation.applyMergeOperation(left, right, merging);
+        FieldSpec result = operation.applyMergeOperation(left, right, merging.toBuilder()).build();
 
-        Assert.assertThat(result, sameInstance(merging));
+        Assert.assertThat(result, equalTo(merging));
         Assert.assertThat(result.getDateTimeRestrictions(), is(nullValue()));
         Assert.assertThat(result.getTypeRestrictions(), not(nullValue()));
         Assert.assertThat(result.getTypeRestrictions().getAllowedTypes(), not(hasItem(IsOfTypeConstraint.Types.DATETIME)));
@@ -111,9 +112,9 @@ class DateTimeRestrictionsMergeOperationTests {
         when(merger.merge(left.getDateTimeRestrictions(), right.getDateTimeRestrictions()))
             .thenReturn(MergeResult.unsuccessful());
 
-        FieldSpec result = operation.applyMergeOperation(left, right, merging);
+        FieldSpec result = operation.applyMergeOperation(left, right, merging.toBuilder()).build();
 
-        Assert.assertThat(result, not(sameInstance(merging)));
+        Assert.assertThat(result, not(equalTo(merging)));
         Assert.assertThat(result.getWhitelist(), is(empty()));
     }
 
@@ -125,9 +126,9 @@ class DateTimeRestrictionsMergeOperationTests {
         when(merger.merge(left.getDateTimeRestrictions(), right.getDateTimeRestrictions()))
             .thenReturn(new MergeResult<>(merged));
 
-        FieldSpec result = operation.applyMergeOperation(left, right, merging);
+        FieldSpec result = operation.applyMergeOperation(left, right, merging.toBuilder()).build();
 
-        Assert.assertThat(result, not(sameInstance(merging)));
+        Assert.assertThat(result, not(equalTo(merging)));
         Assert.assertThat(result.getDateTimeRestrictions(), sameInstance(merged));
         Assert.assertThat(result.getTypeRestrictions(), sameInstance(merging.getTypeRestrictions()));
     }
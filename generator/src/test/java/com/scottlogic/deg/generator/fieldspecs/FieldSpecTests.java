@@ -37,6 +37,7 @@ import static org.hamcrest.core.IsEqual.equalTo;
 import static org.hamcrest.core.IsNot.not;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.mock;
 
 class FieldSpecTests {
@@ -489,6 +490,54 @@ class FieldSpecTests {
         assertFalse(spec.permits("Anything"));
     }
 
+    @Test
+    void toBuilder_withSeveralRestrictions_buildsSameFieldSpecAsChainedWithMethods() {
+        NumericRestrictions numeric = new NumericRestrictions();
+        TypeRestrictions types = DataTypeRestrictions.createFromWhiteList(Types.NUMERIC, Types.STRING);
+
+        FieldSpec built = FieldSpec.Empty.toBuilder()
+            .withNumericRestrictions(numeric)
+            .withTypeRestrictions(types)
+            .withNotNull()
+            .build();
+
+        assertEquals(
+            FieldSpec.Empty.withNumericRestrictions(numeric).withTypeRestrictions(types).withNotNull(),
+            built);
+    }
+
+    @Test
+    void toBuilder_withoutOnlyPermittedType_buildsMustBeNullFieldSpec() {
+        FieldSpec built = FieldSpec.Empty
+            .withTypeRestrictions(DataTypeRestrictions.createFromWhiteList(Types.STRING))
+            .toBuilder()
+            .withoutType(Types.STRING)
+            .build();
+
+        assertEquals(FieldSpec.mustBeNull(), built);
+    }
+
+    @Test
+    void getPermittedValues_withNumericRestrictions_removesValuesOutsideOfRange() {
+        NumericRestrictions numeric = new NumericRestrictions();
+        numeric.min = new NumericLimit<>(BigDecimal.TEN, true);
+        FieldSpec spec = FieldSpec.Empty.withNumericRestrictions(numeric);
+
+        Set<Object> permitted = spec.getPermittedValues(
+            new HashSet<>(Arrays.asList(BigDecimal.ONE, BigDecimal.TEN, "a string")));
+
+        assertEquals(new HashSet<>(Arrays.asList(BigDecimal.TEN, "a string")), permitted);
+    }
+
+    @Test
+    void getPermittedValues_withNoRestrictions_returnsSameSet() {
+        Set<Object> values = new HashSet<>(Arrays.asList(BigDecimal.ONE, "a string"));
+
+        Set<Object> permitted = FieldSpec.Empty.getPermittedValues(values);
+
+        assertSame(values, permitted);
+    }
+
     @ParameterizedTest()
     @MethodSource("partiallyUnequalProvider")
     public void fieldSpecsThatArePartiallyEqualShouldBeReportedAsUnequal(
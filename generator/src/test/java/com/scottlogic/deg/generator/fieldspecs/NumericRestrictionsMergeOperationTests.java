@@ -28,6 +28,7 @@ import org.junit.jupiter.api.Test;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsCollectionContaining.hasItem;
+import static org.hamcrest.core.IsEqual.equalTo;
 import static org.hamcrest.core.IsNot.not;
 import static org.hamcrest.core.IsNull.nullValue;
 import static org.hamcrest.core.IsSame.sameInstance;
@@ -56,9 +57,9 @@ class NumericRestrictionsMergeOperationTests {
         when(merger.merge(left.getNumericRestrictions(), right.getNumericRestrictions()))
             .thenReturn(new MergeResult<>(null));
 
-        FieldSpec result = operation.applyMergeOperation(left, right, merging);
+        FieldSpec result = operation.applyMergeOperation(left, right, merging.toBuilder()).build();
 
-        Assert.assertThat(result, sameInstance(merging));
+        Assert.assertThat(result, equalTo(merging));
     }
 
     @Test
@@ -67,9 +68,9 @@ class NumericRestrictionsMergeOperationTests {
         when(merger.merge(left.getNumericRestrictions(), right.getNumericRestrictions()))
             .thenReturn(MergeResult.unsuccessful());
 
-        FieldSpec result = operation.applyMergeOperation(left, right, merging);
+        FieldSpec result = operation.applyMergeOperation(left, right, merging.toBuilder()).build();
 
-        Assert.assertThat(result, not(sameInstance(merging)));
+        Assert.assertThat(result, not(equalTo(merging)));
         Assert.assertThat(result.getNumericRestrictions(), is(nullValue()));
         Assert.assertThat(result.getTypeRestrictions(), not(nullValue()));
         Assert.assertThat(result.getTypeRestrictions().getAllowedTypes(), not(hasItem(IsOfTypeConstraint.Types.NUMERIC)));
@@ -86,9 +87,9 @@ class NumericRestrictionsMergeOperationTests {
         when(merger.merge(left.getNumericRestrictions(), right.getNumericRestrictions()))
             .thenReturn(MergeResult.unsuccessful());
 
-        FieldSpec result = operation.applyMergeOperation(left, right, merging);
+        FieldSpec result = operation.applyMergeOperation(left, right, merging.toBuilder()).build();
 
-        Assert.assertThat(result, not(sameInstance(merging)));
+        Assert.assertThat(result, not(equalTo(merging)));
         Assert.assertThat(result.getNumericRestrictions(), is(nullValue()));
         Assert.assertThat(result.getTypeRestrictions(), not(nullValue()));
         Assert.assertThat(result.getTypeRestrictions().getAllowedTypes(), not(hasItem(IsOfTypeConstraint.Types.NUMERIC)));
@@ -102,9 +103,9 @@ class NumericRestrictionsMergeOperationTests {
         when(merger.merge(left.getNumericRestrictions(), right.getNumericRestrictions()))
             .thenReturn(MergeResult.unsuccessful());
 
-        FieldSpec result = operation.applyMergeOperation(left, right, merging);
+        FieldSpec result = operation.applyMergeOperation(left, right, merging.toBuilder()).build();
 
-        Assert.assertThat(result, is(sameInstance(merging)));
+        Assert.assertThat(result, is(equalTo(merging)));
         Assert.assertThat(result.getNumericRestrictions(), is(nullValue()));
         Assert.assertThat(result.getTypeRestrictions(), not(nullValue()));
         Assert.assertThat(result.getTypeRestrictions().getAllowedTypes(), not(hasItem(IsOfTypeConstraint.Types.NUMERIC)));
@@ -118,9 +119,9 @@ class NumericRestrictionsMergeOperationTests {
         when(merger.merge(left.getNumericRestrictions(), right.getNumericRestrictions()))
             .thenReturn(MergeResult.unsuccessful());
 
-        FieldSpec result = operation.applyMergeOperation(left, right, merging);
+        FieldSpec result = operation.applyMergeOperation(left, right, merging.toBuilder()).build();
 
-        Assert.assertThat(result, not(sameInstance(merging)));
+        Assert.assertThat(result, not(equalTo(merging)));
         Assert.assertThat(result.getWhitelist(), is(empty()));
     }
 
@@ -132,9 +133,9 @@ class NumericRestrictionsMergeOperationTests {
         when(merger.merge(left.getNumericRestrictions(), right.getNumericRestrictions()))
             .thenReturn(new MergeResult<>(merged));
 
-        FieldSpec result = operation.applyMergeOperation(left, right, merging);
+        FieldSpec result = operation.applyMergeOperation(left, right, merging.toBuilder()).build();
 
-        Assert.assertThat(result, not(sameInstance(merging)));
+        Assert.assertThat(result, not(equalTo(merging)));
         Assert.assertThat(result.getNumericRestrictions(), sameInstance(merged));
         Assert.assertThat(result.getTypeRestrictions(), sameInstance(merging.getTypeRestrictions()));
     }
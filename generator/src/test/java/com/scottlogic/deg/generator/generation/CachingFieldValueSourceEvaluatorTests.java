@@ -0,0 +1,63 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.generation;
+
+import com.scottlogic.deg.generator.fieldspecs.FieldSpec;
+import com.scottlogic.deg.generator.generation.fieldvaluesources.FieldValueSource;
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+
+class CachingFieldValueSourceEvaluatorTests {
+    @Test
+    void getFieldValueSources_withEqualFieldSpecs_shouldOnlyEvaluateSourcesOnce() {
+        FieldValueSourceEvaluator underlyingEvaluator = spy(new StandardFieldValueSourceEvaluator());
+        CachingFieldValueSourceEvaluator evaluator = new CachingFieldValueSourceEvaluator(underlyingEvaluator, 10);
+
+        List<FieldValueSource> first = evaluator.getFieldValueSources(whitelistOf(1, 2, 3));
+        List<FieldValueSource> second = evaluator.getFieldValueSources(whitelistOf(1, 2, 3));
+
+        Assert.assertThat(second, sameInstance(first));
+        verify(underlyingEvaluator, times(1)).getFieldValueSources(any());
+    }
+
+    @Test
+    void getFieldValueSources_withMoreFieldSpecsThanCacheSize_shouldEvictLeastRecentlyUsed() {
+        FieldValueSourceEvaluator underlyingEvaluator = spy(new StandardFieldValueSourceEvaluator());
+        CachingFieldValueSourceEvaluator evaluator = new CachingFieldValueSourceEvaluator(underlyingEvaluator, 2);
+
+        evaluator.getFieldValueSources(whitelistOf(1));
+        evaluator.getFieldValueSources(whitelistOf(2));
+        evaluator.getFieldValueSources(whitelistOf(1));
+        evaluator.getFieldValueSources(whitelistOf(3));
+        evaluator.getFieldValueSources(whitelistOf(1));
+        evaluator.getFieldValueSources(whitelistOf(2));
+
+        verify(underlyingEvaluator, times(2)).getFieldValueSources(whitelistOf(2));
+        verify(underlyingEvaluator, times(1)).getFieldValueSources(whitelistOf(1));
+    }
+
+    private static FieldSpec whitelistOf(Object... values) {
+        return FieldSpec.Empty.withWhitelist(new HashSet<>(Arrays.asList(values)));
+    }
+}
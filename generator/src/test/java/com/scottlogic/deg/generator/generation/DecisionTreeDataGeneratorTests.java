@@ -18,6 +18,7 @@ package com.scottlogic.deg.generator.generation;
 
 import com.scottlogic.deg.common.output.GeneratedObject;
 import com.scottlogic.deg.common.profile.Profile;
+import com.scottlogic.deg.generator.config.detail.Shard;
 import com.scottlogic.deg.generator.decisiontree.ConstraintNode;
 import com.scottlogic.deg.generator.decisiontree.DecisionTree;
 import com.scottlogic.deg.generator.decisiontree.DecisionTreeFactory;
@@ -65,7 +66,10 @@ public class DecisionTreeDataGeneratorTests {
             monitor,
             combinationStrategy,
             upfrontTreePruner,
-            maxRows
+            new NoopCompiledProfileCache(),
+            Mockito.mock(GenerationConfigSource.class),
+            maxRows,
+            Shard.WHOLE_OUTPUT
         );
     }
 
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.generation;
+
+import com.scottlogic.deg.common.profile.Profile;
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+class InMemoryCompiledProfileCacheTests {
+    private final InMemoryCompiledProfileCache cache = new InMemoryCompiledProfileCache();
+    private final AtomicInteger compilations = new AtomicInteger();
+
+    @Test
+    void get_withSameProfileAndOptions_shouldOnlyCompileOnce() {
+        Profile profile = profile();
+
+        CompiledProfile first = cache.get(profile, "options", this::compile);
+        CompiledProfile second = cache.get(profile, "options", this::compile);
+
+        Assert.assertThat(second, sameInstance(first));
+        Assert.assertThat(compilations.get(), is(1));
+    }
+
+    @Test
+    void get_withDifferentOptionsOrProfile_shouldCompileEach() {
+        Profile profile = profile();
+
+        CompiledProfile first = cache.get(profile, "options", this::compile);
+        CompiledProfile otherOptions = cache.get(profile, "other options", this::compile);
+        CompiledProfile otherProfile = cache.get(profile(), "options", this::compile);
+
+        Assert.assertThat(otherOptions, not(sameInstance(first)));
+        Assert.assertThat(otherProfile, not(sameInstance(first)));
+        Assert.assertThat(compilations.get(), is(3));
+    }
+
+    private CompiledProfile compile() {
+        compilations.incrementAndGet();
+        return new CompiledProfile(Collections.emptyList(), Collections.emptyList());
+    }
+
+    private static Profile profile() {
+        return new Profile(Collections.emptyList(), Collections.emptyList());
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.generation;
+
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.Profile;
+import com.scottlogic.deg.common.profile.ProfileFields;
+import com.scottlogic.deg.common.profile.constraints.atomic.MatchesRegexConstraint;
+import com.scottlogic.deg.generator.decisiontree.DecisionTree;
+import com.scottlogic.deg.generator.decisiontree.TreeConstraintNode;
+import org.junit.Assert;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.Matchers.*;
+
+class SnapshotCompiledProfileCacheTests {
+    private final DataGeneratorMonitor monitor = Mockito.mock(DataGeneratorMonitor.class);
+    private final AtomicInteger compilations = new AtomicInteger();
+    private final Field field = new Field("foo");
+    private Path directory;
+
+    @BeforeEach
+    void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("snapshots");
+    }
+
+    @AfterEach
+    void deleteDirectory() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    void get_withSnapshotSavedByEarlierRun_shouldLoadItWithoutCompiling() {
+        new SnapshotCompiledProfileCache(directory, monitor).get(profile(), "options", this::compile);
+
+        CompiledProfile loaded = new SnapshotCompiledProfileCache(directory, monitor)
+            .get(profile(), "options", this::compile);
+
+        Assert.assertThat(compilations.get(), is(1));
+        Assert.assertThat(loaded.getMessages(), contains("a message"));
+        Assert.assertThat(loaded.getPartitions(), hasSize(1));
+        Assert.assertThat(loaded.getPartitions().get(0).getRootNode().getAtomicConstraints(), contains(regexConstraint()));
+        Mockito.verify(monitor, Mockito.never()).addLineToPrintAtEndOfGeneration(Mockito.anyString());
+    }
+
+    @Test
+    void get_withDifferentOptions_shouldSaveEachSnapshot() throws IOException {
+        SnapshotCompiledProfileCache cache = new SnapshotCompiledProfileCache(directory, monitor);
+
+        cache.get(profile(), "options", this::compile);
+        cache.get(profile(), "other options", this::compile);
+
+        Assert.assertThat(compilations.get(), is(2));
+        Assert.assertThat(snapshots(), hasSize(2));
+    }
+
+    @Test
+    void get_withUnreadableSnapshot_shouldCompileAndReplaceIt() throws IOException {
+        new SnapshotCompiledProfileCache(directory, monitor).get(profile(), "options", this::compile);
+        Path snapshot = snapshots().get(0);
+        Files.write(snapshot, new byte[] { 1, 2, 3 });
+
+        new SnapshotCompiledProfileCache(directory, monitor).get(profile(), "options", this::compile);
+        new SnapshotCompiledProfileCache(directory, monitor).get(profile(), "options", this::compile);
+
+        Assert.assertThat(compilations.get(), is(2));
+        Assert.assertThat(snapshots(), contains(snapshot));
+    }
+
+    @Test
+    void get_withSnapshotHoldingClassOutsideTheAllowList_shouldCompileRatherThanLoadIt() {
+        new SnapshotCompiledProfileCache(directory, monitor).get(profile(), "options", this::compileWithUnexpectedClass);
+
+        CompiledProfile compiledProfile = new SnapshotCompiledProfileCache(directory, monitor)
+            .get(profile(), "options", this::compile);
+
+        Assert.assertThat(compilations.get(), is(2));
+        Assert.assertThat(compiledProfile.getMessages(), contains("a message"));
+    }
+
+    @Test
+    void get_withSnapshotHoldingCorruptAutomaton_shouldCompileAndReplaceIt() throws IOException {
+        new SnapshotCompiledProfileCache(directory, monitor).get(profile(), "options", this::compile);
+        Path snapshot = snapshots().get(0);
+        byte[] bytes = Files.readAllBytes(snapshot);
+        byte[] regex = "[a-c]{2}".getBytes(StandardCharsets.UTF_8);
+        int automatonStart = lastIndexOf(bytes, regex) + regex.length;
+        // the automata follow the compiled profile, so the last copy of the regex is the one written with its automaton;
+        // point its initial state beyond the automaton's states, past the deterministic flag and the state count
+        ByteBuffer.wrap(bytes).putInt(automatonStart + 5, Integer.MAX_VALUE);
+        Files.write(snapshot, bytes);
+
+        CompiledProfile compiledProfile = new SnapshotCompiledProfileCache(directory, monitor)
+            .get(profile(), "options", this::compile);
+        new SnapshotCompiledProfileCache(directory, monitor).get(profile(), "options", this::compile);
+
+        Assert.assertThat(compilations.get(), is(2));
+        Assert.assertThat(compiledProfile.getMessages(), contains("a message"));
+    }
+
+    private static int lastIndexOf(byte[] bytes, byte[] subsequence) {
+        for (int start = bytes.length - subsequence.length; start >= 0; start--) {
+            if (Arrays.equals(Arrays.copyOfRange(bytes, start, start + subsequence.length), subsequence)) {
+                return start;
+            }
+        }
+        throw new IllegalArgumentException("Subsequence not found");
+    }
+
+    private List<Path> snapshots() throws IOException {
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.collect(Collectors.toList());
+        }
+    }
+
+    private CompiledProfile compile() {
+        compilations.incrementAndGet();
+        return new CompiledProfile(Collections.singletonList(tree()), Collections.singletonList("a message"));
+    }
+
+    /** a compiled profile whose messages hold an AtomicInteger, which snapshots aren't allowed to contain */
+    @SuppressWarnings("unchecked")
+    private CompiledProfile compileWithUnexpectedClass() {
+        compilations.incrementAndGet();
+        List<String> messages = (List<String>) (List<?>) Collections.singletonList(new AtomicInteger());
+        return new CompiledProfile(Collections.singletonList(tree()), messages);
+    }
+
+    private DecisionTree tree() {
+        return new DecisionTree(
+            new TreeConstraintNode(regexConstraint()),
+            new ProfileFields(Collections.singletonList(field)));
+    }
+
+    private MatchesRegexConstraint regexConstraint() {
+        return new MatchesRegexConstraint(field, Pattern.compile("[a-c]{2}"));
+    }
+
+    private Profile profile() {
+        return new Profile(new ProfileFields(Collections.singletonList(field)), Collections.emptyList());
+    }
+}
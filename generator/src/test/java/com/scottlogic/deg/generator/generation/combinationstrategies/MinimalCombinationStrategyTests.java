@@ -57,6 +57,21 @@ class MinimalCombinationStrategyTests {
                 bag("X", "C", "5")));
     }
 
+    @Test
+    void shouldKeepLastValueOfEachExhaustedSequence() {
+        tester.given(
+            Stream.of(bag("A"), bag("B")),
+            Stream.of(bag("X")),
+            Stream.of(bag("1"), bag("2"), bag("3")),
+            Stream.of(bag("Y")));
+
+        tester.expect(
+            Stream.of(
+                bag("A", "X", "1", "Y"),
+                bag("B", "X", "2", "Y"),
+                bag("B", "X", "3", "Y")));
+    }
+
     @Test
     void shouldGiveInputForSingleSequence() {
         tester.given(Stream.of(bag("A"), bag("B"), bag("C")));
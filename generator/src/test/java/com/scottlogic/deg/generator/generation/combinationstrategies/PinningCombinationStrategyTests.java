@@ -64,6 +64,21 @@ class PinningCombinationStrategyTests {
                 bag("X", "A", "5")));
     }
 
+    @Test
+    void shouldSkipSequencesWithOnlyABaseline() {
+        tester.given(
+            Stream.of(bag("A"), bag("B")),
+            Stream.of(bag("X")),
+            Stream.of(bag("Y")),
+            Stream.of(bag("1"), bag("2")));
+
+        tester.expect(
+            Stream.of(
+                bag("A", "X", "Y", "1"),
+                bag("B", "X", "Y", "1"),
+                bag("A", "X", "Y", "2")));
+    }
+
     @Test
     void shouldGiveInputForSingleSequence() {
         tester.given(Stream.of(bag("A"), bag("B"), bag("C")));
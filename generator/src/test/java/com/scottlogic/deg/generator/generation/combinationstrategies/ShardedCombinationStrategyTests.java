@@ -0,0 +1,91 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.generation.combinationstrategies;
+
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.generator.builders.DataBagBuilder;
+import com.scottlogic.deg.generator.config.detail.Shard;
+import com.scottlogic.deg.generator.generation.databags.DataBag;
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.hamcrest.Matchers.*;
+
+class ShardedCombinationStrategyTests {
+    @Test
+    void shouldReproduceExhaustiveCombinationWhenShardsAreConcatenated() {
+        List<DataBag> expected = new ExhaustiveCombinationStrategy().permute(sequences()).collect(Collectors.toList());
+
+        List<DataBag> actual = new ArrayList<>();
+        for (int number = 1; number <= 4; number++) {
+            new ShardedCombinationStrategy(new Shard(number, 4), Long.MAX_VALUE)
+                .permute(sequences())
+                .forEach(actual::add);
+        }
+
+        Assert.assertThat(actual, equalTo(expected));
+    }
+
+    @Test
+    void shouldSplitRowsEvenlyBetweenShards() {
+        List<Long> rowCounts = IntStream.rangeClosed(1, 4)
+            .mapToObj(number -> new ShardedCombinationStrategy(new Shard(number, 4), Long.MAX_VALUE)
+                .permute(sequences())
+                .count())
+            .collect(Collectors.toList());
+
+        Assert.assertThat(rowCounts, contains(7L, 8L, 7L, 8L));
+    }
+
+    @Test
+    void shouldShardOnlyTheRowsWithinMaxRows() {
+        List<DataBag> expected = new ExhaustiveCombinationStrategy().permute(sequences())
+            .skip(5)
+            .limit(5)
+            .collect(Collectors.toList());
+
+        List<DataBag> actual = new ShardedCombinationStrategy(new Shard(2, 2), 10)
+            .permute(sequences())
+            .collect(Collectors.toList());
+
+        Assert.assertThat(actual, equalTo(expected));
+    }
+
+    @Test
+    void shouldGiveNoRowsWhenASequenceIsEmpty() {
+        Stream<DataBag> actual = new ShardedCombinationStrategy(new Shard(1, 2), Long.MAX_VALUE)
+            .permute(Stream.of(values("A", 1, 2), Stream.empty()));
+
+        Assert.assertThat(actual.count(), equalTo(0L));
+    }
+
+    private static Stream<Stream<DataBag>> sequences() {
+        return Stream.of(values("A", 1, 2), values("B", 1, 2, 3), values("C", 1, 2, 3, 4, 5));
+    }
+
+    private static Stream<DataBag> values(String fieldName, Integer... values) {
+        Field field = new Field(fieldName);
+
+        return Stream.of(values).map(value -> new DataBagBuilder().set(field, value).build());
+    }
+}
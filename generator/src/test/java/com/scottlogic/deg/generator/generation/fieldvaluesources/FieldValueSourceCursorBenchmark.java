@@ -0,0 +1,141 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.generation.fieldvaluesources;
+
+import com.scottlogic.deg.common.profile.constraintdetail.Timescale;
+import com.scottlogic.deg.generator.generation.databags.DataBagValue;
+import com.scottlogic.deg.generator.generation.fieldvaluesources.datetime.DateTimeFieldValueSource;
+import com.scottlogic.deg.generator.restrictions.DateTimeRestrictions;
+import com.scottlogic.deg.generator.restrictions.NumericRestrictions;
+import com.scottlogic.deg.generator.utils.JavaUtilRandomNumberGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Compares the values per second produced through the iterable chain and through value cursors, as consumed by
+ * FieldSpecValueGenerator. Run with -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class FieldValueSourceCursorBenchmark {
+    private static final int VALUES_PER_RUN = 1_000_000;
+    private static final int WARM_UP_RUNS = 5;
+    private static final int MEASURED_RUNS = 10;
+
+    @Test
+    void allValuesOfNumericAndNullSources() {
+        NumericRestrictions restrictions = new NumericRestrictions();
+        FieldValueSource source = new CombiningFieldValueSource(Arrays.asList(
+            new RealNumberFieldValueSource(restrictions, new HashSet<>(Arrays.asList(5, 50, 500))),
+            CannedValuesFieldValueSource.of((Object) null)));
+
+        compare(
+            "all numeric values",
+            () -> iterableChain(source.generateAllValues()),
+            () -> cursorChain(source.allValuesCursor().map(value -> new DataBagValue(value, null)).stream()));
+    }
+
+    @Test
+    void allValuesOfDateTimeAndNullSources() {
+        FieldValueSource source = new CombiningFieldValueSource(Arrays.asList(
+            new DateTimeFieldValueSource(
+                new DateTimeRestrictions(Timescale.MILLIS),
+                Collections.singleton(DateTimeFieldValueSource.ISO_MIN_DATE)),
+            CannedValuesFieldValueSource.of((Object) null)));
+
+        compare(
+            "all datetime values",
+            () -> iterableChain(source.generateAllValues()),
+            () -> cursorChain(source.allValuesCursor().map(value -> new DataBagValue(value, null)).stream()));
+    }
+
+    @Test
+    void randomValuesOfCannedAndDateTimeSources() {
+        List<Object> cannedValues = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+        FieldValueSource source = new CombiningFieldValueSource(Arrays.asList(
+            new CannedValuesFieldValueSource(cannedValues),
+            new DateTimeFieldValueSource(new DateTimeRestrictions(), Collections.emptySet())));
+
+        compare(
+            "random canned and datetime values",
+            () -> iterableChain(source.generateRandomValues(new JavaUtilRandomNumberGenerator(0))),
+            () -> cursorChain(source.randomValuesCursor(new JavaUtilRandomNumberGenerator(0))
+                .map(value -> new DataBagValue(value, null))
+                .stream()));
+    }
+
+    private static Stream<DataBagValue> iterableChain(Iterable<Object> values) {
+        return StreamSupport.stream(values.spliterator(), false)
+            .map(value -> new DataBagValue(value, null));
+    }
+
+    private static Stream<DataBagValue> cursorChain(Stream<DataBagValue> values) {
+        return values;
+    }
+
+    private static void compare(
+        String description,
+        Supplier<Stream<DataBagValue>> iterableChain,
+        Supplier<Stream<DataBagValue>> cursorChain) {
+
+        double iterableValuesPerSecond = measure(iterableChain);
+        double cursorValuesPerSecond = measure(cursorChain);
+
+        System.out.println(String.format(
+            "%s: iterables %.0f values/s, cursors %.0f values/s (%.2fx)",
+            description,
+            iterableValuesPerSecond,
+            cursorValuesPerSecond,
+            cursorValuesPerSecond / iterableValuesPerSecond));
+    }
+
+    private static double measure(Supplier<Stream<DataBagValue>> values) {
+        for (int run = 0; run < WARM_UP_RUNS; run++) {
+            consume(values.get());
+        }
+
+        long start = System.nanoTime();
+        long checksum = 0;
+        for (int run = 0; run < MEASURED_RUNS; run++) {
+            checksum += consume(values.get());
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        if (checksum == 42) {
+            System.out.println("Checksum collision, ignore");
+        }
+
+        return (double) VALUES_PER_RUN * MEASURED_RUNS / elapsedNanos * 1_000_000_000;
+    }
+
+    private static long consume(Stream<DataBagValue> values) {
+        return values
+            .limit(VALUES_PER_RUN)
+            .mapToLong(value -> value.getUnformattedValue() == null ? 0 : value.getUnformattedValue().hashCode())
+            .sum();
+    }
+}
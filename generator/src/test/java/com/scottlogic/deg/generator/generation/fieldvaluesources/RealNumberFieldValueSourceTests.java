@@ -518,6 +518,7 @@ class RealNumberFieldValueSourceTests {
     }
     private void expectAllValues(Object... expectedValuesArray) {
         expectValues(getObjectUnderTest().generateAllValues(), true, expectedValuesArray);
+        expectValues(getObjectUnderTest().allValuesCursor().stream()::iterator, false, expectedValuesArray);
     }
 
     private void expectInterestingValues(Object... expectedValuesArray) {
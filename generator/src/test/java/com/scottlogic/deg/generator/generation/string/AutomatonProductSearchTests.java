@@ -0,0 +1,118 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.generation.string;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class AutomatonProductSearchTests {
+    @Test
+    void isEmpty_withIntersectingRegexes_returnsFalse() {
+        AutomatonProductSearch search = new AutomatonProductSearch()
+            .withRegex("[a-z]{2,5}", true, false)
+            .withRegex("[a-c]+", true, false);
+
+        assertThat(search.isEmpty(), is(false));
+    }
+
+    @Test
+    void isEmpty_withDisjointRegexes_returnsTrue() {
+        AutomatonProductSearch search = new AutomatonProductSearch()
+            .withRegex("[a-z]+", true, false)
+            .withRegex("[0-9]+", true, false);
+
+        assertThat(search.isEmpty(), is(true));
+    }
+
+    @Test
+    void isEmpty_withRegexAndItsNegation_returnsTrue() {
+        AutomatonProductSearch search = new AutomatonProductSearch()
+            .withRegex("[a-z]{3}", true, false)
+            .withRegex("[a-z]{3}", true, true);
+
+        assertThat(search.isEmpty(), is(true));
+    }
+
+    @Test
+    void isEmpty_withNegatedContainingRegexThatExcludesSomeStrings_returnsFalse() {
+        AutomatonProductSearch search = new AutomatonProductSearch()
+            .withRegex("[a-c]{3}", true, false)
+            .withRegex("b", false, true);
+
+        assertThat(search.isEmpty(), is(false));
+    }
+
+    @Test
+    void isEmpty_withLengthsThatTheRegexCannotMeet_returnsTrue() {
+        AutomatonProductSearch search = new AutomatonProductSearch()
+            .withRegex("[a-z]{0,9}", true, false)
+            .withLengths(10, null, Collections.emptySet());
+
+        assertThat(search.isEmpty(), is(true));
+    }
+
+    @Test
+    void isEmpty_withAllLengthsTheRegexCanMeetExcluded_returnsTrue() {
+        AutomatonProductSearch search = new AutomatonProductSearch()
+            .withRegex("a{2}|b{4}", true, false)
+            .withLengths(0, 10, new HashSet<>(Arrays.asList(2, 4)));
+
+        assertThat(search.isEmpty(), is(true));
+    }
+
+    @Test
+    void isEmpty_withUnboundedRegexAndMinimumLength_returnsFalse() {
+        AutomatonProductSearch search = new AutomatonProductSearch()
+            .withRegex("a*", true, false)
+            .withLengths(1000, null, Collections.emptySet());
+
+        assertThat(search.isEmpty(), is(false));
+    }
+
+    @Test
+    void isSubsetOf_whenEveryStringIsAcceptedByTheOtherSearch_returnsTrue() {
+        AutomatonProductSearch search = new AutomatonProductSearch().withRegex("[a-c]{2}", true, false);
+        AutomatonProductSearch other = new AutomatonProductSearch()
+            .withRegex("[a-z]+", true, false)
+            .withLengths(1, 5, Collections.emptySet());
+
+        assertThat(search.isSubsetOf(other), is(true));
+    }
+
+    @Test
+    void isSubsetOf_whenSomeStringsAreRejectedByTheOtherSearch_returnsFalse() {
+        AutomatonProductSearch search = new AutomatonProductSearch().withRegex("[a-c]{2}", true, false);
+        AutomatonProductSearch other = new AutomatonProductSearch().withRegex("b", false, true);
+
+        assertThat(search.isSubsetOf(other), is(false));
+    }
+
+    @Test
+    void isEmpty_withStandardCodeGeneratorAndRegexForOtherCodes_returnsTrue() {
+        AutomatonProductSearch search = new AutomatonProductSearch()
+            .withGenerator(new SedolStringGenerator())
+            .withRegex("[a-z]{7}", true, false);
+
+        assertThat(search.isEmpty(), is(true));
+    }
+}
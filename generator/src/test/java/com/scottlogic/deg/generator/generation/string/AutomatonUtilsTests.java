@@ -20,7 +20,11 @@ import dk.brics.automaton.Automaton;
 import org.junit.Assert;
 import org.junit.jupiter.api.Test;
 
-import java.util.HashMap;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -168,8 +172,21 @@ class AutomatonUtilsTests {
         assertThat(longestExample, equalTo(""));
     }
 
+    @Test
+    public void readAutomaton_withWrittenAutomatonOfLongStrings_shouldReturnAutomatonOfSameStrings() throws IOException {
+        Automaton automaton = getAutomaton("[a-z]{0,5000}@x");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        AutomatonUtils.writeAutomaton(new DataOutputStream(bytes), automaton);
+        Automaton readAutomaton = AutomatonUtils.readAutomaton(
+            new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertThat(readAutomaton, equalTo(automaton));
+        assertThat(readAutomaton.run(repeat('a', 5000) + "@x"), equalTo(true));
+    }
+
     private static Automaton getAutomaton(String regex){
-        return AutomatonUtils.createAutomaton(regex, true, new HashMap<>());
+        return AutomatonUtils.createAutomaton(regex, true);
     }
 
     private static String repeat(Character character, int times){
@@ -23,6 +23,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
@@ -376,6 +377,117 @@ public class RegexStringGeneratorTests {
         assertTrue(StringUtils.isCharValidUtf8(validChar));
     }
 
+    @Test
+    void lengthBoundedGenerator_shouldGenerateSameValuesAsIntersectingWithLengthRegex() {
+        StringGenerator regexGenerator = new RegexStringGenerator("[a-c]*", true);
+        StringGenerator lengthRegexGenerator = new RegexStringGenerator("^(.{0,1}|.{3,4})$", true);
+        StringGenerator lengthBoundedGenerator = RegexStringGenerator.createFromLengthBounds(
+            0, 4, Collections.singleton(2));
+
+        StringGenerator expected = regexGenerator.intersect(lengthRegexGenerator);
+        StringGenerator actual = lengthBoundedGenerator.intersect(regexGenerator);
+
+        assertThat(actual.isFinite(), Is.is(true));
+        assertThat(actual.getValueCount(), equalTo(expected.getValueCount()));
+        assertThat(
+            IterableAsStream.convert(actual.generateAllValues()).collect(Collectors.toList()),
+            equalTo(IterableAsStream.convert(expected.generateAllValues()).collect(Collectors.toList())));
+    }
+
+    @Test
+    void lengthBoundedGenerator_shouldGenerateRandomValuesOfPermittedLengths() {
+        StringGenerator generator = RegexStringGenerator.createFromLengthBounds(2, 5, Collections.singleton(3))
+            .intersect(new RegexStringGenerator("[a-z]+", true));
+
+        List<String> values = IterableAsStream.convert(
+            generator.generateRandomValues(new JavaUtilRandomNumberGenerator(0)))
+            .limit(100)
+            .collect(Collectors.toList());
+
+        assertThat(values, everyItem(matchesPattern("^([a-z]{2}|[a-z]{4,5})$")));
+    }
+
+    @Test
+    void lengthBoundedGenerator_shouldStopAtAPermittedLengthSeventyPercentOfTheTime() {
+        StringGenerator generator = RegexStringGenerator.createFromLengthBounds(1, 1000, Collections.emptySet())
+            .intersect(new RegexStringGenerator("a*", true));
+
+        double meanLength = IterableAsStream.convert(
+            generator.generateRandomValues(new JavaUtilRandomNumberGenerator(0)))
+            .limit(10_000)
+            .mapToInt(String::length)
+            .average()
+            .getAsDouble();
+
+        // each character after the first is followed by another 30% of the time, so the mean length is 1 / 0.7
+        assertThat(meanLength, closeTo(1 / 0.7, 0.1));
+    }
+
+    @Test
+    void lengthBoundedGenerator_intersectedWithAnotherLengthBoundedGenerator_shouldApplyBothBounds() {
+        StringGenerator generator = RegexStringGenerator.createFromLengthBounds(2, 5, Collections.emptySet())
+            .intersect(RegexStringGenerator.createFromLengthBounds(4, 8, Collections.emptySet()))
+            .intersect(new RegexStringGenerator("a*", true));
+
+        assertThat(generator.generateAllValues(), contains("aaaa", "aaaaa"));
+    }
+
+    @Test
+    void lengthBoundedGenerator_shouldGenerateShortestAndLongestInterestingValues() {
+        StringGenerator generator = RegexStringGenerator.createFromLengthBounds(0, 1000, Collections.emptySet())
+            .intersect(new RegexStringGenerator("a[0-9]{2,5}", true));
+
+        assertThat(generator.generateInterestingValues(), contains("a00", "a00000"));
+    }
+
+    @Test
+    void lengthBoundedGenerator_withLengthsContradictingRegex_shouldGenerateNoValues() {
+        StringGenerator generator = RegexStringGenerator.createFromLengthBounds(0, 2, Collections.emptySet())
+            .intersect(new RegexStringGenerator("[b]{3}", true));
+
+        assertEquals(0, generator.getValueCount());
+        assertFalse(generator.generateAllValues().iterator().hasNext());
+        assertFalse(generator.generateRandomValues(new JavaUtilRandomNumberGenerator(0)).iterator().hasNext());
+    }
+
+    @Test
+    void lengthBoundedGenerator_withTransitionOfOnlySurrogates_shouldNeverTakeIt() {
+        StringGenerator generator = RegexStringGenerator.createFromLengthBounds(0, 5, Collections.emptySet())
+            .intersect(new RegexStringGenerator("a|[\uD800-\uDFFF]", true));
+
+        List<String> randomValues = IterableAsStream.convert(
+            generator.generateRandomValues(new JavaUtilRandomNumberGenerator(0)))
+            .limit(100)
+            .collect(Collectors.toList());
+
+        assertThat(randomValues, everyItem(equalTo("a")));
+        assertThat(generator.generateAllValues(), contains("a"));
+        assertEquals(1, generator.getValueCount());
+    }
+
+    @Test
+    void lengthBoundedGenerator_withTransitionSpanningSurrogates_shouldCountTheValuesItEnumerates() {
+        StringGenerator generator = RegexStringGenerator.createFromLengthBounds(0, 5, Collections.emptySet())
+            .intersect(new RegexStringGenerator("[\uD7FF-\uE000]", true));
+
+        List<String> randomValues = IterableAsStream.convert(
+            generator.generateRandomValues(new JavaUtilRandomNumberGenerator(0)))
+            .limit(100)
+            .collect(Collectors.toList());
+
+        assertThat(generator.generateAllValues(), contains("\uD7FF", "\uE000"));
+        assertEquals(2, generator.getValueCount());
+        assertThat(randomValues, everyItem(isOneOf("\uD7FF", "\uE000")));
+        assertThat(generator.generateInterestingValues(), contains("\uD7FF"));
+    }
+
+    @Test
+    void lengthBoundedGenerator_shouldSaturateValueCount() {
+        StringGenerator generator = RegexStringGenerator.createFromLengthBounds(0, 1000, Collections.emptySet());
+
+        assertEquals(Long.MAX_VALUE, generator.getValueCount());
+    }
+
     @Test
     void generateInterestingValues_withShorterThanAndContainingAndMatchingRegex_shouldBeAbleToCreateAString(){
         RegexStringGenerator matchingRegex = new RegexStringGenerator("^[a-z0-9]+\\@[a-z0-9]+\\.co(m|\\.uk)$", true);
@@ -440,4 +552,57 @@ public class RegexStringGeneratorTests {
 
         assertThat(match, is(false));
     }
+
+    @Test
+    void generateAllValues_fromOneGeneratorOnSeveralThreadsAtOnce_shouldAllSeeTheCompleteValues() throws Exception {
+        RegexStringGenerator generator = new RegexStringGenerator("[a-c]{1,4}", true);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<String>>> results = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    List<String> values = new ArrayList<>();
+                    generator.generateAllValues().iterator().forEachRemaining(values::add);
+                    return values;
+                }));
+            }
+            start.countDown();
+
+            for (Future<List<String>> result : results) {
+                List<String> values = result.get(10, TimeUnit.SECONDS);
+                assertThat(values.size(), is(3 + 9 + 27 + 81));
+                assertThat(new HashSet<>(values).size(), is(values.size()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void estimateValueCount_withFiniteRegexes_shouldMatchTheValueCount() {
+        for (String regex : Arrays.asList("[a-c]{1,3}", "(ab|cd|e)f?", "a|[0-9]{2}", "[a-c]{2}x")) {
+            RegexStringGenerator generator = new RegexStringGenerator(regex, true);
+
+            assertThat(regex, generator.estimateValueCount(), equalTo(generator.getValueCount()));
+        }
+    }
+
+    @Test
+    void estimateValueCount_withRegexHavingTooManyPathsToBuildANodeFor_shouldCountThemFromEachState() {
+        RegexStringGenerator generator = new RegexStringGenerator("[ace]{30}", true);
+
+        assertThat(generator.estimateValueCount(), equalTo((long) Math.pow(3, 30)));
+    }
+
+    @Test
+    void estimateValueCount_withContradictoryRegexes_shouldBeZero() {
+        StringGenerator generator = new RegexStringGenerator("[a-c]{2}", true)
+            .intersect(new RegexStringGenerator("[d-f]{2}", true));
+
+        assertThat(generator.estimateValueCount(), equalTo(0L));
+    }
 }
@@ -988,4 +988,37 @@ class ConstraintReducerTest {
         Assert.assertThat(result.isPresent(), is(true));
         Assert.assertThat(result.get().getTypeRestrictions().getAllowedTypes(), empty());
     }
+
+    @Test
+    public void getOrCreateRowSpec_withSameConstraintsInAnyOrder_returnsSameRowSpec() {
+        Field field = new Field("field");
+        ProfileFields profileFields = new ProfileFields(Collections.singletonList(field));
+        AtomicConstraint ofTypeString = new IsOfTypeConstraint(field, IsOfTypeConstraint.Types.STRING);
+        AtomicConstraint shorterThan = new IsStringShorterThanConstraint(field, 10);
+
+        Optional<RowSpec> first = constraintReducer.getOrCreateRowSpec(
+            profileFields,
+            Arrays.asList(ofTypeString, shorterThan));
+        Optional<RowSpec> second = constraintReducer.getOrCreateRowSpec(
+            profileFields,
+            Arrays.asList(shorterThan, ofTypeString));
+
+        Assert.assertThat(second, sameInstance(first));
+    }
+
+    @Test
+    public void getOrCreateRowSpec_withDifferentProfileFields_returnsRowSpecForEachSetOfFields() {
+        Field field = new Field("field");
+        Field otherField = new Field("other");
+        ProfileFields oneField = new ProfileFields(Collections.singletonList(field));
+        ProfileFields twoFields = new ProfileFields(Arrays.asList(field, otherField));
+        List<AtomicConstraint> constraints = Collections.singletonList(
+            new IsOfTypeConstraint(field, IsOfTypeConstraint.Types.STRING));
+
+        Optional<RowSpec> first = constraintReducer.getOrCreateRowSpec(oneField, constraints);
+        Optional<RowSpec> second = constraintReducer.getOrCreateRowSpec(twoFields, constraints);
+
+        Assert.assertThat(first.get().getFields(), sameInstance(oneField));
+        Assert.assertThat(second.get().getFields(), sameInstance(twoFields));
+    }
 }
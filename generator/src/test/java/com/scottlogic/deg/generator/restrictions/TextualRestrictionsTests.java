@@ -329,13 +329,14 @@ class TextualRestrictionsTests {
     }
 
     @Test
-    void createGenerator_withContradictingOfLengthAndContainingRegexConstraint_shouldCreateNoStrings() {
+    void createGenerator_withOfLengthLongerThanContainingRegexConstraint_shouldCreateStrings() {
         StringRestrictions restrictions = containsRegex("[a-z]{0,9}", false)
             .intersect(ofLength(100, false)).restrictions;
 
         StringGenerator generator = restrictions.createGenerator();
 
-        assertGeneratorCannotGenerateAnyStrings(generator);
+        assertGeneratorCanGenerateAtLeastOneString(generator);
+        Assert.assertThat(generator.generateAllValues().iterator().next().length(), equalTo(100));
     }
 
     @Test
@@ -586,6 +587,36 @@ class TextualRestrictionsTests {
         Assert.assertThat(generator.toString(), equalTo("/^.{0,3}$/"));
     }
 
+    @Test
+    void intersect_withSameMatchingRegex_shouldKeepExistingRestrictions() {
+        StringRestrictions restrictions = matchingRegex("[a-z]{0,9}", false);
+        StringGenerator generator = restrictions.createGenerator();
+
+        MergeResult<StringRestrictions> result = restrictions.intersect(matchingRegex("[a-z]{0,9}", false));
+
+        Assert.assertThat(result.restrictions, sameInstance(restrictions));
+        Assert.assertThat(result.restrictions.createGenerator(), sameInstance(generator));
+    }
+
+    @Test
+    void intersect_withAnchoredAndUnanchoredMatchingRegex_shouldApplyRegexOnce() {
+        StringRestrictions anchored = matchingRegex("^[a-z]{0,9}$", false);
+        StringRestrictions unanchored = matchingRegex("[a-z]{0,9}", false);
+
+        MergeResult<StringRestrictions> result = anchored.intersect(unanchored);
+
+        Assert.assertThat(result.restrictions, equalTo(unanchored));
+    }
+
+    @Test
+    void createGenerator_forRestrictionsWithSameRegexes_shouldShareRegexGenerator() {
+        StringRestrictions first = matchingRegex("[a-z]{0,9}", false).intersect(containsRegex("[0-9]", true)).restrictions;
+        StringRestrictions second = containsRegex("[0-9]", true).intersect(matchingRegex("[a-z]{0,9}", false)).restrictions;
+
+        Assert.assertThat(second, not(sameInstance(first)));
+        Assert.assertThat(second.createGenerator(), sameInstance(first.createGenerator()));
+    }
+
     private static StringRestrictions ofLength(int length, boolean negate){
         return new TextualRestrictions(
             negate ? null : length,
@@ -620,29 +651,11 @@ class TextualRestrictionsTests {
     }
 
     private static StringRestrictions matchingRegex(String regex, @SuppressWarnings("SameParameterValue") boolean negate){
-        Pattern pattern = Pattern.compile(regex);
-
-        return new TextualRestrictions(
-            null,
-            null,
-            negate ? Collections.emptySet() : Collections.singleton(pattern),
-            Collections.emptySet(),
-            Collections.emptySet(),
-            negate ? Collections.singleton(pattern) : Collections.emptySet(),
-            Collections.emptySet());
+        return new StringRestrictionsFactory().forStringMatching(Pattern.compile(regex), negate);
     }
 
     private static StringRestrictions containsRegex(String regex, @SuppressWarnings("SameParameterValue") boolean negate){
-        Pattern pattern = Pattern.compile(regex);
-
-        return new TextualRestrictions(
-            null,
-            null,
-            Collections.emptySet(),
-            negate ? Collections.emptySet() : Collections.singleton(pattern),
-            Collections.emptySet(),
-            Collections.emptySet(),
-            negate ? Collections.singleton(pattern) : Collections.emptySet());
+        return new StringRestrictionsFactory().forStringContaining(Pattern.compile(regex), negate);
     }
 
     private static StringRestrictions aValid(@SuppressWarnings("SameParameterValue") StandardConstraintTypes type, @SuppressWarnings("SameParameterValue") boolean negate){
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.utils;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.*;
+
+class ValueCursorTests {
+    @Test
+    void stream_shouldProduceAllValuesInOrder() {
+        ValueCursor<Integer> cursor = ValueCursor.of(Arrays.asList(1, 2, 3));
+
+        Assert.assertThat(cursor.stream().collect(Collectors.toList()), contains(1, 2, 3));
+    }
+
+    @Test
+    void advance_withEmptyCursor_shouldReturnFalse() {
+        Assert.assertThat(ValueCursor.empty().advance(), is(false));
+    }
+
+    @Test
+    void filterAndMap_shouldApplyEachStageInOrder() {
+        ValueCursor<String> cursor = ValueCursor.of(Arrays.asList(1, 2, 3, 4, 5, 6))
+            .filter(value -> value % 2 == 0)
+            .filter(value -> value > 2)
+            .map(value -> value * 10)
+            .filter(value -> value < 60)
+            .map(value -> "value " + value);
+
+        Assert.assertThat(cursor.stream().collect(Collectors.toList()), contains("value 40"));
+    }
+
+    @Test
+    void filterAndMap_withConsecutiveStages_shouldFuseIntoSingleCursor() {
+        ValueCursor<Integer> underlyingCursor = ValueCursor.of(Arrays.asList(1, 2, 3));
+
+        ValueCursor<Integer> cursor = underlyingCursor
+            .filter(value -> value > 1)
+            .filter(value -> value < 3)
+            .map(value -> value + 1)
+            .map(value -> value * 2);
+
+        Assert.assertThat(cursor, instanceOf(FilteringMappingValueCursor.class));
+        Assert.assertThat(cursor.stream().collect(Collectors.toList()), contains(6));
+    }
+
+    @Test
+    void concatenatingCursor_shouldProduceValuesOfEachCursorInTurn() {
+        List<Supplier<ValueCursor<Integer>>> cursors = Arrays.asList(
+            () -> ValueCursor.of(Arrays.asList(1, 2)),
+            ValueCursor::empty,
+            () -> ValueCursor.of(Collections.singletonList(3)));
+
+        ValueCursor<Integer> cursor = new ConcatenatingValueCursor<>(cursors);
+
+        Assert.assertThat(cursor.stream().collect(Collectors.toList()), contains(1, 2, 3));
+        Assert.assertThat(cursor.advance(), is(false));
+    }
+}
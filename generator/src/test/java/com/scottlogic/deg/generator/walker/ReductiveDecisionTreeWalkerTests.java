@@ -18,13 +18,24 @@ package com.scottlogic.deg.generator.walker;
 
 import com.scottlogic.deg.common.profile.Field;
 import com.scottlogic.deg.common.profile.ProfileFields;
+import com.scottlogic.deg.generator.config.detail.DataGenerationType;
+import com.scottlogic.deg.generator.decisiontree.ConstraintNode;
 import com.scottlogic.deg.generator.decisiontree.DecisionTree;
 import com.scottlogic.deg.generator.decisiontree.TreeConstraintNode;
 import com.scottlogic.deg.generator.fieldspecs.FieldSpec;
+import com.scottlogic.deg.generator.fieldspecs.FieldSpecFactory;
+import com.scottlogic.deg.generator.fieldspecs.FieldSpecHelper;
+import com.scottlogic.deg.generator.fieldspecs.FieldSpecMerger;
 import com.scottlogic.deg.generator.generation.FieldSpecValueGenerator;
 import com.scottlogic.deg.generator.generation.NoopDataGeneratorMonitor;
+import com.scottlogic.deg.generator.generation.ReductiveDataGeneratorMonitor;
+import com.scottlogic.deg.generator.generation.StandardFieldValueSourceEvaluator;
 import com.scottlogic.deg.generator.generation.databags.DataBag;
 import com.scottlogic.deg.generator.generation.databags.DataBagValue;
+import com.scottlogic.deg.generator.reducer.ConstraintReducer;
+import com.scottlogic.deg.generator.restrictions.StringRestrictionsFactory;
+import com.scottlogic.deg.generator.utils.JavaUtilRandomNumberGenerator;
+import com.scottlogic.deg.generator.utils.ValueCursor;
 import com.scottlogic.deg.generator.walker.reductive.*;
 import com.scottlogic.deg.generator.walker.reductive.fieldselectionstrategy.FixFieldStrategy;
 import com.scottlogic.deg.generator.walker.reductive.fieldselectionstrategy.FixFieldStrategyFactory;
@@ -34,8 +45,11 @@ import org.junit.jupiter.api.Test;
 
 import java.util.*;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.stream.IntStream;
 
+import static com.scottlogic.deg.generator.builders.ConstraintNodeBuilder.constraintNode;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.collection.IsEmptyCollection.empty;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.*;
@@ -45,6 +59,7 @@ class ReductiveDecisionTreeWalkerTests {
     private DecisionTree tree;
     private ReductiveFieldSpecBuilder reductiveFieldSpecBuilder;
     private ReductiveDecisionTreeWalker walker;
+    private ReductiveTreePruner treePruner;
     private FixFieldStrategy fixFieldStrategy;
     private FixFieldStrategyFactory fixFieldStrategyFactory;
     private FieldSpecValueGenerator fieldSpecValueGenerator;
@@ -56,8 +71,9 @@ class ReductiveDecisionTreeWalkerTests {
         ProfileFields fields = new ProfileFields(Arrays.asList(field1, field2));
         rootNode = new TreeConstraintNode();
         tree = new DecisionTree(rootNode, fields);
-        ReductiveTreePruner treePruner = mock(ReductiveTreePruner.class);
+        treePruner = mock(ReductiveTreePruner.class);
         when(treePruner.pruneConstraintNode(eq(rootNode), any(), any())).thenReturn(Merged.of(rootNode));
+        when(treePruner.pruneConstraintNode(eq(rootNode), any(Map.class))).thenReturn(Merged.of(rootNode));
 
         reductiveFieldSpecBuilder = mock(ReductiveFieldSpecBuilder.class);
         fieldSpecValueGenerator = mock(FieldSpecValueGenerator.class);
@@ -98,7 +114,7 @@ class ReductiveDecisionTreeWalkerTests {
         DataBagValue dataBag = new DataBagValue(field1, "yes");
         FieldSpec firstFieldSpec = FieldSpec.Empty.withWhitelist(Collections.singleton("yes"))
             .withNotNull();
-        when(fieldSpecValueGenerator.generate(any(Set.class))).thenReturn(Stream.of(dataBag));
+        when(fieldSpecValueGenerator.generateCursor(any(Set.class))).thenReturn(ValueCursor.of(Collections.singleton(dataBag)));
 
         when(reductiveFieldSpecBuilder.getDecisionFieldSpecs(any(), any())).thenReturn(Collections.singleton(firstFieldSpec), Collections.emptySet());
 
@@ -107,4 +123,217 @@ class ReductiveDecisionTreeWalkerTests {
         verify(reductiveFieldSpecBuilder, times(2)).getDecisionFieldSpecs(eq(rootNode), any());
         Assert.assertThat(result, empty());
     }
-}
\ No newline at end of file
+
+    /**
+     * Rows should be emitted depth-first, exhausting the values of the last field fixed before moving on to the next
+     * value of the field fixed before it
+     */
+    @Test
+    public void shouldEmitRowsDepthFirstInValueOrder() {
+        FieldSpec fieldSpec = FieldSpec.Empty.withNotNull();
+        when(reductiveFieldSpecBuilder.getDecisionFieldSpecs(any(), any())).thenReturn(Collections.singleton(fieldSpec));
+        when(fixFieldStrategy.getNextFieldToFix(any())).thenAnswer(invocation -> {
+            ReductiveState state = (ReductiveState) invocation.getArguments()[0];
+            return state.isFieldFixed(field1) ? field2 : field1;
+        });
+        when(fieldSpecValueGenerator.generateCursor(any(Set.class))).thenAnswer(invocation -> ValueCursor.of(Arrays.asList(
+            new DataBagValue("a"),
+            new DataBagValue("b"))));
+
+        List<String> result = walker.walk(tree)
+            .map(row -> row.getFormattedValue(field1) + "," + row.getFormattedValue(field2))
+            .collect(Collectors.toList());
+
+        Assert.assertThat(result, contains("a,a", "a,b", "b,a", "b,b"));
+    }
+
+    /**
+     * Fixing each field must not add to the call stack, so profiles with very many fields can still be walked
+     */
+    @Test
+    public void shouldWalkVeryWideProfilesWithoutExhaustingTheStack() {
+        List<Field> wideFields = IntStream.range(0, 5000)
+            .mapToObj(index -> new Field("field" + index))
+            .collect(Collectors.toList());
+        DecisionTree wideTree = new DecisionTree(rootNode, new ProfileFields(wideFields));
+        FieldSpec fieldSpec = FieldSpec.Empty.withNotNull();
+        when(reductiveFieldSpecBuilder.getDecisionFieldSpecs(any(), any())).thenReturn(Collections.singleton(fieldSpec));
+        when(fixFieldStrategy.getNextFieldToFix(any())).thenAnswer(invocation -> {
+            ReductiveState state = (ReductiveState) invocation.getArguments()[0];
+            return wideFields.get(state.getFieldValues().size());
+        });
+        when(fieldSpecValueGenerator.generateCursor(any(Set.class))).thenAnswer(invocation ->
+            ValueCursor.of(Collections.singleton(new DataBagValue("value"))));
+
+        List<DataBag> result = walker.walk(wideTree).collect(Collectors.toList());
+
+        Assert.assertThat(result.size(), equalTo(1));
+        Assert.assertThat(result.get(0).getFormattedValue(wideFields.get(4999)), equalTo("value"));
+    }
+
+    /**
+     * Forward checking should find the same rows while fixing the most constrained field first, so contradictions
+     * are found before other fields have been fixed to every one of their values
+     */
+    @Test
+    public void shouldBacktrackLessWhenForwardChecking() {
+        Field fieldA = new Field("A");
+        Field fieldB = new Field("B");
+        Field fieldC = new Field("C");
+        ConstraintNode constrainedRoot = constraintNode()
+            .where(fieldA).isInSet(1, 2)
+            .where(fieldA).isNotNull()
+            .where(fieldB).isInSet(IntStream.rangeClosed(1, 20).boxed().toArray())
+            .where(fieldB).isNotNull()
+            .where(fieldC).isInSet(1)
+            .where(fieldC).isNotNull()
+            .withDecision(
+                constraintNode().where(fieldA).isInSet(1),
+                constraintNode().where(fieldA).isInSet(2).where(fieldC).isInSet(2),
+                constraintNode().where(fieldA).isInSet(2).where(fieldC).isInSet(3))
+            .build();
+        DecisionTree constrainedTree = new DecisionTree(
+            constrainedRoot,
+            new ProfileFields(Arrays.asList(fieldA, fieldB, fieldC)));
+        when(fixFieldStrategy.getNextFieldToFix(any())).thenAnswer(invocation -> {
+            ReductiveState state = (ReductiveState) invocation.getArguments()[0];
+            return state.isFieldFixed(fieldA) ? state.isFieldFixed(fieldB) ? fieldC : fieldB : fieldA;
+        });
+
+        DeadEndCountingMonitor chronologicalMonitor = new DeadEndCountingMonitor();
+        Set<DataBag> chronologicalRows = createWalker(chronologicalMonitor)
+            .walk(constrainedTree)
+            .collect(Collectors.toSet());
+        DeadEndCountingMonitor forwardCheckingMonitor = new DeadEndCountingMonitor();
+        ReductiveDecisionTreeWalker forwardCheckingWalker = createWalker(forwardCheckingMonitor);
+        Set<DataBag> forwardCheckingRows = forwardCheckingWalker
+            .withForwardChecking(new ForwardChecker(
+                realFieldSpecBuilder(),
+                new StandardFieldValueSourceEvaluator()))
+            .walk(constrainedTree)
+            .collect(Collectors.toSet());
+
+        Assert.assertThat(forwardCheckingRows, equalTo(chronologicalRows));
+        Assert.assertThat(chronologicalRows.size(), equalTo(20));
+        Assert.assertThat(chronologicalMonitor.deadEnds, equalTo(20));
+        Assert.assertThat(forwardCheckingMonitor.deadEnds, equalTo(0));
+    }
+
+    /**
+     * Back-jumping should find the same rows while jumping straight back to the field that caused a contradiction,
+     * rather than trying every value of the fields fixed since
+     */
+    @Test
+    public void shouldBacktrackLessWhenBackjumping() {
+        Field fieldA = new Field("A");
+        Field fieldB = new Field("B");
+        Field fieldC = new Field("C");
+        Field fieldD = new Field("D");
+        ConstraintNode constrainedRoot = constraintNode()
+            .where(fieldA).isInSet(1, 2)
+            .where(fieldA).isNotNull()
+            .where(fieldB).isInSet(1, 2, 3, 4, 5)
+            .where(fieldB).isNotNull()
+            .where(fieldC).isInSet(1, 2, 3, 4, 5)
+            .where(fieldC).isNotNull()
+            .where(fieldD).isInSet(1)
+            .where(fieldD).isNotNull()
+            .withDecision(
+                constraintNode().where(fieldA).isInSet(1),
+                constraintNode().where(fieldA).isInSet(2).where(fieldD).isInSet(2),
+                constraintNode().where(fieldA).isInSet(2).where(fieldD).isInSet(3))
+            .build();
+        List<Field> fixingOrder = Arrays.asList(fieldA, fieldB, fieldC, fieldD);
+        DecisionTree constrainedTree = new DecisionTree(constrainedRoot, new ProfileFields(fixingOrder));
+        when(fixFieldStrategy.getNextFieldToFix(any())).thenAnswer(invocation -> {
+            ReductiveState state = (ReductiveState) invocation.getArguments()[0];
+            return fixingOrder.get(state.getFieldValues().size());
+        });
+
+        DeadEndCountingMonitor chronologicalMonitor = new DeadEndCountingMonitor();
+        Set<DataBag> chronologicalRows = createWalker(chronologicalMonitor)
+            .walk(constrainedTree)
+            .collect(Collectors.toSet());
+        DeadEndCountingMonitor backjumpingMonitor = new DeadEndCountingMonitor();
+        ConstraintReducer constraintReducer = new ConstraintReducer(
+            new FieldSpecFactory(new StringRestrictionsFactory()),
+            new FieldSpecMerger());
+        Set<DataBag> backjumpingRows = createWalker(backjumpingMonitor)
+            .withBackjumping(new ConflictAnalyser(
+                new ReductiveTreePruner(new FieldSpecMerger(), constraintReducer, new FieldSpecHelper()),
+                realFieldSpecBuilder(),
+                new FieldSpecHelper()))
+            .walk(constrainedTree)
+            .collect(Collectors.toSet());
+
+        Assert.assertThat(backjumpingRows, equalTo(chronologicalRows));
+        Assert.assertThat(chronologicalRows.size(), equalTo(25));
+        Assert.assertThat(chronologicalMonitor.deadEnds, equalTo(25));
+        Assert.assertThat(backjumpingMonitor.deadEnds, equalTo(1));
+    }
+
+    /**
+     * A field can have field specs but no values to fix it to. That isn't caused by any conflict the walker has seen,
+     * so back-jumping must back-track to the previous field rather than past every field
+     */
+    @Test
+    public void shouldFindTheSameRowsWhenBackjumpingFromAFieldWithNoValues() {
+        FieldSpec fieldSpec = FieldSpec.Empty.withNotNull();
+        when(reductiveFieldSpecBuilder.getDecisionFieldSpecs(any(), any())).thenReturn(Collections.singleton(fieldSpec));
+        when(fixFieldStrategy.getNextFieldToFix(any())).thenAnswer(invocation -> {
+            ReductiveState state = (ReductiveState) invocation.getArguments()[0];
+            return state.isFieldFixed(field1) ? field2 : field1;
+        });
+        when(fieldSpecValueGenerator.generateCursor(any(Set.class))).thenReturn(
+            ValueCursor.of(Arrays.asList(new DataBagValue("a"), new DataBagValue("b"))),
+            ValueCursor.empty(),
+            ValueCursor.of(Collections.singleton(new DataBagValue("c"))));
+
+        List<String> result = walker
+            .withBackjumping(new ConflictAnalyser(treePruner, reductiveFieldSpecBuilder, new FieldSpecHelper()))
+            .walk(tree)
+            .map(row -> row.getFormattedValue(field1) + "," + row.getFormattedValue(field2))
+            .collect(Collectors.toList());
+
+        Assert.assertThat(result, contains("b,c"));
+    }
+
+    private ReductiveDecisionTreeWalker createWalker(ReductiveDataGeneratorMonitor monitor) {
+        ConstraintReducer constraintReducer = new ConstraintReducer(
+            new FieldSpecFactory(new StringRestrictionsFactory()),
+            new FieldSpecMerger());
+
+        return new ReductiveDecisionTreeWalker(
+            new NoOpIterationVisualiser(),
+            realFieldSpecBuilder(),
+            monitor,
+            new ReductiveTreePruner(new FieldSpecMerger(), constraintReducer, new FieldSpecHelper()),
+            new FieldSpecValueGenerator(
+                DataGenerationType.FULL_SEQUENTIAL,
+                new StandardFieldValueSourceEvaluator(),
+                new JavaUtilRandomNumberGenerator()),
+            fixFieldStrategyFactory);
+    }
+
+    private static ReductiveFieldSpecBuilder realFieldSpecBuilder() {
+        return new ReductiveFieldSpecBuilder(
+            new ConstraintReducer(
+                new FieldSpecFactory(new StringRestrictionsFactory()),
+                new FieldSpecMerger()),
+            new FieldSpecMerger());
+    }
+
+    private static class DeadEndCountingMonitor extends NoopDataGeneratorMonitor {
+        private int deadEnds;
+
+        @Override
+        public void unableToStepFurther(ReductiveState reductiveState) {
+            deadEnds++;
+        }
+
+        @Override
+        public void noValuesForField(ReductiveState reductiveState, Field field) {
+            deadEnds++;
+        }
+    }
+}
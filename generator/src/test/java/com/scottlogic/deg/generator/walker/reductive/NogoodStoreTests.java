@@ -0,0 +1,83 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.generator.walker.reductive;
+
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.generator.generation.databags.DataBagValue;
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.*;
+
+class NogoodStoreTests {
+    private final Field fieldA = new Field("A");
+    private final Field fieldB = new Field("B");
+    private final Field fieldC = new Field("C");
+
+    @Test
+    void getViolatedNogood_whenFixingCompletesNogood_returnsOtherFieldsOfNogood() {
+        NogoodStore store = new NogoodStore();
+        store.add(values(fieldA, 1, fieldC, 2));
+
+        Assert.assertThat(
+            store.getViolatedNogood(values(fieldA, 1, fieldB, 5), fieldC, new DataBagValue(2)),
+            contains(fieldA));
+    }
+
+    @Test
+    void getViolatedNogood_whenFixedValuesDifferFromNogood_returnsNull() {
+        NogoodStore store = new NogoodStore();
+        store.add(values(fieldA, 1, fieldC, 2));
+
+        Assert.assertThat(
+            store.getViolatedNogood(values(fieldA, 2, fieldB, 5), fieldC, new DataBagValue(2)),
+            nullValue());
+    }
+
+    @Test
+    void getViolatedNogood_whenOtherFieldsOfNogoodAreUnfixed_returnsNull() {
+        NogoodStore store = new NogoodStore();
+        store.add(values(fieldA, 1, fieldC, 2));
+
+        Assert.assertThat(
+            store.getViolatedNogood(values(fieldB, 5), fieldC, new DataBagValue(2)),
+            nullValue());
+    }
+
+    @Test
+    void getViolatedNogood_whenNogoodIsASingleValue_returnsNoOtherFields() {
+        NogoodStore store = new NogoodStore();
+        store.add(Collections.singletonMap(fieldC, new DataBagValue(2)));
+
+        Assert.assertThat(
+            store.getViolatedNogood(Collections.emptyMap(), fieldC, new DataBagValue(2)),
+            empty());
+    }
+
+    private static Map<Field, DataBagValue> values(Object... fieldsAndValues) {
+        Map<Field, DataBagValue> values = new HashMap<>();
+        for (int index = 0; index < fieldsAndValues.length; index += 2) {
+            values.put((Field) fieldsAndValues[index], new DataBagValue(fieldsAndValues[index + 1]));
+        }
+
+        return values;
+    }
+}
@@ -17,6 +17,7 @@
 package com.scottlogic.deg.orchestrator;
 
 import com.scottlogic.deg.orchestrator.generate.GenerateCommandLine;
+import com.scottlogic.deg.orchestrator.serve.ServeCommandLine;
 import com.scottlogic.deg.orchestrator.violate.ViolateCommandLine;
 import com.scottlogic.deg.orchestrator.visualise.VisualiseCommandLine;
 import picocli.CommandLine;
@@ -29,6 +30,7 @@ public class App implements Runnable {
         .addSubcommand("generate", new GenerateCommandLine())
         .addSubcommand("violate", new ViolateCommandLine())
         .addSubcommand("visualise", new VisualiseCommandLine())
+        .addSubcommand("serve", new ServeCommandLine())
         .setCaseInsensitiveEnumValuesAllowed(true);
 
     public static void main(String[] args) {
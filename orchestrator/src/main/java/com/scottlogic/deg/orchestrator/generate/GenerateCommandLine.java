@@ -22,6 +22,7 @@ import com.google.inject.Module;
 import com.scottlogic.deg.generator.config.detail.*;
 import com.scottlogic.deg.orchestrator.guice.AllConfigSource;
 import com.scottlogic.deg.orchestrator.guice.AllModule;
+import com.scottlogic.deg.output.guice.OutputCompression;
 import com.scottlogic.deg.output.guice.OutputFormat;
 import com.scottlogic.deg.profile.v0_1.AtomicConstraintType;
 import picocli.CommandLine;
@@ -32,7 +33,13 @@ import java.util.concurrent.Callable;
 
 import static com.scottlogic.deg.generator.config.detail.CombinationStrategyType.MINIMAL;
 import static com.scottlogic.deg.common.util.Defaults.DEFAULT_MAX_ROWS;
+import static com.scottlogic.deg.common.util.Defaults.DEFAULT_OUTPUT_BUFFER_SIZE;
+import static com.scottlogic.deg.common.util.Defaults.DEFAULT_OUTPUT_COMMIT_SIZE;
+import static com.scottlogic.deg.common.util.Defaults.DEFAULT_OUTPUT_TABLE_NAME;
+import static com.scottlogic.deg.common.util.Defaults.DEFAULT_STDOUT_FLUSH_BYTES;
+import static com.scottlogic.deg.common.util.Defaults.DEFAULT_STDOUT_FLUSH_MILLIS;
 import static com.scottlogic.deg.generator.config.detail.DataGenerationType.RANDOM;
+import static com.scottlogic.deg.output.guice.OutputCompression.NONE;
 import static com.scottlogic.deg.output.guice.OutputFormat.CSV;
 import static com.scottlogic.deg.generator.config.detail.TreeWalkerType.REDUCTIVE;
 
@@ -107,6 +114,24 @@ public class GenerateCommandLine implements AllConfigSource, Callable<Integer> {
         hidden = true)
     private boolean dontPartitionTrees;
 
+    @CommandLine.Option(
+        names = {"--split-independent-decisions"},
+        description = "Splits decisions made up of independent choices for different fields before partitioning",
+        hidden = true)
+    private boolean splitIndependentDecisions;
+
+    @CommandLine.Option(
+        names = {"--forward-checking"},
+        description = "Checks the values left for every unfixed field each time a field is fixed when walking the tree, fixing the field with the fewest values next",
+        hidden = true)
+    private boolean forwardChecking;
+
+    @CommandLine.Option(
+        names = {"--backjumping"},
+        description = "Jumps back to the field that caused a dead end when walking the tree, and remembers the values that caused it",
+        hidden = true)
+    private boolean backjumping;
+
     @CommandLine.Option(names = {"-w", "--walker-type"},
         description = "Determines the tree walker that should be used (${COMPLETION-CANDIDATES})",
         hidden = true)
@@ -117,6 +142,13 @@ public class GenerateCommandLine implements AllConfigSource, Callable<Integer> {
         description = "Defines the maximum number of rows that should be generated")
     private long maxRows = DEFAULT_MAX_ROWS;
 
+    @CommandLine.Option(
+        names = {"--shard"},
+        description = "Generates only the i-th of N equal slices of the output, e.g. 2/4, so that a FULL_SEQUENTIAL or INTERESTING run can be split between processes",
+        converter = ShardConverter.class,
+        hidden = true)
+    private Shard shard = Shard.WHOLE_OUTPUT;
+
     @CommandLine.Option(
         names = {"--quiet"},
         description = "Turns OFF default monitoring")
@@ -138,6 +170,59 @@ public class GenerateCommandLine implements AllConfigSource, Callable<Integer> {
         description = "Output format (${COMPLETION-CANDIDATES})")
     private OutputFormat outputFormat = CSV;
 
+    @CommandLine.Option(
+        names = {"--compress"},
+        description = "Compresses the output, compressing blocks of it in parallel (${COMPLETION-CANDIDATES})")
+    private OutputCompression outputCompression = NONE;
+
+    @CommandLine.Option(
+        names = {"--output-shards"},
+        description = "Splits the output between this many files in the output directory, each written on its own thread")
+    private int outputShardCount = 1;
+
+    @CommandLine.Option(
+        names = {"--output-shard-field"},
+        description = "Splits the output between files by the value of this field, rather than round-robin")
+    private String outputShardField;
+
+    @CommandLine.Option(
+        names = {"--output-jdbc-url"},
+        description = "Inserts the data into a table of the database at this JDBC url, rather than writing it to a file; the database's JDBC driver must be on the classpath")
+    private String outputJdbcUrl;
+
+    @CommandLine.Option(
+        names = {"--output-table"},
+        description = "The name of the table to create and insert the data into, or the prefix of the table names when violating")
+    private String outputTableName = DEFAULT_OUTPUT_TABLE_NAME;
+
+    @CommandLine.Option(
+        names = {"--output-commit-size"},
+        description = "Defines the number of rows inserted into the database between commits")
+    private int outputCommitSize = DEFAULT_OUTPUT_COMMIT_SIZE;
+
+    @CommandLine.Option(
+        names = {"--output-buffer-size"},
+        description = "Defines the number of generated rows that can wait to be written before generation pauses, or 0 to generate and write rows on the same thread",
+        hidden = true)
+    private int outputBufferSize = DEFAULT_OUTPUT_BUFFER_SIZE;
+
+    @CommandLine.Option(
+        names = {"--stdout-flush-bytes"},
+        description = "When writing to standard output, defines how many bytes can be held back before the output is flushed",
+        hidden = true)
+    private long stdoutFlushBytes = DEFAULT_STDOUT_FLUSH_BYTES;
+
+    @CommandLine.Option(
+        names = {"--stdout-flush-interval"},
+        description = "When writing to standard output, defines how many milliseconds output can be held back before it is flushed",
+        hidden = true)
+    private long stdoutFlushMillis = DEFAULT_STDOUT_FLUSH_MILLIS;
+
+    @CommandLine.Option(
+        names = {"--profile-snapshot-directory"},
+        description = "Saves the compiled form of the profile to this directory, and loads it from there when a profile with the same content is generated from again")
+    private Path profileSnapshotDirectory;
+
     @CommandLine.Option(
         names = {"--allow-untyped-fields"},
         description = "Remove the need for each field to have at least one compliant typing constraint applied")
@@ -153,6 +238,21 @@ public class GenerateCommandLine implements AllConfigSource, Callable<Integer> {
         return !this.dontPartitionTrees;
     }
 
+    @Override
+    public boolean shouldSplitIndependentDecisions() {
+        return this.splitIndependentDecisions;
+    }
+
+    @Override
+    public boolean shouldForwardCheck() {
+        return this.forwardChecking;
+    }
+
+    @Override
+    public boolean shouldBackjump() {
+        return this.backjumping;
+    }
+
     @Override
     public boolean dontOptimise() {
         return this.dontOptimise;
@@ -219,15 +319,70 @@ public class GenerateCommandLine implements AllConfigSource, Callable<Integer> {
         return maxRows;
     }
 
+    @Override
+    public Shard getShard() {
+        return shard;
+    }
+
     @Override
     public boolean visualiseReductions() {
         return visualiseReductions;
     }
 
+    @Override
+    public int getOutputBufferSize() {
+        return outputBufferSize;
+    }
+
     public OutputFormat getOutputFormat() {
         return outputFormat;
     }
 
+    @Override
+    public OutputCompression getOutputCompression() {
+        return outputCompression;
+    }
+
+    @Override
+    public long getStdoutFlushBytes() {
+        return stdoutFlushBytes;
+    }
+
+    @Override
+    public long getStdoutFlushMillis() {
+        return stdoutFlushMillis;
+    }
+
+    @Override
+    public Path getProfileSnapshotDirectory() {
+        return profileSnapshotDirectory;
+    }
+
+    @Override
+    public String getOutputJdbcUrl() {
+        return outputJdbcUrl;
+    }
+
+    @Override
+    public String getOutputTableName() {
+        return outputTableName;
+    }
+
+    @Override
+    public int getOutputCommitSize() {
+        return outputCommitSize;
+    }
+
+    @Override
+    public int getOutputShardCount() {
+        return outputShardCount;
+    }
+
+    @Override
+    public String getOutputShardField() {
+        return outputShardField;
+    }
+
     @Override
     public String fromFilePath() {
         return fromFilePath;
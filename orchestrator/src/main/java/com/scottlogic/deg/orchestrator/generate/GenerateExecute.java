@@ -22,7 +22,8 @@ import com.scottlogic.deg.common.profile.Profile;
 import com.scottlogic.deg.generator.generation.DataGenerator;
 import com.scottlogic.deg.generator.generation.DataGeneratorMonitor;
 import com.scottlogic.deg.common.output.GeneratedObject;
-import com.scottlogic.deg.output.writer.DataSetWriter;
+import com.scottlogic.deg.common.output.RowBatch;
+import com.scottlogic.deg.output.writer.BatchingDataSetWriter;
 import com.scottlogic.deg.orchestrator.guice.AllConfigSource;
 import com.scottlogic.deg.generator.inputs.validation.ProfileValidator;
 import com.scottlogic.deg.output.outputtarget.SingleDatasetOutputTarget;
@@ -79,14 +80,34 @@ public class GenerateExecute {
     }
 
     private void outputData(Profile profile, Stream<GeneratedObject> generatedDataItems) throws IOException {
-        try (DataSetWriter writer = singleDatasetOutputTarget.openWriter(profile.getFields())) {
-            generatedDataItems.forEach(row -> {
-                try {
-                    writer.writeRow(row);
-                } catch (IOException e) {
-                    throw new RuntimeException(e);
-                }
-            });
+        try (BatchingDataSetWriter writer = new BatchingDataSetWriter(
+            singleDatasetOutputTarget.openWriter(profile.getFields()),
+            profile.getFields(),
+            RowBatch.DEFAULT_CAPACITY,
+            BatchingDataSetWriter.DEFAULT_MAX_DELAY_MILLIS)) {
+            if (configSource.getOutputBufferSize() == 0) {
+                generatedDataItems.forEach(row -> {
+                    try {
+                        writer.writeRow(row);
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                });
+            } else {
+                RowPipeline pipeline = new RowPipeline(configSource.getOutputBufferSize());
+                pipeline.pipe(generatedDataItems, new RowPipeline.RowConsumer() {
+                    @Override
+                    public void accept(GeneratedObject row) throws IOException {
+                        writer.writeRow(row);
+                    }
+
+                    @Override
+                    public void awaitingRows() throws IOException {
+                        writer.flushBatch();
+                    }
+                });
+                monitor.outputStalled(pipeline.getGenerationStallNanos(), pipeline.getOutputStallNanos());
+            }
         }
         monitor.endGeneration();
     }
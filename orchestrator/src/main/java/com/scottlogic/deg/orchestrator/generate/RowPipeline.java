@@ -0,0 +1,240 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.orchestrator.generate;
+
+import com.scottlogic.deg.common.output.GeneratedObject;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Generates rows on a separate thread into a bounded ring of row slots, while the calling thread writes them out,
+ * so that generation and output only wait for each other when the ring is full or empty
+ */
+class RowPipeline {
+    private static final long STALL_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final GeneratedObject[] slots;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+
+    /** the sequence number of the next row to take from, and put into, the ring */
+    private long head;
+    private long tail;
+
+    private boolean generationFinished;
+    private boolean outputStopped;
+    private Throwable generationFailure;
+
+    private long generationStallNanos;
+    private long outputStallNanos;
+
+    RowPipeline(int bufferSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Output buffer must hold at least one row");
+        }
+
+        this.slots = new GeneratedObject[bufferSize];
+    }
+
+    /**
+     * Write every row to the consumer, generating them on another thread. An exception from generation is rethrown
+     * once the rows before it have been written, and an exception from the consumer stops generation.
+     */
+    void pipe(Stream<GeneratedObject> rows, RowConsumer consumer) throws IOException {
+        Thread generationThread = new Thread(() -> generate(rows), "datahelix-generation");
+        generationThread.setDaemon(true);
+        generationThread.start();
+
+        try {
+            GeneratedObject row;
+            while ((row = take(consumer)) != null) {
+                consumer.accept(row);
+            }
+        } finally {
+            stopOutput();
+            awaitGeneration(generationThread);
+        }
+    }
+
+    /** the total time that generation waited for a slot in the ring, i.e. for output to catch up */
+    long getGenerationStallNanos() {
+        return generationStallNanos;
+    }
+
+    /** the total time that output waited for a row, i.e. for generation to catch up */
+    long getOutputStallNanos() {
+        return outputStallNanos;
+    }
+
+    private void generate(Stream<GeneratedObject> rows) {
+        try {
+            rows.forEach(this::put);
+            finishGeneration(null);
+        } catch (OutputStoppedException e) {
+            finishGeneration(null);
+        } catch (Throwable e) {
+            finishGeneration(e);
+        }
+    }
+
+    private void put(GeneratedObject row) {
+        lock.lock();
+        try {
+            if (tail - head == slots.length) {
+                long waitStarted = System.nanoTime();
+                while (tail - head == slots.length && !outputStopped) {
+                    notFull.awaitUninterruptibly();
+                }
+                generationStallNanos += System.nanoTime() - waitStarted;
+            }
+
+            if (outputStopped) {
+                throw new OutputStoppedException();
+            }
+
+            slots[(int) (tail++ % slots.length)] = row;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Take the next row from the ring, or null if generation has finished and every row has been taken. If no row
+     * arrives within the stall delay the consumer is told, without the lock held, before waiting on.
+     */
+    private GeneratedObject take(RowConsumer consumer) throws IOException {
+        lock.lock();
+        try {
+            if (head == tail && !generationFinished) {
+                long waitStarted = System.nanoTime();
+                if (!awaitRow(STALL_DELAY_NANOS)) {
+                    lock.unlock();
+                    try {
+                        consumer.awaitingRows();
+                    } finally {
+                        lock.lock();
+                    }
+                }
+                while (head == tail && !generationFinished) {
+                    notEmpty.awaitUninterruptibly();
+                }
+                outputStallNanos += System.nanoTime() - waitStarted;
+            }
+
+            if (head == tail) {
+                throwGenerationFailure();
+                return null;
+            }
+
+            int slot = (int) (head++ % slots.length);
+            GeneratedObject row = slots[slot];
+            slots[slot] = null;
+            notFull.signal();
+            return row;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** wait for up to the given time for a row, or the end of generation, returning whether either came */
+    private boolean awaitRow(long nanos) {
+        boolean interrupted = false;
+        while (head == tail && !generationFinished && nanos > 0) {
+            try {
+                nanos = notEmpty.awaitNanos(nanos);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return head != tail || generationFinished;
+    }
+
+    private void finishGeneration(Throwable failure) {
+        lock.lock();
+        try {
+            generationFinished = true;
+            generationFailure = failure;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void stopOutput() {
+        lock.lock();
+        try {
+            outputStopped = true;
+            notFull.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void awaitGeneration(Thread generationThread) {
+        boolean interrupted = false;
+        while (generationThread.isAlive()) {
+            try {
+                generationThread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void throwGenerationFailure() {
+        if (generationFailure instanceof RuntimeException) {
+            throw (RuntimeException) generationFailure;
+        }
+        if (generationFailure instanceof Error) {
+            throw (Error) generationFailure;
+        }
+        if (generationFailure != null) {
+            throw new RuntimeException(generationFailure);
+        }
+    }
+
+    interface RowConsumer {
+        void accept(GeneratedObject row) throws IOException;
+
+        /** called when generation has produced no rows for a while, e.g. to write out any rows held back */
+        default void awaitingRows() throws IOException {
+        }
+    }
+
+    /** thrown on the generation thread to abandon generation once output has stopped */
+    private static class OutputStoppedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        OutputStoppedException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.orchestrator.serve;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Interrupts request threads that have been blocked reading a request, or writing a response, for longer than the
+ * timeout, so that a client which stops sending or reading can't hold on to a request thread for good.
+ *
+ * The server's connections are socket channels, which are closed when a thread blocked on one is interrupted, so the
+ * client sees the connection dropped and the request thread gets a ClosedByInterruptException.
+ */
+class ClientTimeout {
+    private final long timeoutNanos;
+    private final Set<Operation> operations = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "client-timeout");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    ClientTimeout(long timeoutMillis) {
+        if (timeoutMillis < 1) {
+            throw new IllegalArgumentException("Client timeout must be at least 1 millisecond");
+        }
+
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        long checkMillis = Math.min(timeoutMillis, 1000);
+        timer.scheduleWithFixedDelay(this::interruptStalledOperations, checkMillis, checkMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /** start timing a read or write on the current thread, which is interrupted if it isn't closed in time */
+    Operation begin() {
+        Operation operation = new Operation();
+        operations.add(operation);
+        return operation;
+    }
+
+    void stop() {
+        timer.shutdownNow();
+    }
+
+    private void interruptStalledOperations() {
+        long now = System.nanoTime();
+        for (Operation operation : operations) {
+            operation.interruptIfStartedBefore(now - timeoutNanos);
+        }
+    }
+
+    class Operation implements AutoCloseable {
+        private final Thread thread = Thread.currentThread();
+        private final long startedNanos = System.nanoTime();
+        private boolean finished;
+
+        @Override
+        public synchronized void close() {
+            finished = true;
+            operations.remove(this);
+        }
+
+        private synchronized void interruptIfStartedBefore(long nanos) {
+            if (!finished && startedNanos - nanos <= 0) {
+                finished = true;
+                operations.remove(this);
+                thread.interrupt();
+            }
+        }
+    }
+}
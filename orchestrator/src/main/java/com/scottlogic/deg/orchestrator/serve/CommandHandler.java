@@ -0,0 +1,220 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.orchestrator.serve;
+
+import com.scottlogic.deg.common.ValidationException;
+import com.scottlogic.deg.generator.generation.CompiledProfileCache;
+import com.scottlogic.deg.generator.validators.ErrorReporter;
+import com.scottlogic.deg.orchestrator.generate.GenerateCommandLine;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import picocli.CommandLine;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Runs a command for a request to the server. The profile is the body of the request, and the command line options
+ * are its query parameters, e.g. <code>POST /generate?max-rows=100&amp;generation-type=RANDOM&amp;quiet</code>.
+ *
+ * The profile, and anything the command writes, is held in a temporary directory which is deleted once the response
+ * is sent.
+ *
+ * Requests are refused unless their Host header names the loopback interface, so that a web page whose domain has
+ * been rebound to 127.0.0.1 can't make the browser post profiles to the server and read back the responses.
+ */
+abstract class CommandHandler<T extends GenerateCommandLine> implements HttpHandler {
+    private static final Set<String> SERVER_OPTIONS = new HashSet<>(Arrays.asList(
+        "p", "profile-file", "o", "output-path", "output-jdbc-url", "output-shards", "output-shard-field",
+        "profile-snapshot-directory", "set-from-file-directory"));
+    private static final Set<String> LOOPBACK_HOSTS = new HashSet<>(Arrays.asList(
+        "localhost", "127.0.0.1", "[::1]"));
+
+    private final ProfileCache profileCache;
+    private final CompiledProfileCache compiledProfileCache;
+    private final ClientTimeout clientTimeout;
+
+    CommandHandler(ProfileCache profileCache, CompiledProfileCache compiledProfileCache, ClientTimeout clientTimeout) {
+        this.profileCache = profileCache;
+        this.compiledProfileCache = compiledProfileCache;
+        this.clientTimeout = clientTimeout;
+    }
+
+    abstract T createCommandLine();
+
+    /** the options which direct the output of the command into the working directory, if it writes files */
+    List<String> getOutputArguments(Path workingDirectory) {
+        return Collections.emptyList();
+    }
+
+    abstract void execute(
+        T commandLine,
+        ServerModule serverModule,
+        Path workingDirectory,
+        ResponseOutputStream response) throws IOException;
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        ResponseOutputStream response = new ResponseOutputStream(exchange, clientTimeout);
+        Path workingDirectory = Files.createTempDirectory("datahelix-");
+        try {
+            if (!isLoopbackHost(exchange.getRequestHeaders().getFirst("Host"))) {
+                response.sendError(403, "Requests must be made to localhost");
+                return;
+            }
+            if (!exchange.getRequestMethod().equalsIgnoreCase("POST")) {
+                response.sendError(405, "Post the profile to " + exchange.getRequestURI().getPath());
+                return;
+            }
+
+            byte[] profile;
+            ClientTimeout.Operation operation = clientTimeout.begin();
+            try {
+                profile = readAllBytes(exchange.getRequestBody());
+            } finally {
+                operation.close();
+            }
+            Path profileFile = workingDirectory.resolve("profile.json");
+            Files.write(profileFile, profile);
+
+            List<String> arguments = getArguments(exchange.getRequestURI().getRawQuery());
+            arguments.add("--profile-file=" + profileFile);
+            arguments.addAll(getOutputArguments(workingDirectory));
+
+            T commandLine = createCommandLine();
+            new CommandLine(commandLine)
+                .setCaseInsensitiveEnumValuesAllowed(true)
+                .parseArgs(arguments.toArray(new String[0]));
+
+            ServerModule serverModule = new ServerModule(
+                profileCache,
+                getProfileKey(profile, commandLine),
+                compiledProfileCache);
+            execute(commandLine, serverModule, workingDirectory, response);
+            response.finish();
+        } catch (CommandLine.ParameterException e) {
+            response.sendError(400, e.getMessage());
+        } catch (ValidationException e) {
+            response.sendError(400, String.join(System.lineSeparator(), e.errorMessages));
+        } catch (Exception e) {
+            new ErrorReporter().displayException(e);
+            response.sendError(500, e.toString());
+        } finally {
+            // a request interrupted by the client timeout mustn't leave the thread interrupted for the next request
+            Thread.interrupted();
+            deleteRecursively(workingDirectory);
+        }
+    }
+
+    /** whether the host, with or without a port, is a name for the loopback interface */
+    private static boolean isLoopbackHost(String host) {
+        if (host == null) {
+            return false;
+        }
+
+        int portSeparator = host.lastIndexOf(':');
+        if (portSeparator > host.lastIndexOf(']')) {
+            host = host.substring(0, portSeparator);
+        }
+        return LOOPBACK_HOSTS.contains(host.toLowerCase());
+    }
+
+    /** turn each query parameter into a command line option, e.g. <code>max-rows=100</code> into --max-rows=100 */
+    private static List<String> getArguments(String query) throws IOException {
+        List<String> arguments = new ArrayList<>();
+        if (query == null || query.isEmpty()) {
+            return arguments;
+        }
+
+        for (String parameter : query.split("&")) {
+            if (parameter.isEmpty()) {
+                continue;
+            }
+
+            int separator = parameter.indexOf('=');
+            String name = URLDecoder.decode(separator < 0 ? parameter : parameter.substring(0, separator), "UTF-8");
+            if (SERVER_OPTIONS.contains(name)) {
+                throw new ValidationException(
+                    "The " + name + " option cannot be given, the server chooses where the profile and output are");
+            }
+
+            String option = (name.length() == 1 ? "-" : "--") + name;
+            arguments.add(separator < 0
+                ? option
+                : option + "=" + URLDecoder.decode(parameter.substring(separator + 1), "UTF-8"));
+        }
+        return arguments;
+    }
+
+    /**
+     * The profile is read differently depending on whether it is validated against the schema and where its sets
+     * are read from, so these are part of the key as well as the content of the profile
+     */
+    private static String getProfileKey(byte[] profile, GenerateCommandLine commandLine) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(profile);
+            StringBuilder key = new StringBuilder();
+            for (byte b : hash) {
+                key.append(String.format("%02x", b));
+            }
+            return key
+                .append(':').append(commandLine.isSchemaValidationEnabled())
+                .append(':').append(commandLine.fromFilePath())
+                .toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] readAllBytes(InputStream stream) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = stream.read(buffer)) >= 0) {
+            bytes.write(buffer, 0, read);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.orchestrator.serve;
+
+import com.google.inject.Guice;
+import com.google.inject.util.Modules;
+import com.scottlogic.deg.generator.generation.CompiledProfileCache;
+import com.scottlogic.deg.orchestrator.generate.GenerateCommandLine;
+import com.scottlogic.deg.orchestrator.generate.GenerateExecute;
+import com.scottlogic.deg.orchestrator.guice.AllModule;
+import com.scottlogic.deg.output.guice.OutputCompression;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/** Generates data from the posted profile, streaming it back as the body of the response */
+class GenerateHandler extends CommandHandler<GenerateCommandLine> {
+    GenerateHandler(ProfileCache profileCache, CompiledProfileCache compiledProfileCache, ClientTimeout clientTimeout) {
+        super(profileCache, compiledProfileCache, clientTimeout);
+    }
+
+    @Override
+    GenerateCommandLine createCommandLine() {
+        return new GenerateCommandLine();
+    }
+
+    @Override
+    void execute(
+        GenerateCommandLine commandLine,
+        ServerModule serverModule,
+        Path workingDirectory,
+        ResponseOutputStream response) throws IOException {
+        response.setContentType(getContentType(commandLine));
+
+        Guice.createInjector(Modules.override(new AllModule(commandLine)).with(serverModule.writingDataTo(response)))
+            .getInstance(GenerateExecute.class)
+            .execute();
+    }
+
+    private static String getContentType(GenerateCommandLine commandLine) {
+        if (commandLine.getOutputCompression() != OutputCompression.NONE) {
+            return "application/gzip";
+        }
+
+        switch (commandLine.getOutputFormat()) {
+            case JSON:
+                return "application/json";
+            case ARROW:
+                return "application/vnd.apache.arrow.stream";
+            default:
+                return "text/csv; charset=utf-8";
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.orchestrator.serve;
+
+import com.scottlogic.deg.generator.generation.CompiledProfileCache;
+import com.scottlogic.deg.generator.generation.InMemoryCompiledProfileCache;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves generate, violate and visualise requests over HTTP on the loopback interface, keeping the profiles it has
+ * read and the trees compiled from them so that repeated requests for the same profile start producing data
+ * straight away.
+ *
+ * Up to the given number of requests are run at once, each on its own thread, and any more wait for a thread to
+ * become free. A client that stops sending its request, or reading the response, for longer than the client timeout
+ * has its connection dropped, so it can't hold on to a thread.
+ */
+public class GenerationServer {
+    private final HttpServer server;
+    private final ExecutorService requestExecutor;
+    private final ClientTimeout clientTimeout;
+
+    public GenerationServer(int port, int profileCacheSize, int threads, long clientTimeoutMillis) throws IOException {
+        ProfileCache profileCache = new ProfileCache(profileCacheSize);
+        CompiledProfileCache compiledProfileCache = new InMemoryCompiledProfileCache();
+        requestExecutor = Executors.newFixedThreadPool(threads);
+        clientTimeout = new ClientTimeout(clientTimeoutMillis);
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/generate", new GenerateHandler(profileCache, compiledProfileCache, clientTimeout));
+        server.createContext("/violate", new ViolateHandler(profileCache, compiledProfileCache, clientTimeout));
+        server.createContext("/visualise", new VisualiseHandler(profileCache, compiledProfileCache, clientTimeout));
+        server.setExecutor(requestExecutor);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        requestExecutor.shutdownNow();
+        clientTimeout.stop();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.orchestrator.serve;
+
+import com.scottlogic.deg.common.profile.Profile;
+import com.scottlogic.deg.profile.reader.ProfileReader;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Holds the most recently used profiles read by the server, keyed by a hash of their content, so that a profile
+ * posted again is neither validated against the schema nor read again, and the trees compiled from it are reused
+ */
+class ProfileCache {
+    private final Map<String, Profile> profiles;
+
+    ProfileCache(int capacity) {
+        profiles = new LinkedHashMap<String, Profile>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Profile> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    synchronized boolean contains(String profileKey) {
+        return profiles.containsKey(profileKey);
+    }
+
+    Profile read(String profileKey, Path profilePath, ProfileReader reader) throws IOException {
+        synchronized (this) {
+            Profile profile = profiles.get(profileKey);
+            if (profile != null) {
+                return profile;
+            }
+        }
+
+        Profile profile = reader.read(profilePath);
+        synchronized (this) {
+            profiles.put(profileKey, profile);
+        }
+        return profile;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.orchestrator.serve;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The body of a successful response, whose headers are only sent once the first byte is written, so that a request
+ * which fails before producing any data can still be answered with an error.
+ *
+ * Closing the stream doesn't end the response; if a request fails after data has been sent the connection is dropped
+ * rather than the response ended, so that the client doesn't mistake the partial data for the whole of it.
+ *
+ * Each write is timed by the client timeout, so the connection is also dropped if the client stops reading.
+ */
+class ResponseOutputStream extends OutputStream {
+    private final HttpExchange exchange;
+    private final ClientTimeout clientTimeout;
+    private String contentType = "application/octet-stream";
+    private OutputStream body;
+
+    ResponseOutputStream(HttpExchange exchange, ClientTimeout clientTimeout) {
+        this.exchange = exchange;
+        this.clientTimeout = clientTimeout;
+    }
+
+    void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ClientTimeout.Operation operation = clientTimeout.begin();
+        try {
+            start().write(b);
+        } finally {
+            operation.close();
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ClientTimeout.Operation operation = clientTimeout.begin();
+        try {
+            start().write(b, off, len);
+        } finally {
+            operation.close();
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (body != null) {
+            ClientTimeout.Operation operation = clientTimeout.begin();
+            try {
+                body.flush();
+            } finally {
+                operation.close();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+
+    /** end the response successfully, sending the headers if no data has been written */
+    void finish() throws IOException {
+        ClientTimeout.Operation operation = clientTimeout.begin();
+        try {
+            start().close();
+        } finally {
+            operation.close();
+        }
+    }
+
+    void sendError(int statusCode, String message) throws IOException {
+        if (body != null) {
+            throw new IOException("Request failed after the response started: " + message);
+        }
+
+        byte[] bytes = (message + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        ClientTimeout.Operation operation = clientTimeout.begin();
+        try {
+            exchange.sendResponseHeaders(statusCode, bytes.length);
+            try (OutputStream errorBody = exchange.getResponseBody()) {
+                errorBody.write(bytes);
+            }
+        } finally {
+            operation.close();
+        }
+    }
+
+    private OutputStream start() throws IOException {
+        if (body == null) {
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+            exchange.sendResponseHeaders(200, 0);
+            body = exchange.getResponseBody();
+        }
+        return body;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.orchestrator.serve;
+
+import com.scottlogic.deg.common.ValidationException;
+import picocli.CommandLine;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class holds the serve specific command line options.
+ *
+ * @see <a href="https://github.com/finos/datahelix/blob/master/docs/Options/ServeOptions.md">
+ * Serve options</a> for more details.
+ */
+@CommandLine.Command(
+    name = "serve",
+    description = "Serves generate, violate and visualise requests over HTTP, keeping profiles ready to generate from between requests.",
+    descriptionHeading = "%nDescription:%n",
+    parameterListHeading = "%nParameters:%n",
+    optionListHeading = "%nOptions:%n",
+    abbreviateSynopsis = true)
+public class ServeCommandLine implements Callable<Integer> {
+
+    @Override
+    public Integer call() throws Exception {
+        if (threads < 1) {
+            throw new ValidationException("The server must run requests on at least 1 thread");
+        }
+        if (clientTimeoutSeconds < 1) {
+            throw new ValidationException("Client timeout must be at least 1 second");
+        }
+
+        GenerationServer server = new GenerationServer(
+            port,
+            profileCacheSize,
+            threads,
+            TimeUnit.SECONDS.toMillis(clientTimeoutSeconds));
+        server.start();
+        System.err.println("Listening on http://localhost:" + server.getPort());
+
+        new CountDownLatch(1).await();
+        return 0;
+    }
+
+    @CommandLine.Option(
+        names = {"--port"},
+        description = "The port to listen on, on the loopback interface; 0 chooses a free port")
+    private int port = 8787;
+
+    @CommandLine.Option(
+        names = {"--profile-cache-size"},
+        description = "Defines how many of the most recently posted profiles are kept ready to generate from")
+    private int profileCacheSize = 64;
+
+    @CommandLine.Option(
+        names = {"--threads"},
+        description = "Defines how many requests can be run at once; any more wait until one finishes")
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    @CommandLine.Option(
+        names = {"--client-timeout"},
+        description = "Defines how many seconds a client can stop sending its request, or reading the response, before its connection is dropped")
+    private long clientTimeoutSeconds = 60;
+
+    @CommandLine.Option(
+        names = "--help",
+        usageHelp = true,
+        description = "Display these available command line options")
+    boolean help;
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.orchestrator.serve;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Provider;
+import com.scottlogic.deg.generator.generation.CompiledProfileCache;
+import com.scottlogic.deg.output.compression.OutputCompressor;
+import com.scottlogic.deg.output.outputtarget.SingleDatasetOutputTarget;
+import com.scottlogic.deg.output.outputtarget.StreamOutputTarget;
+import com.scottlogic.deg.output.writer.OutputWriterFactory;
+import com.scottlogic.deg.profile.reader.JsonProfileReader;
+import com.scottlogic.deg.profile.reader.ProfileReader;
+import com.scottlogic.deg.profile.v0_1.NoopProfileSchemaValidator;
+import com.scottlogic.deg.profile.v0_1.ProfileSchemaValidator;
+
+import java.io.OutputStream;
+
+/**
+ * Overrides the bindings of a command for a request to the server, so that profiles and the trees compiled from them
+ * are shared between requests, and optionally so that the data is written to the response
+ */
+class ServerModule extends AbstractModule {
+    private final ProfileCache profileCache;
+    private final String profileKey;
+    private final CompiledProfileCache compiledProfileCache;
+    private final OutputStream dataStream;
+
+    ServerModule(ProfileCache profileCache, String profileKey, CompiledProfileCache compiledProfileCache) {
+        this(profileCache, profileKey, compiledProfileCache, null);
+    }
+
+    private ServerModule(
+        ProfileCache profileCache,
+        String profileKey,
+        CompiledProfileCache compiledProfileCache,
+        OutputStream dataStream) {
+        this.profileCache = profileCache;
+        this.profileKey = profileKey;
+        this.compiledProfileCache = compiledProfileCache;
+        this.dataStream = dataStream;
+    }
+
+    ServerModule writingDataTo(OutputStream dataStream) {
+        return new ServerModule(profileCache, profileKey, compiledProfileCache, dataStream);
+    }
+
+    @Override
+    protected void configure() {
+        bind(CompiledProfileCache.class).toInstance(compiledProfileCache);
+
+        Provider<JsonProfileReader> jsonProfileReader = getProvider(JsonProfileReader.class);
+        ProfileReader cachingProfileReader = path -> profileCache.read(profileKey, path, jsonProfileReader.get());
+        bind(ProfileReader.class).toInstance(cachingProfileReader);
+
+        // a cached profile has already been validated against the schema
+        if (profileCache.contains(profileKey)) {
+            bind(ProfileSchemaValidator.class).to(NoopProfileSchemaValidator.class);
+        }
+
+        if (dataStream != null) {
+            Provider<OutputWriterFactory> writerFactory = getProvider(OutputWriterFactory.class);
+            Provider<OutputCompressor> compressor = getProvider(OutputCompressor.class);
+            Provider<SingleDatasetOutputTarget> responseTarget =
+                () -> new StreamOutputTarget(dataStream, writerFactory.get(), compressor.get());
+            bind(SingleDatasetOutputTarget.class).toProvider(responseTarget);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.orchestrator.serve;
+
+import com.google.inject.Guice;
+import com.google.inject.util.Modules;
+import com.scottlogic.deg.generator.generation.CompiledProfileCache;
+import com.scottlogic.deg.orchestrator.violate.ViolateCommandLine;
+import com.scottlogic.deg.orchestrator.violate.ViolateExecute;
+import com.scottlogic.deg.orchestrator.violate.ViolateModule;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/** Generates violating data from the posted profile, responding with a zip of the manifest and data files */
+class ViolateHandler extends CommandHandler<ViolateCommandLine> {
+    ViolateHandler(ProfileCache profileCache, CompiledProfileCache compiledProfileCache, ClientTimeout clientTimeout) {
+        super(profileCache, compiledProfileCache, clientTimeout);
+    }
+
+    @Override
+    ViolateCommandLine createCommandLine() {
+        return new ViolateCommandLine();
+    }
+
+    @Override
+    List<String> getOutputArguments(Path workingDirectory) {
+        return Collections.singletonList("--output-path=" + getOutputDirectory(workingDirectory));
+    }
+
+    @Override
+    void execute(
+        ViolateCommandLine commandLine,
+        ServerModule serverModule,
+        Path workingDirectory,
+        ResponseOutputStream response) throws IOException {
+        Guice.createInjector(Modules.override(new ViolateModule(commandLine)).with(serverModule))
+            .getInstance(ViolateExecute.class)
+            .execute();
+
+        Path outputDirectory = getOutputDirectory(workingDirectory);
+        List<Path> files;
+        try (Stream<Path> paths = Files.list(outputDirectory)) {
+            files = paths.sorted().collect(Collectors.toList());
+        }
+
+        response.setContentType("application/zip");
+        ZipOutputStream zip = new ZipOutputStream(response);
+        for (Path file : files) {
+            zip.putNextEntry(new ZipEntry(file.getFileName().toString()));
+            Files.copy(file, zip);
+            zip.closeEntry();
+        }
+        zip.finish();
+    }
+
+    private static Path getOutputDirectory(Path workingDirectory) {
+        return workingDirectory.resolve("output");
+    }
+}
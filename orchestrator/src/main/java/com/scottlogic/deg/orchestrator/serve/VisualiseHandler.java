@@ -0,0 +1,65 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.orchestrator.serve;
+
+import com.google.inject.Guice;
+import com.google.inject.util.Modules;
+import com.scottlogic.deg.generator.generation.CompiledProfileCache;
+import com.scottlogic.deg.orchestrator.guice.AllModule;
+import com.scottlogic.deg.orchestrator.visualise.VisualiseCommandLine;
+import com.scottlogic.deg.orchestrator.visualise.VisualiseExecute;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+/** Visualises the decision tree of the posted profile, responding with it in DOT format */
+class VisualiseHandler extends CommandHandler<VisualiseCommandLine> {
+    VisualiseHandler(ProfileCache profileCache, CompiledProfileCache compiledProfileCache, ClientTimeout clientTimeout) {
+        super(profileCache, compiledProfileCache, clientTimeout);
+    }
+
+    @Override
+    VisualiseCommandLine createCommandLine() {
+        return new VisualiseCommandLine();
+    }
+
+    @Override
+    List<String> getOutputArguments(Path workingDirectory) {
+        return Collections.singletonList("--output-path=" + getOutputFile(workingDirectory));
+    }
+
+    @Override
+    void execute(
+        VisualiseCommandLine commandLine,
+        ServerModule serverModule,
+        Path workingDirectory,
+        ResponseOutputStream response) throws IOException {
+        Guice.createInjector(Modules.override(new AllModule(commandLine)).with(serverModule))
+            .getInstance(VisualiseExecute.class)
+            .execute();
+
+        response.setContentType("text/vnd.graphviz; charset=utf-8");
+        Files.copy(getOutputFile(workingDirectory), response);
+    }
+
+    private static Path getOutputFile(Path workingDirectory) {
+        return workingDirectory.resolve("profile.gv");
+    }
+}
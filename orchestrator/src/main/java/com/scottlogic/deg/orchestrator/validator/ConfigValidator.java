@@ -18,7 +18,12 @@ package com.scottlogic.deg.orchestrator.validator;
 
 import com.google.inject.Inject;
 import com.scottlogic.deg.common.ValidationException;
+import com.scottlogic.deg.generator.config.detail.CombinationStrategyType;
+import com.scottlogic.deg.generator.config.detail.DataGenerationType;
+import com.scottlogic.deg.generator.config.detail.Shard;
+import com.scottlogic.deg.generator.config.detail.TreeWalkerType;
 import com.scottlogic.deg.orchestrator.guice.AllConfigSource;
+import com.scottlogic.deg.output.guice.OutputCompression;
 import com.scottlogic.deg.output.guice.OutputConfigSource;
 import com.scottlogic.deg.output.outputtarget.OutputTargetValidationException;
 import com.scottlogic.deg.output.FileUtils;
@@ -38,6 +43,68 @@ public class ConfigValidator {
 
     public void preProfileChecks(AllConfigSource generationConfigSource) {
         checkProfileInputFile(generationConfigSource.getProfileFile());
+        checkShard(generationConfigSource);
+        checkOutputShards(generationConfigSource);
+        checkOutputDatabase(generationConfigSource);
+        checkOutputBuffer(generationConfigSource);
+        checkStdoutFlushInterval(generationConfigSource);
+    }
+
+    private void checkStdoutFlushInterval(AllConfigSource generationConfigSource) {
+        if (generationConfigSource.getStdoutFlushMillis() < 1) {
+            throw new ValidationException("Standard output flush interval must be at least 1 millisecond");
+        }
+    }
+
+    private void checkOutputBuffer(AllConfigSource generationConfigSource) {
+        if (generationConfigSource.getOutputBufferSize() < 0) {
+            throw new ValidationException("Output buffer size must be 0, to write rows as they are generated, or more");
+        }
+    }
+
+    private void checkOutputDatabase(AllConfigSource generationConfigSource) {
+        if (generationConfigSource.getOutputJdbcUrl() == null) {
+            return;
+        }
+
+        if (generationConfigSource.getOutputShardCount() > 1) {
+            throw new ValidationException("Output cannot be split between files when it is inserted into a database");
+        }
+        if (generationConfigSource.getOutputCompression() != OutputCompression.NONE) {
+            throw new ValidationException("Output cannot be compressed when it is inserted into a database");
+        }
+        if (generationConfigSource.getOutputCommitSize() < 1) {
+            throw new ValidationException("Output commit size must be at least 1");
+        }
+    }
+
+    private void checkOutputShards(AllConfigSource generationConfigSource) {
+        if (generationConfigSource.getOutputShardCount() < 1) {
+            throw new ValidationException("Output shard count must be at least 1");
+        }
+        if (generationConfigSource.getOutputShardField() != null && generationConfigSource.getOutputShardCount() < 2) {
+            throw new ValidationException(
+                "Output shard field can only be given when the output is split between files with --output-shards");
+        }
+        if (generationConfigSource.getOutputShardCount() > 1 && generationConfigSource.useStdOut()) {
+            throw new ValidationException("Output can only be split between files when an output directory is given");
+        }
+    }
+
+    private void checkShard(AllConfigSource generationConfigSource) {
+        Shard shard = generationConfigSource.getShard();
+        if (shard == null || shard.isWholeOutput()) {
+            return;
+        }
+
+        if (generationConfigSource.getGenerationType() == DataGenerationType.RANDOM) {
+            throw new ValidationException("Shard " + shard + " cannot be generated with RANDOM data generation");
+        }
+        if (generationConfigSource.getWalkerType() != TreeWalkerType.CARTESIAN_PRODUCT
+            || generationConfigSource.getCombinationStrategyType() != CombinationStrategyType.EXHAUSTIVE) {
+            throw new ValidationException("Shard " + shard +
+                " can only be generated with the CARTESIAN_PRODUCT walker and EXHAUSTIVE combination strategy");
+        }
     }
 
     private void checkProfileInputFile(File profileFile) {
@@ -21,9 +21,11 @@ import com.scottlogic.deg.common.ValidationException;
 import com.scottlogic.deg.common.profile.Profile;
 import com.scottlogic.deg.generator.generation.DataGenerator;
 import com.scottlogic.deg.common.output.GeneratedObject;
+import com.scottlogic.deg.common.output.RowBatch;
 import com.scottlogic.deg.output.FileUtilsImpl;
 import com.scottlogic.deg.output.manifest.ManifestWriter;
 import com.scottlogic.deg.common.profile.ViolatedProfile;
+import com.scottlogic.deg.output.writer.BatchingDataSetWriter;
 import com.scottlogic.deg.output.writer.DataSetWriter;
 import com.scottlogic.deg.output.outputtarget.SingleDatasetOutputTarget;
 import com.scottlogic.deg.orchestrator.guice.AllConfigSource;
@@ -113,7 +115,10 @@ public class ViolateExecute {
         Stream<GeneratedObject> generatedDataItems,
         SingleDatasetOutputTarget outputTarget) throws IOException
     {
-        try (DataSetWriter writer = outputTarget.openWriter(profile.getFields())) {
+        try (DataSetWriter writer = new BatchingDataSetWriter(
+            outputTarget.openWriter(profile.getFields()),
+            profile.getFields(),
+            RowBatch.DEFAULT_CAPACITY)) {
             generatedDataItems.forEach(row -> {
                 try {
                     writer.writeRow(row);
@@ -18,9 +18,11 @@ package com.scottlogic.deg.orchestrator.cucumber.testframework.utils;
 
 import com.google.inject.Inject;
 import com.scottlogic.deg.common.profile.Profile;
+import com.scottlogic.deg.common.util.Defaults;
 import com.scottlogic.deg.generator.config.detail.*;
 import com.scottlogic.deg.orchestrator.guice.AllConfigSource;
 import com.scottlogic.deg.orchestrator.violate.ViolateConfigSource;
+import com.scottlogic.deg.output.guice.OutputCompression;
 import com.scottlogic.deg.output.guice.OutputFormat;
 import com.scottlogic.deg.profile.v0_1.AtomicConstraintType;
 
@@ -71,11 +73,31 @@ public class CucumberGenerationConfigSource implements AllConfigSource, ViolateC
         return state.maxRows;
     }
 
+    @Override
+    public Shard getShard() {
+        return Shard.WHOLE_OUTPUT;
+    }
+
     @Override
     public boolean shouldDoPartitioning() {
         return false;
     }
 
+    @Override
+    public boolean shouldSplitIndependentDecisions() {
+        return false;
+    }
+
+    @Override
+    public boolean shouldForwardCheck() {
+        return false;
+    }
+
+    @Override
+    public boolean shouldBackjump() {
+        return false;
+    }
+
     @Override
     public boolean dontOptimise() {
         return false;
@@ -101,6 +123,11 @@ public class CucumberGenerationConfigSource implements AllConfigSource, ViolateC
         return false;
     }
 
+    @Override
+    public int getOutputBufferSize() {
+        return Defaults.DEFAULT_OUTPUT_BUFFER_SIZE;
+    }
+
     @Override
     public boolean useStdOut() {
         return false;
@@ -116,6 +143,51 @@ public class CucumberGenerationConfigSource implements AllConfigSource, ViolateC
         return null;
     }
 
+    @Override
+    public OutputCompression getOutputCompression() {
+        return OutputCompression.NONE;
+    }
+
+    @Override
+    public long getStdoutFlushBytes() {
+        return Defaults.DEFAULT_STDOUT_FLUSH_BYTES;
+    }
+
+    @Override
+    public long getStdoutFlushMillis() {
+        return Defaults.DEFAULT_STDOUT_FLUSH_MILLIS;
+    }
+
+    @Override
+    public Path getProfileSnapshotDirectory() {
+        return null;
+    }
+
+    @Override
+    public String getOutputJdbcUrl() {
+        return null;
+    }
+
+    @Override
+    public String getOutputTableName() {
+        return Defaults.DEFAULT_OUTPUT_TABLE_NAME;
+    }
+
+    @Override
+    public int getOutputCommitSize() {
+        return Defaults.DEFAULT_OUTPUT_COMMIT_SIZE;
+    }
+
+    @Override
+    public int getOutputShardCount() {
+        return 1;
+    }
+
+    @Override
+    public String getOutputShardField() {
+        return null;
+    }
+
     @Override
     public String fromFilePath() { return null; }
 }
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.orchestrator.generate;
+
+import com.scottlogic.deg.common.output.GeneratedObject;
+import com.scottlogic.deg.common.profile.Field;
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RowPipelineTests {
+    @Test
+    void pipe_withMoreRowsThanTheBufferHolds_shouldWriteEveryRowInOrder() throws IOException {
+        List<GeneratedObject> rows = rows(1000).collect(Collectors.toList());
+        List<GeneratedObject> written = new ArrayList<>();
+
+        new RowPipeline(16).pipe(rows.stream(), written::add);
+
+        Assert.assertThat(written, equalTo(rows));
+    }
+
+    @Test
+    void pipe_whenGenerationFails_shouldWriteEarlierRowsThenRethrow() {
+        List<GeneratedObject> written = new ArrayList<>();
+        Stream<GeneratedObject> rows = Stream.concat(
+            rows(3),
+            Stream.<GeneratedObject>generate(() -> { throw new IllegalStateException("generation failed"); }).limit(1));
+
+        IllegalStateException exception = assertThrows(
+            IllegalStateException.class,
+            () -> new RowPipeline(16).pipe(rows, written::add));
+
+        Assert.assertThat(exception.getMessage(), equalTo("generation failed"));
+        Assert.assertThat(written, hasSize(3));
+    }
+
+    @Test
+    void pipe_whenWritingFails_shouldStopGeneration() {
+        AtomicInteger generatedRows = new AtomicInteger();
+        Stream<GeneratedObject> rows = rows(Integer.MAX_VALUE).peek(row -> generatedRows.incrementAndGet());
+
+        assertThrows(
+            IOException.class,
+            () -> new RowPipeline(4).pipe(rows, row -> { throw new IOException("output failed"); }));
+
+        Assert.assertThat(generatedRows.get(), lessThanOrEqualTo(6));
+    }
+
+    @Test
+    void pipe_whenGenerationStalls_shouldTellTheConsumerBeforeWaitingForTheNextRow() throws IOException {
+        List<String> events = new ArrayList<>();
+        Stream<GeneratedObject> rows = Stream.concat(
+            rows(1),
+            Stream.<GeneratedObject>generate(() -> {
+                sleep(200);
+                return row(1);
+            }).limit(1));
+
+        new RowPipeline(16).pipe(rows, new RowPipeline.RowConsumer() {
+            @Override
+            public void accept(GeneratedObject row) {
+                events.add("row " + row);
+            }
+
+            @Override
+            public void awaitingRows() {
+                events.add("awaiting rows");
+            }
+        });
+
+        Assert.assertThat(events.subList(events.size() - 3, events.size()), contains("row 0", "awaiting rows", "row 1"));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static Stream<GeneratedObject> rows(int count) {
+        return IntStream.range(0, count).mapToObj(RowPipelineTests::row);
+    }
+
+    private static GeneratedObject row(int value) {
+        return new GeneratedObject() {
+            @Override
+            public Object getFormattedValue(Field field) {
+                return value;
+            }
+
+            @Override
+            public String toString() {
+                return Integer.toString(value);
+            }
+        };
+    }
+}
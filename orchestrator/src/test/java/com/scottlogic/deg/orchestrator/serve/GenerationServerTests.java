@@ -0,0 +1,234 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.orchestrator.serve;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.hamcrest.Matchers.startsWith;
+
+class GenerationServerTests {
+    private static final String PROFILE =
+        "{ \"schemaVersion\": \"0.1\", \"fields\": [ { \"name\": \"foo\" } ], \"rules\": [ { \"constraints\": [ " +
+        "{ \"field\": \"foo\", \"is\": \"ofType\", \"value\": \"integer\" }, " +
+        "{ \"field\": \"foo\", \"is\": \"inSet\", \"values\": [ 1, 2, 3 ] }, " +
+        "{ \"not\": { \"field\": \"foo\", \"is\": \"null\" } } ] } ] }";
+    private static final String WIDE_PROFILE =
+        "{ \"schemaVersion\": \"0.1\", \"fields\": [ { \"name\": \"foo\" } ], \"rules\": [ { \"constraints\": [ " +
+        "{ \"field\": \"foo\", \"is\": \"ofType\", \"value\": \"string\" }, " +
+        "{ \"field\": \"foo\", \"is\": \"matchingRegex\", \"value\": \"[a-z]{200}\" }, " +
+        "{ \"not\": { \"field\": \"foo\", \"is\": \"null\" } } ] } ] }";
+
+    private GenerationServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = new GenerationServer(0, 4, 2, 60_000);
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop();
+    }
+
+    @Test
+    void generate_withProfile_shouldRespondWithGeneratedData() throws IOException {
+        for (int request = 0; request < 2; request++) {
+            HttpURLConnection connection = post("/generate?generation-type=FULL_SEQUENTIAL&quiet", PROFILE);
+
+            Assert.assertThat(connection.getResponseCode(), is(200));
+            Assert.assertThat(connection.getContentType(), containsString("text/csv"));
+            Assert.assertThat(
+                Arrays.asList(read(connection.getInputStream()).split("\r?\n")),
+                equalTo(Arrays.asList("foo", "1", "2", "3")));
+        }
+    }
+
+    @Test
+    void generate_withInvalidOption_shouldRespondWithBadRequest() throws IOException {
+        HttpURLConnection connection = post("/generate?max-rows=lots", PROFILE);
+
+        Assert.assertThat(connection.getResponseCode(), is(400));
+        Assert.assertThat(read(connection.getErrorStream()), containsString("--max-rows"));
+    }
+
+    @Test
+    void generate_withOutputPath_shouldRespondWithBadRequest() throws IOException {
+        HttpURLConnection connection = post("/generate?output-path=out.csv", PROFILE);
+
+        Assert.assertThat(connection.getResponseCode(), is(400));
+    }
+
+    @Test
+    void generate_withSetFromFileDirectory_shouldRespondWithBadRequest() throws IOException {
+        HttpURLConnection connection = post("/generate?set-from-file-directory=/", PROFILE);
+
+        Assert.assertThat(connection.getResponseCode(), is(400));
+    }
+
+    @Test
+    void generate_withInvalidOutputBufferSize_shouldRespondWithValidationErrors() throws IOException {
+        HttpURLConnection connection = post("/generate?output-buffer-size=-1", PROFILE);
+
+        Assert.assertThat(connection.getResponseCode(), is(400));
+        Assert.assertThat(read(connection.getErrorStream()), containsString("Output buffer size"));
+    }
+
+    @Test
+    void generate_withHostOtherThanLocalhost_shouldRespondWithForbidden() throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            sendPost(socket, "/generate?quiet", "attacker.example:" + server.getPort());
+
+            Assert.assertThat(read(socket.getInputStream()), startsWith("HTTP/1.1 403"));
+        }
+    }
+
+    @Test
+    void generate_withClientThatStopsReading_shouldDropTheConnectionAndFreeTheThread() throws Exception {
+        server.stop();
+        server = new GenerationServer(0, 4, 1, 200);
+        server.start();
+
+        try (Socket socket = new Socket()) {
+            socket.setReceiveBufferSize(4096);
+            socket.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort()));
+            sendPost(socket, "/generate?generation-type=RANDOM&max-rows=10000000&quiet", "localhost:" + server.getPort());
+
+            HttpURLConnection connection = post("/generate?generation-type=FULL_SEQUENTIAL&quiet", PROFILE);
+            connection.setReadTimeout(30_000);
+
+            Assert.assertThat(connection.getResponseCode(), is(200));
+            Assert.assertThat(read(connection.getInputStream()), containsString("3"));
+        }
+    }
+
+    @Test
+    void generate_withConcurrentRegexRequests_shouldRespondWithAllTheMatchingStringsToEach() throws Exception {
+        server.stop();
+        server = new GenerationServer(0, 4, 4, 60_000);
+        server.start();
+
+        int requests = 8;
+        ExecutorService clients = Executors.newFixedThreadPool(requests);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> responses = new ArrayList<>();
+        try {
+            for (int request = 0; request < requests; request++) {
+                // pairs of requests share a regex, so some regexes are compiled by two requests at once
+                String suffix = String.valueOf((char) ('d' + request % 4));
+                responses.add(clients.submit(() -> {
+                    start.await();
+                    HttpURLConnection connection = post(
+                        "/generate?generation-type=FULL_SEQUENTIAL&quiet",
+                        regexProfile("[a-c]{1,3}" + suffix));
+                    return read(connection.getInputStream());
+                }));
+            }
+            start.countDown();
+
+            for (int request = 0; request < requests; request++) {
+                String suffix = String.valueOf((char) ('d' + request % 4));
+                List<String> lines = Arrays.asList(responses.get(request).get(60, TimeUnit.SECONDS).split("\r?\n"));
+
+                Assert.assertThat(lines.size(), is(1 + 3 + 9 + 27));
+                Assert.assertThat(lines.get(0), is("foo"));
+                Assert.assertThat(new HashSet<>(lines).size(), is(lines.size()));
+                for (String line : lines.subList(1, lines.size())) {
+                    Assert.assertThat(line, matchesPattern("\"[a-c]{1,3}" + suffix + "\""));
+                }
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    @Test
+    void visualise_withProfile_shouldRespondWithDotGraph() throws IOException {
+        HttpURLConnection connection = post("/visualise", PROFILE);
+
+        Assert.assertThat(connection.getResponseCode(), is(200));
+        Assert.assertThat(read(connection.getInputStream()), containsString("graph tree {"));
+    }
+
+    private static String regexProfile(String regex) {
+        return "{ \"schemaVersion\": \"0.1\", \"fields\": [ { \"name\": \"foo\" } ], \"rules\": [ { \"constraints\": [ " +
+            "{ \"field\": \"foo\", \"is\": \"ofType\", \"value\": \"string\" }, " +
+            "{ \"field\": \"foo\", \"is\": \"matchingRegex\", \"value\": \"" + regex + "\" }, " +
+            "{ \"not\": { \"field\": \"foo\", \"is\": \"null\" } } ] } ] }";
+    }
+
+    private HttpURLConnection post(String path, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + server.getPort() + path)
+            .openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        try (OutputStream requestBody = connection.getOutputStream()) {
+            requestBody.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        return connection;
+    }
+
+    private static void sendPost(Socket socket, String path, String host) throws IOException {
+        byte[] body = WIDE_PROFILE.getBytes(StandardCharsets.UTF_8);
+        OutputStream request = socket.getOutputStream();
+        request.write((
+            "POST " + path + " HTTP/1.1\r\n" +
+            "Host: " + host + "\r\n" +
+            "Content-Length: " + body.length + "\r\n" +
+            "Connection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        request.write(body);
+        request.flush();
+    }
+
+    private static String read(InputStream stream) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = stream.read(buffer)) >= 0) {
+            bytes.write(buffer, 0, read);
+        }
+        stream.close();
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
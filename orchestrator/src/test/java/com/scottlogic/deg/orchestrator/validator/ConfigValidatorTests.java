@@ -17,10 +17,15 @@
 package com.scottlogic.deg.orchestrator.validator;
 
 import com.scottlogic.deg.common.ValidationException;
+import com.scottlogic.deg.generator.config.detail.CombinationStrategyType;
 import com.scottlogic.deg.generator.config.detail.DataGenerationType;
+import com.scottlogic.deg.generator.config.detail.Shard;
+import com.scottlogic.deg.generator.config.detail.TreeWalkerType;
 import com.scottlogic.deg.orchestrator.guice.AllConfigSource;
 import com.scottlogic.deg.output.FileUtils;
+import com.scottlogic.deg.output.guice.OutputCompression;
 import com.scottlogic.deg.output.outputtarget.OutputTargetValidationException;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
@@ -40,6 +45,12 @@ public class ConfigValidatorTests {
     @Mock
     private File mockProfileFile = mock(File.class);
 
+    @Before
+    public void setUp() {
+        when(mockConfigSource.getOutputShardCount()).thenReturn(1);
+        when(mockConfigSource.getStdoutFlushMillis()).thenReturn(1000L);
+    }
+
     @Test
     public void preProfileChecks_withValid_returnsNoErrorMessages() {
         ConfigValidator configValidator = new ConfigValidator(mockFileUtils);
@@ -66,6 +77,118 @@ public class ConfigValidatorTests {
         assertDoesNotThrow(()->configValidator.preProfileChecks(mockConfigSource),"Expected no exception, but one was thrown.");
     }
 
+    @Test
+    public void preProfileChecks_shardWithCartesianProductWalker_returnsNoErrorMessages() {
+        ConfigValidator configValidator = new ConfigValidator(mockFileUtils);
+        when(mockConfigSource.getProfileFile()).thenReturn(mockProfileFile);
+        when(mockFileUtils.containsInvalidChars(mockProfileFile)).thenReturn(false);
+        when(mockProfileFile.exists()).thenReturn(true);
+        when(mockProfileFile.isDirectory()).thenReturn(false);
+        when(mockFileUtils.isFileEmpty(mockProfileFile)).thenReturn(false);
+        when(mockConfigSource.getShard()).thenReturn(new Shard(2, 4));
+        when(mockConfigSource.getGenerationType()).thenReturn(DataGenerationType.FULL_SEQUENTIAL);
+        when(mockConfigSource.getWalkerType()).thenReturn(TreeWalkerType.CARTESIAN_PRODUCT);
+        when(mockConfigSource.getCombinationStrategyType()).thenReturn(CombinationStrategyType.EXHAUSTIVE);
+
+        assertDoesNotThrow(()->configValidator.preProfileChecks(mockConfigSource),"Expected no exception, but one was thrown.");
+    }
+
+    @Test
+    public void preProfileChecks_shardWithReductiveWalker_throwsException() {
+        ConfigValidator configValidator = new ConfigValidator(mockFileUtils);
+        when(mockConfigSource.getProfileFile()).thenReturn(mockProfileFile);
+        when(mockFileUtils.containsInvalidChars(mockProfileFile)).thenReturn(false);
+        when(mockProfileFile.exists()).thenReturn(true);
+        when(mockProfileFile.isDirectory()).thenReturn(false);
+        when(mockFileUtils.isFileEmpty(mockProfileFile)).thenReturn(false);
+        when(mockConfigSource.getShard()).thenReturn(new Shard(2, 4));
+        when(mockConfigSource.getGenerationType()).thenReturn(DataGenerationType.FULL_SEQUENTIAL);
+        when(mockConfigSource.getWalkerType()).thenReturn(TreeWalkerType.REDUCTIVE);
+        when(mockConfigSource.getCombinationStrategyType()).thenReturn(CombinationStrategyType.EXHAUSTIVE);
+
+        assertThrows(ValidationException.class, ()->configValidator.preProfileChecks(mockConfigSource),"Expected ValidationException to throw, but didn't");
+    }
+
+    @Test
+    public void preProfileChecks_outputShardsToStdOut_throwsException() {
+        ConfigValidator configValidator = new ConfigValidator(mockFileUtils);
+        when(mockConfigSource.getProfileFile()).thenReturn(mockProfileFile);
+        when(mockFileUtils.containsInvalidChars(mockProfileFile)).thenReturn(false);
+        when(mockProfileFile.exists()).thenReturn(true);
+        when(mockProfileFile.isDirectory()).thenReturn(false);
+        when(mockFileUtils.isFileEmpty(mockProfileFile)).thenReturn(false);
+        when(mockConfigSource.getOutputShardCount()).thenReturn(4);
+        when(mockConfigSource.useStdOut()).thenReturn(true);
+
+        assertThrows(ValidationException.class, ()->configValidator.preProfileChecks(mockConfigSource),"Expected ValidationException to throw, but didn't");
+    }
+
+    @Test
+    public void preProfileChecks_noOutputShards_throwsException() {
+        ConfigValidator configValidator = new ConfigValidator(mockFileUtils);
+        when(mockConfigSource.getProfileFile()).thenReturn(mockProfileFile);
+        when(mockFileUtils.containsInvalidChars(mockProfileFile)).thenReturn(false);
+        when(mockProfileFile.exists()).thenReturn(true);
+        when(mockProfileFile.isDirectory()).thenReturn(false);
+        when(mockFileUtils.isFileEmpty(mockProfileFile)).thenReturn(false);
+        when(mockConfigSource.getOutputShardCount()).thenReturn(0);
+
+        assertThrows(ValidationException.class, ()->configValidator.preProfileChecks(mockConfigSource),"Expected ValidationException to throw, but didn't");
+    }
+
+    @Test
+    public void preProfileChecks_outputShardFieldWithoutOutputShards_throwsException() {
+        ConfigValidator configValidator = new ConfigValidator(mockFileUtils);
+        when(mockConfigSource.getProfileFile()).thenReturn(mockProfileFile);
+        when(mockFileUtils.containsInvalidChars(mockProfileFile)).thenReturn(false);
+        when(mockProfileFile.exists()).thenReturn(true);
+        when(mockProfileFile.isDirectory()).thenReturn(false);
+        when(mockFileUtils.isFileEmpty(mockProfileFile)).thenReturn(false);
+        when(mockConfigSource.getOutputShardField()).thenReturn("my_field");
+
+        assertThrows(ValidationException.class, ()->configValidator.preProfileChecks(mockConfigSource),"Expected ValidationException to throw, but didn't");
+    }
+
+    @Test
+    public void preProfileChecks_compressedOutputToDatabase_throwsException() {
+        ConfigValidator configValidator = new ConfigValidator(mockFileUtils);
+        when(mockConfigSource.getProfileFile()).thenReturn(mockProfileFile);
+        when(mockFileUtils.containsInvalidChars(mockProfileFile)).thenReturn(false);
+        when(mockProfileFile.exists()).thenReturn(true);
+        when(mockProfileFile.isDirectory()).thenReturn(false);
+        when(mockFileUtils.isFileEmpty(mockProfileFile)).thenReturn(false);
+        when(mockConfigSource.getOutputJdbcUrl()).thenReturn("jdbc:h2:mem:test");
+        when(mockConfigSource.getOutputCompression()).thenReturn(OutputCompression.GZIP);
+
+        assertThrows(ValidationException.class, ()->configValidator.preProfileChecks(mockConfigSource),"Expected ValidationException to throw, but didn't");
+    }
+
+    @Test
+    public void preProfileChecks_negativeOutputBufferSize_throwsException() {
+        ConfigValidator configValidator = new ConfigValidator(mockFileUtils);
+        when(mockConfigSource.getProfileFile()).thenReturn(mockProfileFile);
+        when(mockFileUtils.containsInvalidChars(mockProfileFile)).thenReturn(false);
+        when(mockProfileFile.exists()).thenReturn(true);
+        when(mockProfileFile.isDirectory()).thenReturn(false);
+        when(mockFileUtils.isFileEmpty(mockProfileFile)).thenReturn(false);
+        when(mockConfigSource.getOutputBufferSize()).thenReturn(-1);
+
+        assertThrows(ValidationException.class, ()->configValidator.preProfileChecks(mockConfigSource),"Expected ValidationException to throw, but didn't");
+    }
+
+    @Test
+    public void preProfileChecks_zeroStdoutFlushInterval_throwsException() {
+        ConfigValidator configValidator = new ConfigValidator(mockFileUtils);
+        when(mockConfigSource.getProfileFile()).thenReturn(mockProfileFile);
+        when(mockFileUtils.containsInvalidChars(mockProfileFile)).thenReturn(false);
+        when(mockProfileFile.exists()).thenReturn(true);
+        when(mockProfileFile.isDirectory()).thenReturn(false);
+        when(mockFileUtils.isFileEmpty(mockProfileFile)).thenReturn(false);
+        when(mockConfigSource.getStdoutFlushMillis()).thenReturn(0L);
+
+        assertThrows(ValidationException.class, ()->configValidator.preProfileChecks(mockConfigSource),"Expected ValidationException to throw, but didn't");
+    }
+
     @Test
     public void preProfileChecks_profileFilePathContainsInvalidChars_throwsException() {
         ConfigValidator configValidator = new ConfigValidator(mockFileUtils);
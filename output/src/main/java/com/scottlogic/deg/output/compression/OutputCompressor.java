@@ -0,0 +1,31 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.compression;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Optional;
+
+/** Represents a codec with which output files could be compressed - e.g. gzip. */
+public interface OutputCompressor {
+    OutputStream compress(OutputStream stream) throws IOException;
+
+    Optional<String> getFileExtensionWithoutDot();
+
+    /** the name of the codec, as recorded in the manifest */
+    String getCodecName();
+}
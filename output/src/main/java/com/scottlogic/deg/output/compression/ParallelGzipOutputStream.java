@@ -0,0 +1,217 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.compression;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes a gzip stream, compressing independent blocks of the input on a pool of threads in the style of pigz.
+ *
+ * Each block is deflated on its own, primed with the last 32KB of the previous block as its dictionary so the
+ * compression ratio is close to that of a single deflate stream, and ended with a sync flush so that the compressed
+ * blocks can be concatenated into one deflate stream. Blocks are written in the order they were filled; at most two
+ * blocks per thread are in flight, so a slow output stream holds up the writer rather than buffering without limit.
+ *
+ * flush() writes the blocks that have been compressed already, but doesn't end the current block, as doing so on
+ * every flush would leave blocks too small to compress well.
+ */
+public class ParallelGzipOutputStream extends OutputStream {
+    static final int DEFAULT_BLOCK_SIZE = 128 * 1024;
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+    private static final byte[] HEADER = { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff };
+
+    private final OutputStream stream;
+    private final ExecutorService compressionThreads;
+    private final int maxBlocksInFlight;
+    private final int blockSize;
+    private final Deque<Future<byte[]>> blocksInFlight = new ArrayDeque<>();
+    private final CRC32 crc = new CRC32();
+    private long uncompressedLength;
+    private byte[] previousBlock;
+    private byte[] block;
+    private int blockLength;
+    private boolean headerWritten;
+    private boolean closed;
+
+    public ParallelGzipOutputStream(OutputStream stream, int threads) {
+        this(stream, threads, DEFAULT_BLOCK_SIZE);
+    }
+
+    ParallelGzipOutputStream(OutputStream stream, int threads, int blockSize) {
+        this.stream = stream;
+        this.blockSize = blockSize;
+        this.maxBlocksInFlight = threads * 2;
+        this.block = new byte[blockSize];
+        this.compressionThreads = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "output-compression");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[] { (byte) b }, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+
+        crc.update(bytes, offset, length);
+        uncompressedLength += length;
+
+        while (length > 0) {
+            int copied = Math.min(length, blockSize - blockLength);
+            System.arraycopy(bytes, offset, block, blockLength, copied);
+            blockLength += copied;
+            offset += copied;
+            length -= copied;
+
+            if (blockLength == blockSize) {
+                submitBlock(false);
+            }
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        while (!blocksInFlight.isEmpty() && blocksInFlight.peekFirst().isDone()) {
+            writeNextBlock();
+        }
+        stream.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            submitBlock(true);
+            while (!blocksInFlight.isEmpty()) {
+                writeNextBlock();
+            }
+
+            writeInt((int) crc.getValue());
+            writeInt((int) uncompressedLength);
+        } finally {
+            compressionThreads.shutdownNow();
+            stream.close();
+        }
+    }
+
+    private void submitBlock(boolean lastBlock) throws IOException {
+        if (blocksInFlight.size() >= maxBlocksInFlight) {
+            writeNextBlock();
+        }
+
+        byte[] input = block;
+        int inputLength = blockLength;
+        byte[] dictionary = previousBlock;
+        blocksInFlight.addLast(compressionThreads.submit(() -> deflate(input, inputLength, dictionary, lastBlock)));
+
+        previousBlock = lastBlock ? null : Arrays.copyOfRange(input, Math.max(0, inputLength - DICTIONARY_SIZE), inputLength);
+        block = lastBlock ? null : new byte[blockSize];
+        blockLength = 0;
+    }
+
+    private void writeNextBlock() throws IOException {
+        if (!headerWritten) {
+            stream.write(HEADER);
+            headerWritten = true;
+        }
+
+        try {
+            stream.write(blocksInFlight.removeFirst().get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compressing output");
+        } catch (ExecutionException e) {
+            throw new IOException("Unable to compress output", e.getCause());
+        }
+    }
+
+    private static byte[] deflate(byte[] input, int inputLength, byte[] dictionary, boolean lastBlock) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            if (dictionary != null) {
+                deflater.setDictionary(dictionary);
+            }
+            deflater.setInput(input, 0, inputLength);
+
+            ByteArrayBuilder output = new ByteArrayBuilder(inputLength / 2 + 64);
+            if (lastBlock) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    output.deflateFrom(deflater, Deflater.NO_FLUSH);
+                }
+            } else {
+                while (output.deflateFrom(deflater, Deflater.SYNC_FLUSH)) { }
+            }
+            return output.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private void writeInt(int value) throws IOException {
+        stream.write(value);
+        stream.write(value >>> 8);
+        stream.write(value >>> 16);
+        stream.write(value >>> 24);
+    }
+
+    private static class ByteArrayBuilder {
+        private byte[] bytes;
+        private int length;
+
+        ByteArrayBuilder(int capacity) {
+            bytes = new byte[capacity];
+        }
+
+        /** deflate into the free space, returning whether it was filled (so there may be more output to come) */
+        boolean deflateFrom(Deflater deflater, int flush) {
+            if (length == bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            int free = bytes.length - length;
+            int written = deflater.deflate(bytes, length, free, flush);
+            length += written;
+            return written == free;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, length);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.guice;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.scottlogic.deg.output.compression.GzipOutputCompressor;
+import com.scottlogic.deg.output.compression.NoOutputCompressor;
+import com.scottlogic.deg.output.compression.OutputCompressor;
+
+public class OutputCompressorProvider implements Provider<OutputCompressor> {
+    private final OutputConfigSource configSource;
+    private final NoOutputCompressor noOutputCompressor;
+    private final GzipOutputCompressor gzipOutputCompressor;
+
+    @Inject
+    public OutputCompressorProvider(
+        OutputConfigSource configSource,
+        NoOutputCompressor noOutputCompressor,
+        GzipOutputCompressor gzipOutputCompressor)
+    {
+        this.configSource = configSource;
+        this.noOutputCompressor = noOutputCompressor;
+        this.gzipOutputCompressor = gzipOutputCompressor;
+    }
+
+    @Override
+    public OutputCompressor get() {
+        switch (configSource.getOutputCompression()) {
+            case NONE:
+                return noOutputCompressor;
+            case GZIP:
+                return gzipOutputCompressor;
+        }
+
+        throw new RuntimeException(String.format(
+            "Unknown output compression %s, options are NONE or GZIP",
+            configSource.getOutputCompression()
+        ));
+    }
+}
@@ -20,7 +20,16 @@ import java.nio.file.Path;
 
 public interface OutputConfigSource {
     OutputFormat getOutputFormat();
+    OutputCompression getOutputCompression();
     Path getOutputPath();
     boolean overwriteOutputFiles();
     boolean useStdOut();
+    int getOutputBufferSize();
+    int getOutputShardCount();
+    String getOutputShardField();
+    long getStdoutFlushBytes();
+    long getStdoutFlushMillis();
+    String getOutputJdbcUrl();
+    String getOutputTableName();
+    int getOutputCommitSize();
 }
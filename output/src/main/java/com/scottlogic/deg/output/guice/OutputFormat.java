@@ -18,5 +18,6 @@ package com.scottlogic.deg.output.guice;
 
 public enum OutputFormat {
     CSV,
-    JSON
+    JSON,
+    ARROW
 }
@@ -21,6 +21,7 @@ import com.google.inject.name.Names;
 import com.scottlogic.deg.output.FileUtils;
 import com.scottlogic.deg.output.FileUtilsImpl;
 import com.scottlogic.deg.output.OutputPath;
+import com.scottlogic.deg.output.compression.OutputCompressor;
 import com.scottlogic.deg.output.manifest.JsonManifestWriter;
 import com.scottlogic.deg.output.manifest.ManifestWriter;
 import com.scottlogic.deg.output.outputtarget.SingleDatasetOutputTarget;
@@ -40,6 +41,7 @@ public class OutputModule extends AbstractModule {
         bind(OutputConfigSource.class).toInstance(outputConfigSource);
 
         bind(OutputWriterFactory.class).toProvider(OutputWriterFactoryProvider.class);
+        bind(OutputCompressor.class).toProvider(OutputCompressorProvider.class);
         bind(SingleDatasetOutputTarget.class).toProvider(SingleDatasetOutputTargetProvider.class);
         bind(ManifestWriter.class).to(JsonManifestWriter.class);
         bind(FileUtils.class).to(FileUtilsImpl.class);
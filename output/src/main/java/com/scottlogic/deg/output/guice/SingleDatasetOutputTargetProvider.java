@@ -18,7 +18,10 @@ package com.scottlogic.deg.output.guice;
 
 import com.google.inject.Inject;
 import com.google.inject.Provider;
+import com.google.inject.name.Named;
 import com.scottlogic.deg.output.outputtarget.FileOutputTarget;
+import com.scottlogic.deg.output.outputtarget.JdbcOutputTarget;
+import com.scottlogic.deg.output.outputtarget.ShardedOutputTarget;
 import com.scottlogic.deg.output.outputtarget.SingleDatasetOutputTarget;
 import com.scottlogic.deg.output.outputtarget.StdoutOutputTarget;
 
@@ -28,22 +31,38 @@ public class SingleDatasetOutputTargetProvider implements Provider<SingleDataset
     private final OutputConfigSource outputConfigSource;
     private final FileOutputTarget fileOutputTarget;
     private final StdoutOutputTarget stdoutOutputTarget;
+    private final Provider<ShardedOutputTarget> shardedOutputTarget;
+    private final boolean canOverwriteExistingTable;
 
     @Inject
     SingleDatasetOutputTargetProvider(
         OutputConfigSource outputConfigSource,
         FileOutputTarget fileOutputTarget,
-        StdoutOutputTarget stdoutOutputTarget){
+        StdoutOutputTarget stdoutOutputTarget,
+        Provider<ShardedOutputTarget> shardedOutputTarget,
+        @Named("config:canOverwriteOutputFiles") boolean canOverwriteExistingTable){
         this.outputConfigSource = outputConfigSource;
         this.fileOutputTarget = fileOutputTarget;
         this.stdoutOutputTarget = stdoutOutputTarget;
+        this.shardedOutputTarget = shardedOutputTarget;
+        this.canOverwriteExistingTable = canOverwriteExistingTable;
     }
 
     @Override
     public SingleDatasetOutputTarget get() {
+        if (outputConfigSource.getOutputJdbcUrl() != null) {
+            return new JdbcOutputTarget(
+                outputConfigSource.getOutputJdbcUrl(),
+                outputConfigSource.getOutputTableName(),
+                outputConfigSource.getOutputCommitSize(),
+                canOverwriteExistingTable);
+        }
         if (outputConfigSource.useStdOut()){
             return stdoutOutputTarget;
         }
+        if (outputConfigSource.getOutputShardCount() > 1) {
+            return shardedOutputTarget.get();
+        }
         return fileOutputTarget;
     }
 }
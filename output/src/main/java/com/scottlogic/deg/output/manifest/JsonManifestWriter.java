@@ -24,6 +24,7 @@ import com.scottlogic.deg.common.profile.ViolatedProfile;
 import com.scottlogic.deg.output.FileUtils;
 import com.scottlogic.deg.output.FileUtilsImpl;
 import com.scottlogic.deg.output.OutputPath;
+import com.scottlogic.deg.output.compression.OutputCompressor;
 
 import java.io.IOException;
 import java.nio.file.Files;
@@ -35,15 +36,17 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
- * write out a JSON manifest file during violation.
- * This file shows which rule has been violated in which output file.
+ * write out a JSON manifest file during violation, or when the output is split between several files.
+ * This file shows which rule has been violated in which output file, or how many rows are in each file.
  */
 public class JsonManifestWriter implements ManifestWriter {
     private final Path outputPath;
+    private final OutputCompressor outputCompressor;
 
     @Inject
-    public JsonManifestWriter(OutputPath outputPath){
+    public JsonManifestWriter(OutputPath outputPath, OutputCompressor outputCompressor){
         this.outputPath = outputPath.getPath();
+        this.outputCompressor = outputCompressor;
     }
 
     public void writeManifest(List<ViolatedProfile> result) throws IOException {
@@ -54,13 +57,18 @@ public class JsonManifestWriter implements ManifestWriter {
             .stream()
             .map(profile -> new ManifestDTO.TestCaseDTO(
                 intFormatter.format(dataSetIndex.getAndIncrement()),
-                Collections.singleton(profile.violatedRule.getRuleInformation().getDescription())))
+                Collections.singleton(profile.violatedRule.getRuleInformation().getDescription()),
+                outputCompressor.getCodecName()))
             .collect(Collectors.toList());
 
         write(new ManifestDTO(testCaseDtos), outputPath.resolve("manifest.json"));
     }
 
-    private void write(ManifestDTO manifest, Path filepath) throws IOException {
+    public void writeShardManifest(ShardManifestDTO manifest) throws IOException {
+        write(manifest, outputPath.resolve("manifest.json"));
+    }
+
+    private void write(Object manifest, Path filepath) throws IOException {
         ObjectMapper mapper = new ObjectMapper();
 
         String manifestAsJson = mapper.writerWithDefaultPrettyPrinter().writeValueAsString(manifest);
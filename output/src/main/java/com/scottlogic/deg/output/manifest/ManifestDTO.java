@@ -28,10 +28,12 @@ public class ManifestDTO {
     public static class TestCaseDTO {
         public final String filePath;
         public final Collection<String> violatedRules;
+        public final String compression;
 
-        public TestCaseDTO(String filePath, Collection<String> violatedRules) {
+        public TestCaseDTO(String filePath, Collection<String> violatedRules, String compression) {
             this.filePath = filePath;
             this.violatedRules = violatedRules;
+            this.compression = compression;
         }
     }
 }
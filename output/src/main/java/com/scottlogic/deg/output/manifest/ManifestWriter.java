@@ -23,4 +23,6 @@ import java.util.List;
 
 public interface ManifestWriter {
     void writeManifest(List<ViolatedProfile> result) throws IOException;
+
+    void writeShardManifest(ShardManifestDTO manifest) throws IOException;
 }
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.outputtarget;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Buffers output in a direct buffer and writes it straight to a channel, rather than through a PrintStream which
+ * takes a lock and may flush on every write.
+ *
+ * A call to flush() only writes the buffered bytes once at least flushBytes of them are waiting or flushMillis have
+ * passed since the channel was last written to, so writers that flush after every row or batch don't turn each flush
+ * into a system call. The buffer is always written once it fills, and on close.
+ *
+ * Bytes held back by flush() would otherwise wait until the writer next writes or flushes, which may be never if
+ * generation has stalled, so a timer checks every flushMillis and writes anything still buffered once flushMillis
+ * have passed since the channel was last written to. The timer and the writing thread share the buffer, so every
+ * method that touches it is synchronized, and a failure on the timer thread is rethrown by the writer's next call.
+ */
+class ChannelOutputStream extends OutputStream {
+    static final int BUFFER_SIZE = 1024 * 1024;
+
+    private final WritableByteChannel channel;
+    private final boolean closeChannel;
+    private final ByteBuffer buffer;
+    private final long flushBytes;
+    private final long flushNanos;
+    private final LongSupplier nanoTime;
+    private final ScheduledExecutorService flushTimer;
+    private long lastWriteNanos;
+    private IOException timerFailure;
+    private boolean closed;
+
+    ChannelOutputStream(WritableByteChannel channel, boolean closeChannel, long flushBytes, long flushMillis) {
+        this(channel, closeChannel, BUFFER_SIZE, flushBytes, flushMillis, System::nanoTime);
+    }
+
+    ChannelOutputStream(
+        WritableByteChannel channel,
+        boolean closeChannel,
+        int bufferSize,
+        long flushBytes,
+        long flushMillis,
+        LongSupplier nanoTime) {
+        this.channel = channel;
+        this.closeChannel = closeChannel;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        this.flushBytes = flushBytes;
+        this.flushNanos = flushMillis * 1_000_000;
+        this.nanoTime = nanoTime;
+        this.lastWriteNanos = nanoTime.getAsLong();
+        this.flushTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "output-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flushTimer.scheduleWithFixedDelay(this::flushIfIdle, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void write(int b) throws IOException {
+        checkNotClosed();
+        if (!buffer.hasRemaining()) {
+            writeBuffer();
+        }
+        buffer.put((byte) b);
+    }
+
+    @Override
+    public synchronized void write(byte[] bytes, int offset, int length) throws IOException {
+        checkNotClosed();
+        if (buffer.position() == 0 && length >= buffer.capacity()) {
+            writeFully(ByteBuffer.wrap(bytes, offset, length));
+            return;
+        }
+
+        while (length > 0) {
+            if (!buffer.hasRemaining()) {
+                writeBuffer();
+            }
+            int copied = Math.min(length, buffer.remaining());
+            buffer.put(bytes, offset, copied);
+            offset += copied;
+            length -= copied;
+        }
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        checkNotClosed();
+        if (buffer.position() >= flushBytes || nanoTime.getAsLong() - lastWriteNanos >= flushNanos) {
+            writeBuffer();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        flushTimer.shutdownNow();
+
+        try {
+            rethrowTimerFailure();
+            writeBuffer();
+        } finally {
+            if (closeChannel) {
+                channel.close();
+            }
+        }
+    }
+
+    /** Run by the timer: writes any buffered bytes once flushMillis have passed since the channel was last written to */
+    synchronized void flushIfIdle() {
+        if (closed || timerFailure != null || buffer.position() == 0 || nanoTime.getAsLong() - lastWriteNanos < flushNanos) {
+            return;
+        }
+
+        try {
+            writeBuffer();
+        } catch (IOException e) {
+            timerFailure = e;
+        }
+    }
+
+    private void writeBuffer() throws IOException {
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+
+    private void writeFully(ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        lastWriteNanos = nanoTime.getAsLong();
+    }
+
+    private void checkNotClosed() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        rethrowTimerFailure();
+    }
+
+    private void rethrowTimerFailure() throws IOException {
+        if (timerFailure != null) {
+            throw new IOException("Buffered output could not be written", timerFailure);
+        }
+    }
+}
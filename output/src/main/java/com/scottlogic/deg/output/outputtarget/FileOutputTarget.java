@@ -21,6 +21,7 @@ import com.google.inject.name.Named;
 import com.scottlogic.deg.common.profile.ProfileFields;
 import com.scottlogic.deg.output.FileUtils;
 import com.scottlogic.deg.output.OutputPath;
+import com.scottlogic.deg.output.compression.OutputCompressor;
 import com.scottlogic.deg.output.writer.DataSetWriter;
 import com.scottlogic.deg.output.writer.OutputWriterFactory;
 
@@ -34,24 +35,27 @@ public class FileOutputTarget implements SingleDatasetOutputTarget {
     private final Path filePath;
     private final boolean canOverwriteExistingFiles;
     private final OutputWriterFactory outputWriterFactory;
+    private final OutputCompressor outputCompressor;
     private final FileUtils fileUtils;
 
     @Inject
     public FileOutputTarget(
         OutputPath outputPath,
         OutputWriterFactory outputWriterFactory,
+        OutputCompressor outputCompressor,
         @Named("config:canOverwriteOutputFiles") boolean canOverwriteOutputFiles, FileUtils fileUtils) {
         this.canOverwriteExistingFiles = canOverwriteOutputFiles;
         this.outputWriterFactory = outputWriterFactory;
+        this.outputCompressor = outputCompressor;
         this.fileUtils = fileUtils;
         this.filePath = outputPath.getPath();
     }
 
     @Override
     public DataSetWriter openWriter(ProfileFields fields) throws IOException {
-        final OutputStream stream = new FileOutputStream(
+        final OutputStream stream = outputCompressor.compress(new FileOutputStream(
             this.filePath.toFile(),
-            false);
+            false));
 
         try {
             return outputWriterFactory.createWriter(stream, fields);
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.outputtarget;
+
+import com.scottlogic.deg.common.profile.ProfileFields;
+import com.scottlogic.deg.output.writer.DataSetWriter;
+import com.scottlogic.deg.output.writer.jdbc.JdbcDataSetWriter;
+import com.scottlogic.deg.output.writer.jdbc.SqlIdentifiers;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/** Represents a database table, reached through a JDBC url, as a target for data */
+public class JdbcOutputTarget implements SingleDatasetOutputTarget {
+    private final String url;
+    private final String tableName;
+    private final int commitSize;
+    private final boolean canOverwriteExistingTable;
+
+    public JdbcOutputTarget(String url, String tableName, int commitSize, boolean canOverwriteExistingTable) {
+        this.url = url;
+        this.tableName = tableName;
+        this.commitSize = commitSize;
+        this.canOverwriteExistingTable = canOverwriteExistingTable;
+    }
+
+    @Override
+    public DataSetWriter openWriter(ProfileFields fields) throws IOException {
+        Connection connection = connect();
+        try {
+            if (tableExists(connection)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("DROP TABLE " + SqlIdentifiers.quote(connection.getMetaData(), tableName));
+                }
+            }
+
+            return new JdbcDataSetWriter(connection, tableName, fields, commitSize);
+        } catch (SQLException e) {
+            closeQuietly(connection);
+            throw new IOException("Unable to replace table " + tableName, e);
+        } catch (IOException e) {
+            closeQuietly(connection);
+            throw e;
+        }
+    }
+
+    @Override
+    public void validate() throws OutputTargetValidationException, IOException {
+        Connection connection = connect();
+        try {
+            if (!SqlIdentifiers.canQuote(connection.getMetaData(), tableName)) {
+                throw new OutputTargetValidationException(
+                    "table name " + tableName + " can only be made of letters, digits and underscores, starting with a letter, " +
+                        "as the database does not support quoted identifiers");
+            }
+            if (!canOverwriteExistingTable && tableExists(connection)) {
+                throw new OutputTargetValidationException(
+                    "table " + tableName + " already exists; please use a different output table name or use the --replace option");
+            }
+        } catch (SQLException e) {
+            throw new IOException("Unable to check whether table " + tableName + " exists", e);
+        } finally {
+            closeQuietly(connection);
+        }
+    }
+
+    /**
+     * The cause isn't kept, as drivers may quote the url, with any credentials in it, in their message; instead its
+     * message is included with the url redacted
+     */
+    private Connection connect() throws IOException {
+        try {
+            return DriverManager.getConnection(url);
+        } catch (SQLException e) {
+            String redactedUrl = redact(url);
+            String cause = e.getMessage() == null ? e.toString() : e.getMessage().replace(url, redactedUrl);
+            throw new IOException(
+                "Unable to connect to " + redactedUrl + "; check the url and that its JDBC driver is on the classpath: " + cause);
+        }
+    }
+
+    /**
+     * The url without its properties, from the first ? or ;, nor any user and password given before an @, either of
+     * which may hold credentials
+     */
+    static String redact(String url) {
+        String redacted = url;
+        for (char propertiesSeparator : new char[] { '?', ';' }) {
+            int propertiesStart = redacted.indexOf(propertiesSeparator);
+            if (propertiesStart >= 0) {
+                redacted = redacted.substring(0, propertiesStart);
+            }
+        }
+
+        int credentialsEnd = redacted.lastIndexOf('@');
+        if (credentialsEnd < 0) {
+            return redacted;
+        }
+
+        // credentials start after the // of the authority, or otherwise the subprotocol, as in jdbc:oracle:thin:user/pw@
+        int authorityStart = redacted.lastIndexOf("//", credentialsEnd);
+        int credentialsStart = authorityStart >= 0
+            ? authorityStart + 2
+            : redacted.lastIndexOf(':', credentialsEnd) + 1;
+        return redacted.substring(0, credentialsStart) + redacted.substring(credentialsEnd + 1);
+    }
+
+    private boolean tableExists(Connection connection) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        String tableNamePattern = SqlIdentifiers.searchPattern(metaData, tableName);
+        try (ResultSet tables = metaData.getTables(null, null, tableNamePattern, new String[] { "TABLE" })) {
+            return tables.next();
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            // the original failure is more useful than a failure to close
+        }
+    }
+}
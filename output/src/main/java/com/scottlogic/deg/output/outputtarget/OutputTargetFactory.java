@@ -20,39 +20,68 @@ import com.google.inject.Inject;
 import com.google.inject.name.Named;
 import com.scottlogic.deg.output.FileUtils;
 import com.scottlogic.deg.output.OutputPath;
+import com.scottlogic.deg.output.compression.OutputCompressor;
+import com.scottlogic.deg.output.guice.OutputConfigSource;
 import com.scottlogic.deg.output.writer.OutputWriterFactory;
 
 import java.nio.file.Path;
+import java.util.Optional;
 
-/** Represents a directory specified by a user as a target for violation data */
+/**
+ * Represents a directory specified by a user as a target for violation data, or a database in which each set of
+ * violation data is written to its own table
+ */
 public class OutputTargetFactory {
     private final Path directoryPath;
     private final boolean canOverwriteExistingFiles;
     private final OutputWriterFactory formatOfViolationDatasets;
+    private final OutputCompressor compressionOfViolationDatasets;
     private final FileUtils fileUtils;
+    private final OutputConfigSource configSource;
 
     @Inject
     public OutputTargetFactory(
         OutputPath directoryPath,
         OutputWriterFactory formatOfViolationDatasets,
+        OutputCompressor compressionOfViolationDatasets,
         @Named("config:canOverwriteOutputFiles") boolean canOverwriteExistingFiles,
-        FileUtils fileUtils) {
+        FileUtils fileUtils,
+        OutputConfigSource configSource) {
         this.directoryPath = directoryPath.getPath();
         this.canOverwriteExistingFiles = canOverwriteExistingFiles;
         this.formatOfViolationDatasets = formatOfViolationDatasets;
+        this.compressionOfViolationDatasets = compressionOfViolationDatasets;
         this.fileUtils = fileUtils;
+        this.configSource = configSource;
     }
 
     public SingleDatasetOutputTarget create(String name) {
-        String filename =
-            formatOfViolationDatasets.getFileExtensionWithoutDot()
-                .map(extension -> name + "." + extension)
-                .orElse(name);
+        if (configSource.getOutputJdbcUrl() != null) {
+            return new JdbcOutputTarget(
+                configSource.getOutputJdbcUrl(),
+                configSource.getOutputTableName() + "_" + name,
+                configSource.getOutputCommitSize(),
+                canOverwriteExistingFiles);
+        }
 
         return new FileOutputTarget(
-            new OutputPath(directoryPath.resolve(filename)),
+            new OutputPath(directoryPath.resolve(getFileName(name))),
             formatOfViolationDatasets,
+            compressionOfViolationDatasets,
             canOverwriteExistingFiles,
             fileUtils);
     }
+
+    /** the name, within the directory, of the file the target with the given name writes to */
+    public String getFileName(String name) {
+        return withExtension(
+            withExtension(name, formatOfViolationDatasets.getFileExtensionWithoutDot()),
+            compressionOfViolationDatasets.getFileExtensionWithoutDot());
+    }
+
+    private static String withExtension(String name, Optional<String> extensionWithoutDot) {
+        return extensionWithoutDot
+            .map(extension -> name + "." + extension)
+            .orElse(name);
+    }
 }
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.outputtarget;
+
+import com.google.inject.Inject;
+import com.google.inject.name.Named;
+import com.scottlogic.deg.common.output.GeneratedObject;
+import com.scottlogic.deg.common.output.RowBatch;
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.ProfileFields;
+import com.scottlogic.deg.output.FileUtils;
+import com.scottlogic.deg.output.OutputPath;
+import com.scottlogic.deg.output.guice.OutputConfigSource;
+import com.scottlogic.deg.output.manifest.ManifestWriter;
+import com.scottlogic.deg.output.manifest.ShardManifestDTO;
+import com.scottlogic.deg.output.writer.DataSetWriter;
+import com.scottlogic.deg.output.writer.ShardedDataSetWriter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Represents a directory specified by a user as a target for data split between several files */
+public class ShardedOutputTarget implements SingleDatasetOutputTarget {
+    private final Path directoryPath;
+    private final int shardCount;
+    private final String routingFieldName;
+    private final boolean canOverwriteExistingFiles;
+    private final OutputTargetFactory outputTargetFactory;
+    private final ManifestWriter manifestWriter;
+    private final FileUtils fileUtils;
+    private final List<String> shardNames = new ArrayList<>();
+
+    @Inject
+    public ShardedOutputTarget(
+        OutputPath directoryPath,
+        OutputConfigSource configSource,
+        OutputTargetFactory outputTargetFactory,
+        ManifestWriter manifestWriter,
+        @Named("config:canOverwriteOutputFiles") boolean canOverwriteExistingFiles,
+        FileUtils fileUtils) {
+        this.directoryPath = directoryPath.getPath();
+        this.shardCount = configSource.getOutputShardCount();
+        this.routingFieldName = configSource.getOutputShardField();
+        this.canOverwriteExistingFiles = canOverwriteExistingFiles;
+        this.outputTargetFactory = outputTargetFactory;
+        this.manifestWriter = manifestWriter;
+        this.fileUtils = fileUtils;
+
+        for (int shard = 1; shard <= shardCount; shard++) {
+            shardNames.add(String.format("out-%04d", shard));
+        }
+    }
+
+    @Override
+    public DataSetWriter openWriter(ProfileFields fields) throws IOException {
+        Field routingField = getRoutingField(fields);
+
+        List<DataSetWriter> shardWriters = new ArrayList<>();
+        try {
+            for (String shardName : shardNames) {
+                shardWriters.add(outputTargetFactory.create(shardName).openWriter(fields));
+            }
+        } catch (Exception e) {
+            for (DataSetWriter shardWriter : shardWriters) {
+                shardWriter.close();
+            }
+            throw e;
+        }
+
+        ShardedDataSetWriter writer = new ShardedDataSetWriter(
+            shardWriters,
+            fields,
+            routingField,
+            RowBatch.DEFAULT_CAPACITY);
+
+        return new DataSetWriter() {
+            /** whether writing has failed, in which case the row counts don't describe what was written */
+            private boolean failed;
+
+            @Override
+            public void writeRow(GeneratedObject row) throws IOException {
+                try {
+                    writer.writeRow(row);
+                } catch (IOException | RuntimeException e) {
+                    failed = true;
+                    throw e;
+                }
+            }
+
+            @Override
+            public void writeBatch(RowBatch batch) throws IOException {
+                try {
+                    writer.writeBatch(batch);
+                } catch (IOException | RuntimeException e) {
+                    failed = true;
+                    throw e;
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                writer.close();
+                if (!failed) {
+                    writeManifest(writer.getRowCounts());
+                }
+            }
+        };
+    }
+
+    @Override
+    public void validate() throws OutputTargetValidationException, IOException {
+        if (!fileUtils.exists(directoryPath)) {
+            fileUtils.createDirectories(directoryPath);
+        } else if (!fileUtils.isDirectory(directoryPath)) {
+            throw new OutputTargetValidationException(
+                "not a directory; output split between several files needs a directory, please enter a valid directory name");
+        } else if (!canOverwriteExistingFiles && fileUtils.exists(directoryPath.resolve("manifest.json"))) {
+            throw new OutputTargetValidationException(
+                "manifest.json already exists; please use a different output directory or use the --replace option");
+        }
+
+        for (String shardName : shardNames) {
+            outputTargetFactory.create(shardName).validate();
+        }
+    }
+
+    private Field getRoutingField(ProfileFields fields) {
+        if (routingFieldName == null) {
+            return null;
+        }
+
+        try {
+            return fields.getByName(routingFieldName);
+        } catch (IllegalArgumentException e) {
+            throw new OutputTargetValidationException(
+                "output shard field " + routingFieldName + " is not a field of the profile");
+        }
+    }
+
+    private void writeManifest(long[] rowCounts) throws IOException {
+        List<ShardManifestDTO.ShardDTO> shards = new ArrayList<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            shards.add(new ShardManifestDTO.ShardDTO(
+                outputTargetFactory.getFileName(shardNames.get(shard)),
+                rowCounts[shard]));
+        }
+
+        manifestWriter.writeShardManifest(new ShardManifestDTO(routingFieldName, shards));
+    }
+}
@@ -18,21 +18,44 @@ package com.scottlogic.deg.output.outputtarget;
 
 import com.google.inject.Inject;
 import com.scottlogic.deg.common.profile.ProfileFields;
+import com.scottlogic.deg.output.compression.OutputCompressor;
+import com.scottlogic.deg.output.guice.OutputConfigSource;
 import com.scottlogic.deg.output.writer.DataSetWriter;
 import com.scottlogic.deg.output.writer.OutputWriterFactory;
 
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 
 public class StdoutOutputTarget implements SingleDatasetOutputTarget{
     private final OutputWriterFactory formattingWriterFactory;
+    private final OutputCompressor outputCompressor;
+    private final OutputConfigSource configSource;
 
     @Inject
-    public StdoutOutputTarget(OutputWriterFactory formattingWriterFactory) {
+    public StdoutOutputTarget(
+        OutputWriterFactory formattingWriterFactory,
+        OutputCompressor outputCompressor,
+        OutputConfigSource configSource) {
         this.formattingWriterFactory = formattingWriterFactory;
+        this.outputCompressor = outputCompressor;
+        this.configSource = configSource;
     }
 
+    /**
+     * Writes to the standard output file descriptor through a channel, bypassing System.out. Anything already
+     * printed to System.out is flushed first so that it comes before the data, and the descriptor is left open
+     */
     @Override
     public DataSetWriter openWriter(ProfileFields fields) throws IOException {
-        return formattingWriterFactory.createWriter(System.out, fields);
+        System.out.flush();
+        OutputStream stream = new ChannelOutputStream(
+            new FileOutputStream(FileDescriptor.out).getChannel(),
+            false,
+            configSource.getStdoutFlushBytes(),
+            configSource.getStdoutFlushMillis());
+
+        return formattingWriterFactory.createWriter(outputCompressor.compress(stream), fields);
     }
 }
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.outputtarget;
+
+import com.scottlogic.deg.common.profile.ProfileFields;
+import com.scottlogic.deg.output.compression.OutputCompressor;
+import com.scottlogic.deg.output.writer.DataSetWriter;
+import com.scottlogic.deg.output.writer.OutputWriterFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/** Writes the data to a stream opened by the caller, such as the body of a response */
+public class StreamOutputTarget implements SingleDatasetOutputTarget {
+    private final OutputStream stream;
+    private final OutputWriterFactory formattingWriterFactory;
+    private final OutputCompressor outputCompressor;
+
+    public StreamOutputTarget(
+        OutputStream stream,
+        OutputWriterFactory formattingWriterFactory,
+        OutputCompressor outputCompressor) {
+        this.stream = stream;
+        this.formattingWriterFactory = formattingWriterFactory;
+        this.outputCompressor = outputCompressor;
+    }
+
+    @Override
+    public DataSetWriter openWriter(ProfileFields fields) throws IOException {
+        return formattingWriterFactory.createWriter(outputCompressor.compress(stream), fields);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.writer;
+
+import com.scottlogic.deg.common.output.GeneratedObject;
+import com.scottlogic.deg.common.output.RowBatch;
+import com.scottlogic.deg.common.profile.ProfileFields;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects rows into a batch and writes each batch with a single call to the underlying writer. A batch is written
+ * when it fills, or when a row is added once the batch's first row has waited for longer than the maximum delay, so
+ * that slowly generated rows still reach the output promptly.
+ */
+public class BatchingDataSetWriter implements DataSetWriter {
+    public static final long DEFAULT_MAX_DELAY_MILLIS = 100;
+
+    private final DataSetWriter writer;
+    private final RowBatch batch;
+    private final long maxDelayNanos;
+
+    /** when the first row of the current batch was added, if the batch has any rows */
+    private long batchStartedNanos;
+
+    /** a writer that only writes a batch when it fills, or on close */
+    public BatchingDataSetWriter(DataSetWriter writer, ProfileFields fields, int batchSize) {
+        this(writer, fields, batchSize, Long.MAX_VALUE);
+    }
+
+    public BatchingDataSetWriter(DataSetWriter writer, ProfileFields fields, int batchSize, long maxDelayMillis) {
+        this.writer = writer;
+        this.batch = new RowBatch(fields, batchSize);
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+    }
+
+    @Override
+    public void writeRow(GeneratedObject row) throws IOException {
+        long now = System.nanoTime();
+        if (batch.isEmpty()) {
+            batchStartedNanos = now;
+        }
+        batch.add(row);
+
+        if (batch.isFull() || now - batchStartedNanos >= maxDelayNanos) {
+            flushBatch();
+        }
+    }
+
+    /** Write any rows held back in the current batch, e.g. because no more rows will be available for a while */
+    public void flushBatch() throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        writer.writeBatch(batch);
+        batch.clear();
+    }
+
+    @Override
+    public void writeBatch(RowBatch rows) throws IOException {
+        flushBatch();
+        writer.writeBatch(rows);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flushBatch();
+        } finally {
+            writer.close();
+        }
+    }
+}
@@ -17,6 +17,7 @@
 package com.scottlogic.deg.output.writer;
 
 import com.scottlogic.deg.common.output.GeneratedObject;
+import com.scottlogic.deg.common.output.RowBatch;
 
 import java.io.Closeable;
 import java.io.IOException;
@@ -28,4 +29,11 @@ import java.io.IOException;
  **/
 public interface DataSetWriter extends Closeable {
     void writeRow(GeneratedObject row) throws IOException;
+
+    /** Write every row of the batch, in order. Writers that only support single rows write them one at a time. */
+    default void writeBatch(RowBatch batch) throws IOException {
+        for (int rowIndex = 0; rowIndex < batch.size(); rowIndex++) {
+            writeRow(batch.getRow(rowIndex));
+        }
+    }
 }
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.writer;
+
+import java.util.function.Function;
+
+/**
+ * Remembers how recently written values were encoded, keyed by the identity of the value.
+ *
+ * Values from a set (inSet, setFromFile, names) are the same objects every time they're emitted, so a writer can
+ * reuse their encoding rather than formatting, escaping and encoding them again for every row. Each value can only be
+ * held in one slot, chosen by its identity hash, so the cache never grows and a value that's only written once just
+ * replaces whatever was in its slot.
+ */
+public class EncodedValueCache<T> {
+    private static final int DEFAULT_SLOTS = 4096;
+
+    private final Object[] values;
+    private final Object[] encodings;
+    private final int slotMask;
+
+    public EncodedValueCache() {
+        this(DEFAULT_SLOTS);
+    }
+
+    /** @param slots the number of values that can be held, rounded up to a power of two */
+    public EncodedValueCache(int slots) {
+        int size = Integer.highestOneBit(Math.max(1, slots - 1)) << 1;
+        this.values = new Object[size];
+        this.encodings = new Object[size];
+        this.slotMask = size - 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T getEncoding(Object value, Function<Object, T> encode) {
+        int slot = System.identityHashCode(value) & slotMask;
+        if (values[slot] == value) {
+            return (T) encodings[slot];
+        }
+
+        T encoding = encode.apply(value);
+        values[slot] = value;
+        encodings[slot] = encoding;
+        return encoding;
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.writer;
+
+import com.scottlogic.deg.common.output.GeneratedObject;
+import com.scottlogic.deg.common.output.RowBatch;
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.ProfileFields;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splits rows between several writers, each of which formats and writes its rows on its own thread.
+ *
+ * Rows are routed round-robin, or by the hash of the value of a routing field so that rows with equal values of that
+ * field end up in the same shard. Each shard has a fixed number of batches which are passed to its thread as they are
+ * filled and handed back once written, so a shard that can't keep up holds up the caller rather than buffering
+ * without limit.
+ */
+public class ShardedDataSetWriter implements DataSetWriter {
+    private static final int BATCHES_PER_SHARD = 3;
+
+    private final ShardThread[] shards;
+    private final RowBatch[] fillingBatches;
+    private final long[] rowCounts;
+    private final Field routingField;
+    private int nextShard;
+
+    public ShardedDataSetWriter(List<DataSetWriter> shardWriters, ProfileFields fields, Field routingField, int batchSize) {
+        this.routingField = routingField;
+        this.shards = new ShardThread[shardWriters.size()];
+        this.fillingBatches = new RowBatch[shardWriters.size()];
+        this.rowCounts = new long[shardWriters.size()];
+
+        for (int shard = 0; shard < shards.length; shard++) {
+            shards[shard] = new ShardThread(shardWriters.get(shard), fields, batchSize, shard + 1);
+            shards[shard].start();
+        }
+    }
+
+    @Override
+    public void writeRow(GeneratedObject row) throws IOException {
+        int shard = route(row);
+
+        RowBatch batch = fillingBatches[shard];
+        if (batch == null) {
+            batch = fillingBatches[shard] = shards[shard].takeEmptyBatch();
+        }
+
+        batch.add(row);
+        rowCounts[shard]++;
+
+        if (batch.isFull()) {
+            shards[shard].write(batch);
+            fillingBatches[shard] = null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        //every shard is finished, even after one has failed, so that each shard's writer is closed
+        IOException failure = null;
+        for (int shard = 0; shard < shards.length; shard++) {
+            try {
+                if (fillingBatches[shard] != null && !fillingBatches[shard].isEmpty()) {
+                    shards[shard].write(fillingBatches[shard]);
+                }
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+            fillingBatches[shard] = null;
+            shards[shard].finish();
+        }
+
+        for (ShardThread shard : shards) {
+            try {
+                shard.awaitFinished();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /** the number of rows routed to each shard, in shard order */
+    public long[] getRowCounts() {
+        return rowCounts.clone();
+    }
+
+    private int route(GeneratedObject row) {
+        if (routingField != null) {
+            return Math.floorMod(Objects.hashCode(row.getFormattedValue(routingField)), shards.length);
+        }
+
+        int shard = nextShard;
+        nextShard = (nextShard + 1) % shards.length;
+        return shard;
+    }
+
+    private static class ShardThread extends Thread {
+        private final DataSetWriter writer;
+        private final BlockingQueue<RowBatch> emptyBatches = new ArrayBlockingQueue<>(BATCHES_PER_SHARD);
+        private final BlockingQueue<RowBatch> fullBatches = new LinkedBlockingQueue<>();
+        private final RowBatch endOfShard;
+        private volatile Throwable failure;
+
+        ShardThread(DataSetWriter writer, ProfileFields fields, int batchSize, int shardNumber) {
+            super("output-shard-" + shardNumber);
+            setDaemon(true);
+            this.writer = writer;
+            this.endOfShard = new RowBatch(fields, 1);
+            for (int batch = 0; batch < BATCHES_PER_SHARD; batch++) {
+                emptyBatches.add(new RowBatch(fields, batchSize));
+            }
+        }
+
+        @Override
+        public void run() {
+            try (DataSetWriter shardWriter = writer) {
+                RowBatch batch;
+                while ((batch = fullBatches.take()) != endOfShard) {
+                    shardWriter.writeBatch(batch);
+                    batch.clear();
+                    emptyBatches.add(batch);
+                }
+            } catch (Throwable e) {
+                failure = e;
+            }
+        }
+
+        RowBatch takeEmptyBatch() throws IOException {
+            try {
+                RowBatch batch;
+                while ((batch = emptyBatches.poll(100, TimeUnit.MILLISECONDS)) == null) {
+                    throwIfFailed();
+                }
+                return batch;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for " + getName() + " to write its rows");
+            }
+        }
+
+        void write(RowBatch batch) throws IOException {
+            throwIfFailed();
+            fullBatches.add(batch);
+        }
+
+        void finish() {
+            fullBatches.add(endOfShard);
+        }
+
+        void awaitFinished() throws IOException {
+            try {
+                join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for " + getName() + " to write its rows");
+            }
+            throwIfFailed();
+        }
+
+        private void throwIfFailed() throws IOException {
+            if (failure != null) {
+                throw new IOException("Unable to write " + getName(), failure);
+            }
+        }
+    }
+}
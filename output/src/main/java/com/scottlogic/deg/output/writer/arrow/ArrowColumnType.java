@@ -0,0 +1,253 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.writer.arrow;
+
+import com.scottlogic.deg.common.profile.FieldType;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * The Arrow type of a column, and how its values are encoded into the buffers of a record batch.
+ *
+ * The type is chosen from the type the profile declares for the field, so that it holds every value the field can
+ * take: whole numbers that fit in a long as 64 bit integers, other numbers as 128 bit decimals, or 256 bit decimals
+ * if they need more than 38 digits, datetimes as timestamps, and strings and untyped fields as strings.
+ */
+abstract class ArrowColumnType {
+    private static final int MAX_DECIMAL128_PRECISION = 38;
+    private static final int MAX_DECIMAL256_PRECISION = 76;
+
+    /** the id of the type in Arrow's Type union */
+    abstract int getTypeId();
+
+    /** the Arrow type table for the schema */
+    abstract FlatBufferEncoder.Table getTypeTable();
+
+    /** whether the value can be written to a column of this type */
+    abstract boolean canWrite(Object value);
+
+    /** append the buffers (after the validity bitmap) for the first rowCount values to the body */
+    abstract void writeBuffers(Object[] values, int rowCount, RecordBatchBody body) throws IOException;
+
+    static ArrowColumnType forField(FieldType fieldType) {
+        if (!fieldType.getType().isPresent()) {
+            return new Utf8();
+        }
+
+        switch (fieldType.getType().get()) {
+            case NUMERIC:
+                if (fieldType.isNumericLong()) {
+                    return new Int64();
+                }
+                if (fieldType.getNumericPrecision() <= MAX_DECIMAL128_PRECISION) {
+                    return new Decimal(fieldType.getNumericPrecision(), fieldType.getNumericScale(), 128);
+                }
+                if (fieldType.getNumericPrecision() <= MAX_DECIMAL256_PRECISION) {
+                    return new Decimal(fieldType.getNumericPrecision(), fieldType.getNumericScale(), 256);
+                }
+                return new Utf8();
+            case DATETIME:
+                return new Timestamp();
+            default:
+                return new Utf8();
+        }
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        return value instanceof BigDecimal
+            ? (BigDecimal) value
+            : new BigDecimal(value.toString());
+    }
+
+    static class Utf8 extends ArrowColumnType {
+        @Override
+        int getTypeId() {
+            return 5;
+        }
+
+        @Override
+        FlatBufferEncoder.Table getTypeTable() {
+            return new FlatBufferEncoder.Table();
+        }
+
+        @Override
+        boolean canWrite(Object value) {
+            return true;
+        }
+
+        @Override
+        void writeBuffers(Object[] values, int rowCount, RecordBatchBody body) {
+            byte[][] encoded = new byte[rowCount][];
+            int[] offsets = new int[rowCount + 1];
+            for (int index = 0; index < rowCount; index++) {
+                encoded[index] = values[index] == null
+                    ? new byte[0]
+                    : toText(values[index]).getBytes(StandardCharsets.UTF_8);
+                offsets[index + 1] = offsets[index] + encoded[index].length;
+            }
+
+            body.startBuffer();
+            for (int offset : offsets) {
+                body.putInt(offset);
+            }
+            body.endBuffer();
+
+            body.startBuffer();
+            for (byte[] value : encoded) {
+                body.putBytes(value);
+            }
+            body.endBuffer();
+        }
+    }
+
+    private static String toText(Object value) {
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).toPlainString();
+        }
+        if (value instanceof OffsetDateTime) {
+            return DateTimeFormatter.ISO_OFFSET_DATE_TIME.format((OffsetDateTime) value);
+        }
+        return value.toString();
+    }
+
+    static class Int64 extends ArrowColumnType {
+        @Override
+        int getTypeId() {
+            return 2;
+        }
+
+        @Override
+        FlatBufferEncoder.Table getTypeTable() {
+            return new FlatBufferEncoder.Table()
+                .addInt(0, 64)
+                .addBoolean(1, true);
+        }
+
+        @Override
+        boolean canWrite(Object value) {
+            if (!(value instanceof Number)) {
+                return false;
+            }
+
+            try {
+                toBigDecimal(value).longValueExact();
+                return true;
+            } catch (ArithmeticException e) {
+                return false;
+            }
+        }
+
+        @Override
+        void writeBuffers(Object[] values, int rowCount, RecordBatchBody body) {
+            body.startBuffer();
+            for (int index = 0; index < rowCount; index++) {
+                body.putLong(values[index] == null ? 0 : toBigDecimal(values[index]).longValueExact());
+            }
+            body.endBuffer();
+        }
+    }
+
+    static class Decimal extends ArrowColumnType {
+        private final int precision;
+        private final int scale;
+        private final int bitWidth;
+
+        Decimal(int precision, int scale, int bitWidth) {
+            this.precision = precision;
+            this.scale = scale;
+            this.bitWidth = bitWidth;
+        }
+
+        @Override
+        int getTypeId() {
+            return 7;
+        }
+
+        @Override
+        FlatBufferEncoder.Table getTypeTable() {
+            return new FlatBufferEncoder.Table()
+                .addInt(0, precision)
+                .addInt(1, scale)
+                .addInt(2, bitWidth);
+        }
+
+        @Override
+        boolean canWrite(Object value) {
+            if (!(value instanceof Number)) {
+                return false;
+            }
+
+            BigDecimal number = toBigDecimal(value).stripTrailingZeros();
+            return number.scale() <= scale
+                && number.precision() - number.scale() <= precision - scale;
+        }
+
+        @Override
+        void writeBuffers(Object[] values, int rowCount, RecordBatchBody body) {
+            body.startBuffer();
+            for (int index = 0; index < rowCount; index++) {
+                BigInteger unscaled = values[index] == null
+                    ? BigInteger.ZERO
+                    : toBigDecimal(values[index]).setScale(scale).unscaledValue();
+
+                //little endian two's complement, one long at a time
+                for (int word = 0; word < bitWidth / 64; word++) {
+                    body.putLong(unscaled.shiftRight(word * 64).longValue());
+                }
+            }
+            body.endBuffer();
+        }
+    }
+
+    static class Timestamp extends ArrowColumnType {
+        private static final int MICROSECOND = 2;
+
+        @Override
+        int getTypeId() {
+            return 10;
+        }
+
+        @Override
+        FlatBufferEncoder.Table getTypeTable() {
+            return new FlatBufferEncoder.Table()
+                .addShort(0, MICROSECOND)
+                .addReference(1, new FlatBufferEncoder.Text("UTC"));
+        }
+
+        @Override
+        boolean canWrite(Object value) {
+            return value instanceof OffsetDateTime;
+        }
+
+        @Override
+        void writeBuffers(Object[] values, int rowCount, RecordBatchBody body) {
+            body.startBuffer();
+            for (int index = 0; index < rowCount; index++) {
+                OffsetDateTime value = (OffsetDateTime) values[index];
+                body.putLong(value == null
+                    ? 0
+                    : value.toEpochSecond() * 1_000_000 + value.getNano() / 1_000);
+            }
+            body.endBuffer();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.writer.arrow;
+
+import com.scottlogic.deg.common.output.GeneratedObject;
+import com.scottlogic.deg.common.output.RowBatch;
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.ProfileFields;
+import com.scottlogic.deg.output.writer.DataSetWriter;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes rows in the Arrow IPC streaming format: a schema message, then a record batch message for each batch of
+ * rows, then an end-of-stream marker
+ */
+class ArrowDataSetWriter implements DataSetWriter {
+    private static final int METADATA_VERSION_V5 = 4;
+    private static final int SCHEMA_HEADER = 1;
+    private static final int RECORD_BATCH_HEADER = 3;
+    private static final int CONTINUATION_MARKER = 0xFFFFFFFF;
+
+    private final OutputStream stream;
+    private final Field[] fields;
+    private final RowBatch pendingRows;
+    private final ArrowColumnType[] columnTypes;
+    private final RecordBatchBody body = new RecordBatchBody();
+    private boolean schemaWritten;
+
+    private ArrowDataSetWriter(OutputStream stream, ProfileFields fields) {
+        this.stream = stream;
+        this.fields = fields.stream().toArray(Field[]::new);
+        this.columnTypes = fields.stream()
+            .map(field -> ArrowColumnType.forField(fields.getType(field)))
+            .toArray(ArrowColumnType[]::new);
+        this.pendingRows = new RowBatch(fields, RowBatch.DEFAULT_CAPACITY);
+    }
+
+    static DataSetWriter open(OutputStream stream, ProfileFields fields) {
+        return new ArrowDataSetWriter(new BufferedOutputStream(stream, 1 << 16), fields);
+    }
+
+    @Override
+    public void writeRow(GeneratedObject row) throws IOException {
+        pendingRows.add(row);
+
+        if (pendingRows.isFull()) {
+            writePendingRows();
+        }
+    }
+
+    @Override
+    public void writeBatch(RowBatch batch) throws IOException {
+        writePendingRows();
+        writeRecordBatch(batch);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            writePendingRows();
+            if (!schemaWritten) {
+                writeSchema();
+            }
+
+            writeInt(CONTINUATION_MARKER);
+            writeInt(0);
+        } finally {
+            stream.close();
+        }
+    }
+
+    private void writePendingRows() throws IOException {
+        if (pendingRows.isEmpty()) {
+            return;
+        }
+
+        writeRecordBatch(pendingRows);
+        pendingRows.clear();
+    }
+
+    private void writeRecordBatch(RowBatch batch) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (!schemaWritten) {
+            writeSchema();
+        }
+
+        body.clear();
+        long[] nodes = new long[fields.length * 2];
+        for (int fieldIndex = 0; fieldIndex < fields.length; fieldIndex++) {
+            Object[] values = batch.getColumn(fields[fieldIndex]);
+            checkValuesCanBeWritten(fieldIndex, values, batch.size());
+
+            nodes[fieldIndex * 2] = batch.size();
+            nodes[fieldIndex * 2 + 1] = body.putValidity(values, batch.size());
+            columnTypes[fieldIndex].writeBuffers(values, batch.size(), body);
+        }
+
+        FlatBufferEncoder.Table recordBatch = new FlatBufferEncoder.Table()
+            .addLong(0, batch.size())
+            .addReference(1, new FlatBufferEncoder.LongPairVector(nodes))
+            .addReference(2, new FlatBufferEncoder.LongPairVector(body.getBuffers()));
+
+        writeMessage(RECORD_BATCH_HEADER, recordBatch, body.getLength());
+        body.writeTo(stream);
+        stream.flush();
+    }
+
+    private void writeSchema() throws IOException {
+        List<FlatBufferEncoder.Table> schemaFields = new ArrayList<>();
+        for (int fieldIndex = 0; fieldIndex < fields.length; fieldIndex++) {
+            schemaFields.add(new FlatBufferEncoder.Table()
+                .addReference(0, new FlatBufferEncoder.Text(fields[fieldIndex].name))
+                .addBoolean(1, true)
+                .addByte(2, columnTypes[fieldIndex].getTypeId())
+                .addReference(3, columnTypes[fieldIndex].getTypeTable())
+                .addReference(5, new FlatBufferEncoder.TableVector(new ArrayList<>())));
+        }
+
+        FlatBufferEncoder.Table schema = new FlatBufferEncoder.Table()
+            .addShort(0, 0)
+            .addReference(1, new FlatBufferEncoder.TableVector(schemaFields));
+
+        writeMessage(SCHEMA_HEADER, schema, 0);
+        schemaWritten = true;
+    }
+
+    private void checkValuesCanBeWritten(int fieldIndex, Object[] values, int rowCount) throws IOException {
+        for (int index = 0; index < rowCount; index++) {
+            if (values[index] != null && !columnTypes[fieldIndex].canWrite(values[index])) {
+                throw new IOException(String.format(
+                    "Value %s of field %s cannot be written to the Arrow column type declared for the field",
+                    values[index],
+                    fields[fieldIndex].name));
+            }
+        }
+    }
+
+    private void writeMessage(int headerType, FlatBufferEncoder.Table header, long bodyLength) throws IOException {
+        byte[] metadata = FlatBufferEncoder.encode(new FlatBufferEncoder.Table()
+            .addShort(0, METADATA_VERSION_V5)
+            .addByte(1, headerType)
+            .addReference(2, header)
+            .addLong(3, bodyLength));
+
+        writeInt(CONTINUATION_MARKER);
+        writeInt(metadata.length);
+        stream.write(metadata);
+    }
+
+    private void writeInt(int value) throws IOException {
+        stream.write(value);
+        stream.write(value >>> 8);
+        stream.write(value >>> 16);
+        stream.write(value >>> 24);
+    }
+}
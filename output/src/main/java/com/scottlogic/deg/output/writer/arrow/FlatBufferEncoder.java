@@ -0,0 +1,247 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.writer.arrow;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Encodes the small flatbuffers that make up Arrow IPC message metadata.
+ *
+ * Objects are laid out front to back: each table is preceded by its vtable and followed by the objects it refers
+ * to, so every reference is a forward (unsigned) offset as the format requires.
+ */
+class FlatBufferEncoder {
+    private byte[] bytes = new byte[256];
+    private int position;
+
+    /**
+     * Encode the buffer with the given root table, padded to a multiple of 8 bytes
+     */
+    static byte[] encode(Table root) {
+        FlatBufferEncoder encoder = new FlatBufferEncoder();
+        encoder.position = 4;
+        int rootPosition = root.write(encoder);
+        encoder.putInt(0, rootPosition);
+        encoder.align(8);
+
+        return Arrays.copyOf(encoder.bytes, encoder.position);
+    }
+
+    abstract static class Node {
+        /** write the object and everything it refers to, returning the position that references should point to */
+        abstract int write(FlatBufferEncoder encoder);
+    }
+
+    static class Table extends Node {
+        private final List<Slot> slots = new ArrayList<>();
+
+        Table addByte(int id, int value) {
+            slots.add(new Slot(id, 1, value, null));
+            return this;
+        }
+
+        Table addBoolean(int id, boolean value) {
+            return addByte(id, value ? 1 : 0);
+        }
+
+        Table addShort(int id, int value) {
+            slots.add(new Slot(id, 2, value, null));
+            return this;
+        }
+
+        Table addInt(int id, int value) {
+            slots.add(new Slot(id, 4, value, null));
+            return this;
+        }
+
+        Table addLong(int id, long value) {
+            slots.add(new Slot(id, 8, value, null));
+            return this;
+        }
+
+        Table addReference(int id, Node node) {
+            slots.add(new Slot(id, 4, 0, node));
+            return this;
+        }
+
+        @Override
+        int write(FlatBufferEncoder encoder) {
+            //inline layout: the vtable offset, then the fields largest first so each is aligned to its size
+            List<Slot> ordered = new ArrayList<>(slots);
+            ordered.sort((a, b) -> Integer.compare(b.size, a.size));
+
+            int fieldCount = slots.stream().mapToInt(slot -> slot.id + 1).max().orElse(0);
+            int[] fieldOffsets = new int[fieldCount];
+            int[] slotOffsets = new int[ordered.size()];
+            int tableSize = 4;
+            for (int index = 0; index < ordered.size(); index++) {
+                Slot slot = ordered.get(index);
+                tableSize = alignTo(tableSize, slot.size);
+                slotOffsets[index] = tableSize;
+                fieldOffsets[slot.id] = tableSize;
+                tableSize += slot.size;
+            }
+
+            int vtablePosition = encoder.align(2);
+            encoder.putShort(4 + fieldCount * 2);
+            encoder.putShort(tableSize);
+            for (int fieldOffset : fieldOffsets) {
+                encoder.putShort(fieldOffset);
+            }
+
+            //the table is 8 byte aligned, so that fields aligned within it are aligned within the buffer
+            int tablePosition = encoder.align(8);
+            encoder.reserve(tableSize);
+            encoder.putInt(tablePosition, tablePosition - vtablePosition);
+            for (int index = 0; index < ordered.size(); index++) {
+                Slot slot = ordered.get(index);
+                if (slot.node == null) {
+                    encoder.putScalar(tablePosition + slotOffsets[index], slot.size, slot.value);
+                }
+            }
+            encoder.position = tablePosition + tableSize;
+
+            for (int index = 0; index < ordered.size(); index++) {
+                Slot slot = ordered.get(index);
+                if (slot.node != null) {
+                    int referencePosition = tablePosition + slotOffsets[index];
+                    int nodePosition = slot.node.write(encoder);
+                    encoder.putInt(referencePosition, nodePosition - referencePosition);
+                }
+            }
+
+            return tablePosition;
+        }
+    }
+
+    static class Text extends Node {
+        private final byte[] value;
+
+        Text(String value) {
+            this.value = value.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        int write(FlatBufferEncoder encoder) {
+            int stringPosition = encoder.align(4);
+            encoder.reserve(4 + value.length + 1);
+            encoder.putInt(stringPosition, value.length);
+            System.arraycopy(value, 0, encoder.bytes, stringPosition + 4, value.length);
+            encoder.position = stringPosition + 4 + value.length + 1;
+
+            return stringPosition;
+        }
+    }
+
+    static class TableVector extends Node {
+        private final List<? extends Node> elements;
+
+        TableVector(List<? extends Node> elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        int write(FlatBufferEncoder encoder) {
+            int vectorPosition = encoder.align(4);
+            encoder.reserve(4 + elements.size() * 4);
+            encoder.putInt(vectorPosition, elements.size());
+            encoder.position = vectorPosition + 4 + elements.size() * 4;
+
+            for (int index = 0; index < elements.size(); index++) {
+                int referencePosition = vectorPosition + 4 + index * 4;
+                int elementPosition = elements.get(index).write(encoder);
+                encoder.putInt(referencePosition, elementPosition - referencePosition);
+            }
+
+            return vectorPosition;
+        }
+    }
+
+    /** a vector of structs made up of pairs of longs, e.g. Arrow's FieldNode and Buffer */
+    static class LongPairVector extends Node {
+        private final long[] values;
+
+        LongPairVector(long[] values) {
+            this.values = values;
+        }
+
+        @Override
+        int write(FlatBufferEncoder encoder) {
+            //the length comes immediately before the structs, which are 8 byte aligned
+            encoder.align(8);
+            int vectorPosition = encoder.position + 4;
+            encoder.reserve(8 + values.length * 8);
+            encoder.putInt(vectorPosition, values.length / 2);
+            for (int index = 0; index < values.length; index++) {
+                encoder.putScalar(vectorPosition + 4 + index * 8, 8, values[index]);
+            }
+            encoder.position = vectorPosition + 4 + values.length * 8;
+
+            return vectorPosition;
+        }
+    }
+
+    private static class Slot {
+        final int id;
+        final int size;
+        final long value;
+        final Node node;
+
+        Slot(int id, int size, long value, Node node) {
+            this.id = id;
+            this.size = size;
+            this.value = value;
+            this.node = node;
+        }
+    }
+
+    private static int alignTo(int value, int alignment) {
+        return (value + alignment - 1) / alignment * alignment;
+    }
+
+    private int align(int alignment) {
+        int aligned = alignTo(position, alignment);
+        reserve(aligned - position);
+        position = aligned;
+        return position;
+    }
+
+    private void reserve(int length) {
+        if (position + length > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, position + length));
+        }
+    }
+
+    private void putShort(int value) {
+        reserve(2);
+        putScalar(position, 2, value);
+        position += 2;
+    }
+
+    private void putInt(int at, int value) {
+        putScalar(at, 4, value);
+    }
+
+    private void putScalar(int at, int size, long value) {
+        for (int index = 0; index < size; index++) {
+            bytes[at + index] = (byte) (value >>> (index * 8));
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.writer.arrow;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * The body of an Arrow record batch: each column's buffers one after another, each padded to 8 bytes, along with the
+ * offset and length of every buffer for the batch's metadata
+ */
+class RecordBatchBody {
+    private byte[] bytes = new byte[4096];
+    private int position;
+    private long[] buffers = new long[16];
+    private int bufferValues;
+    private int bufferStart;
+
+    void clear() {
+        position = 0;
+        bufferValues = 0;
+    }
+
+    void startBuffer() {
+        bufferStart = position;
+    }
+
+    void endBuffer() {
+        if (bufferValues + 2 > buffers.length) {
+            buffers = Arrays.copyOf(buffers, buffers.length * 2);
+        }
+        buffers[bufferValues++] = bufferStart;
+        buffers[bufferValues++] = position - bufferStart;
+
+        int padding = (8 - position % 8) % 8;
+        reserve(padding);
+        Arrays.fill(bytes, position, position + padding, (byte) 0);
+        position += padding;
+    }
+
+    /**
+     * Append a validity bitmap for the first rowCount values, returning the number of nulls
+     */
+    int putValidity(Object[] values, int rowCount) {
+        int nullCount = 0;
+        int bitmapLength = (rowCount + 7) / 8;
+
+        startBuffer();
+        reserve(bitmapLength);
+        Arrays.fill(bytes, position, position + bitmapLength, (byte) 0);
+        for (int index = 0; index < rowCount; index++) {
+            if (values[index] == null) {
+                nullCount++;
+            } else {
+                bytes[position + index / 8] |= (byte) (1 << (index % 8));
+            }
+        }
+        position += bitmapLength;
+        endBuffer();
+
+        return nullCount;
+    }
+
+    void putInt(int value) {
+        reserve(4);
+        for (int index = 0; index < 4; index++) {
+            bytes[position++] = (byte) (value >>> (index * 8));
+        }
+    }
+
+    void putLong(long value) {
+        reserve(8);
+        for (int index = 0; index < 8; index++) {
+            bytes[position++] = (byte) (value >>> (index * 8));
+        }
+    }
+
+    void putBytes(byte[] value) {
+        reserve(value.length);
+        System.arraycopy(value, 0, bytes, position, value.length);
+        position += value.length;
+    }
+
+    int getLength() {
+        return position;
+    }
+
+    /** the offset and length of each buffer, in order */
+    long[] getBuffers() {
+        return Arrays.copyOf(buffers, bufferValues);
+    }
+
+    void writeTo(OutputStream stream) throws IOException {
+        stream.write(bytes, 0, position);
+    }
+
+    private void reserve(int length) {
+        if (position + length > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, position + length));
+        }
+    }
+}
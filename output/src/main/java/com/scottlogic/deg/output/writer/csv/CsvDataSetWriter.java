@@ -18,60 +18,136 @@ package com.scottlogic.deg.output.writer.csv;
 
 import com.scottlogic.deg.common.profile.ProfileFields;
 import com.scottlogic.deg.common.output.GeneratedObject;
+import com.scottlogic.deg.common.output.RowBatch;
+import com.scottlogic.deg.common.profile.Field;
 import com.scottlogic.deg.output.writer.DataSetWriter;
+import com.scottlogic.deg.output.writer.EncodedValueCache;
 import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVPrinter;
 import org.apache.commons.csv.QuoteMode;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.stream.Collectors;
 
+/**
+ * Writes each value as the bytes CSVFormat would print for it, remembering the bytes of recently written values so
+ * that a value which is written over and over (e.g. from a set) is only formatted and encoded once
+ */
 class CsvDataSetWriter implements DataSetWriter {
     private static final DateTimeFormatter standardDateFormat = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
     private static final CSVFormat writerFormat = CSVFormat.RFC4180;
     private static final CSVFormat csvStringFormatter = writerFormat.withQuoteMode(QuoteMode.ALL);
-
-    private final CSVPrinter csvPrinter;
-    private final ProfileFields fieldOrder;
-
-    private CsvDataSetWriter(CSVPrinter csvPrinter, ProfileFields fieldOrder) {
-        this.csvPrinter = csvPrinter;
+    private static final CSVFormat cellFormat = writerFormat
+        .withEscape('\0') //Dont escape any character, we're formatting strings ourselves
+        .withQuoteMode(QuoteMode.NONE);
+    private static final byte[] delimiter = encode(String.valueOf(writerFormat.getDelimiter()));
+    private static final byte[] recordSeparator = encode(writerFormat.getRecordSeparator());
+
+    private final OutputStream stream;
+    private final Field[] fieldOrder;
+    private final EncodedValueCache<byte[]> encodedValues = new EncodedValueCache<>();
+
+    private CsvDataSetWriter(OutputStream stream, Field[] fieldOrder) {
+        this.stream = stream;
         this.fieldOrder = fieldOrder;
     }
 
     static DataSetWriter open(OutputStream stream, ProfileFields fields) throws IOException {
-        final Appendable outputStreamAsAppendable = new OutputStreamWriter(stream, StandardCharsets.UTF_8);
+        CsvDataSetWriter writer = new CsvDataSetWriter(
+            new BufferedOutputStream(stream, 1 << 16),
+            fields.stream().toArray(Field[]::new));
 
-        CSVPrinter csvPrinter = writerFormat
-            .withEscape('\0') //Dont escape any character, we're formatting strings ourselves
-            .withQuoteMode(QuoteMode.NONE)
-            .withHeader(fields.stream()
-                .map(f -> f.name)
-                .toArray(String[]::new))
-            .print(outputStreamAsAppendable);
+        for (int fieldIndex = 0; fieldIndex < writer.fieldOrder.length; fieldIndex++) {
+            writer.writeCell(fieldIndex, encodeCell(writer.fieldOrder[fieldIndex].name));
+        }
+        writer.stream.write(recordSeparator);
 
-        return new CsvDataSetWriter(csvPrinter, fields);
+        return writer;
     }
 
     @Override
     public void writeRow(GeneratedObject row) throws IOException {
-        csvPrinter.printRecord(fieldOrder.stream()
-                .map(row::getFormattedValue)
-                .map(CsvDataSetWriter::wrapInQuotesIfString)
-                .collect(Collectors.toList()));
+        for (int fieldIndex = 0; fieldIndex < fieldOrder.length; fieldIndex++) {
+            writeValue(fieldIndex, row.getFormattedValue(fieldOrder[fieldIndex]));
+        }
+        stream.write(recordSeparator);
 
-        csvPrinter.flush();
+        stream.flush();
+    }
+
+    @Override
+    public void writeBatch(RowBatch batch) throws IOException {
+        Object[][] columns = new Object[fieldOrder.length][];
+        for (int fieldIndex = 0; fieldIndex < fieldOrder.length; fieldIndex++) {
+            columns[fieldIndex] = batch.getColumn(fieldOrder[fieldIndex]);
+        }
+
+        for (int rowIndex = 0; rowIndex < batch.size(); rowIndex++) {
+            for (int fieldIndex = 0; fieldIndex < columns.length; fieldIndex++) {
+                writeValue(fieldIndex, columns[fieldIndex][rowIndex]);
+            }
+            stream.write(recordSeparator);
+        }
+
+        stream.flush();
     }
 
     @Override
     public void close() throws IOException {
-        csvPrinter.close();
+        stream.close();
+    }
+
+    private void writeValue(int fieldIndex, Object value) throws IOException {
+        if (value == null) {
+            writeCell(fieldIndex, null);
+            return;
+        }
+
+        writeCell(fieldIndex, encodedValues.getEncoding(value, v -> encodeCell(wrapInQuotesIfString(v))));
+    }
+
+    private void writeCell(int fieldIndex, byte[] cell) throws IOException {
+        if (fieldIndex > 0) {
+            stream.write(delimiter);
+        }
+        if (cell != null) {
+            stream.write(cell);
+        }
+    }
+
+    private static byte[] encodeCell(Object value) {
+        String text = value.toString();
+        if (!needsEscaping(text)) {
+            return encode(text);
+        }
+
+        StringBuilder cell = new StringBuilder();
+        try {
+            cellFormat.print(value, cell, true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return encode(cell.toString());
+    }
+
+    /** whether cellFormat would escape any of the characters of the value */
+    private static boolean needsEscaping(String value) {
+        for (int index = 0; index < value.length(); index++) {
+            char c = value.charAt(index);
+            if (c == writerFormat.getDelimiter() || c == '\r' || c == '\n' || c == cellFormat.getEscapeCharacter()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] encode(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
     }
 
     private static Object wrapInQuotesIfString(Object value){
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.writer.jdbc;
+
+import com.scottlogic.deg.common.output.GeneratedObject;
+import com.scottlogic.deg.common.output.RowBatch;
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.ProfileFields;
+import com.scottlogic.deg.output.writer.DataSetWriter;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Inserts rows into a database table with batched prepared inserts, committing every commitSize rows.
+ *
+ * The table is created when the first batch of rows is written, with the type of each column chosen from the type the
+ * profile declares for its field. Rows committed before a failure are left in the table.
+ */
+public class JdbcDataSetWriter implements DataSetWriter {
+    private static final int MAX_ROWS_PER_STATEMENT_BATCH = 1000;
+
+    private final Connection connection;
+    private final String tableName;
+    private final Field[] fields;
+    private final int commitSize;
+    private final RowBatch pendingRows;
+    private final SqlColumnType[] columnTypes;
+    private PreparedStatement insert;
+    private int rowsInStatementBatch;
+    private long rowsSinceCommit;
+
+    public JdbcDataSetWriter(Connection connection, String tableName, ProfileFields fields, int commitSize) throws IOException {
+        this.connection = connection;
+        this.tableName = tableName;
+        this.fields = fields.stream().toArray(Field[]::new);
+        this.columnTypes = fields.stream().map(field -> SqlColumnType.forField(fields.getType(field))).toArray(SqlColumnType[]::new);
+        this.commitSize = commitSize;
+        this.pendingRows = new RowBatch(fields, Math.min(commitSize, RowBatch.DEFAULT_CAPACITY));
+
+        try {
+            connection.setAutoCommit(false);
+        } catch (SQLException e) {
+            throw new IOException("Unable to start a transaction to write to table " + tableName, e);
+        }
+    }
+
+    @Override
+    public void writeRow(GeneratedObject row) throws IOException {
+        pendingRows.add(row);
+
+        if (pendingRows.isFull()) {
+            writePendingRows();
+        }
+    }
+
+    @Override
+    public void writeBatch(RowBatch batch) throws IOException {
+        writePendingRows();
+        insertBatch(batch);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            writePendingRows();
+            if (insert == null) {
+                createTable();
+            }
+
+            executeStatementBatch();
+            connection.commit();
+        } catch (SQLException e) {
+            throw new IOException("Unable to write rows to table " + tableName, e);
+        } finally {
+            try {
+                if (insert != null) {
+                    insert.close();
+                }
+                connection.close();
+            } catch (SQLException e) {
+                throw new IOException("Unable to close connection after writing to table " + tableName, e);
+            }
+        }
+    }
+
+    private void writePendingRows() throws IOException {
+        if (pendingRows.isEmpty()) {
+            return;
+        }
+
+        insertBatch(pendingRows);
+        pendingRows.clear();
+    }
+
+    private void insertBatch(RowBatch batch) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            if (insert == null) {
+                createTable();
+            }
+
+            Object[][] columns = new Object[fields.length][];
+            for (int fieldIndex = 0; fieldIndex < fields.length; fieldIndex++) {
+                columns[fieldIndex] = batch.getColumn(fields[fieldIndex]);
+            }
+
+            for (int rowIndex = 0; rowIndex < batch.size(); rowIndex++) {
+                for (int fieldIndex = 0; fieldIndex < fields.length; fieldIndex++) {
+                    Object value = columns[fieldIndex][rowIndex];
+                    if (value != null && !columnTypes[fieldIndex].canWrite(value)) {
+                        throw new IOException(String.format(
+                            "Value %s of field %s cannot be written to the %s column chosen from the type of the field",
+                            value,
+                            fields[fieldIndex].name,
+                            columnTypes[fieldIndex].getDefinition()));
+                    }
+                    columnTypes[fieldIndex].bind(insert, fieldIndex + 1, value);
+                }
+                insert.addBatch();
+                rowsInStatementBatch++;
+                rowsSinceCommit++;
+
+                if (rowsSinceCommit >= commitSize) {
+                    executeStatementBatch();
+                    connection.commit();
+                    rowsSinceCommit = 0;
+                } else if (rowsInStatementBatch >= MAX_ROWS_PER_STATEMENT_BATCH) {
+                    executeStatementBatch();
+                }
+            }
+        } catch (SQLException e) {
+            throw new IOException("Unable to write rows to table " + tableName, e);
+        }
+    }
+
+    private void executeStatementBatch() throws SQLException {
+        if (rowsInStatementBatch == 0) {
+            return;
+        }
+
+        insert.executeBatch();
+        rowsInStatementBatch = 0;
+    }
+
+    private void createTable() throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        String table = SqlIdentifiers.quote(metaData, tableName);
+        String[] columns = new String[fields.length];
+        String[] columnDefinitions = new String[fields.length];
+        String[] parameters = new String[fields.length];
+        for (int fieldIndex = 0; fieldIndex < fields.length; fieldIndex++) {
+            columns[fieldIndex] = SqlIdentifiers.quote(metaData, fields[fieldIndex].name);
+            columnDefinitions[fieldIndex] = columns[fieldIndex] + " " + columnTypes[fieldIndex].getDefinition();
+            parameters[fieldIndex] = "?";
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE " + table + " (" + String.join(", ", columnDefinitions) + ")");
+        }
+        insert = connection.prepareStatement(
+            "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES (" + String.join(", ", parameters) + ")");
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.writer.jdbc;
+
+import com.scottlogic.deg.common.profile.FieldType;
+import com.scottlogic.deg.common.util.Defaults;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Calendar;
+import java.util.TimeZone;
+
+/**
+ * The SQL type of a column, and how its values are bound to an insert statement.
+ *
+ * The column type is chosen from the type the profile declares for the field, so it doesn't depend on which values
+ * happen to be generated first: numbers are stored as BIGINT if the field's granularity and bounds only allow whole
+ * numbers that fit in a long, otherwise as DECIMAL if its precision fits in 38 digits, datetimes as TIMESTAMP in UTC,
+ * and everything else, including untyped and formatted fields, as VARCHAR.
+ */
+abstract class SqlColumnType {
+    private static final int MAX_DECIMAL_PRECISION = 38;
+
+    /** the type as it appears in a CREATE TABLE statement */
+    abstract String getDefinition();
+
+    /** whether the value can be stored in a column of this type */
+    abstract boolean canWrite(Object value);
+
+    abstract void bind(PreparedStatement statement, int parameterIndex, Object value) throws SQLException;
+
+    static SqlColumnType forField(FieldType fieldType) {
+        if (!fieldType.getType().isPresent()) {
+            return new Varchar();
+        }
+
+        switch (fieldType.getType().get()) {
+            case NUMERIC:
+                if (fieldType.isNumericLong()) {
+                    return new BigInt();
+                }
+                if (fieldType.getNumericPrecision() <= MAX_DECIMAL_PRECISION) {
+                    return new Decimal(fieldType.getNumericPrecision(), fieldType.getNumericScale());
+                }
+                return new Varchar();
+            case DATETIME:
+                return new TimestampUtc();
+            default:
+                return new Varchar();
+        }
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        return value instanceof BigDecimal
+            ? (BigDecimal) value
+            : new BigDecimal(value.toString());
+    }
+
+    static class Varchar extends SqlColumnType {
+        @Override
+        String getDefinition() {
+            return "VARCHAR(" + Defaults.MAX_STRING_LENGTH + ")";
+        }
+
+        @Override
+        boolean canWrite(Object value) {
+            return true;
+        }
+
+        @Override
+        void bind(PreparedStatement statement, int parameterIndex, Object value) throws SQLException {
+            if (value == null) {
+                statement.setNull(parameterIndex, Types.VARCHAR);
+            } else if (value instanceof BigDecimal) {
+                statement.setString(parameterIndex, ((BigDecimal) value).toPlainString());
+            } else if (value instanceof OffsetDateTime) {
+                statement.setString(parameterIndex, DateTimeFormatter.ISO_OFFSET_DATE_TIME.format((OffsetDateTime) value));
+            } else {
+                statement.setString(parameterIndex, value.toString());
+            }
+        }
+    }
+
+    static class BigInt extends SqlColumnType {
+        @Override
+        String getDefinition() {
+            return "BIGINT";
+        }
+
+        @Override
+        boolean canWrite(Object value) {
+            if (!(value instanceof Number)) {
+                return false;
+            }
+
+            try {
+                toBigDecimal(value).longValueExact();
+                return true;
+            } catch (ArithmeticException e) {
+                return false;
+            }
+        }
+
+        @Override
+        void bind(PreparedStatement statement, int parameterIndex, Object value) throws SQLException {
+            if (value == null) {
+                statement.setNull(parameterIndex, Types.BIGINT);
+            } else {
+                statement.setLong(parameterIndex, toBigDecimal(value).longValueExact());
+            }
+        }
+    }
+
+    static class Decimal extends SqlColumnType {
+        private final int precision;
+        private final int scale;
+
+        Decimal(int precision, int scale) {
+            this.precision = precision;
+            this.scale = scale;
+        }
+
+        @Override
+        String getDefinition() {
+            return "DECIMAL(" + precision + ", " + scale + ")";
+        }
+
+        @Override
+        boolean canWrite(Object value) {
+            if (!(value instanceof Number)) {
+                return false;
+            }
+
+            BigDecimal number = toBigDecimal(value).stripTrailingZeros();
+            return number.scale() <= scale && number.precision() - number.scale() <= precision - scale;
+        }
+
+        @Override
+        void bind(PreparedStatement statement, int parameterIndex, Object value) throws SQLException {
+            if (value == null) {
+                statement.setNull(parameterIndex, Types.DECIMAL);
+            } else {
+                statement.setBigDecimal(parameterIndex, toBigDecimal(value));
+            }
+        }
+    }
+
+    static class TimestampUtc extends SqlColumnType {
+        private final Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+
+        @Override
+        String getDefinition() {
+            return "TIMESTAMP";
+        }
+
+        @Override
+        boolean canWrite(Object value) {
+            return value instanceof OffsetDateTime;
+        }
+
+        @Override
+        void bind(PreparedStatement statement, int parameterIndex, Object value) throws SQLException {
+            if (value == null) {
+                statement.setNull(parameterIndex, Types.TIMESTAMP);
+            } else {
+                statement.setTimestamp(parameterIndex, Timestamp.from(((OffsetDateTime) value).toInstant()), utc);
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.writer.jdbc;
+
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.regex.Pattern;
+
+/** Quotes table and column names for use in SQL statements, and escapes them for use as metadata search patterns */
+public class SqlIdentifiers {
+    private static final Pattern PLAIN_IDENTIFIER = Pattern.compile("[A-Za-z][A-Za-z0-9_]*");
+
+    private SqlIdentifiers() {
+    }
+
+    /**
+     * Whether the name can be used as an identifier: any name can be when the database supports quoted identifiers,
+     * otherwise it must be made of letters, digits and underscores, starting with a letter
+     */
+    public static boolean canQuote(DatabaseMetaData metaData, String name) throws SQLException {
+        return !quoteString(metaData).isEmpty() || PLAIN_IDENTIFIER.matcher(name).matches();
+    }
+
+    /** the name quoted with the database's identifier quote, doubling any quotes in the name */
+    public static String quote(DatabaseMetaData metaData, String name) throws SQLException {
+        String quote = quoteString(metaData);
+        if (quote.isEmpty()) {
+            if (!PLAIN_IDENTIFIER.matcher(name).matches()) {
+                throw new SQLException("The database does not support quoted identifiers, so " + name +
+                    " cannot be used as a name; names must be made of letters, digits and underscores, starting with a letter");
+            }
+            return name;
+        }
+
+        return quote + name.replace(quote, quote + quote) + quote;
+    }
+
+    /** the name with the wildcards of a metadata search pattern escaped, so that it only matches itself */
+    public static String searchPattern(DatabaseMetaData metaData, String name) throws SQLException {
+        String escape = metaData.getSearchStringEscape();
+        if (escape == null || escape.isEmpty()) {
+            return name;
+        }
+
+        return name
+            .replace(escape, escape + escape)
+            .replace("_", escape + "_")
+            .replace("%", escape + "%");
+    }
+
+    /** the identifier quote, or empty if the database doesn't support quoted identifiers */
+    private static String quoteString(DatabaseMetaData metaData) throws SQLException {
+        String quote = metaData.getIdentifierQuoteString();
+        return quote == null ? "" : quote.trim();
+    }
+}
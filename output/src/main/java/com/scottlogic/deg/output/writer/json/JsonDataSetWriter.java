@@ -23,6 +23,7 @@ import com.fasterxml.jackson.databind.SequenceWriter;
 import com.scottlogic.deg.common.profile.Field;
 import com.scottlogic.deg.common.profile.ProfileFields;
 import com.scottlogic.deg.common.output.GeneratedObject;
+import com.scottlogic.deg.common.output.RowBatch;
 import com.scottlogic.deg.output.writer.DataSetWriter;
 
 import java.io.IOException;
@@ -61,6 +62,30 @@ class JsonDataSetWriter implements DataSetWriter {
         writer.write(jsonObject);
     }
 
+    @Override
+    public void writeBatch(RowBatch batch) throws IOException {
+        Field[] batchFields = batch.getFields();
+        Object[][] convertedColumns = new Object[batchFields.length][];
+        for (int fieldIndex = 0; fieldIndex < batchFields.length; fieldIndex++) {
+            Object[] column = batch.getColumn(fieldIndex);
+            Object[] convertedColumn = new Object[batch.size()];
+            for (int rowIndex = 0; rowIndex < convertedColumn.length; rowIndex++) {
+                convertedColumn[rowIndex] = convertValue(column[rowIndex]);
+            }
+            convertedColumns[fieldIndex] = convertedColumn;
+        }
+
+        //each object is serialised as it is written, so one map can be refilled for every row
+        Map<Field, Object> jsonObject = new HashMap<>();
+        for (int rowIndex = 0; rowIndex < batch.size(); rowIndex++) {
+            for (int fieldIndex = 0; fieldIndex < batchFields.length; fieldIndex++) {
+                jsonObject.put(batchFields[fieldIndex], convertedColumns[fieldIndex][rowIndex]);
+            }
+
+            writer.write(jsonObject);
+        }
+    }
+
     @Override
     public void close() throws IOException {
         writer.close();
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.compression;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+
+class ParallelGzipOutputStreamTests {
+    @Test
+    void close_afterWritingManyBlocks_shouldWriteGzipOfAllBytesInOrder() throws IOException {
+        byte[] input = csvLikeBytes(10_000);
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (ParallelGzipOutputStream stream = new ParallelGzipOutputStream(compressed, 3, 4096)) {
+            stream.write(input, 0, 1000);
+            stream.flush();
+            stream.write(input[1000]);
+            stream.write(input, 1001, input.length - 1001);
+        }
+
+        Assert.assertThat(decompress(compressed.toByteArray()), equalTo(input));
+        Assert.assertThat(compressed.size(), lessThan(input.length / 2));
+    }
+
+    @Test
+    void close_withNothingWritten_shouldWriteEmptyGzip() throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        new ParallelGzipOutputStream(compressed, 2).close();
+
+        Assert.assertThat(decompress(compressed.toByteArray()), equalTo(new byte[0]));
+    }
+
+    private static byte[] csvLikeBytes(int rows) {
+        Random random = new Random(0);
+        StringBuilder builder = new StringBuilder();
+        for (int row = 0; row < rows; row++) {
+            builder.append(random.nextInt(1000)).append(",\"name ").append(random.nextInt(50)).append("\"\n");
+        }
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] decompress(byte[] compressed) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (InputStream stream = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                output.write(buffer, 0, read);
+            }
+        }
+        return output.toByteArray();
+    }
+}
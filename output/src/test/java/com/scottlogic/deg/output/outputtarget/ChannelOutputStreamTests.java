@@ -0,0 +1,116 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.outputtarget;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.Matchers.equalTo;
+
+class ChannelOutputStreamTests {
+    private final ByteArrayOutputStream written = new ByteArrayOutputStream();
+    private long now;
+
+    @Test
+    void flush_withFewerBytesThanFlushBytesBeforeFlushInterval_shouldHoldBytesBackUntilClose() throws IOException {
+        ChannelOutputStream stream = stream(10, 1000);
+
+        stream.write(bytes("abc"));
+        stream.flush();
+        Assert.assertThat(written.toString("UTF-8"), equalTo(""));
+
+        stream.close();
+        Assert.assertThat(written.toString("UTF-8"), equalTo("abc"));
+    }
+
+    @Test
+    void flush_withFlushBytesWaiting_shouldWriteBytes() throws IOException {
+        ChannelOutputStream stream = stream(3, 1000);
+
+        stream.write(bytes("abc"));
+        stream.flush();
+
+        Assert.assertThat(written.toString("UTF-8"), equalTo("abc"));
+    }
+
+    @Test
+    void flush_afterFlushInterval_shouldWriteBytes() throws IOException {
+        ChannelOutputStream stream = stream(10, 1000);
+
+        stream.write(bytes("abc"));
+        now += 1_000_000_000L;
+        stream.flush();
+
+        Assert.assertThat(written.toString("UTF-8"), equalTo("abc"));
+    }
+
+    @Test
+    void flushIfIdle_afterFlushInterval_shouldWriteBytesWithoutAFlushCall() throws IOException {
+        ChannelOutputStream stream = stream(10, 1000);
+
+        stream.write(bytes("abc"));
+        stream.flush();
+        stream.flushIfIdle();
+        Assert.assertThat(written.toString("UTF-8"), equalTo(""));
+
+        now += 1_000_000_000L;
+        stream.flushIfIdle();
+
+        Assert.assertThat(written.toString("UTF-8"), equalTo("abc"));
+        stream.close();
+    }
+
+    @Test
+    void flushTimer_withBytesHeldBack_shouldWriteThemOnceTheIntervalHasPassed() throws Exception {
+        ChannelOutputStream stream = new ChannelOutputStream(Channels.newChannel(written), true, 10, 5);
+
+        stream.write(bytes("abc"));
+        stream.flush();
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (written.size() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+
+        Assert.assertThat(written.toString("UTF-8"), equalTo("abc"));
+        stream.close();
+    }
+
+    @Test
+    void write_withMoreBytesThanBuffer_shouldWriteBytesInOrder() throws IOException {
+        ChannelOutputStream stream = stream(100, 1000);
+
+        stream.write('a');
+        stream.write(bytes("bcdefghij"));
+        stream.write(bytes("klmnopqrstuvwxyz"));
+        stream.close();
+
+        Assert.assertThat(written.toString("UTF-8"), equalTo("abcdefghijklmnopqrstuvwxyz"));
+    }
+
+    private ChannelOutputStream stream(long flushBytes, long flushMillis) {
+        return new ChannelOutputStream(Channels.newChannel(written), true, 8, flushBytes, flushMillis, () -> now);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
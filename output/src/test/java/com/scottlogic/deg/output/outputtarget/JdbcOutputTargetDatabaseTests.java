@@ -0,0 +1,144 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.outputtarget;
+
+import com.scottlogic.deg.common.output.GeneratedObject;
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.FieldType;
+import com.scottlogic.deg.common.profile.ProfileFields;
+import com.scottlogic.deg.common.profile.constraints.atomic.IsOfTypeConstraint;
+import com.scottlogic.deg.output.writer.DataSetWriter;
+import org.junit.Assert;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/** Writes to an in-memory H2 database, so that the statements are run by a real JDBC driver */
+class JdbcOutputTargetDatabaseTests {
+    private final Field name = new Field("name");
+    private final Field age = new Field("age");
+    private final Field price = new Field("price");
+    private final Field born = new Field("born");
+    private final ProfileFields fields = new ProfileFields(Arrays.asList(name, age, price, born), fieldTypes());
+
+    private String url;
+    private Connection keepAlive;
+
+    @BeforeEach
+    void openDatabase() throws SQLException {
+        url = "jdbc:h2:mem:" + UUID.randomUUID();
+        // an in-memory database is dropped once its last connection closes
+        keepAlive = DriverManager.getConnection(url);
+    }
+
+    @AfterEach
+    void closeDatabase() throws SQLException {
+        keepAlive.close();
+    }
+
+    @Test
+    void openWriter_withRows_shouldCreateTableWithColumnTypesOfFieldsAndInsertEachRow() throws Exception {
+        JdbcOutputTarget target = new JdbcOutputTarget(url, "people", 1, false);
+        OffsetDateTime birth = OffsetDateTime.of(1990, 5, 17, 12, 30, 0, 0, ZoneOffset.ofHours(2));
+
+        target.validate();
+        try (DataSetWriter writer = target.openWriter(fields)) {
+            writer.writeRow(row("Alice", 31, new BigDecimal("12.50"), birth));
+            writer.writeRow(row(null, 42, null, null));
+        }
+
+        try (Statement statement = keepAlive.createStatement();
+             ResultSet rows = statement.executeQuery(
+                 "SELECT \"name\", \"age\", \"price\", \"born\" FROM \"people\" ORDER BY \"age\"")) {
+            ResultSetMetaData columns = rows.getMetaData();
+            Assert.assertThat(columns.getColumnType(1), is(Types.VARCHAR));
+            Assert.assertThat(columns.getColumnType(2), is(Types.BIGINT));
+            Assert.assertThat(columns.getColumnType(3), is(Types.DECIMAL));
+            Assert.assertThat(columns.getPrecision(3), is(6));
+            Assert.assertThat(columns.getScale(3), is(2));
+            Assert.assertThat(columns.getColumnType(4), is(Types.TIMESTAMP));
+
+            Assert.assertThat(rows.next(), is(true));
+            Assert.assertThat(rows.getString(1), equalTo("Alice"));
+            Assert.assertThat(rows.getLong(2), equalTo(31L));
+            Assert.assertThat(rows.getBigDecimal(3), equalTo(new BigDecimal("12.50")));
+            Assert.assertThat(
+                rows.getTimestamp(4, Calendar.getInstance(TimeZone.getTimeZone("UTC"))).toInstant(),
+                equalTo(birth.toInstant()));
+
+            Assert.assertThat(rows.next(), is(true));
+            Assert.assertThat(rows.getString(1), equalTo(null));
+            Assert.assertThat(rows.getLong(2), equalTo(42L));
+            Assert.assertThat(rows.getBigDecimal(3), equalTo(null));
+            Assert.assertThat(rows.getTimestamp(4), equalTo(null));
+
+            Assert.assertThat(rows.next(), is(false));
+        }
+    }
+
+    @Test
+    void validate_withExistingTable_shouldThrow() throws SQLException {
+        try (Statement statement = keepAlive.createStatement()) {
+            statement.execute("CREATE TABLE \"people\" (\"name\" VARCHAR(10))");
+        }
+
+        JdbcOutputTarget target = new JdbcOutputTarget(url, "people", 1, false);
+
+        assertThrows(OutputTargetValidationException.class, target::validate);
+    }
+
+    private Map<Field, FieldType> fieldTypes() {
+        Map<Field, FieldType> types = new HashMap<>();
+        types.put(age, FieldType.numeric(0, BigDecimal.ZERO, new BigDecimal(150)));
+        types.put(price, FieldType.numeric(2, new BigDecimal(-1000), new BigDecimal(1000)));
+        types.put(born, FieldType.of(IsOfTypeConstraint.Types.DATETIME));
+        return types;
+    }
+
+    private GeneratedObject row(String nameValue, Object ageValue, Object priceValue, Object bornValue) {
+        return field -> {
+            if (field.equals(name)) {
+                return nameValue;
+            }
+            if (field.equals(age)) {
+                return ageValue;
+            }
+            return field.equals(price) ? priceValue : bornValue;
+        };
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.outputtarget;
+
+import com.scottlogic.deg.common.output.GeneratedObject;
+import com.scottlogic.deg.common.output.RowBatch;
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.ProfileFields;
+import com.scottlogic.deg.output.FileUtils;
+import com.scottlogic.deg.output.OutputPath;
+import com.scottlogic.deg.output.guice.OutputConfigSource;
+import com.scottlogic.deg.output.manifest.ManifestWriter;
+import com.scottlogic.deg.output.manifest.ShardManifestDTO;
+import com.scottlogic.deg.output.writer.DataSetWriter;
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ShardedOutputTargetTests {
+    private final Field field = new Field("my_field");
+    private final ProfileFields fields = new ProfileFields(Collections.singletonList(field));
+    private final OutputConfigSource configSource = mock(OutputConfigSource.class);
+    private final OutputTargetFactory outputTargetFactory = mock(OutputTargetFactory.class);
+    private final ManifestWriter manifestWriter = mock(ManifestWriter.class);
+
+    ShardedOutputTargetTests() {
+        when(configSource.getOutputShardCount()).thenReturn(2);
+        when(outputTargetFactory.getFileName(anyString())).thenAnswer(invocation -> invocation.getArguments()[0]);
+    }
+
+    @Test
+    void writeBatch_shouldSplitTheRowsOfTheBatchBetweenTheShardsThenWriteTheManifest() throws IOException {
+        List<Object> written = Collections.synchronizedList(new ArrayList<>());
+        shardWriters(new DataSetWriter() {
+            @Override
+            public void writeRow(GeneratedObject row) {
+                written.add(row.getFormattedValue(field));
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+        RowBatch batch = new RowBatch(fields, 10);
+        batch.add(row(1));
+        batch.add(row(2));
+        batch.add(row(3));
+
+        try (DataSetWriter writer = target().openWriter(fields)) {
+            writer.writeBatch(batch);
+        }
+
+        Assert.assertThat(written.stream().sorted().collect(Collectors.toList()), contains(1, 2, 3));
+        ArgumentCaptor<ShardManifestDTO> manifest = ArgumentCaptor.forClass(ShardManifestDTO.class);
+        verify(manifestWriter).writeShardManifest(manifest.capture());
+        Assert.assertThat(
+            manifest.getValue().shards.stream().map(shard -> shard.rows).collect(Collectors.toList()),
+            contains(2L, 1L));
+    }
+
+    @Test
+    void close_afterAShardFailsToWrite_shouldNotWriteTheManifest() throws IOException {
+        shardWriters(new DataSetWriter() {
+            @Override
+            public void writeRow(GeneratedObject row) throws IOException {
+                throw new IOException("shard failed");
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+
+        DataSetWriter writer = target().openWriter(fields);
+        writer.writeRow(row(1));
+
+        assertThrows(IOException.class, writer::close);
+        verify(manifestWriter, never()).writeShardManifest(any(ShardManifestDTO.class));
+    }
+
+    private void shardWriters(DataSetWriter shardWriter) throws IOException {
+        SingleDatasetOutputTarget shardTarget = mock(SingleDatasetOutputTarget.class);
+        when(shardTarget.openWriter(any(ProfileFields.class))).thenReturn(shardWriter);
+        when(outputTargetFactory.create(anyString())).thenReturn(shardTarget);
+    }
+
+    private ShardedOutputTarget target() {
+        return new ShardedOutputTarget(
+            new OutputPath(Paths.get("out")),
+            configSource,
+            outputTargetFactory,
+            manifestWriter,
+            true,
+            mock(FileUtils.class));
+    }
+
+    private GeneratedObject row(int value) {
+        return f -> value;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.writer;
+
+import com.scottlogic.deg.common.output.GeneratedObject;
+import com.scottlogic.deg.common.output.RowBatch;
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.ProfileFields;
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+class BatchingDataSetWriterTests {
+    private final Field field = new Field("my_field");
+    private final ProfileFields fields = new ProfileFields(Collections.singletonList(field));
+
+    @Test
+    void writeRow_whenBatchFills_shouldWriteTheBatch() throws IOException {
+        RecordingDataSetWriter recordingWriter = new RecordingDataSetWriter();
+        BatchingDataSetWriter writer = new BatchingDataSetWriter(recordingWriter, fields, 2);
+
+        writer.writeRow(row(1));
+        writer.writeRow(row(2));
+        writer.writeRow(row(3));
+
+        Assert.assertThat(recordingWriter.batchSizes, contains(2));
+        Assert.assertThat(recordingWriter.values, contains(1, 2));
+    }
+
+    @Test
+    void close_withPartialBatch_shouldWriteRemainingRowsThenClose() throws IOException {
+        RecordingDataSetWriter recordingWriter = new RecordingDataSetWriter();
+        BatchingDataSetWriter writer = new BatchingDataSetWriter(recordingWriter, fields, 2);
+
+        writer.writeRow(row(1));
+        writer.writeRow(row(2));
+        writer.writeRow(row(3));
+        writer.close();
+
+        Assert.assertThat(recordingWriter.batchSizes, contains(2, 1));
+        Assert.assertThat(recordingWriter.values, contains(1, 2, 3));
+        Assert.assertThat(recordingWriter.closed, is(true));
+    }
+
+    @Test
+    void writeRow_whenFirstRowOfBatchHasWaitedTooLong_shouldWriteThePartialBatch() throws IOException, InterruptedException {
+        RecordingDataSetWriter recordingWriter = new RecordingDataSetWriter();
+        BatchingDataSetWriter writer = new BatchingDataSetWriter(recordingWriter, fields, 100, 1);
+
+        writer.writeRow(row(1));
+        Thread.sleep(5);
+        writer.writeRow(row(2));
+
+        Assert.assertThat(recordingWriter.batchSizes, contains(2));
+        Assert.assertThat(recordingWriter.values, contains(1, 2));
+    }
+
+    @Test
+    void flushBatch_withPartialBatch_shouldWriteHeldRows() throws IOException {
+        RecordingDataSetWriter recordingWriter = new RecordingDataSetWriter();
+        BatchingDataSetWriter writer = new BatchingDataSetWriter(recordingWriter, fields, 100);
+
+        writer.writeRow(row(1));
+        writer.flushBatch();
+        writer.flushBatch();
+
+        Assert.assertThat(recordingWriter.batchSizes, contains(1));
+        Assert.assertThat(recordingWriter.closed, is(false));
+    }
+
+    private GeneratedObject row(int value) {
+        return f -> value;
+    }
+
+    private class RecordingDataSetWriter implements DataSetWriter {
+        final List<Integer> batchSizes = new ArrayList<>();
+        final List<Object> values = new ArrayList<>();
+        boolean closed;
+
+        @Override
+        public void writeRow(GeneratedObject row) {
+            values.add(row.getFormattedValue(field));
+        }
+
+        @Override
+        public void writeBatch(RowBatch batch) throws IOException {
+            batchSizes.add(batch.size());
+            DataSetWriter.super.writeBatch(batch);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
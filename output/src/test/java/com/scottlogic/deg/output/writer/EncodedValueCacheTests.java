@@ -0,0 +1,51 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.writer;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+
+class EncodedValueCacheTests {
+    @Test
+    void getEncoding_withSameValueObject_shouldOnlyEncodeItOnce() {
+        EncodedValueCache<String> cache = new EncodedValueCache<>(16);
+        AtomicInteger encodeCount = new AtomicInteger();
+        Object value = new Object();
+
+        String first = cache.getEncoding(value, v -> { encodeCount.incrementAndGet(); return "encoded"; });
+        String second = cache.getEncoding(value, v -> { encodeCount.incrementAndGet(); return "encoded"; });
+
+        Assert.assertThat(second, sameInstance(first));
+        Assert.assertThat(encodeCount.get(), equalTo(1));
+    }
+
+    @Test
+    void getEncoding_withEqualButDifferentValueObjects_shouldEncodeEach() {
+        EncodedValueCache<String> cache = new EncodedValueCache<>(16);
+        AtomicInteger encodeCount = new AtomicInteger();
+
+        cache.getEncoding(new String("value"), v -> { encodeCount.incrementAndGet(); return "encoded"; });
+        cache.getEncoding(new String("value"), v -> { encodeCount.incrementAndGet(); return "encoded"; });
+
+        Assert.assertThat(encodeCount.get(), equalTo(2));
+    }
+}
@@ -18,6 +18,7 @@ package com.scottlogic.deg.output.writer;
 
 import com.scottlogic.deg.output.FileUtils;
 import com.scottlogic.deg.output.OutputPath;
+import com.scottlogic.deg.output.compression.NoOutputCompressor;
 import com.scottlogic.deg.output.outputtarget.FileOutputTarget;
 import com.scottlogic.deg.output.outputtarget.OutputTargetValidationException;
 import org.junit.Test;
@@ -46,7 +47,7 @@ public class FileOutputTargetTests {
         Mockito.when(mockFileUtils.isDirectory(Matchers.any())).thenReturn(true);
         Mockito.when(mockFilePath.getParent()).thenReturn(mockParentPath);
         OutputPath outputPath = new OutputPath(mockFilePath);
-        FileOutputTarget outputTarget = new FileOutputTarget(outputPath, mockOutputFormat, false, mockFileUtils);
+        FileOutputTarget outputTarget = new FileOutputTarget(outputPath, mockOutputFormat, new NoOutputCompressor(), false, mockFileUtils);
 
         assertThrows(OutputTargetValidationException.class, outputTarget::validate, "Expected OutputTargetValidationException to throw, but didn't");
     }
@@ -58,7 +59,7 @@ public class FileOutputTargetTests {
         Mockito.when(mockFilePath.getParent()).thenReturn(mockParentPath);
         Mockito.when(mockFileUtils.exists(Matchers.any())).thenReturn(true);
         OutputPath outputPath = new OutputPath(mockFilePath);
-        FileOutputTarget outputTarget = new FileOutputTarget(outputPath, mockOutputFormat, false, mockFileUtils);
+        FileOutputTarget outputTarget = new FileOutputTarget(outputPath, mockOutputFormat, new NoOutputCompressor(), false, mockFileUtils);
 
         assertThrows(OutputTargetValidationException.class, outputTarget::validate, "Expected OutputTargetValidationException to throw, but didn't");
     }
@@ -70,7 +71,7 @@ public class FileOutputTargetTests {
         Mockito.when(mockFilePath.getParent()).thenReturn(mockParentPath);
         Mockito.when(mockFileUtils.exists(Matchers.any())).thenReturn(true);
         OutputPath outputPath = new OutputPath(mockFilePath);
-        FileOutputTarget outputTarget = new FileOutputTarget(outputPath, mockOutputFormat, true, mockFileUtils);
+        FileOutputTarget outputTarget = new FileOutputTarget(outputPath, mockOutputFormat, new NoOutputCompressor(), true, mockFileUtils);
 
         assertDoesNotThrow(outputTarget::validate,"Expected no exception, but one was thrown");
     }
@@ -83,7 +84,7 @@ public class FileOutputTargetTests {
         Mockito.when(mockFileUtils.isDirectory(mockFilePath)).thenReturn(false);
         Mockito.when(mockFileUtils.createDirectories(Matchers.any())).thenReturn(true);
         OutputPath outputPath = new OutputPath(mockFilePath);
-        FileOutputTarget outputTarget = new FileOutputTarget(outputPath, mockOutputFormat, true, mockFileUtils);
+        FileOutputTarget outputTarget = new FileOutputTarget(outputPath, mockOutputFormat, new NoOutputCompressor(), true, mockFileUtils);
 
         assertDoesNotThrow(outputTarget::validate,"Expected no exception, but one was thrown");
     }
@@ -96,7 +97,7 @@ public class FileOutputTargetTests {
         Mockito.when(mockFileUtils.isDirectory(mockFilePath)).thenReturn(false);
         Mockito.when(mockFileUtils.isDirectory(mockParentPath)).thenReturn(false);
         OutputPath outputPath = new OutputPath(mockFilePath);
-        FileOutputTarget outputTarget = new FileOutputTarget(outputPath, mockOutputFormat, false, mockFileUtils);
+        FileOutputTarget outputTarget = new FileOutputTarget(outputPath, mockOutputFormat, new NoOutputCompressor(), false, mockFileUtils);
 
         assertThrows(OutputTargetValidationException.class, outputTarget::validate,"Expected OutputTargetValidationException to throw, but didn't");
     }
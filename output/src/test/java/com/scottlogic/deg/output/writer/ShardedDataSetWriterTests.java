@@ -0,0 +1,113 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.writer;
+
+import com.scottlogic.deg.common.output.GeneratedObject;
+import com.scottlogic.deg.common.output.RowBatch;
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.ProfileFields;
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ShardedDataSetWriterTests {
+    private final Field field = new Field("my_field");
+    private final ProfileFields fields = new ProfileFields(Collections.singletonList(field));
+
+    @Test
+    void close_withRowsRoutedRoundRobin_shouldWriteRowsInTurnToEachShardThenClose() throws IOException {
+        RecordingDataSetWriter first = new RecordingDataSetWriter();
+        RecordingDataSetWriter second = new RecordingDataSetWriter();
+        ShardedDataSetWriter writer = new ShardedDataSetWriter(Arrays.asList(first, second), fields, null, 2);
+
+        for (int value = 1; value <= 5; value++) {
+            writer.writeRow(row(value));
+        }
+        writer.close();
+
+        Assert.assertThat(first.values, contains(1, 3, 5));
+        Assert.assertThat(second.values, contains(2, 4));
+        Assert.assertThat(first.closed && second.closed, is(true));
+        Assert.assertThat(Arrays.asList(writer.getRowCounts()[0], writer.getRowCounts()[1]), contains(3L, 2L));
+    }
+
+    @Test
+    void close_withRowsRoutedByField_shouldWriteRowsWithEqualValuesToTheSameShard() throws IOException {
+        RecordingDataSetWriter first = new RecordingDataSetWriter();
+        RecordingDataSetWriter second = new RecordingDataSetWriter();
+        ShardedDataSetWriter writer = new ShardedDataSetWriter(Arrays.asList(first, second), fields, field, 2);
+
+        for (int value : new int[] { 2, 2, 2, 4, 4 }) {
+            writer.writeRow(row(value));
+        }
+        writer.close();
+
+        Assert.assertThat(first.values, contains(2, 2, 2, 4, 4));
+        Assert.assertThat(second.values, empty());
+    }
+
+    @Test
+    void close_whenShardWriterFails_shouldThrow() throws IOException {
+        RecordingDataSetWriter failing = new RecordingDataSetWriter() {
+            @Override
+            public void writeBatch(RowBatch batch) throws IOException {
+                throw new IOException("disk full");
+            }
+        };
+        ShardedDataSetWriter writer = new ShardedDataSetWriter(Collections.singletonList(failing), fields, null, 2);
+        writer.writeRow(row(1));
+
+        assertThrows(IOException.class, writer::close);
+        Assert.assertThat(failing.closed, is(true));
+    }
+
+    private GeneratedObject row(int value) {
+        return f -> value;
+    }
+
+    private static class RecordingDataSetWriter implements DataSetWriter {
+        private final List<Object> values = new ArrayList<>();
+        private volatile boolean closed;
+
+        @Override
+        public void writeRow(GeneratedObject row) {
+            throw new UnsupportedOperationException("rows should be written in batches");
+        }
+
+        @Override
+        public void writeBatch(RowBatch batch) throws IOException {
+            for (int index = 0; index < batch.size(); index++) {
+                values.add(batch.getValue(0, index));
+            }
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.writer.arrow;
+
+import com.scottlogic.deg.common.output.GeneratedObject;
+import com.scottlogic.deg.common.output.RowBatch;
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.FieldType;
+import com.scottlogic.deg.common.profile.ProfileFields;
+import com.scottlogic.deg.common.profile.constraints.atomic.IsOfTypeConstraint;
+import com.scottlogic.deg.output.writer.DataSetWriter;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.util.Text;
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+
+/**
+ * Reads what the writer produces with Apache Arrow's own stream reader, so that the hand-written encoding is checked
+ * against the reference implementation rather than only against the format as this project understands it
+ */
+class ArrowDataSetWriterTests {
+    private final Field string = new Field("my_string");
+    private final Field integer = new Field("my_integer");
+    private final Field decimal = new Field("my_decimal");
+    private final Field wideDecimal = new Field("my_wide_decimal");
+    private final Field dateTime = new Field("my_datetime");
+    private final Field untyped = new Field("my_untyped");
+    private final List<Field> fieldList = Arrays.asList(string, integer, decimal, wideDecimal, dateTime, untyped);
+    private final ProfileFields fields = new ProfileFields(fieldList, types());
+
+    @Test
+    void createWriter_withNoRows_shouldWriteASchemaThatArrowCanRead() throws IOException {
+        ArrowContent content = read(write());
+
+        Assert.assertThat(content.columnNames, equalTo(names()));
+        Assert.assertThat(content.columnTypes.get(0), equalTo(new ArrowType.Utf8()));
+        Assert.assertThat(content.columnTypes.get(1), equalTo(new ArrowType.Int(64, true)));
+        Assert.assertThat(content.columnTypes.get(2), instanceOf(ArrowType.Decimal.class));
+        Assert.assertThat(((ArrowType.Decimal) content.columnTypes.get(2)).getBitWidth(), equalTo(128));
+        Assert.assertThat(content.columnTypes.get(3), instanceOf(ArrowType.Decimal.class));
+        Assert.assertThat(((ArrowType.Decimal) content.columnTypes.get(3)).getBitWidth(), equalTo(256));
+        Assert.assertThat(content.columnTypes.get(4), equalTo(new ArrowType.Timestamp(TimeUnit.MICROSECOND, "UTC")));
+        Assert.assertThat(content.columnTypes.get(5), equalTo(new ArrowType.Utf8()));
+        Assert.assertThat(content.batchLengths.size(), equalTo(0));
+    }
+
+    @Test
+    void writeBatch_withValuesOfEachType_shouldBeReadBackByArrow() throws IOException {
+        OffsetDateTime date = OffsetDateTime.of(2001, 2, 3, 4, 5, 6, 7_000_000, ZoneOffset.UTC);
+
+        ArrowContent content = read(write(
+            batch(
+                row("a é", Long.MIN_VALUE, "1", "100000000000000000000", date, "untyped"),
+                row(null, 2L, null, "-0.00000000000000000001", null, new BigDecimal("1e3"))),
+            batch(row("b", null, "2.25", null, null, null))));
+
+        Assert.assertThat(content.batchLengths, contains(2, 1));
+        Assert.assertThat(content.rows, contains(
+            Arrays.asList(
+                "a é",
+                Long.MIN_VALUE,
+                new BigDecimal("1.00"),
+                new BigDecimal("100000000000000000000.00000000000000000000"),
+                date.toEpochSecond() * 1_000_000 + date.getNano() / 1_000,
+                "untyped"),
+            Arrays.asList(
+                null,
+                2L,
+                null,
+                new BigDecimal("-0.00000000000000000001"),
+                null,
+                "1000"),
+            Arrays.asList("b", null, new BigDecimal("2.25"), null, null, null)));
+    }
+
+    private Map<Field, FieldType> types() {
+        Map<Field, FieldType> types = new HashMap<>();
+        types.put(string, FieldType.of(IsOfTypeConstraint.Types.STRING));
+        types.put(
+            integer,
+            FieldType.numeric(0, BigDecimal.valueOf(Long.MIN_VALUE), BigDecimal.valueOf(Long.MAX_VALUE)));
+        types.put(decimal, FieldType.numeric(2, new BigDecimal("-100"), new BigDecimal("100")));
+        types.put(wideDecimal, FieldType.of(IsOfTypeConstraint.Types.NUMERIC));
+        types.put(dateTime, FieldType.of(IsOfTypeConstraint.Types.DATETIME));
+        return types;
+    }
+
+    private List<String> names() {
+        return fieldList.stream().map(field -> field.name).collect(Collectors.toList());
+    }
+
+    private byte[] write(RowBatch... batches) throws IOException {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        try (DataSetWriter writer = new ArrowOutputWriterFactory().createWriter(stream, fields)) {
+            for (RowBatch batch : batches) {
+                writer.writeBatch(batch);
+            }
+        }
+        return stream.toByteArray();
+    }
+
+    private RowBatch batch(GeneratedObject... rows) {
+        RowBatch batch = new RowBatch(fields, 10);
+        Arrays.stream(rows).forEach(batch::add);
+        return batch;
+    }
+
+    /** a row of values in the order of fieldList, with numbers given as strings made into BigDecimals */
+    private GeneratedObject row(Object... values) {
+        return field -> {
+            Object value = values[fieldList.indexOf(field)];
+            return value instanceof String && (field.equals(decimal) || field.equals(wideDecimal))
+                ? new BigDecimal((String) value)
+                : value;
+        };
+    }
+
+    private static ArrowContent read(byte[] bytes) throws IOException {
+        ArrowContent content = new ArrowContent();
+        try (BufferAllocator allocator = new RootAllocator();
+             ArrowStreamReader reader = new ArrowStreamReader(new ByteArrayInputStream(bytes), allocator)) {
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            root.getSchema().getFields().forEach(field -> {
+                content.columnNames.add(field.getName());
+                content.columnTypes.add(field.getType());
+            });
+
+            while (reader.loadNextBatch()) {
+                content.batchLengths.add(root.getRowCount());
+                for (int index = 0; index < root.getRowCount(); index++) {
+                    List<Object> row = new ArrayList<>();
+                    for (FieldVector vector : root.getFieldVectors()) {
+                        Object value = vector.getObject(index);
+                        // strings are read as Arrow's Text, which doesn't equal the String it holds
+                        row.add(value instanceof Text ? value.toString() : value);
+                    }
+                    content.rows.add(row);
+                }
+            }
+        }
+        return content;
+    }
+
+    private static class ArrowContent {
+        private final List<String> columnNames = new ArrayList<>();
+        private final List<ArrowType> columnTypes = new ArrayList<>();
+        private final List<Integer> batchLengths = new ArrayList<>();
+        private final List<List<Object>> rows = new ArrayList<>();
+    }
+}
@@ -0,0 +1,352 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.writer.arrow;
+
+import com.scottlogic.deg.common.output.GeneratedObject;
+import com.scottlogic.deg.common.output.RowBatch;
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.FieldType;
+import com.scottlogic.deg.common.profile.ProfileFields;
+import com.scottlogic.deg.common.profile.constraints.atomic.IsOfTypeConstraint;
+import com.scottlogic.deg.output.writer.DataSetWriter;
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+
+class ArrowOutputWriterFactoryTests {
+    private static final int ARROW_INT = 2;
+    private static final int ARROW_UTF8 = 5;
+    private static final int ARROW_DECIMAL = 7;
+    private static final int ARROW_TIMESTAMP = 10;
+
+    private final Field string = new Field("my_string");
+    private final Field integer = new Field("my_integer");
+    private final Field decimal = new Field("my_decimal");
+    private final Field wideDecimal = new Field("my_wide_decimal");
+    private final Field dateTime = new Field("my_datetime");
+    private final Field untyped = new Field("my_untyped");
+    private final List<Field> fieldList = Arrays.asList(string, integer, decimal, wideDecimal, dateTime, untyped);
+    private final ProfileFields fields = new ProfileFields(fieldList, types());
+
+    @Test
+    void createWriter_withRowsWrittenInTwoBatches_shouldWriteSchemaThenEachBatchThenEndOfStream() throws IOException {
+        byte[] written = write(
+            batch(row("a", 1L, "1.5", "1e20", null, "x"), row(null, 2L, null, "-0.5", null, 3)),
+            batch(row("c", null, "2", null, null, null)));
+
+        Assert.assertThat(read(written).batchLengths, contains(2L, 1L));
+    }
+
+    @Test
+    void createWriter_withNoRows_shouldWriteSchemaThenEndOfStream() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new ArrowOutputWriterFactory().createWriter(output, fields).close();
+
+        ArrowStream stream = read(output.toByteArray());
+        Assert.assertThat(stream.columnNames, equalTo(names()));
+        Assert.assertThat(stream.batchLengths.size(), equalTo(0));
+    }
+
+    @Test
+    void createWriter_shouldChooseEachColumnTypeFromTheFieldType() throws IOException {
+        ArrowStream stream = read(write());
+
+        Assert.assertThat(stream.columnNames, equalTo(names()));
+        Assert.assertThat(
+            stream.typeIds,
+            contains(ARROW_UTF8, ARROW_INT, ARROW_DECIMAL, ARROW_DECIMAL, ARROW_TIMESTAMP, ARROW_UTF8));
+        Assert.assertThat(stream.decimalBitWidths.subList(2, 4), contains(128, 256));
+    }
+
+    @Test
+    void writeBatch_withValuesOfEachType_shouldReadBackTheSameValues() throws IOException {
+        OffsetDateTime date = OffsetDateTime.of(2001, 2, 3, 4, 5, 6, 7_000_000, ZoneOffset.UTC);
+
+        ArrowStream stream = read(write(
+            batch(
+                row("a é", Long.MIN_VALUE, "1", "100000000000000000000", date, "untyped"),
+                row(null, 2L, null, "-0.00000000000000000001", null, new BigDecimal("1e3")))));
+
+        Assert.assertThat(stream.rows, contains(
+            Arrays.asList(
+                "a é",
+                Long.MIN_VALUE,
+                new BigDecimal("1.00"),
+                new BigDecimal("100000000000000000000.00000000000000000000"),
+                date,
+                "untyped"),
+            Arrays.asList(
+                null,
+                2L,
+                null,
+                new BigDecimal("-0.00000000000000000001"),
+                null,
+                "1000")));
+    }
+
+    @Test
+    void writeBatch_withFractionalValueAfterWholeNumbers_shouldWriteItToTheDecimalColumn() throws IOException {
+        ArrowStream stream = read(write(
+            batch(row(null, null, "1", null, null, null)),
+            batch(row(null, null, "2.25", null, null, null))));
+
+        Assert.assertThat(stream.column(2), contains(new BigDecimal("1.00"), new BigDecimal("2.25")));
+    }
+
+    @Test
+    void writeBatch_withDifferentValues_shouldWriteTheSameSchema() throws IOException {
+        byte[] nulls = write(batch(row(null, null, null, null, null, null)));
+        byte[] values = write(batch(row("a", 1L, "1.5", "1", OffsetDateTime.now(ZoneOffset.UTC), 1)));
+
+        Assert.assertThat(read(nulls).schema, equalTo(read(values).schema));
+    }
+
+    @Test
+    void writeBatch_withColumnsInADifferentOrderToTheFields_shouldWriteEachValueUnderItsField() throws IOException {
+        List<Field> reversed = new ArrayList<>(fieldList);
+        Collections.reverse(reversed);
+        ProfileFields batchFields = new ProfileFields(reversed, types());
+        RowBatch batch = new RowBatch(batchFields, 10);
+        batch.add(row("a", 1L, null, null, null, null));
+
+        ArrowStream stream = read(write(batch));
+
+        Assert.assertThat(stream.rows.get(0).subList(0, 2), contains("a", 1L));
+    }
+
+    private Map<Field, FieldType> types() {
+        Map<Field, FieldType> types = new HashMap<>();
+        types.put(string, FieldType.of(IsOfTypeConstraint.Types.STRING));
+        types.put(
+            integer,
+            FieldType.numeric(0, BigDecimal.valueOf(Long.MIN_VALUE), BigDecimal.valueOf(Long.MAX_VALUE)));
+        types.put(decimal, FieldType.numeric(2, new BigDecimal("-100"), new BigDecimal("100")));
+        types.put(wideDecimal, FieldType.of(IsOfTypeConstraint.Types.NUMERIC));
+        types.put(dateTime, FieldType.of(IsOfTypeConstraint.Types.DATETIME));
+        return types;
+    }
+
+    private List<String> names() {
+        List<String> names = new ArrayList<>();
+        fieldList.forEach(field -> names.add(field.name));
+        return names;
+    }
+
+    private byte[] write(RowBatch... batches) throws IOException {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        try (DataSetWriter writer = new ArrowOutputWriterFactory().createWriter(stream, fields)) {
+            for (RowBatch batch : batches) {
+                writer.writeBatch(batch);
+            }
+        }
+        return stream.toByteArray();
+    }
+
+    private RowBatch batch(GeneratedObject... rows) {
+        RowBatch batch = new RowBatch(fields, 10);
+        Arrays.stream(rows).forEach(batch::add);
+        return batch;
+    }
+
+    /** a row of values in the order of fieldList, with numbers given as strings made into BigDecimals */
+    private GeneratedObject row(Object... values) {
+        return field -> {
+            Object value = values[fieldList.indexOf(field)];
+            return value instanceof String && (field.equals(decimal) || field.equals(wideDecimal))
+                ? new BigDecimal((String) value)
+                : value;
+        };
+    }
+
+    private static ArrowStream read(byte[] bytes) {
+        return new ArrowStream(bytes);
+    }
+
+    /**
+     * Reads an Arrow IPC stream, following the format specification rather than the writer's own encoding, for the
+     * column types that the writer produces
+     */
+    private static class ArrowStream {
+        private final ByteBuffer buffer;
+        final List<String> columnNames = new ArrayList<>();
+        final List<Integer> typeIds = new ArrayList<>();
+        final List<Integer> decimalScales = new ArrayList<>();
+        final List<Integer> decimalBitWidths = new ArrayList<>();
+        final List<Long> batchLengths = new ArrayList<>();
+        final List<List<Object>> rows = new ArrayList<>();
+        byte[] schema;
+
+        ArrowStream(byte[] bytes) {
+            buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+            while (true) {
+                Assert.assertThat(buffer.position() % 8, equalTo(0));
+                Assert.assertThat(buffer.getInt(), equalTo(0xFFFFFFFF));
+                int metadataLength = buffer.getInt();
+                if (metadataLength == 0) {
+                    Assert.assertThat(buffer.remaining(), equalTo(0));
+                    return;
+                }
+                Assert.assertThat(metadataLength % 8, equalTo(0));
+
+                int metadataStart = buffer.position();
+                int message = metadataStart + buffer.getInt(metadataStart);
+                Assert.assertThat((int) buffer.getShort(field(message, 0)), equalTo(4));
+                int headerType = buffer.get(field(message, 1));
+                int header = reference(message, 2);
+                long bodyLength = field(message, 3) == 0 ? 0 : buffer.getLong(field(message, 3));
+                int bodyStart = metadataStart + metadataLength;
+
+                if (headerType == 1) {
+                    Assert.assertThat(schema, equalTo(null));
+                    schema = Arrays.copyOfRange(buffer.array(), metadataStart, bodyStart);
+                    readSchema(header);
+                } else {
+                    Assert.assertThat(headerType, equalTo(3));
+                    readRecordBatch(header, bodyStart);
+                }
+                buffer.position(bodyStart + (int) bodyLength);
+            }
+        }
+
+        List<Object> column(int columnIndex) {
+            List<Object> column = new ArrayList<>();
+            rows.forEach(row -> column.add(row.get(columnIndex)));
+            return column;
+        }
+
+        private void readSchema(int schemaTable) {
+            int fields = reference(schemaTable, 1);
+            for (int index = 0; index < buffer.getInt(fields); index++) {
+                int field = fields + 4 + index * 4 + buffer.getInt(fields + 4 + index * 4);
+                columnNames.add(string(reference(field, 0)));
+                Assert.assertThat((int) buffer.get(field(field, 1)), equalTo(1));
+
+                int typeId = buffer.get(field(field, 2));
+                int type = reference(field, 3);
+                typeIds.add(typeId);
+                if (typeId == ARROW_INT) {
+                    Assert.assertThat(buffer.getInt(field(type, 0)), equalTo(64));
+                    Assert.assertThat((int) buffer.get(field(type, 1)), equalTo(1));
+                }
+                if (typeId == ARROW_TIMESTAMP) {
+                    Assert.assertThat((int) buffer.getShort(field(type, 0)), equalTo(2));
+                    Assert.assertThat(string(reference(type, 1)), equalTo("UTC"));
+                }
+                decimalScales.add(typeId == ARROW_DECIMAL ? buffer.getInt(field(type, 1)) : null);
+                decimalBitWidths.add(typeId == ARROW_DECIMAL
+                    ? field(type, 2) == 0 ? 128 : buffer.getInt(field(type, 2))
+                    : null);
+            }
+        }
+
+        private void readRecordBatch(int recordBatch, int bodyStart) {
+            long length = buffer.getLong(field(recordBatch, 0));
+            int nodes = reference(recordBatch, 1);
+            int buffers = reference(recordBatch, 2);
+            batchLengths.add(length);
+            Assert.assertThat(buffer.getInt(nodes), equalTo(columnNames.size()));
+
+            List<List<Object>> batchRows = new ArrayList<>();
+            for (int rowIndex = 0; rowIndex < length; rowIndex++) {
+                batchRows.add(new ArrayList<>());
+            }
+
+            int bufferIndex = 0;
+            for (int column = 0; column < columnNames.size(); column++) {
+                Assert.assertThat(buffer.getLong(nodes + 4 + column * 16), equalTo(length));
+                long nullCount = 0;
+                int validity = bodyStart + (int) buffer.getLong(buffers + 4 + bufferIndex++ * 16);
+                int data = bodyStart + (int) buffer.getLong(buffers + 4 + bufferIndex++ * 16);
+                int utf8Data = typeIds.get(column) == ARROW_UTF8
+                    ? bodyStart + (int) buffer.getLong(buffers + 4 + bufferIndex++ * 16)
+                    : 0;
+
+                for (int rowIndex = 0; rowIndex < length; rowIndex++) {
+                    boolean valid = (buffer.get(validity + rowIndex / 8) & (1 << (rowIndex % 8))) != 0;
+                    Object value = valid ? readValue(column, data, utf8Data, rowIndex) : null;
+                    nullCount += valid ? 0 : 1;
+                    batchRows.get(rowIndex).add(value);
+                }
+                Assert.assertThat(buffer.getLong(nodes + 4 + column * 16 + 8), equalTo(nullCount));
+            }
+            rows.addAll(batchRows);
+        }
+
+        private Object readValue(int column, int data, int utf8Data, int rowIndex) {
+            switch (typeIds.get(column)) {
+                case ARROW_INT:
+                    return buffer.getLong(data + rowIndex * 8);
+                case ARROW_TIMESTAMP:
+                    long micros = buffer.getLong(data + rowIndex * 8);
+                    Instant instant = Instant.ofEpochSecond(
+                        Math.floorDiv(micros, 1_000_000),
+                        Math.floorMod(micros, 1_000_000) * 1_000);
+                    return OffsetDateTime.ofInstant(instant, ZoneOffset.UTC);
+                case ARROW_DECIMAL:
+                    int width = decimalBitWidths.get(column) / 8;
+                    byte[] bigEndian = new byte[width];
+                    for (int index = 0; index < width; index++) {
+                        bigEndian[width - 1 - index] = buffer.get(data + rowIndex * width + index);
+                    }
+                    return new BigDecimal(new BigInteger(bigEndian), decimalScales.get(column));
+                default:
+                    int start = buffer.getInt(data + rowIndex * 4);
+                    int end = buffer.getInt(data + rowIndex * 4 + 4);
+                    return new String(buffer.array(), utf8Data + start, end - start, StandardCharsets.UTF_8);
+            }
+        }
+
+        /** the position of a field of a flatbuffer table, or 0 if it is absent */
+        private int field(int table, int id) {
+            int vtable = table - buffer.getInt(table);
+            int vtableLength = buffer.getShort(vtable);
+            if (4 + id * 2 >= vtableLength) {
+                return 0;
+            }
+            int offset = buffer.getShort(vtable + 4 + id * 2);
+            return offset == 0 ? 0 : table + offset;
+        }
+
+        private int reference(int table, int id) {
+            int field = field(table, id);
+            return field + buffer.getInt(field);
+        }
+
+        private String string(int position) {
+            return new String(buffer.array(), position + 4, buffer.getInt(position), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -19,6 +19,7 @@ package com.scottlogic.deg.output.writer.csv;
 import com.scottlogic.deg.common.profile.Field;
 import com.scottlogic.deg.common.profile.ProfileFields;
 import com.scottlogic.deg.common.output.GeneratedObject;
+import com.scottlogic.deg.common.output.RowBatch;
 import com.scottlogic.deg.output.writer.DataSetWriter;
 import org.hamcrest.Matcher;
 import org.hamcrest.Matchers;
@@ -94,6 +95,78 @@ class CsvOutputWriterFactoryTests {
             Matchers.containsString("2001-02-03T04:05:06.777Z"));
     }
 
+    @Test
+    void writeBatch_withRowsOfEachType_shouldOutputSameCsvAsWritingEachRow() throws IOException {
+        ProfileFields fields = fields("my_string", "my_number", "my_date", "my_null");
+        OffsetDateTime date = OffsetDateTime.of(2001, 2, 3, 4, 5, 6, 0, ZoneOffset.UTC);
+        RowBatch batch = new RowBatch(fields, 10);
+        batch.add(row(fields, "a \"quoted\" string", new BigDecimal("1e-8"), date, null));
+        batch.add(row(fields, "b", 2, date.plusDays(1), null));
+
+        ByteArrayOutputStream rowStream = new ByteArrayOutputStream();
+        try (DataSetWriter writer = new CsvOutputWriterFactory().createWriter(rowStream, fields)) {
+            writer.writeRow(batch.getRow(0));
+            writer.writeRow(batch.getRow(1));
+        }
+        ByteArrayOutputStream batchStream = new ByteArrayOutputStream();
+        try (DataSetWriter writer = new CsvOutputWriterFactory().createWriter(batchStream, fields)) {
+            writer.writeBatch(batch);
+        }
+
+        Assert.assertThat(
+            batchStream.toString(StandardCharsets.UTF_8.name()),
+            Matchers.equalTo(rowStream.toString(StandardCharsets.UTF_8.name())));
+    }
+
+    @Test
+    void writeBatch_withSameValueObjectInManyRows_shouldOutputSameCsvAsEqualValueObjects() throws IOException {
+        ProfileFields fields = fields("my_string", "my_number");
+        String cannedString = "a, \"quoted\"\nstring";
+        BigDecimal cannedNumber = new BigDecimal("1e-8");
+        RowBatch cannedBatch = new RowBatch(fields, 10);
+        RowBatch freshBatch = new RowBatch(fields, 10);
+        for (int rowIndex = 0; rowIndex < 3; rowIndex++) {
+            cannedBatch.add(row(fields, cannedString, cannedNumber));
+            freshBatch.add(row(fields, new String(cannedString), new BigDecimal("1e-8")));
+        }
+
+        ByteArrayOutputStream cannedStream = new ByteArrayOutputStream();
+        try (DataSetWriter writer = new CsvOutputWriterFactory().createWriter(cannedStream, fields)) {
+            writer.writeBatch(cannedBatch);
+        }
+        ByteArrayOutputStream freshStream = new ByteArrayOutputStream();
+        try (DataSetWriter writer = new CsvOutputWriterFactory().createWriter(freshStream, fields)) {
+            writer.writeBatch(freshBatch);
+        }
+
+        Assert.assertThat(
+            cannedStream.toString(StandardCharsets.UTF_8.name()),
+            Matchers.equalTo(freshStream.toString(StandardCharsets.UTF_8.name())));
+    }
+
+    @Test
+    void writeBatch_withColumnsInADifferentOrderToTheHeader_shouldWriteEachValueUnderItsField() throws IOException {
+        ProfileFields headerFields = fields("first", "second");
+        ProfileFields batchFields = new ProfileFields(Arrays.asList(
+            headerFields.getByName("second"),
+            headerFields.getByName("first")));
+        RowBatch batch = new RowBatch(batchFields, 10);
+        batch.add(row(batchFields, "b", "a"));
+
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        try (DataSetWriter writer = new CsvOutputWriterFactory().createWriter(stream, headerFields)) {
+            writer.writeBatch(batch);
+        }
+
+        Assert.assertThat(
+            stream.toString(StandardCharsets.UTF_8.name()).replace("\r\n", "\n"),
+            Matchers.equalTo("first,second\n\"a\",\"b\"\n"));
+    }
+
+    private static GeneratedObject row(ProfileFields fields, Object... values) {
+        return field -> values[fields.stream().collect(Collectors.toList()).indexOf(field)];
+    }
+
     private static ProfileFields fields(String ...names) {
         return new ProfileFields(
             Arrays.stream(names)
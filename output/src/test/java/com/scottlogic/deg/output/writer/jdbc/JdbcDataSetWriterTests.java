@@ -0,0 +1,180 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.writer.jdbc;
+
+import com.scottlogic.deg.common.output.GeneratedObject;
+import com.scottlogic.deg.common.output.RowBatch;
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.FieldType;
+import com.scottlogic.deg.common.profile.ProfileFields;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JdbcDataSetWriterTests {
+    private final Field name = new Field("name");
+    private final Field age = new Field("age");
+    private final FieldType ageType = FieldType.numeric(0, BigDecimal.ZERO, new BigDecimal(150));
+    private final ProfileFields fields = new ProfileFields(Arrays.asList(name, age), Collections.singletonMap(age, ageType));
+
+    private Connection connection;
+    private DatabaseMetaData metaData;
+    private Statement statement;
+    private PreparedStatement insert;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = mock(Connection.class);
+        statement = mock(Statement.class);
+        insert = mock(PreparedStatement.class);
+        metaData = mock(DatabaseMetaData.class);
+
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(metaData.getIdentifierQuoteString()).thenReturn("\"");
+        when(connection.createStatement()).thenReturn(statement);
+        when(connection.prepareStatement(
+            "INSERT INTO \"people\" (\"name\", \"age\") VALUES (?, ?)")).thenReturn(insert);
+    }
+
+    @Test
+    void close_afterRows_shouldCreateTableWithColumnTypesOfFieldsAndInsertEachRow() throws IOException, SQLException {
+        JdbcDataSetWriter writer = new JdbcDataSetWriter(connection, "people", fields, 10);
+
+        writer.writeRow(row("Alice", 31));
+        writer.writeRow(row(null, 42));
+        writer.close();
+
+        verify(connection).setAutoCommit(false);
+        verify(statement).execute(
+            "CREATE TABLE \"people\" (\"name\" VARCHAR(1000), \"age\" BIGINT)");
+        verify(insert).setString(1, "Alice");
+        verify(insert).setLong(2, 31);
+        verify(insert).setNull(1, Types.VARCHAR);
+        verify(insert).setLong(2, 42);
+        verify(insert, times(2)).addBatch();
+        verify(insert).executeBatch();
+        verify(connection).commit();
+        verify(connection).close();
+    }
+
+    @Test
+    void writeRow_withMoreRowsThanCommitSize_shouldCommitEachTimeCommitSizeRowsAreInserted() throws IOException, SQLException {
+        JdbcDataSetWriter writer = new JdbcDataSetWriter(connection, "people", fields, 2);
+
+        for (int index = 0; index < 5; index++) {
+            writer.writeRow(row("Alice", index));
+        }
+        verify(connection, times(2)).commit();
+
+        writer.close();
+        verify(insert, times(3)).executeBatch();
+        verify(connection, times(3)).commit();
+    }
+
+    @Test
+    void close_withoutRows_shouldCreateTableWithColumnTypesOfFields() throws IOException, SQLException {
+        JdbcDataSetWriter writer = new JdbcDataSetWriter(connection, "people", fields, 10);
+
+        writer.close();
+
+        verify(statement).execute(
+            "CREATE TABLE \"people\" (\"name\" VARCHAR(1000), \"age\" BIGINT)");
+        verify(insert, never()).addBatch();
+        verify(connection).commit();
+    }
+
+    @Test
+    void close_withFractionalNumericField_shouldCreateDecimalColumnWithPrecisionOfField() throws IOException, SQLException {
+        ProfileFields priceFields = new ProfileFields(
+            Collections.singletonList(age),
+            Collections.singletonMap(age, FieldType.numeric(2, new BigDecimal(-1000), new BigDecimal(1000))));
+        JdbcDataSetWriter writer = new JdbcDataSetWriter(connection, "people", priceFields, 10);
+
+        writer.close();
+
+        verify(statement).execute("CREATE TABLE \"people\" (\"age\" DECIMAL(6, 2))");
+    }
+
+    @Test
+    void writeRow_withValueThatDoesNotFitTypeOfField_shouldThrow() throws IOException, SQLException {
+        JdbcDataSetWriter writer = new JdbcDataSetWriter(
+            connection, "people", new ProfileFields(Collections.singletonList(age), Collections.singletonMap(age, ageType)), 1);
+        when(connection.prepareStatement("INSERT INTO \"people\" (\"age\") VALUES (?)")).thenReturn(insert);
+
+        writer.writeRow(row(null, 1));
+
+        assertThrows(IOException.class, () -> writer.writeRow(row(null, new BigDecimal("1.5"))));
+    }
+
+    @Test
+    void writeBatch_withColumnsInDifferentOrderToFields_shouldBindEachValueToItsFieldsColumn() throws IOException, SQLException {
+        JdbcDataSetWriter writer = new JdbcDataSetWriter(connection, "people", fields, 10);
+        RowBatch batch = new RowBatch(new ProfileFields(Arrays.asList(age, name)), 10);
+        batch.add(row("Alice", 31));
+
+        writer.writeBatch(batch);
+        writer.close();
+
+        verify(insert).setString(1, "Alice");
+        verify(insert).setLong(2, 31);
+    }
+
+    @Test
+    void close_withQuoteInNames_shouldDoubleTheQuotes() throws IOException, SQLException {
+        Field quoted = new Field("say \"hi\"");
+        JdbcDataSetWriter writer = new JdbcDataSetWriter(
+            connection, "my \"people\"", new ProfileFields(Collections.singletonList(quoted)), 10);
+        when(connection.prepareStatement(anyString())).thenReturn(insert);
+
+        writer.close();
+
+        verify(statement).execute("CREATE TABLE \"my \"\"people\"\"\" (\"say \"\"hi\"\"\" VARCHAR(1000))");
+        verify(connection).prepareStatement("INSERT INTO \"my \"\"people\"\"\" (\"say \"\"hi\"\"\") VALUES (?)");
+    }
+
+    @Test
+    void close_withNameThatCannotBeUsedUnquotedWhenDatabaseHasNoIdentifierQuote_shouldThrow() throws IOException, SQLException {
+        when(metaData.getIdentifierQuoteString()).thenReturn(" ");
+        JdbcDataSetWriter writer = new JdbcDataSetWriter(
+            connection, "people", new ProfileFields(Collections.singletonList(new Field("first name"))), 10);
+
+        assertThrows(IOException.class, writer::close);
+        verify(statement, never()).execute(anyString());
+    }
+
+    private GeneratedObject row(String nameValue, Object ageValue) {
+        return field -> field.equals(name) ? nameValue : ageValue;
+    }
+}
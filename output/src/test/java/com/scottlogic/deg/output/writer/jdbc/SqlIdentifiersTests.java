@@ -0,0 +1,65 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.writer.jdbc;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SqlIdentifiersTests {
+    private DatabaseMetaData metaData;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        metaData = mock(DatabaseMetaData.class);
+        when(metaData.getIdentifierQuoteString()).thenReturn("`");
+        when(metaData.getSearchStringEscape()).thenReturn("\\");
+    }
+
+    @Test
+    void quote_withQuoteInName_shouldDoubleIt() throws SQLException {
+        Assert.assertThat(SqlIdentifiers.quote(metaData, "a`b"), equalTo("`a``b`"));
+    }
+
+    @Test
+    void quote_withoutIdentifierQuote_shouldLeavePlainNameUnquoted() throws SQLException {
+        when(metaData.getIdentifierQuoteString()).thenReturn(" ");
+
+        Assert.assertThat(SqlIdentifiers.quote(metaData, "first_name"), equalTo("first_name"));
+    }
+
+    @Test
+    void quote_withoutIdentifierQuote_shouldRejectNameThatNeedsQuoting() throws SQLException {
+        when(metaData.getIdentifierQuoteString()).thenReturn(" ");
+
+        Assert.assertThat(SqlIdentifiers.canQuote(metaData, "first name"), equalTo(false));
+        assertThrows(SQLException.class, () -> SqlIdentifiers.quote(metaData, "first name"));
+    }
+
+    @Test
+    void searchPattern_withWildcardsInName_shouldEscapeThem() throws SQLException {
+        Assert.assertThat(SqlIdentifiers.searchPattern(metaData, "my_table%\\"), equalTo("my\\_table\\%\\\\"));
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2019 Scott Logic Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.scottlogic.deg.output.writer.json;
+
+import com.scottlogic.deg.common.output.GeneratedObject;
+import com.scottlogic.deg.common.output.RowBatch;
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.ProfileFields;
+import com.scottlogic.deg.output.writer.DataSetWriter;
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.equalTo;
+
+class JsonOutputWriterFactoryTests {
+    @Test
+    void writeBatch_withRowsOfEachType_shouldOutputSameJsonAsWritingEachRow() throws IOException {
+        List<Field> fieldList = Arrays.asList(new Field("my_string"), new Field("my_number"), new Field("my_date"));
+        ProfileFields fields = new ProfileFields(fieldList);
+        OffsetDateTime date = OffsetDateTime.of(2001, 2, 3, 4, 5, 6, 0, ZoneOffset.UTC);
+        RowBatch batch = new RowBatch(fields, 10);
+        batch.add(row(fieldList, "a", new BigDecimal("1.5"), date));
+        batch.add(row(fieldList, "b", 2, null));
+
+        ByteArrayOutputStream rowStream = new ByteArrayOutputStream();
+        try (DataSetWriter writer = new JsonOutputWriterFactory().createWriter(rowStream, fields)) {
+            writer.writeRow(batch.getRow(0));
+            writer.writeRow(batch.getRow(1));
+        }
+        ByteArrayOutputStream batchStream = new ByteArrayOutputStream();
+        try (DataSetWriter writer = new JsonOutputWriterFactory().createWriter(batchStream, fields)) {
+            writer.writeBatch(batch);
+        }
+
+        Assert.assertThat(
+            batchStream.toString(StandardCharsets.UTF_8.name()),
+            equalTo(rowStream.toString(StandardCharsets.UTF_8.name())));
+    }
+
+    private static GeneratedObject row(List<Field> fields, Object... values) {
+        return field -> values[fields.indexOf(field)];
+    }
+}
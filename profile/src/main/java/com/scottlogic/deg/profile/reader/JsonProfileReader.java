@@ -71,6 +71,7 @@ public class JsonProfileReader implements ProfileReader {
                 .map(fDto -> new Field(fDto.name))
                 .collect(Collectors.toList()));
 
+        // a reader per profile, so that the constraints it interns are released along with it
         ConstraintReader constraintReader = new MainConstraintReader(readerMap);
 
         Collection<Rule> rules = mapDtos(
@@ -20,16 +20,27 @@ import com.google.inject.Inject;
 import com.scottlogic.deg.common.profile.constraints.Constraint;
 import com.scottlogic.deg.common.profile.RuleInformation;
 import com.scottlogic.deg.common.profile.ProfileFields;
+import com.scottlogic.deg.common.profile.constraints.atomic.AtomicConstraint;
 import com.scottlogic.deg.common.profile.constraints.grammatical.AndConstraint;
 import com.scottlogic.deg.common.profile.constraints.grammatical.ConditionalConstraint;
 import com.scottlogic.deg.common.profile.constraints.grammatical.OrConstraint;
 import com.scottlogic.deg.profile.v0_1.ConstraintDTO;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 
+/**
+ * Reads the constraints of one profile. A reader interns the atomic constraints it reads, and holds on to them for as
+ * long as it is referenced, so a new reader is created for each profile read rather than one being shared.
+ */
 public class MainConstraintReader implements ConstraintReader {
     private final ConstraintReaderMap constraintReaderMap;
 
+    /** the atomic constraints read so far from this reader's profile, which is read on a single thread */
+    private final Map<AtomicConstraint, AtomicConstraint> internedConstraints = new HashMap<>();
+
     @Inject
     public MainConstraintReader(ConstraintReaderMap constraintReaderMap) {
         this.constraintReaderMap = constraintReaderMap;
@@ -60,14 +71,14 @@ public class MainConstraintReader implements ConstraintReader {
             }
 
             try {
-                return subReader.apply(dto, fields, rules);
+                return intern(subReader.apply(dto, fields, rules));
             } catch (IllegalArgumentException e) {
                 throw new InvalidProfileException(e.getMessage());
             }
         }
 
         if (dto.not != null) {
-            return this.apply(dto.not, fields, rules).negate();
+            return intern(this.apply(dto.not, fields, rules).negate());
         }
 
         if (dto.allOf != null) {
@@ -113,4 +124,17 @@ public class MainConstraintReader implements ConstraintReader {
 
         throw new InvalidProfileException("Couldn't interpret constraint");
     }
+
+    /**
+     * Replace an atomic constraint with the first equal one that has been read from the profile, so that a
+     * constraint repeated across the profile is a single instance. Comparing and hashing those in the tree then hits
+     * the identity and cached-hash fast paths rather than comparing their values.
+     */
+    private Constraint intern(Constraint constraint) {
+        if (!(constraint instanceof AtomicConstraint)) {
+            return constraint;
+        }
+
+        return internedConstraints.computeIfAbsent((AtomicConstraint) constraint, Function.identity());
+    }
 }
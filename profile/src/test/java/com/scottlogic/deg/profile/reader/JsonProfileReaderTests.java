@@ -125,6 +125,30 @@ public class JsonProfileReaderTests {
     }
 
 
+    @Test
+    public void shouldShareRepeatedConstraintsWithinAProfileButNotBetweenReads() throws IOException {
+        givenJson(
+            "{" +
+                "    \"schemaVersion\": \"0.1\"," +
+                "    \"fields\": [ { \"name\": \"foo\" } ]," +
+                "    \"rules\": [" +
+                "      { \"constraints\": [ { \"field\": \"foo\", \"is\": \"null\" } ] }," +
+                "      { \"constraints\": [ { \"field\": \"foo\", \"is\": \"null\" } ] }" +
+                "    ]" +
+                "}");
+
+        Iterator<Rule> rules = getResultingProfile().getRules().iterator();
+        Constraint first = rules.next().getConstraints().iterator().next();
+        Constraint repeated = rules.next().getConstraints().iterator().next();
+        Constraint readAgain = new JsonProfileReader(readerMap).read(json)
+            .getRules().iterator().next()
+            .getConstraints().iterator().next();
+
+        Assert.assertThat(repeated, sameInstance(first));
+        Assert.assertThat(readAgain, equalTo(first));
+        Assert.assertThat(readAgain, not(sameInstance(first)));
+    }
+
     @Test
     public void shouldDeserialiseSingleField() throws IOException {
         givenJson(
@@ -817,4 +841,28 @@ public class JsonProfileReaderTests {
 
         expectInvalidProfileException();
     }
+
+    @Test
+    public void shouldReadRepeatedAtomicConstraintsAsTheSameInstance() throws IOException {
+        givenJson(
+            "{" +
+                "    \"schemaVersion\": \"0.1\"," +
+                "    \"fields\": [ { \"name\": \"foo\" } ]," +
+                "    \"rules\": [" +
+                "      {" +
+                "        \"constraints\": [" +
+                "          { \"field\": \"foo\", \"is\": \"inSet\", \"values\": [ \"a\", \"b\" ] }," +
+                "          { \"not\": { \"field\": \"foo\", \"is\": \"inSet\", \"values\": [ \"a\", \"b\" ] } }," +
+                "          { \"not\": { \"field\": \"foo\", \"is\": \"inSet\", \"values\": [ \"a\", \"b\" ] } }" +
+                "        ]" +
+                "      }" +
+                "   ]" +
+                "}");
+
+        Constraint[] constraints = getResultingProfile().getRules().iterator().next()
+            .getConstraints().toArray(new Constraint[0]);
+
+        Assert.assertThat(((NotConstraint) constraints[1]).negatedConstraint, sameInstance(constraints[0]));
+        Assert.assertThat(constraints[2], sameInstance(constraints[1]));
+    }
 }